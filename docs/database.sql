@@ -30,6 +30,8 @@ CREATE TABLE `job_info` (
                             `timeout_seconds` int DEFAULT '60' COMMENT '任务超时时间（秒）',
                             `dispatch_type` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL,
                             `load_balance_type` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+                            `hash_key_type` varchar(20) COLLATE utf8mb4_unicode_ci DEFAULT 'JOB_ID' COMMENT '一致性哈希路由键类型',
+                            `hash_key_field` varchar(100) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '一致性哈希路由键字段（JSON参数字段名）',
                             `serializer_type` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL,
                             PRIMARY KEY (`id`),
                             KEY `idx_job_handler` (`job_handler`),
@@ -50,11 +52,14 @@ CREATE TABLE `job_instance` (
                                 `end_time` datetime DEFAULT NULL,
                                 `status` tinyint NOT NULL DEFAULT '0',
                                 `retry_count` int DEFAULT '0',
+                                `parent_id` bigint DEFAULT NULL,
+                                `fencing_token` bigint DEFAULT NULL,
                                 `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
                                 `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
                                 PRIMARY KEY (`id`),
                                 KEY `idx_job_id` (`job_id`),
-                                KEY `idx_executor_id` (`executor_id`)
+                                KEY `idx_executor_id` (`executor_id`),
+                                KEY `idx_parent_id` (`parent_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=57 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 -- pulse_job.job_log definition
 
@@ -68,4 +73,25 @@ CREATE TABLE `job_log` (
                            PRIMARY KEY (`id`),
                            KEY `idx_instance_id` (`instance_id`),
                            FULLTEXT KEY `ft_message` (`content`)
-) ENGINE=InnoDB AUTO_INCREMENT=511 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
\ No newline at end of file
+) ENGINE=InnoDB AUTO_INCREMENT=511 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+-- pulse_job.admin_node definition
+
+CREATE TABLE `admin_node` (
+                              `node_id` varchar(128) NOT NULL,
+                              `address` varchar(100) DEFAULT NULL,
+                              `active_time` datetime(3) NOT NULL,
+                              `heartbeat_time` datetime(3) NOT NULL,
+                              `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              PRIMARY KEY (`node_id`),
+                              KEY `idx_heartbeat_time` (`heartbeat_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='调度中心节点表';
+-- pulse_job.scheduler_lease definition
+
+CREATE TABLE `scheduler_lease` (
+                                   `lease_name` varchar(64) NOT NULL,
+                                   `owner` varchar(128) DEFAULT NULL,
+                                   `fencing_token` bigint NOT NULL DEFAULT '0',
+                                   `expire_time` datetime(3) NOT NULL,
+                                   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                   PRIMARY KEY (`lease_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='调度租约（选主）表';
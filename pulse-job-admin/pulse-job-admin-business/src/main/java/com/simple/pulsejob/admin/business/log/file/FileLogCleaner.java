@@ -1,5 +1,7 @@
 package com.simple.pulsejob.admin.business.log.file;
 
+import com.simple.pulsejob.admin.business.log.search.LogSearchIndex;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,12 +14,19 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 /**
- * 文件日志清理服务.
+ * 文件日志生命周期管理.
  *
- * <p>定时清理过期的日志文件，按日期目录删除。</p>
+ * <ul>
+ *   <li>归档：已关闭日期的段文件压缩为分块归档（{@link SegmentArchive}），读取时按块索引只解压需要的块，
+ *       .idx 索引不变，{@link FileLogReader} 无需区分；同时合并当天的全文索引段（上次合并后没有新索引段的日期跳过）</li>
+ *   <li>清理：过期的日志按日期目录删除；删除前先关闭该日期打开的段文件并丢弃其内存索引和全文索引</li>
+ * </ul>
  *
  * <h3>配置项</h3>
  * <pre>
@@ -25,23 +34,132 @@ import java.util.stream.Stream;
  *   log:
  *     listener:
  *       file:
- *         retention-days: 7    # 日志保留天数（默认7天）
- *         clean-enabled: true  # 是否启用自动清理
+ *         retention-days: 7            # 日志保留天数（默认7天）
+ *         clean-enabled: true          # 是否启用自动清理（含归档）
+ *         archive-enabled: true        # 是否压缩归档历史日志
+ *         archive-after-days: 1        # 超过几天的日志归档（默认归档昨天及更早）
+ *         archive-block-size-kb: 256   # 归档压缩块大小，越大压缩率越高、随机读取解压越多
  * </pre>
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 @ConditionalOnProperty(name = "pulse-job.log.listener.file.clean-enabled", havingValue = "true", matchIfMissing = true)
 public class FileLogCleaner {
 
+    private final LogSegmentStore segmentStore;
+    private final LogSearchIndex searchIndex;
+
     @Value("${pulse-job.log.listener.file.path:./logs/job-logs}")
     private String logBasePath;
 
     @Value("${pulse-job.log.listener.file.retention-days:7}")
     private int retentionDays;
 
+    @Value("${pulse-job.log.listener.file.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${pulse-job.log.listener.file.archive-after-days:1}")
+    private int archiveAfterDays;
+
+    @Value("${pulse-job.log.listener.file.archive-block-size-kb:256}")
+    private int archiveBlockSizeKb;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private final LongAdder archivedSegments = new LongAdder();
+    private final LongAdder archivedRawBytes = new LongAdder();
+    private final LongAdder archivedBytes = new LongAdder();
+
+    /**
+     * 每天凌晨 2:30 归档已关闭的日期（在清理之前）.
+     */
+    @Scheduled(cron = "${pulse-job.log.listener.file.archive-cron:0 30 2 * * ?}")
+    public void archiveClosedLogs() {
+        if (!archiveEnabled) {
+            return;
+        }
+        LocalDate archiveDate = LocalDate.now().minusDays(Math.max(archiveAfterDays, 1));
+        Path basePath = Paths.get(logBasePath);
+        if (!Files.exists(basePath)) {
+            return;
+        }
+
+        try (Stream<Path> dateDirs = Files.list(basePath)) {
+            for (Path dateDir : dateDirs.toList()) {
+                if (!Files.isDirectory(dateDir)) {
+                    continue;
+                }
+                try {
+                    LocalDate dirDate = LocalDate.parse(dateDir.getFileName().toString(), DATE_FORMATTER);
+                    if (!dirDate.isAfter(archiveDate)) {
+                        archiveDay(dirDate);
+                        searchIndex.compact(dirDate);
+                    }
+                } catch (DateTimeParseException ignored) {
+                }
+            }
+        } catch (IOException e) {
+            log.error("归档日志失败", e);
+        }
+    }
+
+    /**
+     * 归档某天已关闭的段文件（可通过 API 调用）.
+     *
+     * @param date 日期
+     * @return 归档的段数
+     */
+    public int archiveDay(LocalDate date) {
+        List<Path> segments;
+        try {
+            segments = segmentStore.closedSegments(date);
+        } catch (IOException e) {
+            log.error("列出待归档日志段失败: {}", date, e);
+            return 0;
+        }
+        if (segments.isEmpty()) {
+            return 0;
+        }
+
+        int blockSize = Math.max(archiveBlockSizeKb, 4) * 1024;
+        List<Path> archived = new ArrayList<>(segments.size());
+        long rawBytes = 0;
+        long compressedBytes = 0;
+        for (Path segment : segments) {
+            try {
+                Path archiveFile = SegmentArchive.archiveFileOf(segment);
+                // 归档文件已存在说明上次归档后未删除原文件，直接删除即可
+                if (!Files.exists(archiveFile)) {
+                    rawBytes += Files.size(segment);
+                    SegmentArchive.write(segment, blockSize);
+                    compressedBytes += Files.size(archiveFile);
+                }
+                archived.add(segment);
+            } catch (IOException e) {
+                log.error("归档日志段失败: {}", segment, e);
+            }
+        }
+
+        // 先丢弃内存索引（重新加载时指向归档文件），再删除原段文件；
+        // 仍持有旧块引用的读取方打开 .log 失败时由 LogByteSource 改读 .zlog
+        segmentStore.evict(date);
+        for (Path segment : archived) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.error("删除已归档日志段失败: {}", segment, e);
+            }
+        }
+
+        archivedSegments.add(archived.size());
+        archivedRawBytes.add(rawBytes);
+        archivedBytes.add(compressedBytes);
+        log.info("已归档日志: date={}, 段数={}, 原始 {} MB，压缩后 {} MB",
+                date, archived.size(), rawBytes / 1024 / 1024, compressedBytes / 1024 / 1024);
+        return archived.size();
+    }
+
     /**
      * 每天凌晨 3 点执行清理.
      */
@@ -71,6 +189,8 @@ public class FileLogCleaner {
                     LocalDate dirDate = LocalDate.parse(dirName, DATE_FORMATTER);
                     if (dirDate.isBefore(expireDate)) {
                         // 统计并删除
+                        segmentStore.evict(dirDate);
+                        searchIndex.evict(dirDate);
                         long[] stats = deleteDirectoryRecursively(dateDir);
                         deletedFiles += stats[0];
                         deletedBytes += stats[1];
@@ -116,6 +236,8 @@ public class FileLogCleaner {
                 try {
                     LocalDate dirDate = LocalDate.parse(dirName, DATE_FORMATTER);
                     if (dirDate.isBefore(beforeDate)) {
+                        segmentStore.evict(dirDate);
+                        searchIndex.evict(dirDate);
                         long[] stats = deleteDirectoryRecursively(dateDir);
                         totalDeleted += stats[0];
                         log.info("已删除日志目录: {}", dateDir);
@@ -176,19 +298,13 @@ public class FileLogCleaner {
 
                 stats.totalDays++;
 
-                try (Stream<Path> jobDirs = Files.list(dateDir)) {
-                    for (Path jobDir : jobDirs.toList()) {
-                        if (!Files.isDirectory(jobDir)) {
-                            continue;
-                        }
-
-                        try (Stream<Path> files = Files.list(jobDir)) {
-                            for (Path file : files.toList()) {
-                                if (Files.isRegularFile(file)) {
-                                    stats.totalFiles++;
-                                    stats.totalBytes += Files.size(file);
-                                }
-                            }
+                // 段文件直接位于日期目录下，旧版按实例的文件位于 job-{jobId} 子目录
+                try (Stream<Path> files = Files.walk(dateDir)) {
+                    for (Path file : files.filter(Files::isRegularFile).toList()) {
+                        stats.totalFiles++;
+                        stats.totalBytes += Files.size(file);
+                        if (SegmentArchive.isArchive(file)) {
+                            stats.archivedFiles++;
                         }
                     }
                 }
@@ -200,6 +316,18 @@ public class FileLogCleaner {
         return stats;
     }
 
+    public long getArchivedSegments() {
+        return archivedSegments.sum();
+    }
+
+    public long getArchivedRawBytes() {
+        return archivedRawBytes.sum();
+    }
+
+    public long getArchivedBytes() {
+        return archivedBytes.sum();
+    }
+
     /**
      * 日志存储统计.
      */
@@ -207,6 +335,7 @@ public class FileLogCleaner {
         public int totalDays;
         public long totalFiles;
         public long totalBytes;
+        public long archivedFiles;
 
         public String getTotalSizeFormatted() {
             if (totalBytes < 1024) {
@@ -1,13 +1,12 @@
 package com.simple.pulsejob.admin.business.log.file;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -16,32 +15,30 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 /**
  * 文件日志读取服务.
  *
- * <p>每次执行一个独立文件，查询 O(1) 定位。</p>
+ * <p>通过 {@link LogSegmentStore} 的内存索引定位实例的日志块，只读取需要的块：
+ * 行数直接取自索引，分页和末尾读取按每块起始行号二分定位，块内容由 {@link LogChunkReader} 读取，已归档的段只解压需要的块。</p>
  *
- * <h3>目录结构</h3>
- * <pre>
- * job-logs/
- * └── 2026-01-09/
- *     └── job-123/
- *         ├── 1001.log
- *         ├── 1002.log
- *         └── 1003.log
- * </pre>
+ * <p>兼容旧版目录结构（{date}/job-{jobId}/{instanceId}.log）：分段存储中没有该实例时读取旧文件，
+ * 旧文件随日期目录过期清理。</p>
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileLogReader {
 
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final LogSegmentStore segmentStore;
+
     @Value("${pulse-job.log.listener.file.path:./logs/job-logs}")
     private String logBasePath;
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
     /**
      * 读取指定实例的全部日志.
      *
@@ -51,29 +48,23 @@ public class FileLogReader {
      * @return 日志行列表
      */
     public List<String> readLogs(Integer jobId, Long instanceId, LocalDate date) {
-        Path filePath = makeLogFilePath(jobId, instanceId, date);
-
-        if (!Files.exists(filePath)) {
-            log.debug("日志文件不存在: {}", filePath);
-            return Collections.emptyList();
-        }
-
         List<String> logs = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                logs.add(line);
+        for (LogChunkRef chunk : chunks(jobId, instanceId, date)) {
+            try {
+                logs.addAll(LogChunkReader.readLines(chunk, 0, Integer.MAX_VALUE));
+            } catch (IOException e) {
+                log.error("读取日志失败: {}", chunk.file(), e);
+                break;
             }
-        } catch (IOException e) {
-            log.error("读取日志文件失败: {}", filePath, e);
         }
-
         return logs;
     }
 
     /**
      * 读取指定实例的日志（分页）.
      *
+     * <p>按索引中的每块起始行号二分定位起始日志块，只读取该页涉及的块。</p>
+     *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
      * @param date       日期
@@ -82,34 +73,13 @@ public class FileLogReader {
      * @return 日志行列表
      */
     public List<String> readLogs(Integer jobId, Long instanceId, LocalDate date, int fromLine, int limit) {
-        Path filePath = makeLogFilePath(jobId, instanceId, date);
-
-        if (!Files.exists(filePath)) {
-            return Collections.emptyList();
-        }
-
-        List<String> logs = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
-            String line;
-            int lineNum = 0;
-            while ((line = reader.readLine()) != null) {
-                lineNum++;
-                if (lineNum >= fromLine) {
-                    logs.add(line);
-                    if (logs.size() >= limit) {
-                        break;
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.error("读取日志文件失败: {}", filePath, e);
-        }
-
-        return logs;
+        return readFrom(jobId, instanceId, date, Math.max(fromLine - 1, 0), limit);
     }
 
     /**
-     * 读取日志文件末尾 N 行（用于实时查看）.
+     * 读取日志末尾 N 行（用于实时查看）.
+     *
+     * <p>分段存储按索引总行数换算为分页读取；旧版日志文件从末尾按块倒序查找。</p>
      *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
@@ -118,52 +88,29 @@ public class FileLogReader {
      * @return 日志行列表
      */
     public List<String> tailLogs(Integer jobId, Long instanceId, LocalDate date, int tailLines) {
-        Path filePath = makeLogFilePath(jobId, instanceId, date);
-
-        if (!Files.exists(filePath)) {
+        if (tailLines <= 0) {
             return Collections.emptyList();
         }
+        LocalDate day = date != null ? date : LocalDate.now();
+        long total = segmentStore.lineCount(instanceIdOf(instanceId), day);
+        if (total > 0) {
+            return readFrom(jobId, instanceId, day, Math.max(total - tailLines, 0), tailLines);
+        }
 
-        try (RandomAccessFile raf = new RandomAccessFile(filePath.toFile(), "r")) {
-            long fileLength = raf.length();
-            if (fileLength == 0) {
-                return Collections.emptyList();
-            }
-
-            List<String> lines = new ArrayList<>();
-            StringBuilder sb = new StringBuilder();
-            long pos = fileLength - 1;
-
-            // 从文件末尾往前读
-            while (pos >= 0 && lines.size() < tailLines) {
-                raf.seek(pos);
-                int ch = raf.read();
-                if (ch == '\n') {
-                    if (sb.length() > 0) {
-                        lines.add(sb.reverse().toString());
-                        sb.setLength(0);
-                    }
-                } else if (ch != '\r') {
-                    sb.append((char) ch);
-                }
-                pos--;
-            }
-
-            // 处理最后一行
-            if (sb.length() > 0 && lines.size() < tailLines) {
-                lines.add(sb.reverse().toString());
-            }
-
-            Collections.reverse(lines);
-            return lines;
+        LogChunkRef legacy = legacyChunk(jobId, instanceId, day);
+        if (legacy == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return LogChunkReader.tailLines(legacy, tailLines);
         } catch (IOException e) {
-            log.error("读取日志文件失败: {}", filePath, e);
+            log.error("读取日志失败: {}", legacy.file(), e);
             return Collections.emptyList();
         }
     }
 
     /**
-     * 获取日志文件总行数.
+     * 获取日志总行数（分段存储直接取索引中的行数）.
      *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
@@ -171,16 +118,20 @@ public class FileLogReader {
      * @return 行数
      */
     public long countLines(Integer jobId, Long instanceId, LocalDate date) {
-        Path filePath = makeLogFilePath(jobId, instanceId, date);
+        LocalDate day = date != null ? date : LocalDate.now();
+        long total = segmentStore.lineCount(instanceIdOf(instanceId), day);
+        if (total > 0) {
+            return total;
+        }
 
-        if (!Files.exists(filePath)) {
+        LogChunkRef legacy = legacyChunk(jobId, instanceId, day);
+        if (legacy == null) {
             return 0;
         }
-
-        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
-            return reader.lines().count();
+        try {
+            return LogChunkReader.countLines(legacy);
         } catch (IOException e) {
-            log.error("统计日志行数失败: {}", filePath, e);
+            log.error("统计日志行数失败: {}", legacy.file(), e);
             return 0;
         }
     }
@@ -193,34 +144,25 @@ public class FileLogReader {
      * @return instanceId 列表（排序）
      */
     public List<Long> listInstanceIds(Integer jobId, LocalDate date) {
-        Path jobDir = Paths.get(
-                logBasePath,
-                date.format(DATE_FORMATTER),
-                "job-" + (jobId != null ? jobId : 0)
-        );
-
-        if (!Files.exists(jobDir) || !Files.isDirectory(jobDir)) {
-            return Collections.emptyList();
-        }
-
-        List<Long> instanceIds = new ArrayList<>();
-        try (Stream<Path> files = Files.list(jobDir)) {
-            files.filter(p -> p.getFileName().toString().endsWith(".log"))
-                    .forEach(p -> {
-                        String fileName = p.getFileName().toString();
-                        // 提取 {instanceId}.log 中的 instanceId
-                        String idStr = fileName.substring(0, fileName.length() - 4);
-                        try {
-                            instanceIds.add(Long.parseLong(idStr));
-                        } catch (NumberFormatException ignored) {
-                        }
-                    });
-        } catch (IOException e) {
-            log.error("列出实例文件失败: {}", jobDir, e);
+        TreeSet<Long> instanceIds = new TreeSet<>(segmentStore.instanceIds(jobId != null ? jobId : 0, date));
+
+        Path jobDir = Paths.get(logBasePath, date.format(DATE_FORMATTER), "job-" + (jobId != null ? jobId : 0));
+        if (Files.isDirectory(jobDir)) {
+            try (Stream<Path> files = Files.list(jobDir)) {
+                files.map(p -> p.getFileName().toString())
+                        .filter(name -> name.endsWith(".log"))
+                        .forEach(name -> {
+                            // 提取 {instanceId}.log 中的 instanceId
+                            try {
+                                instanceIds.add(Long.parseLong(name.substring(0, name.length() - 4)));
+                            } catch (NumberFormatException ignored) {
+                            }
+                        });
+            } catch (IOException e) {
+                log.error("列出实例文件失败: {}", jobDir, e);
+            }
         }
-
-        Collections.sort(instanceIds);
-        return instanceIds;
+        return new ArrayList<>(instanceIds);
     }
 
     /**
@@ -230,34 +172,29 @@ public class FileLogReader {
      * @return jobId 列表（排序）
      */
     public List<Integer> listJobIds(LocalDate date) {
-        Path dateDir = Paths.get(logBasePath, date.format(DATE_FORMATTER));
+        TreeSet<Integer> jobIds = new TreeSet<>(segmentStore.jobIds(date));
 
-        if (!Files.exists(dateDir) || !Files.isDirectory(dateDir)) {
-            return Collections.emptyList();
-        }
-
-        List<Integer> jobIds = new ArrayList<>();
-        try (Stream<Path> dirs = Files.list(dateDir)) {
-            dirs.filter(Files::isDirectory)
-                    .filter(p -> p.getFileName().toString().startsWith("job-"))
-                    .forEach(p -> {
-                        String dirName = p.getFileName().toString();
-                        String idStr = dirName.substring(4); // 去掉 "job-" 前缀
-                        try {
-                            jobIds.add(Integer.parseInt(idStr));
-                        } catch (NumberFormatException ignored) {
-                        }
-                    });
-        } catch (IOException e) {
-            log.error("列出 Job 目录失败: {}", dateDir, e);
+        Path dateDir = Paths.get(logBasePath, date.format(DATE_FORMATTER));
+        if (Files.isDirectory(dateDir)) {
+            try (Stream<Path> dirs = Files.list(dateDir)) {
+                dirs.filter(Files::isDirectory)
+                        .map(p -> p.getFileName().toString())
+                        .filter(name -> name.startsWith("job-"))
+                        .forEach(name -> {
+                            try {
+                                jobIds.add(Integer.parseInt(name.substring(4)));
+                            } catch (NumberFormatException ignored) {
+                            }
+                        });
+            } catch (IOException e) {
+                log.error("列出 Job 目录失败: {}", dateDir, e);
+            }
         }
-
-        Collections.sort(jobIds);
-        return jobIds;
+        return new ArrayList<>(jobIds);
     }
 
     /**
-     * 检查日志文件是否存在.
+     * 检查日志是否存在.
      *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
@@ -265,54 +202,151 @@ public class FileLogReader {
      * @return 是否存在
      */
     public boolean exists(Integer jobId, Long instanceId, LocalDate date) {
-        return Files.exists(makeLogFilePath(jobId, instanceId, date));
+        return !chunks(jobId, instanceId, date).isEmpty();
     }
 
     /**
-     * 获取日志文件大小（字节）.
+     * 获取日志大小（字节）.
      *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
      * @param date       日期
-     * @return 文件大小
+     * @return 日志大小
      */
     public long getFileSize(Integer jobId, Long instanceId, LocalDate date) {
-        Path filePath = makeLogFilePath(jobId, instanceId, date);
-        try {
-            return Files.exists(filePath) ? Files.size(filePath) : 0;
-        } catch (IOException e) {
-            return 0;
+        long size = 0;
+        for (LogChunkRef chunk : chunks(jobId, instanceId, date)) {
+            size += chunk.length();
         }
+        return size;
     }
 
     /**
-     * 获取日志文件路径（供下载使用）.
+     * 将日志内容中 [position, position + count) 的字节写入目标通道（用于下载）.
+     *
+     * <p>未归档的日志块依次通过 {@link java.nio.channels.FileChannel#transferTo} 输出，不经过堆内存，
+     * 已归档的按块解压输出；日志只会追加，之前获取的 {@link #getFileSize} 范围内的内容不会变化。</p>
      *
      * @param jobId      任务 ID
      * @param instanceId 任务实例 ID
      * @param date       日期
-     * @return 文件路径
+     * @param position   起始字节位置
+     * @param count      字节数
+     * @param target     目标通道
+     * @return 实际写入的字节数
      */
-    public Path getFilePath(Integer jobId, Long instanceId, LocalDate date) {
-        return makeLogFilePath(jobId, instanceId, date);
+    public long transferTo(Integer jobId, Long instanceId, LocalDate date, long position, long count,
+                           WritableByteChannel target) throws IOException {
+        long transferred = 0;
+        long chunkStart = 0;
+        Path openFile = null;
+        LogByteSource source = null;
+        try {
+            for (LogChunkRef chunk : chunks(jobId, instanceId, date)) {
+                if (transferred >= count) {
+                    break;
+                }
+                long chunkEnd = chunkStart + chunk.length();
+                long from = position + transferred - chunkStart;
+                chunkStart = chunkEnd;
+                if (from >= chunk.length()) {
+                    continue;
+                }
+
+                // 同一段文件中连续的日志块复用打开的文件
+                if (!chunk.file().equals(openFile)) {
+                    if (source != null) {
+                        source.close();
+                    }
+                    source = LogByteSource.open(chunk.file());
+                    openFile = chunk.file();
+                }
+                long n = Math.min(chunk.length() - from, count - transferred);
+                long done = source.transferTo(chunk.offset() + from, n, target);
+                transferred += done;
+                if (done < n) {
+                    break;
+                }
+            }
+        } finally {
+            if (source != null) {
+                source.close();
+            }
+        }
+        return transferred;
     }
 
     /**
-     * 生成日志文件路径：{basePath}/{date}/job-{jobId}/{instanceId}.log
-     *
-     * @param jobId      任务 ID
-     * @param instanceId 任务实例 ID
-     * @param date       日期
-     * @return 文件路径
+     * 从第 fromLine 行（0-based）起读取最多 limit 行
      */
-    private Path makeLogFilePath(Integer jobId, Long instanceId, LocalDate date) {
-        String dateDir = date != null ? date.format(DATE_FORMATTER) : LocalDate.now().format(DATE_FORMATTER);
+    private List<String> readFrom(Integer jobId, Long instanceId, LocalDate date, long fromLine, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        LocalDate day = date != null ? date : LocalDate.now();
+        List<LogChunkRef> chunks;
+        long skip;
+        SegmentDayIndex.ChunkSlice slice = segmentStore.chunksFrom(instanceIdOf(instanceId), day, fromLine);
+        if (!slice.chunks().isEmpty()) {
+            chunks = slice.chunks();
+            skip = fromLine - slice.firstLine();
+        } else {
+            LogChunkRef legacy = segmentStore.lineCount(instanceIdOf(instanceId), day) > 0
+                    ? null : legacyChunk(jobId, instanceId, day);
+            chunks = legacy != null ? List.of(legacy) : List.of();
+            skip = fromLine;
+        }
 
-        return Paths.get(
+        List<String> logs = new ArrayList<>(Math.min(limit, 1024));
+        for (LogChunkRef chunk : chunks) {
+            try {
+                logs.addAll(LogChunkReader.readLines(chunk, skip, limit - logs.size()));
+            } catch (IOException e) {
+                log.error("读取日志失败: {}", chunk.file(), e);
+                break;
+            }
+            skip = 0;
+            if (logs.size() >= limit) {
+                break;
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * 实例的日志块：优先从分段存储的索引查找，没有时回退到旧版的单实例文件
+     */
+    private List<LogChunkRef> chunks(Integer jobId, Long instanceId, LocalDate date) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        List<LogChunkRef> chunks = segmentStore.chunks(instanceIdOf(instanceId), day);
+        if (!chunks.isEmpty()) {
+            return chunks;
+        }
+        LogChunkRef legacy = legacyChunk(jobId, instanceId, day);
+        return legacy != null ? List.of(legacy) : List.of();
+    }
+
+    /**
+     * 旧版单实例日志文件，整体作为一个行数未知的块；不存在时返回 null
+     */
+    private LogChunkRef legacyChunk(Integer jobId, Long instanceId, LocalDate date) {
+        Path legacyFile = Paths.get(
                 logBasePath,
-                dateDir,
+                date.format(DATE_FORMATTER),
                 "job-" + (jobId != null ? jobId : 0),
-                (instanceId != null ? instanceId : 0) + ".log"
+                instanceIdOf(instanceId) + ".log"
         );
+        try {
+            if (Files.isRegularFile(legacyFile)) {
+                return new LogChunkRef(legacyFile, 0, Files.size(legacyFile), -1);
+            }
+        } catch (IOException e) {
+            log.error("读取日志文件失败: {}", legacyFile, e);
+        }
+        return null;
+    }
+
+    private static long instanceIdOf(Long instanceId) {
+        return instanceId != null ? instanceId : 0L;
     }
 }
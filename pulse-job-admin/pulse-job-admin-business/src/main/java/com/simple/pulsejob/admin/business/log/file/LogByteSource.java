@@ -0,0 +1,57 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * 日志文件的按位置读取.
+ *
+ * <p>屏蔽普通文件（{@link MappedFileSource}）与压缩归档（{@link SegmentArchive}）的差异，
+ * 位置均为原始（未压缩）内容中的字节偏移，读取方无需关心段是否已归档。</p>
+ */
+interface LogByteSource extends Closeable {
+
+    /**
+     * 打开日志文件，归档文件按块索引读取.
+     *
+     * <p>段文件在读取方拿到块引用之后被归档删除时，改读同名的 .zlog：两者的位置都是原始内容中的偏移。</p>
+     */
+    static LogByteSource open(Path file) throws IOException {
+        if (SegmentArchive.isArchive(file)) {
+            return SegmentArchive.open(file);
+        }
+        try {
+            return MappedFileSource.open(file);
+        } catch (NoSuchFileException e) {
+            if (file.getFileName().toString().endsWith(LogSegmentStore.DATA_SUFFIX)) {
+                Path archiveFile = SegmentArchive.archiveFileOf(file);
+                if (Files.exists(archiveFile)) {
+                    return SegmentArchive.open(archiveFile);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 原始内容大小
+     */
+    long size() throws IOException;
+
+    /**
+     * 读取 [position, position + size) 的内容，返回的缓冲区 position 为 0、limit 为实际读取的字节数
+     */
+    ByteBuffer read(long position, int size) throws IOException;
+
+    /**
+     * 将 [position, position + count) 的内容写入目标通道
+     *
+     * @return 实际写入的字节数
+     */
+    long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,152 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志块读取工具.
+ *
+ * <p>通过 {@link LogByteSource} 按窗口读取：未压缩的段直接从映射区解码，已归档的段只解压覆盖到的块。
+ * 只解码需要返回的行；大文件（旧版单实例日志）按 {@value #MAP_WINDOW} 字节窗口分段读取。</p>
+ */
+final class LogChunkReader {
+
+    /** 单次读取的窗口上限（MappedByteBuffer 最大 2GB） */
+    static final int MAP_WINDOW = 64 * 1024 * 1024;
+
+    /** 倒序查找末尾行时每次扫描的块大小 */
+    static final int TAIL_BLOCK = 64 * 1024;
+
+    private LogChunkReader() {
+    }
+
+    /**
+     * 跳过 skip 行后读取最多 limit 行
+     */
+    static List<String> readLines(LogChunkRef chunk, long skip, int limit) throws IOException {
+        List<String> lines = new ArrayList<>(Math.min(limit, 1024));
+        if (limit <= 0 || chunk.length() <= 0) {
+            return lines;
+        }
+        try (LogByteSource source = LogByteSource.open(chunk.file())) {
+            long end = chunk.offset() + chunk.length();
+            long position = chunk.offset();
+            while (position < end && lines.size() < limit) {
+                int size = (int) Math.min(MAP_WINDOW, end - position);
+                ByteBuffer window = source.read(position, size);
+                if (window.limit() < size) {
+                    // 文件比索引记录的短，读到的部分作为最后一个窗口
+                    size = window.limit();
+                    end = position + size;
+                }
+                boolean last = position + size == end;
+
+                int lineStart = 0;
+                for (int i = 0; i < size && lines.size() < limit; i++) {
+                    if (window.get(i) == '\n') {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            lines.add(decode(window, lineStart, i));
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+                if (lines.size() >= limit || lineStart == size) {
+                    position += size;
+                    continue;
+                }
+
+                if (last || lineStart == 0) {
+                    // 末尾没有换行的最后一行，或超过窗口大小的超长行（按窗口切分）
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        lines.add(decode(window, lineStart, size));
+                    }
+                    position += size;
+                } else {
+                    // 不完整的行从行首重新映射
+                    position += lineStart;
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * 统计行数（末尾没有换行的最后一行也计入）
+     */
+    static long countLines(LogChunkRef chunk) throws IOException {
+        if (chunk.length() <= 0) {
+            return 0;
+        }
+        long count = 0;
+        try (LogByteSource source = LogByteSource.open(chunk.file())) {
+            long end = chunk.offset() + chunk.length();
+            byte lastByte = '\n';
+            for (long position = chunk.offset(); position < end; ) {
+                int size = (int) Math.min(MAP_WINDOW, end - position);
+                ByteBuffer window = source.read(position, size);
+                size = window.limit();
+                if (size == 0) {
+                    break;
+                }
+                for (int i = 0; i < size; i++) {
+                    if (window.get(i) == '\n') {
+                        count++;
+                    }
+                }
+                lastByte = window.get(size - 1);
+                position += size;
+            }
+            if (lastByte != '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 读取末尾 tailLines 行：从末尾按块倒序查找换行，定位起始位置后正向读取
+     */
+    static List<String> tailLines(LogChunkRef chunk, int tailLines) throws IOException {
+        if (tailLines <= 0 || chunk.length() <= 0) {
+            return new ArrayList<>();
+        }
+        long end = chunk.offset() + chunk.length();
+        long start = chunk.offset();
+        try (LogByteSource source = LogByteSource.open(chunk.file())) {
+            // 结尾的换行不算新的一行
+            long position = source.read(end - 1, 1).get(0) == '\n' ? end - 1 : end;
+            int found = 0;
+            search:
+            while (position > chunk.offset()) {
+                long blockStart = Math.max(chunk.offset(), position - TAIL_BLOCK);
+                int size = (int) (position - blockStart);
+                ByteBuffer block = source.read(blockStart, size);
+                for (int i = size - 1; i >= 0; i--) {
+                    if (block.get(i) == '\n' && ++found == tailLines) {
+                        start = blockStart + i + 1;
+                        break search;
+                    }
+                }
+                position = blockStart;
+            }
+        }
+        return readLines(new LogChunkRef(chunk.file(), start, end - start, -1), 0, tailLines);
+    }
+
+    /**
+     * 解码 [from, to) 为一行，去掉行尾的 \r
+     */
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        return StandardCharsets.UTF_8.decode(buffer.slice(from, to - from)).toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.nio.file.Path;
+
+/**
+ * 一个实例的一段日志在文件中的位置.
+ *
+ * <p>段文件中为一次批量写入的日志块（只含该实例的日志行，每行以换行结尾）；
+ * 旧版按实例单独存放的日志文件整体视为一个块，行数未知时为 -1。</p>
+ *
+ * @param file   所在文件
+ * @param offset 日志内容的起始偏移（不含块头）
+ * @param length 日志内容字节数
+ * @param lines  行数，未知时为 -1
+ */
+record LogChunkRef(Path file, long offset, long length, int lines) {
+}
@@ -0,0 +1,615 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.transport.metadata.LogMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 分段追加的日志存储.
+ *
+ * <h3>目录结构</h3>
+ * <pre>
+ * job-logs/
+ * └── 2026-01-09/                     # 按日期（便于清理）
+ *     ├── segment-00-000001.log       # 段文件：写入通道 00 的第 1 段，多个实例的日志块顺序追加
+ *     ├── segment-00-000001.idx       # 稀疏索引：每个日志块一条（instanceId、jobId、偏移、长度、行数）
+ *     ├── segment-01-000001.zlog      # 已归档的段（分块压缩，见 {@link SegmentArchive}），.idx 不变
+ *     └── segment-01-000001.idx
+ * </pre>
+ *
+ * <h3>写入</h3>
+ * <ul>
+ *   <li>一批日志按（日期, instanceId）分组，每组写成一个日志块：24 字节块头 + 日志行（UTF-8，每行以换行结尾）</li>
+ *   <li>固定数量的写入通道，实例按 instanceId 落到同一个通道，同一实例的日志块保持写入顺序；
+ *       每个通道每天只有一个打开的段，超过 segment-size-mb 后滚动，文件句柄数与实例数无关</li>
+ *   <li>写入只进入页缓存，由后台线程每 fsync-interval-ms 对有新写入的段统一 fsync（组提交）</li>
+ * </ul>
+ *
+ * <h3>读取</h3>
+ * <p>按日期加载 .idx 为内存索引（instanceId → 日志块列表及每块起始行号），最近 index-cache-days 天常驻，
+ * 仍有打开的段的日期不会被淘汰。加载在全局锁外进行，同一天的并发请求等待同一次加载。
+ * 索引落后于段文件时（如进程崩溃），从最后一个已索引的块之后扫描块头补齐。
+ * 日志块内容由 {@link LogChunkReader} 读取。</p>
+ */
+@Slf4j
+@Component
+public class LogSegmentStore {
+
+    /** 块头魔数 "PJLG" */
+    static final int CHUNK_MAGIC = 0x504A4C47;
+
+    /** 块头：magic(4) + instanceId(8) + jobId(4) + length(4) + lines(4) */
+    static final int CHUNK_HEADER_SIZE = 24;
+
+    /** 索引项：instanceId(8) + jobId(4) + offset(8) + length(4) + lines(4) */
+    static final int INDEX_ENTRY_SIZE = 28;
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String DATA_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Value("${pulse-job.log.listener.file.path:./logs/job-logs}")
+    private String logBasePath;
+
+    /** 单个段文件的大小上限（MB） */
+    @Value("${pulse-job.log.listener.file.segment-size-mb:256}")
+    private long segmentSizeMb;
+
+    /** 写入通道数（同时打开的段数） */
+    @Value("${pulse-job.log.listener.file.writer-lanes:2}")
+    private int writerLanes;
+
+    /** 组提交 fsync 间隔（毫秒），<=0 表示不主动 fsync，由操作系统回写 */
+    @Value("${pulse-job.log.listener.file.fsync-interval-ms:1000}")
+    private long fsyncIntervalMs;
+
+    /** 内存索引常驻的天数 */
+    @Value("${pulse-job.log.listener.file.index-cache-days:3}")
+    private int indexCacheDays;
+
+    private WriterLane[] lanes;
+
+    /** 按访问顺序淘汰的每日索引（加载中的日期对应未完成的 future） */
+    private final Map<LocalDate, CompletableFuture<SegmentDayIndex>> dayIndexes =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 仍有写入通道打开着段的日期 → 通道数，这些日期的索引不参与淘汰（由 dayIndexes 锁保护） */
+    private final Map<LocalDate, Integer> pinnedDays = new HashMap<>();
+
+    private ScheduledExecutorService syncExecutor;
+
+    private final LongAdder appendedChunks = new LongAdder();
+    private final LongAdder appendedBytes = new LongAdder();
+    private final LongAdder syncCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(Paths.get(logBasePath));
+        } catch (IOException e) {
+            log.error("创建日志目录失败: {}", logBasePath, e);
+        }
+        lanes = new WriterLane[Math.max(writerLanes, 1)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new WriterLane(i);
+        }
+        if (fsyncIntervalMs > 0) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new JNamedThreadFactory("job-log-fsync", true));
+            syncExecutor.scheduleWithFixedDelay(this::sync, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("分段日志存储: path={}, lanes={}, segmentSize={}MB, fsyncInterval={}ms",
+                logBasePath, lanes.length, segmentSizeMb, fsyncIntervalMs);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdown();
+        }
+        for (WriterLane lane : lanes) {
+            lane.closeAll();
+        }
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 追加一批日志，同一实例同一天的日志合并为一个日志块
+     */
+    public void append(List<LogMessage> logs) throws IOException {
+        Map<ChunkKey, ChunkBuilder> chunks = new LinkedHashMap<>();
+        for (LogMessage logMessage : logs) {
+            String content = logMessage.getContent();
+            if (content == null) {
+                continue;
+            }
+            LocalDate date = logMessage.getTimestamp() != null
+                    ? logMessage.getTimestamp().toLocalDate() : LocalDate.now();
+            long instanceId = logMessage.getInstanceId() != null ? logMessage.getInstanceId() : 0L;
+            int jobId = logMessage.getJobId() != null ? logMessage.getJobId() : 0;
+            chunks.computeIfAbsent(new ChunkKey(date, instanceId), k -> new ChunkBuilder(jobId)).append(content);
+        }
+        for (Map.Entry<ChunkKey, ChunkBuilder> entry : chunks.entrySet()) {
+            ChunkKey key = entry.getKey();
+            ChunkBuilder chunk = entry.getValue();
+            lane(key.instanceId).append(key.date, key.instanceId, chunk.jobId, chunk.bytes(), chunk.lines);
+        }
+    }
+
+    /**
+     * 组提交：对有新写入的段统一 fsync
+     */
+    void sync() {
+        for (WriterLane lane : lanes) {
+            for (Segment segment : lane.takeDirty()) {
+                try {
+                    segment.force();
+                    syncCount.increment();
+                } catch (ClosedChannelException ignored) {
+                    // 段已滚动关闭，关闭时已 fsync
+                } catch (IOException e) {
+                    log.error("日志段 fsync 失败: {}", segment.dataFile, e);
+                }
+            }
+        }
+    }
+
+    private WriterLane lane(long instanceId) {
+        return lanes[(int) Math.floorMod(instanceId, (long) lanes.length)];
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 实例在某天的日志块（按写入顺序）
+     */
+    List<LogChunkRef> chunks(long instanceId, LocalDate date) {
+        return dayIndex(date).chunks(instanceId);
+    }
+
+    /**
+     * 从指定行（0-based）所在的日志块开始读取时的块列表
+     */
+    SegmentDayIndex.ChunkSlice chunksFrom(long instanceId, LocalDate date, long fromLine) {
+        return dayIndex(date).chunksFrom(instanceId, fromLine);
+    }
+
+    long lineCount(long instanceId, LocalDate date) {
+        return dayIndex(date).lineCount(instanceId);
+    }
+
+    List<Long> instanceIds(int jobId, LocalDate date) {
+        return dayIndex(date).instanceIds(jobId);
+    }
+
+    List<Integer> jobIds(LocalDate date) {
+        return dayIndex(date).jobIds();
+    }
+
+    Path dayDir(LocalDate date) {
+        return Paths.get(logBasePath, date.format(DATE_FORMATTER));
+    }
+
+    /**
+     * 某天已关闭、可以归档的段文件：先列出未压缩的段，再关闭当天打开的段；
+     * 之后的迟到日志只会写入新创建的段，不在返回列表中
+     */
+    List<Path> closedSegments(LocalDate date) throws IOException {
+        Path dir = dayDir(date);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(DATA_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (WriterLane lane : lanes) {
+            lane.close(date);
+        }
+        return segments;
+    }
+
+    /**
+     * 日期目录被删除或归档后调用：关闭当天仍在写入的段并丢弃内存索引
+     */
+    void evict(LocalDate date) {
+        for (WriterLane lane : lanes) {
+            lane.close(date);
+        }
+        synchronized (dayIndexes) {
+            dayIndexes.remove(date);
+        }
+    }
+
+    public long getAppendedChunks() {
+        return appendedChunks.sum();
+    }
+
+    public long getAppendedBytes() {
+        return appendedBytes.sum();
+    }
+
+    public long getSyncCount() {
+        return syncCount.sum();
+    }
+
+    // ==================== 索引 ====================
+
+    private SegmentDayIndex dayIndex(LocalDate date) {
+        CompletableFuture<SegmentDayIndex> future;
+        boolean loader = false;
+        synchronized (dayIndexes) {
+            future = dayIndexes.get(date);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                dayIndexes.put(date, future);
+                loader = true;
+                trimDayIndexes(date);
+            }
+        }
+        if (loader) {
+            // 冷数据加载（列目录、读 .idx、补齐）不持有全局锁，其他日期的读写不受影响
+            try {
+                future.complete(loadDayIndex(date));
+            } catch (RuntimeException e) {
+                synchronized (dayIndexes) {
+                    dayIndexes.remove(date, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return future.join();
+    }
+
+    /**
+     * 超过 index-cache-days 时按访问顺序淘汰，跳过有打开的段的日期和当前正在加载的日期
+     */
+    private void trimDayIndexes(LocalDate current) {
+        int limit = Math.max(indexCacheDays, 1);
+        Iterator<LocalDate> it = dayIndexes.keySet().iterator();
+        while (dayIndexes.size() > limit && it.hasNext()) {
+            LocalDate date = it.next();
+            if (!date.equals(current) && !pinnedDays.containsKey(date)) {
+                it.remove();
+            }
+        }
+    }
+
+    private void pinDay(LocalDate date) {
+        synchronized (dayIndexes) {
+            pinnedDays.merge(date, 1, Integer::sum);
+        }
+    }
+
+    private void unpinDay(LocalDate date) {
+        synchronized (dayIndexes) {
+            pinnedDays.computeIfPresent(date, (d, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private SegmentDayIndex loadDayIndex(LocalDate date) {
+        SegmentDayIndex index = new SegmentDayIndex();
+        Path dir = dayDir(date);
+        if (!Files.isDirectory(dir)) {
+            return index;
+        }
+        long start = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(dir)) {
+            // 同一个段同时存在 .log 和 .zlog 时（归档后删除原文件前退出）以归档为准
+            Map<String, Path> segments = new TreeMap<>();
+            for (Path file : files.toList()) {
+                String baseName = segmentBaseName(file.getFileName().toString());
+                if (baseName != null && (SegmentArchive.isArchive(file) || !segments.containsKey(baseName))) {
+                    segments.put(baseName, file);
+                }
+            }
+            for (Path segment : segments.values()) {
+                loadSegment(segment, index);
+            }
+        } catch (IOException e) {
+            log.error("加载日志索引失败: {}", dir, e);
+        }
+        log.info("加载日志索引: date={}, instances={}, cost={}ms",
+                date, index.size(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private void loadSegment(Path dataFile, SegmentDayIndex index) throws IOException {
+        try (LogByteSource source = LogByteSource.open(dataFile)) {
+            long dataSize = source.size();
+            long indexedEnd = 0;
+
+            Path indexFile = indexFileOf(dataFile);
+            if (Files.exists(indexFile)) {
+                ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+                while (entries.remaining() >= INDEX_ENTRY_SIZE) {
+                    long instanceId = entries.getLong();
+                    int jobId = entries.getInt();
+                    long offset = entries.getLong();
+                    int length = entries.getInt();
+                    int lines = entries.getInt();
+                    if (offset + length > dataSize) {
+                        break;
+                    }
+                    index.add(instanceId, jobId, new LogChunkRef(dataFile, offset, length, lines));
+                    indexedEnd = Math.max(indexedEnd, offset + length);
+                }
+            }
+
+            if (indexedEnd < dataSize) {
+                // 索引落后于段文件（写入索引前进程退出），扫描块头补齐
+                recoverChunks(source, dataFile, indexedEnd, dataSize, index);
+            }
+        }
+    }
+
+    private void recoverChunks(LogByteSource source, Path dataFile, long position, long dataSize,
+                               SegmentDayIndex index) throws IOException {
+        int recovered = 0;
+        while (position + CHUNK_HEADER_SIZE <= dataSize) {
+            ByteBuffer header = source.read(position, CHUNK_HEADER_SIZE);
+            if (header.remaining() < CHUNK_HEADER_SIZE || header.getInt() != CHUNK_MAGIC) {
+                break;
+            }
+            long instanceId = header.getLong();
+            int jobId = header.getInt();
+            int length = header.getInt();
+            int lines = header.getInt();
+            long offset = position + CHUNK_HEADER_SIZE;
+            if (length < 0 || offset + length > dataSize) {
+                break;
+            }
+            index.add(instanceId, jobId, new LogChunkRef(dataFile, offset, length, lines));
+            position = offset + length;
+            recovered++;
+        }
+        if (recovered > 0) {
+            log.warn("日志段索引不完整，已从段文件补齐 {} 个日志块: {}", recovered, dataFile);
+        }
+    }
+
+    /**
+     * segment-00-000001.log / segment-00-000001.zlog → segment-00-000001，不是段文件时返回 null
+     */
+    static String segmentBaseName(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX)) {
+            return null;
+        }
+        if (fileName.endsWith(DATA_SUFFIX)) {
+            return fileName.substring(0, fileName.length() - DATA_SUFFIX.length());
+        }
+        if (fileName.endsWith(SegmentArchive.ARCHIVE_SUFFIX)) {
+            return fileName.substring(0, fileName.length() - SegmentArchive.ARCHIVE_SUFFIX.length());
+        }
+        return null;
+    }
+
+    static Path indexFileOf(Path dataFile) {
+        return dataFile.resolveSibling(segmentBaseName(dataFile.getFileName().toString()) + INDEX_SUFFIX);
+    }
+
+    // ==================== 内部类 ====================
+
+    /**
+     * 写入通道：每天最多一个打开的段，保留最近两天（跨零点时前一天的迟到日志）
+     */
+    private final class WriterLane {
+
+        private final int id;
+
+        private final LinkedHashMap<LocalDate, Segment> open = new LinkedHashMap<>();
+
+        WriterLane(int id) {
+            this.id = id;
+        }
+
+        synchronized void append(LocalDate date, long instanceId, int jobId, byte[] payload, int lines)
+                throws IOException {
+            // 先取索引再写入：索引加载完成后写入的块只由这里追加，不会重复
+            SegmentDayIndex index = dayIndex(date);
+            Segment segment = segment(date);
+
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER_SIZE + payload.length);
+            chunk.putInt(CHUNK_MAGIC).putLong(instanceId).putInt(jobId).putInt(payload.length).putInt(lines)
+                    .put(payload)
+                    .flip();
+            long position = segment.size;
+            writeFully(segment.data, chunk, position);
+            segment.size += chunk.capacity();
+            long offset = position + CHUNK_HEADER_SIZE;
+
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+            entry.putLong(instanceId).putInt(jobId).putLong(offset).putInt(payload.length).putInt(lines).flip();
+            writeFully(segment.index, entry, segment.indexSize);
+            segment.indexSize += INDEX_ENTRY_SIZE;
+            segment.dirty = true;
+
+            index.add(instanceId, jobId, new LogChunkRef(segment.dataFile, offset, payload.length, lines));
+            appendedChunks.increment();
+            appendedBytes.add(chunk.capacity());
+
+            if (segment.size >= segmentSizeMb * 1024 * 1024) {
+                close(date);
+            }
+        }
+
+        private Segment segment(LocalDate date) throws IOException {
+            Segment segment = open.get(date);
+            if (segment != null) {
+                return segment;
+            }
+            segment = Segment.create(dayDir(date), id);
+            open.put(date, segment);
+            pinDay(date);
+            if (open.size() > 2) {
+                close(open.keySet().iterator().next());
+            }
+            return segment;
+        }
+
+        synchronized List<Segment> takeDirty() {
+            List<Segment> dirty = new ArrayList<>(open.size());
+            for (Segment segment : open.values()) {
+                if (segment.dirty) {
+                    segment.dirty = false;
+                    dirty.add(segment);
+                }
+            }
+            return dirty;
+        }
+
+        synchronized void close(LocalDate date) {
+            Segment segment = open.remove(date);
+            if (segment != null) {
+                segment.close();
+                unpinDay(date);
+            }
+        }
+
+        synchronized void closeAll() {
+            for (LocalDate date : new ArrayList<>(open.keySet())) {
+                close(date);
+            }
+        }
+    }
+
+    /**
+     * 一个打开的段（数据文件 + 索引文件），每次打开都创建新段，不追加到已有的段
+     */
+    private static final class Segment {
+
+        final Path dataFile;
+        final FileChannel data;
+        final FileChannel index;
+        long size;
+        long indexSize;
+        boolean dirty;
+
+        private Segment(Path dataFile, FileChannel data, FileChannel index) {
+            this.dataFile = dataFile;
+            this.data = data;
+            this.index = index;
+        }
+
+        static Segment create(Path dir, int lane) throws IOException {
+            Files.createDirectories(dir);
+            String prefix = String.format("%s%02d-", SEGMENT_PREFIX, lane);
+            int seq = 0;
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    // 已归档的段也占用序号
+                    String baseName = segmentBaseName(file.getFileName().toString());
+                    if (baseName != null && baseName.startsWith(prefix)) {
+                        try {
+                            seq = Math.max(seq, Integer.parseInt(baseName.substring(prefix.length())));
+                        } catch (NumberFormatException ignored) {
+                        }
+                    }
+                }
+            }
+            Path dataFile = dir.resolve(String.format("%s%06d%s", prefix, seq + 1, DATA_SUFFIX));
+            FileChannel data = FileChannel.open(dataFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                FileChannel index = FileChannel.open(indexFileOf(dataFile),
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                return new Segment(dataFile, data, index);
+            } catch (IOException e) {
+                data.close();
+                throw e;
+            }
+        }
+
+        void force() throws IOException {
+            data.force(false);
+            index.force(false);
+        }
+
+        void close() {
+            try {
+                force();
+            } catch (IOException e) {
+                log.warn("关闭前 fsync 日志段失败: {}", dataFile, e);
+            }
+            try {
+                data.close();
+                index.close();
+            } catch (IOException e) {
+                log.warn("关闭日志段失败: {}", dataFile, e);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private record ChunkKey(LocalDate date, long instanceId) {
+    }
+
+    /**
+     * 同一实例的日志行，内容中的换行也计入行数
+     */
+    private static final class ChunkBuilder {
+
+        final int jobId;
+        final StringBuilder content = new StringBuilder();
+        int lines;
+
+        ChunkBuilder(int jobId) {
+            this.jobId = jobId;
+        }
+
+        void append(String line) {
+            content.append(line).append('\n');
+            lines++;
+            for (int i = line.indexOf('\n'); i >= 0; i = line.indexOf('\n', i + 1)) {
+                lines++;
+            }
+        }
+
+        byte[] bytes() {
+            return content.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 未压缩的日志文件.
+ *
+ * <p>不小于 {@value #MMAP_THRESHOLD} 字节的区域通过 {@link java.nio.MappedByteBuffer} 映射读取；
+ * 更小的区域直接读入堆内存，避免大量小映射占用 map 数量。下载通过 {@link FileChannel#transferTo} 输出。</p>
+ */
+final class MappedFileSource implements LogByteSource {
+
+    /** 映射读取的最小区域 */
+    static final int MMAP_THRESHOLD = 64 * 1024;
+
+    private final FileChannel channel;
+
+    private MappedFileSource(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static MappedFileSource open(Path file) throws IOException {
+        return new MappedFileSource(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public ByteBuffer read(long position, int size) throws IOException {
+        if (size >= MMAP_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long done = 0;
+        while (done < count) {
+            long written = channel.transferTo(position + done, count - done, target);
+            if (written <= 0) {
+                break;
+            }
+            done += written;
+        }
+        return done;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
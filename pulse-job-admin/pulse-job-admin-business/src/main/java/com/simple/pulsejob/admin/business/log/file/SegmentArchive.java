@@ -0,0 +1,289 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 段文件的分块压缩归档.
+ *
+ * <h3>格式</h3>
+ * <pre>
+ * [block 0][block 1]...[block N-1]     # 原始内容按 blockSize 切块，每块独立 Deflate 压缩
+ * [块索引] N × (offset(8) + length(4)) # 每块压缩数据在文件中的位置
+ * [尾部] indexOffset(8) + rawSize(8) + blockSize(4) + magic(4)
+ * </pre>
+ *
+ * <p>原始偏移 / blockSize 即块号，按位置读取只解压覆盖到的块。段的 .idx 索引不变，
+ * 其中的偏移仍是原始内容的偏移。最近打开的归档缓存块索引和最近解压的一块，
+ * 连续读取同一块内的多个日志块时不重复解压。</p>
+ */
+final class SegmentArchive implements LogByteSource {
+
+    static final String ARCHIVE_SUFFIX = ".zlog";
+
+    /** 尾部魔数 "PJZ1" */
+    static final int ARCHIVE_MAGIC = 0x504A5A31;
+
+    static final int FOOTER_SIZE = 24;
+
+    static final int BLOCK_ENTRY_SIZE = 12;
+
+    private static final int CACHE_SIZE = 32;
+
+    /** 最近打开的归档元数据 */
+    private static final Map<Path, Meta> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Meta> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final FileChannel channel;
+    private final Meta meta;
+
+    private SegmentArchive(FileChannel channel, Meta meta) {
+        this.channel = channel;
+        this.meta = meta;
+    }
+
+    static boolean isArchive(Path file) {
+        return file.getFileName().toString().endsWith(ARCHIVE_SUFFIX);
+    }
+
+    /**
+     * segment-00-000001.log → segment-00-000001.zlog
+     */
+    static Path archiveFileOf(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(
+                name.substring(0, name.length() - LogSegmentStore.DATA_SUFFIX.length()) + ARCHIVE_SUFFIX);
+    }
+
+    static SegmentArchive open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            Meta meta;
+            synchronized (CACHE) {
+                meta = CACHE.get(file);
+            }
+            if (meta == null || meta.fileSize != fileSize) {
+                meta = Meta.load(channel, fileSize);
+                synchronized (CACHE) {
+                    CACHE.put(file, meta);
+                }
+            }
+            return new SegmentArchive(channel, meta);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 将已关闭的段文件压缩为归档（先写临时文件再原子替换），返回归档文件
+     */
+    static Path write(Path dataFile, int blockSize) throws IOException {
+        Path archiveFile = archiveFileOf(dataFile);
+        Path tmpFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (FileChannel in = FileChannel.open(dataFile, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmpFile, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long rawSize = in.size();
+            int blocks = (int) ((rawSize + blockSize - 1) / blockSize);
+            ByteBuffer index = ByteBuffer.allocate(blocks * BLOCK_ENTRY_SIZE + FOOTER_SIZE);
+            byte[] raw = new byte[blockSize];
+            byte[] compressed = new byte[64 * 1024];
+            long position = 0;
+            for (int i = 0; i < blocks; i++) {
+                int length = (int) Math.min(blockSize, rawSize - (long) i * blockSize);
+                ByteBuffer rawBuffer = ByteBuffer.wrap(raw, 0, length);
+                while (rawBuffer.hasRemaining()) {
+                    if (in.read(rawBuffer, (long) i * blockSize + rawBuffer.position()) < 0) {
+                        throw new IOException("段文件读取不完整: " + dataFile);
+                    }
+                }
+
+                deflater.reset();
+                deflater.setInput(raw, 0, length);
+                deflater.finish();
+                long blockStart = position;
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(compressed);
+                    position += writeFully(out, ByteBuffer.wrap(compressed, 0, n), position);
+                }
+                index.putLong(blockStart).putInt((int) (position - blockStart));
+            }
+            index.putLong(position).putLong(rawSize).putInt(blockSize).putInt(ARCHIVE_MAGIC).flip();
+            writeFully(out, index, position);
+            out.force(false);
+        } finally {
+            deflater.end();
+        }
+        Files.move(tmpFile, archiveFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return archiveFile;
+    }
+
+    @Override
+    public long size() {
+        return meta.rawSize;
+    }
+
+    @Override
+    public ByteBuffer read(long position, int size) throws IOException {
+        long end = Math.min(position + size, meta.rawSize);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(end - position, 0));
+        for (long p = position; p < end; ) {
+            int blockIndex = (int) (p / meta.blockSize);
+            byte[] block = block(blockIndex);
+            int from = (int) (p - (long) blockIndex * meta.blockSize);
+            int n = (int) Math.min(block.length - from, end - p);
+            buffer.put(block, from, n);
+            p += n;
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long end = Math.min(position + count, meta.rawSize);
+        long p = position;
+        while (p < end) {
+            int blockIndex = (int) (p / meta.blockSize);
+            byte[] block = block(blockIndex);
+            int from = (int) (p - (long) blockIndex * meta.blockSize);
+            int n = (int) Math.min(block.length - from, end - p);
+            ByteBuffer buffer = ByteBuffer.wrap(block, from, n);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            p += n;
+        }
+        return Math.max(end - position, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 解压第 blockIndex 块，命中最近解压的块时直接返回
+     */
+    private byte[] block(int blockIndex) throws IOException {
+        DecodedBlock cached = meta.lastBlock;
+        if (cached != null && cached.index == blockIndex) {
+            return cached.data;
+        }
+
+        ByteBuffer compressed = ByteBuffer.allocate(meta.lengths[blockIndex]);
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, meta.offsets[blockIndex] + compressed.position()) < 0) {
+                throw new IOException("归档文件不完整");
+            }
+        }
+        byte[] data = new byte[(int) Math.min(meta.blockSize, meta.rawSize - (long) blockIndex * meta.blockSize)];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed.array());
+            int n = 0;
+            while (n < data.length && !inflater.finished()) {
+                int inflated = inflater.inflate(data, n, data.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != data.length) {
+                throw new IOException("归档块解压长度不符: block=" + blockIndex);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("归档块解压失败: block=" + blockIndex, e);
+        } finally {
+            inflater.end();
+        }
+        meta.lastBlock = new DecodedBlock(blockIndex, data);
+        return data;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private record DecodedBlock(int index, byte[] data) {
+    }
+
+    /**
+     * 归档元数据：块索引（不可变）和最近解压的块
+     */
+    private static final class Meta {
+
+        final long fileSize;
+        final long rawSize;
+        final int blockSize;
+        final long[] offsets;
+        final int[] lengths;
+        volatile DecodedBlock lastBlock;
+
+        private Meta(long fileSize, long rawSize, int blockSize, long[] offsets, int[] lengths) {
+            this.fileSize = fileSize;
+            this.rawSize = rawSize;
+            this.blockSize = blockSize;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        static Meta load(FileChannel channel, long fileSize) throws IOException {
+            if (fileSize < FOOTER_SIZE) {
+                throw new IOException("归档文件损坏: 缺少尾部");
+            }
+            ByteBuffer footer = readFully(channel, fileSize - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            long rawSize = footer.getLong();
+            int blockSize = footer.getInt();
+            if (footer.getInt() != ARCHIVE_MAGIC || blockSize <= 0 || indexOffset < 0
+                    || indexOffset > fileSize - FOOTER_SIZE) {
+                throw new IOException("归档文件损坏: 尾部无效");
+            }
+            int blocks = (int) ((fileSize - FOOTER_SIZE - indexOffset) / BLOCK_ENTRY_SIZE);
+            if (blocks != (rawSize + blockSize - 1) / blockSize) {
+                throw new IOException("归档文件损坏: 块数不符");
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset, blocks * BLOCK_ENTRY_SIZE);
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                offsets[i] = index.getLong();
+                lengths[i] = index.getInt();
+            }
+            return new Meta(fileSize, rawSize, blockSize, offsets, lengths);
+        }
+
+        private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("归档文件不完整");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一天的日志索引：instanceId → 该实例的日志块列表（按写入顺序）.
+ *
+ * <p>由段文件旁的 .idx 文件加载，之后由写入方增量追加。每个实例只有一个写入通道写入，
+ * 块列表的追加与读取快照在实例对象上同步。</p>
+ *
+ * <p>每个实例同时维护各日志块的起始行号（行数前缀和），总行数 O(1)，按行号定位日志块为二分查找。</p>
+ */
+final class SegmentDayIndex {
+
+    private final Map<Long, InstanceChunks> instances = new ConcurrentHashMap<>();
+
+    void add(long instanceId, int jobId, LogChunkRef chunk) {
+        instances.computeIfAbsent(instanceId, k -> new InstanceChunks(jobId)).add(chunk);
+    }
+
+    /**
+     * 实例的日志块（快照），没有时返回空列表
+     */
+    List<LogChunkRef> chunks(long instanceId) {
+        InstanceChunks chunks = instances.get(instanceId);
+        return chunks != null ? chunks.snapshot() : List.of();
+    }
+
+    /**
+     * 从指定行（0-based）所在的日志块开始的块列表，行号超出时返回空
+     */
+    ChunkSlice chunksFrom(long instanceId, long fromLine) {
+        InstanceChunks chunks = instances.get(instanceId);
+        return chunks != null ? chunks.from(fromLine) : ChunkSlice.EMPTY;
+    }
+
+    /**
+     * 实例的总行数
+     */
+    long lineCount(long instanceId) {
+        InstanceChunks chunks = instances.get(instanceId);
+        return chunks != null ? chunks.lineCount() : 0;
+    }
+
+    /**
+     * 某个任务当天有日志的实例（升序）
+     */
+    List<Long> instanceIds(int jobId) {
+        List<Long> ids = new ArrayList<>();
+        instances.forEach((instanceId, chunks) -> {
+            if (chunks.jobId == jobId) {
+                ids.add(instanceId);
+            }
+        });
+        ids.sort(null);
+        return ids;
+    }
+
+    /**
+     * 当天有日志的任务（升序）
+     */
+    List<Integer> jobIds() {
+        TreeSet<Integer> ids = new TreeSet<>();
+        instances.values().forEach(chunks -> ids.add(chunks.jobId));
+        return new ArrayList<>(ids);
+    }
+
+    int size() {
+        return instances.size();
+    }
+
+    /**
+     * 日志块列表及第一个块的起始行号（0-based）
+     */
+    record ChunkSlice(List<LogChunkRef> chunks, long firstLine) {
+
+        static final ChunkSlice EMPTY = new ChunkSlice(List.of(), 0);
+    }
+
+    private static final class InstanceChunks {
+
+        final int jobId;
+        private LogChunkRef[] chunks = new LogChunkRef[1];
+        /** 每个日志块的起始行号 */
+        private long[] startLines = new long[1];
+        private int size;
+        private long lineCount;
+
+        InstanceChunks(int jobId) {
+            this.jobId = jobId;
+        }
+
+        synchronized void add(LogChunkRef chunk) {
+            if (size == chunks.length) {
+                chunks = Arrays.copyOf(chunks, size * 2);
+                startLines = Arrays.copyOf(startLines, size * 2);
+            }
+            chunks[size] = chunk;
+            startLines[size] = lineCount;
+            size++;
+            lineCount += Math.max(chunk.lines(), 0);
+        }
+
+        synchronized List<LogChunkRef> snapshot() {
+            return List.of(Arrays.copyOf(chunks, size));
+        }
+
+        synchronized long lineCount() {
+            return lineCount;
+        }
+
+        synchronized ChunkSlice from(long fromLine) {
+            if (fromLine >= lineCount) {
+                return ChunkSlice.EMPTY;
+            }
+            int i = Arrays.binarySearch(startLines, 0, size, Math.max(fromLine, 0));
+            if (i < 0) {
+                i = -i - 2;
+            } else {
+                // 起始行号相同（空块）时取第一个
+                while (i > 0 && startLines[i - 1] == startLines[i]) {
+                    i--;
+                }
+            }
+            return new ChunkSlice(List.of(Arrays.copyOfRange(chunks, i, size)), startLines[i]);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 尚未刷盘的全文索引（内存），写入与查询在对象上同步.
+ */
+final class LogIndexBuffer implements LogIndexReader {
+
+    private final Map<String, TermBuilder> terms = new HashMap<>();
+
+    private long[] instanceIds = new long[256];
+    private int[] jobIds = new int[256];
+    private long[] timestamps = new long[256];
+    private int docCount;
+
+    /**
+     * 添加一行日志的分词结果，返回当前行数
+     */
+    synchronized int add(long instanceId, int jobId, long timestamp, List<String> tokens) {
+        if (docCount == instanceIds.length) {
+            int capacity = docCount * 2;
+            instanceIds = Arrays.copyOf(instanceIds, capacity);
+            jobIds = Arrays.copyOf(jobIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        int doc = docCount++;
+        instanceIds[doc] = instanceId;
+        jobIds[doc] = jobId;
+        timestamps[doc] = timestamp;
+        for (int position = 0; position < tokens.size(); position++) {
+            terms.computeIfAbsent(tokens.get(position), k -> new TermBuilder()).add(doc, position);
+        }
+        return docCount;
+    }
+
+    @Override
+    public synchronized int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public synchronized Postings postings(String token) {
+        TermBuilder term = terms.get(token);
+        return term != null ? term.toPostings() : Postings.EMPTY;
+    }
+
+    @Override
+    public synchronized long instanceId(int doc) {
+        return instanceIds[doc];
+    }
+
+    @Override
+    public synchronized int jobId(int doc) {
+        return jobIds[doc];
+    }
+
+    @Override
+    public synchronized long timestamp(int doc) {
+        return timestamps[doc];
+    }
+
+    @Override
+    public synchronized void search(LogQuery query, HitVisitor visitor) throws IOException {
+        LogIndexReader.super.search(query, visitor);
+    }
+
+    /**
+     * 写为磁盘索引段
+     */
+    synchronized void writeTo(Path file) throws IOException {
+        List<Map.Entry<byte[], TermBuilder>> sorted = new ArrayList<>(terms.size());
+        terms.forEach((token, term) -> sorted.add(Map.entry(token.getBytes(StandardCharsets.UTF_8), term)));
+        sorted.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+        try (LogIndexSegment.Writer writer = new LogIndexSegment.Writer(file)) {
+            for (int doc = 0; doc < docCount; doc++) {
+                writer.addDoc(instanceIds[doc], jobIds[doc], timestamps[doc]);
+            }
+            for (Map.Entry<byte[], TermBuilder> entry : sorted) {
+                writer.addTerm(entry.getKey(), entry.getValue().toPostings());
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * 一个词的倒排列表（追加中），行号递增写入
+     */
+    private static final class TermBuilder {
+
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int[] positions = new int[2];
+        private int size;
+        private int positionCount;
+
+        void add(int doc, int position) {
+            if (size == 0 || docs[size - 1] != doc) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                    freqs = Arrays.copyOf(freqs, size * 2);
+                }
+                docs[size] = doc;
+                freqs[size] = 0;
+                size++;
+            }
+            freqs[size - 1]++;
+            if (positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, positionCount * 2);
+            }
+            positions[positionCount++] = position;
+        }
+
+        Postings toPostings() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(freqs, size),
+                    Arrays.copyOf(positions, positionCount));
+        }
+    }
+}
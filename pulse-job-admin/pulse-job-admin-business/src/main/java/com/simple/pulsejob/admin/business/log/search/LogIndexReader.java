@@ -0,0 +1,40 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.io.IOException;
+
+/**
+ * 一份全文索引（内存缓冲或磁盘索引段），行号从 0 开始.
+ */
+interface LogIndexReader {
+
+    int docCount();
+
+    /**
+     * 词的倒排列表，不存在时返回 {@link Postings#EMPTY}
+     */
+    Postings postings(String token) throws IOException;
+
+    long instanceId(int doc);
+
+    int jobId(int doc);
+
+    /**
+     * 日志时间（毫秒时间戳）
+     */
+    long timestamp(int doc);
+
+    /**
+     * 查询并逐行回调命中的日志行
+     */
+    default void search(LogQuery query, HitVisitor visitor) throws IOException {
+        for (int doc : query.match(this)) {
+            visitor.visit(instanceId(doc), jobId(doc), timestamp(doc));
+        }
+    }
+
+    @FunctionalInterface
+    interface HitVisitor {
+
+        void visit(long instanceId, int jobId, long timestamp);
+    }
+}
@@ -0,0 +1,330 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 不可变的全文索引段（只读映射）.
+ *
+ * <h3>格式</h3>
+ * <pre>
+ * [行表]     docCount × (instanceId(8) + jobId(4) + timestamp(8))
+ * [倒排]     每个词的倒排列表（见 {@link Postings}，差值 + varint 压缩）
+ * [词典]     按 UTF-8 字节序排列：len(varint) + 词 + postingsOffset(8) + postingsLength(4)
+ * [词典索引] termCount × 词典项偏移(4)，用于二分查找
+ * [尾部]     docCount(4) + termCount(4) + postingsOffset(8) + termsOffset(8) + termIndexOffset(8) + magic(4)
+ * </pre>
+ */
+final class LogIndexSegment implements LogIndexReader {
+
+    /** 尾部魔数 "PJFT" */
+    static final int SEGMENT_MAGIC = 0x504A4654;
+
+    static final int DOC_ENTRY_SIZE = 20;
+
+    static final int FOOTER_SIZE = 36;
+
+    final Path file;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int termsOffset;
+    private final int termIndexOffset;
+
+    private LogIndexSegment(Path file, MappedByteBuffer buffer, int docCount, int termCount,
+                            int termsOffset, int termIndexOffset) {
+        this.file = file;
+        this.buffer = buffer;
+        this.docCount = docCount;
+        this.termCount = termCount;
+        this.termsOffset = termsOffset;
+        this.termIndexOffset = termIndexOffset;
+    }
+
+    static LogIndexSegment open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("索引段大小无效: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int footer = buffer.capacity() - FOOTER_SIZE;
+        int docCount = buffer.getInt(footer);
+        int termCount = buffer.getInt(footer + 4);
+        long termsOffset = buffer.getLong(footer + 16);
+        long termIndexOffset = buffer.getLong(footer + 24);
+        if (buffer.getInt(footer + 32) != SEGMENT_MAGIC
+                || termIndexOffset + (long) termCount * 4 != footer
+                || (long) docCount * DOC_ENTRY_SIZE > termsOffset) {
+            throw new IOException("索引段损坏: " + file);
+        }
+        return new LogIndexSegment(file, buffer, docCount, termCount, (int) termsOffset, (int) termIndexOffset);
+    }
+
+    @Override
+    public int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public Postings postings(String token) {
+        byte[] key = token.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            ByteBuffer entry = termEntry(mid);
+            int cmp = compareTerm(entry, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readPostings(entry);
+            }
+        }
+        return Postings.EMPTY;
+    }
+
+    @Override
+    public long instanceId(int doc) {
+        return buffer.getLong(doc * DOC_ENTRY_SIZE);
+    }
+
+    @Override
+    public int jobId(int doc) {
+        return buffer.getInt(doc * DOC_ENTRY_SIZE + 8);
+    }
+
+    @Override
+    public long timestamp(int doc) {
+        return buffer.getLong(doc * DOC_ENTRY_SIZE + 12);
+    }
+
+    long fileSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 第 i 个词典项，position 位于词长度处
+     */
+    private ByteBuffer termEntry(int i) {
+        return buffer.duplicate().position(termsOffset + buffer.getInt(termIndexOffset + i * 4));
+    }
+
+    /**
+     * 比较词典项与查询词（无符号字节序），比较后 entry 的 position 位于词之后
+     */
+    private static int compareTerm(ByteBuffer entry, byte[] key) {
+        int length = Postings.readVarInt(entry);
+        int n = Math.min(length, key.length);
+        int cmp = 0;
+        for (int i = 0; i < n && cmp == 0; i++) {
+            cmp = Integer.compare(entry.get() & 0xFF, key[i] & 0xFF);
+        }
+        if (cmp == 0) {
+            cmp = Integer.compare(length, key.length);
+        }
+        return cmp;
+    }
+
+    private Postings readPostings(ByteBuffer entry) {
+        long offset = entry.getLong();
+        int length = entry.getInt();
+        return Postings.decode(buffer.slice((int) offset, length));
+    }
+
+    private byte[] termAt(ByteBuffer entry) {
+        byte[] term = new byte[Postings.readVarInt(entry)];
+        entry.get(term);
+        return term;
+    }
+
+    /**
+     * 合并多个索引段：行表依次拼接，相同词的倒排列表按段顺序拼接
+     */
+    static void merge(List<LogIndexSegment> sources, Path target) throws IOException {
+        try (Writer writer = new Writer(target)) {
+            List<Integer> docBases = new ArrayList<>(sources.size());
+            int docBase = 0;
+            for (LogIndexSegment source : sources) {
+                docBases.add(docBase);
+                for (int doc = 0; doc < source.docCount; doc++) {
+                    writer.addDoc(source.instanceId(doc), source.jobId(doc), source.timestamp(doc));
+                }
+                docBase += source.docCount;
+            }
+
+            PriorityQueue<TermCursor> queue = new PriorityQueue<>(
+                    Comparator.<TermCursor, byte[]>comparing(c -> c.term, Arrays::compareUnsigned)
+                            .thenComparingInt(c -> c.source));
+            for (int k = 0; k < sources.size(); k++) {
+                TermCursor cursor = new TermCursor(sources.get(k), k);
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+            List<Postings> parts = new ArrayList<>();
+            List<Integer> bases = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                byte[] term = queue.peek().term;
+                parts.clear();
+                bases.clear();
+                while (!queue.isEmpty() && Arrays.equals(queue.peek().term, term)) {
+                    TermCursor cursor = queue.poll();
+                    parts.add(cursor.postings);
+                    bases.add(docBases.get(cursor.source));
+                    if (cursor.next()) {
+                        queue.add(cursor);
+                    }
+                }
+                writer.addTerm(term, parts.size() == 1 && bases.get(0) == 0
+                        ? parts.get(0) : Postings.concat(parts, bases));
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * 按词典顺序遍历一个段的所有词
+     */
+    private static final class TermCursor {
+
+        final LogIndexSegment segment;
+        final int source;
+        int index = -1;
+        byte[] term;
+        Postings postings;
+
+        TermCursor(LogIndexSegment segment, int source) {
+            this.segment = segment;
+            this.source = source;
+        }
+
+        boolean next() {
+            if (++index >= segment.termCount) {
+                return false;
+            }
+            ByteBuffer entry = segment.termEntry(index);
+            term = segment.termAt(entry);
+            postings = segment.readPostings(entry);
+            return true;
+        }
+    }
+
+    /**
+     * 索引段写入：先写临时文件，完成后原子替换.
+     *
+     * <p>必须先依次 {@link #addDoc}，再按词的 UTF-8 字节序 {@link #addTerm}，最后 {@link #finish}。</p>
+     */
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path tmpFile;
+        private final Path termsFile;
+        private final DataOutputStream out;
+        private final DataOutputStream terms;
+        private long position;
+        private long postingsOffset = -1;
+        private int termsSize;
+        private int[] termOffsets = new int[1024];
+        private int termCount;
+        private int docCount;
+        private boolean finished;
+
+        Writer(Path target) throws IOException {
+            this.target = target;
+            this.tmpFile = target.resolveSibling(target.getFileName() + ".tmp");
+            this.termsFile = target.resolveSibling(target.getFileName() + ".terms.tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile), 64 * 1024));
+            this.terms = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(termsFile), 64 * 1024));
+        }
+
+        void addDoc(long instanceId, int jobId, long timestamp) throws IOException {
+            out.writeLong(instanceId);
+            out.writeInt(jobId);
+            out.writeLong(timestamp);
+            position += DOC_ENTRY_SIZE;
+            docCount++;
+        }
+
+        void addTerm(byte[] term, Postings postings) throws IOException {
+            if (postingsOffset < 0) {
+                postingsOffset = position;
+            }
+            byte[] encoded = postings.encode();
+            out.write(encoded);
+
+            if (termCount == termOffsets.length) {
+                termOffsets = Arrays.copyOf(termOffsets, termCount * 2);
+            }
+            termOffsets[termCount++] = termsSize;
+            int length = term.length;
+            while ((length & ~0x7F) != 0) {
+                terms.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+                termsSize++;
+            }
+            terms.write(length);
+            terms.write(term);
+            terms.writeLong(position);
+            terms.writeInt(encoded.length);
+            termsSize += 1 + term.length + 12;
+            position += encoded.length;
+        }
+
+        void finish() throws IOException {
+            if (postingsOffset < 0) {
+                postingsOffset = position;
+            }
+            terms.close();
+            long termsOffset = position;
+            Files.copy(termsFile, out);
+            position += termsSize;
+            long termIndexOffset = position;
+            for (int i = 0; i < termCount; i++) {
+                out.writeInt(termOffsets[i]);
+            }
+            position += termCount * 4L;
+            if (position + FOOTER_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("索引段超过 2GB: " + target);
+            }
+            out.writeInt(docCount);
+            out.writeInt(termCount);
+            out.writeLong(postingsOffset);
+            out.writeLong(termsOffset);
+            out.writeLong(termIndexOffset);
+            out.writeInt(SEGMENT_MAGIC);
+            out.close();
+            Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            terms.close();
+            out.close();
+            Files.deleteIfExists(termsFile);
+            if (!finished) {
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 全文查询.
+ *
+ * <p>以空白分隔的多个条件同时满足（AND）；双引号中的内容作为一个条件。
+ * 每个条件分词后按短语匹配：所有词在同一行中依次相邻，只有一个词时即词项查询。</p>
+ * <pre>
+ * ORD-2024-0001                 # 短语 ord 2024 0001
+ * timeout "order 1001"          # 含 timeout，且含短语 order 1001
+ * </pre>
+ */
+final class LogQuery {
+
+    private final List<List<String>> clauses;
+
+    private LogQuery(List<List<String>> clauses) {
+        this.clauses = clauses;
+    }
+
+    static LogQuery parse(String text) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (text != null) {
+            StringBuilder clause = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    addClause(clause, clauses);
+                    quoted = !quoted;
+                } else if (!quoted && Character.isWhitespace(c)) {
+                    addClause(clause, clauses);
+                } else {
+                    clause.append(c);
+                }
+            }
+            addClause(clause, clauses);
+        }
+        return new LogQuery(clauses);
+    }
+
+    private static void addClause(StringBuilder clause, List<List<String>> clauses) {
+        List<String> tokens = LogTokenizer.tokenize(clause.toString());
+        if (!tokens.isEmpty()) {
+            clauses.add(tokens);
+        }
+        clause.setLength(0);
+    }
+
+    boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    /**
+     * 满足所有条件的行号（升序）
+     */
+    int[] match(LogIndexReader reader) throws IOException {
+        Map<String, Postings> postings = new HashMap<>();
+        for (List<String> clause : clauses) {
+            for (String token : clause) {
+                if (!postings.containsKey(token)) {
+                    Postings p = reader.postings(token);
+                    if (p.size() == 0) {
+                        return new int[0];
+                    }
+                    postings.put(token, p);
+                }
+            }
+        }
+
+        int[] result = null;
+        for (List<String> clause : clauses) {
+            int[] docs = matchClause(clause, postings);
+            result = result == null ? docs : intersect(result, docs);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result != null ? result : new int[0];
+    }
+
+    private static int[] matchClause(List<String> tokens, Map<String, Postings> postings) {
+        Postings first = postings.get(tokens.get(0));
+        if (tokens.size() == 1) {
+            return first.docs;
+        }
+        int[] candidates = first.docs;
+        for (int k = 1; k < tokens.size() && candidates.length > 0; k++) {
+            candidates = intersect(candidates, postings.get(tokens.get(k)).docs);
+        }
+
+        int[] matched = new int[candidates.length];
+        int count = 0;
+        int[] indexes = new int[tokens.size()];
+        for (int doc : candidates) {
+            for (int k = 0; k < tokens.size(); k++) {
+                indexes[k] = postings.get(tokens.get(k)).indexOf(doc);
+            }
+            // 以第一个词的每个位置为起点，检查后续词是否依次相邻
+            for (int p = first.positionStart(indexes[0]); p < first.positionEnd(indexes[0]); p++) {
+                int start = first.positions[p];
+                boolean adjacent = true;
+                for (int k = 1; k < tokens.size() && adjacent; k++) {
+                    adjacent = postings.get(tokens.get(k)).hasPosition(indexes[k], start + k);
+                }
+                if (adjacent) {
+                    matched[count++] = doc;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(matched, count);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,594 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import com.simple.pulsejob.admin.common.model.base.PageResult;
+import com.simple.pulsejob.admin.common.model.dto.LogSearchHitDTO;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.transport.metadata.LogMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 日志全文索引.
+ *
+ * <p>每行日志分词后写入当天的内存缓冲，缓冲达到 flush-docs 行或每隔 flush-interval-ms 刷为不可变的索引段
+ * （{@link LogIndexSegment}），与分段日志放在同一日期目录下，随日期目录归档时合并、过期时删除。
+ * 查询同时覆盖磁盘索引段和未刷盘的缓冲，结果按实例汇总。合并后的日期从内存中卸载，之后的查询按需临时加载。</p>
+ *
+ * <p>合并先写清单（输出段 + 输入段），输出段原子落盘后再删除输入段和清单；
+ * 中途退出时，输出段已存在则视为合并完成，加载时跳过清单中的输入段，启动时补删。</p>
+ *
+ * <h3>目录结构</h3>
+ * <pre>
+ * job-logs/
+ * └── 2026-01-09/
+ *     ├── index-000001.fti     # 全文索引段
+ *     ├── index.compacted      # 合并完成标记：记录合并时的最大段序号，之后没有新段的日期不再合并
+ *     ├── index.merging        # 合并清单：第一行为输出段，其余为输入段，合并完成后删除
+ *     └── ...
+ * </pre>
+ *
+ * <h3>配置项</h3>
+ * <pre>
+ * pulse-job:
+ *   log:
+ *     listener:
+ *       search:
+ *         enabled: true               # 启用全文索引
+ *         flush-docs: 100000          # 内存缓冲刷盘的行数
+ *         flush-interval-ms: 60000    # 定时刷盘间隔
+ *         max-days: 31                # 单次查询的最大天数
+ *         compact-max-mb: 1024        # 合并后单个索引段的大小上限
+ * </pre>
+ */
+@Slf4j
+@Component
+public class LogSearchIndex {
+
+    static final String INDEX_PREFIX = "index-";
+    static final String INDEX_SUFFIX = ".fti";
+    static final String COMPACTED_MARKER = "index.compacted";
+    static final String MERGE_MANIFEST = "index.merging";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Value("${pulse-job.log.listener.file.path:./logs/job-logs}")
+    private String logBasePath;
+
+    @Value("${pulse-job.log.listener.search.flush-docs:100000}")
+    private int flushDocs;
+
+    @Value("${pulse-job.log.listener.search.flush-interval-ms:60000}")
+    private long flushIntervalMs;
+
+    @Value("${pulse-job.log.listener.search.max-days:31}")
+    private int maxDays;
+
+    @Value("${pulse-job.log.listener.search.compact-max-mb:1024}")
+    private long compactMaxMb;
+
+    private final Map<LocalDate, DayIndex> days = new ConcurrentHashMap<>();
+
+    /** 刷盘、合并、淘汰都在这个线程上执行，索引段序号不会冲突 */
+    private ScheduledExecutorService flushExecutor;
+
+    private final LongAdder indexedLines = new LongAdder();
+    private final LongAdder flushedSegments = new LongAdder();
+    private final LongAdder searchCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                new JNamedThreadFactory("job-log-index-flush", true));
+        flushExecutor.execute(this::recoverMerges);
+        if (flushIntervalMs > 0) {
+            flushExecutor.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 索引一批日志
+     */
+    public void index(List<LogMessage> logs) {
+        for (LogMessage logMessage : logs) {
+            List<String> tokens = LogTokenizer.tokenize(logMessage.getContent());
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            LocalDateTime time = logMessage.getTimestamp() != null ? logMessage.getTimestamp() : LocalDateTime.now();
+            long instanceId = logMessage.getInstanceId() != null ? logMessage.getInstanceId() : 0L;
+            int jobId = logMessage.getJobId() != null ? logMessage.getJobId() : 0;
+            long timestamp = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            DayIndex day;
+            int buffered;
+            do {
+                // 合并后卸载的日期返回 -1，重新加载后写入
+                day = days.computeIfAbsent(time.toLocalDate(), this::loadDay);
+                buffered = day.add(instanceId, jobId, timestamp, tokens);
+            } while (buffered < 0);
+            indexedLines.increment();
+            if (buffered >= flushDocs && day.flushScheduled.compareAndSet(false, true)) {
+                DayIndex full = day;
+                flushExecutor.execute(() -> flush(full));
+            }
+        }
+    }
+
+    private void flushAll() {
+        for (DayIndex day : days.values()) {
+            flush(day);
+        }
+    }
+
+    private void flush(DayIndex day) {
+        try {
+            LogIndexBuffer buffer;
+            synchronized (day) {
+                if (day.active.docCount() == 0) {
+                    return;
+                }
+                buffer = day.active;
+                day.active = new LogIndexBuffer();
+                day.flushing.add(buffer);
+            }
+            try {
+                Path file = nextSegmentFile(day.date);
+                buffer.writeTo(file);
+                LogIndexSegment segment = LogIndexSegment.open(file);
+                synchronized (day) {
+                    day.segments.add(segment);
+                    day.flushing.remove(buffer);
+                }
+                flushedSegments.increment();
+                log.debug("全文索引刷盘: {}, 行数: {}", file, buffer.docCount());
+            } catch (IOException e) {
+                // 日志本身已写入分段存储，这里只丢失这部分索引
+                log.error("全文索引刷盘失败，丢弃 {} 行索引: {}", buffer.docCount(), day.date, e);
+                synchronized (day) {
+                    day.flushing.remove(buffer);
+                }
+            }
+        } finally {
+            day.flushScheduled.set(false);
+        }
+    }
+
+    private Path nextSegmentFile(LocalDate date) throws IOException {
+        Path dir = dayDir(date);
+        Files.createDirectories(dir);
+        return dir.resolve(String.format("%s%06d%s", INDEX_PREFIX, maxSegmentSeq(dir) + 1, INDEX_SUFFIX));
+    }
+
+    /**
+     * 目录下索引段的最大序号，没有时返回 0
+     */
+    private static int maxSegmentSeq(Path dir) throws IOException {
+        int seq = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(INDEX_PREFIX) && name.endsWith(INDEX_SUFFIX)) {
+                    try {
+                        seq = Math.max(seq, Integer.parseInt(
+                                name.substring(INDEX_PREFIX.length(), name.length() - INDEX_SUFFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+        }
+        return seq;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 合并某天的索引段（日期关闭后由归档任务调用），合并后单个段不超过 compact-max-mb.
+     *
+     * <p>上次合并后没有新的索引段、内存中也没有未刷盘的缓冲时直接跳过，不加载当天的索引。</p>
+     */
+    public void compact(LocalDate date) {
+        runOnFlushThread(() -> {
+            DayIndex loaded = days.get(date);
+            if ((loaded == null || !loaded.hasPending()) && isCompacted(date)) {
+                return;
+            }
+            DayIndex day = loaded != null ? loaded : days.computeIfAbsent(date, this::loadDay);
+            flush(day);
+            List<LogIndexSegment> segments;
+            synchronized (day) {
+                segments = new ArrayList<>(day.segments);
+            }
+
+            long maxBytes = Math.max(compactMaxMb, 1) * 1024 * 1024;
+            List<LogIndexSegment> group = new ArrayList<>();
+            long groupBytes = 0;
+            for (LogIndexSegment segment : segments) {
+                if (!group.isEmpty() && groupBytes + segment.fileSize() > maxBytes) {
+                    merge(day, group);
+                    group = new ArrayList<>();
+                    groupBytes = 0;
+                }
+                group.add(segment);
+                groupBytes += segment.fileSize();
+            }
+            merge(day, group);
+            markCompacted(date);
+            unload(day);
+        });
+    }
+
+    /**
+     * 合并后卸载：之后迟到的日志会重新加载当天的索引
+     */
+    private void unload(DayIndex day) {
+        synchronized (day) {
+            if (day.active.docCount() > 0 || !day.flushing.isEmpty()) {
+                return;
+            }
+            day.unloaded = true;
+        }
+        days.remove(day.date, day);
+    }
+
+    private boolean isCompacted(LocalDate date) {
+        Path dir = dayDir(date);
+        Path marker = dir.resolve(COMPACTED_MARKER);
+        if (!Files.exists(marker)) {
+            return !Files.isDirectory(dir);
+        }
+        try {
+            return maxSegmentSeq(dir) <= Integer.parseInt(Files.readString(marker).trim());
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void markCompacted(LocalDate date) {
+        Path dir = dayDir(date);
+        try {
+            if (Files.isDirectory(dir)) {
+                Files.writeString(dir.resolve(COMPACTED_MARKER), Integer.toString(maxSegmentSeq(dir)));
+            }
+        } catch (IOException e) {
+            // 只影响下次是否跳过合并
+            log.warn("写入全文索引合并标记失败: {}", date, e);
+        }
+    }
+
+    private void merge(DayIndex day, List<LogIndexSegment> group) {
+        if (group.size() < 2) {
+            return;
+        }
+        Path manifest = dayDir(day.date).resolve(MERGE_MANIFEST);
+        try {
+            Path file = nextSegmentFile(day.date);
+            List<String> lines = new ArrayList<>(group.size() + 1);
+            lines.add(file.getFileName().toString());
+            for (LogIndexSegment segment : group) {
+                lines.add(segment.file.getFileName().toString());
+            }
+            Path tmpManifest = manifest.resolveSibling(MERGE_MANIFEST + ".tmp");
+            Files.write(tmpManifest, lines);
+            Files.move(tmpManifest, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            LogIndexSegment.merge(group, file);
+            LogIndexSegment merged = LogIndexSegment.open(file);
+            synchronized (day) {
+                day.segments.removeAll(group);
+                day.segments.add(merged);
+            }
+            for (LogIndexSegment segment : group) {
+                Files.deleteIfExists(segment.file);
+            }
+            Files.deleteIfExists(manifest);
+            log.info("全文索引合并: date={}, {} 个索引段 → {}", day.date, group.size(), file.getFileName());
+        } catch (IOException e) {
+            log.error("全文索引合并失败: {}", day.date, e);
+            try {
+                // 输出段未落盘时输入段完好，清单作废；已落盘时保留清单，由启动时补删输入段
+                List<String> lines = Files.exists(manifest) ? Files.readAllLines(manifest) : List.of();
+                if (lines.isEmpty() || !Files.exists(manifest.resolveSibling(lines.get(0)))) {
+                    Files.deleteIfExists(manifest);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 合并清单中已被输出段覆盖的输入段，没有清单或输出段未落盘时返回空集合
+     */
+    private static Set<String> mergedInputs(Path dir) {
+        Path manifest = dir.resolve(MERGE_MANIFEST);
+        if (!Files.exists(manifest)) {
+            return Set.of();
+        }
+        try {
+            List<String> lines = Files.readAllLines(manifest);
+            if (lines.isEmpty() || !Files.exists(dir.resolve(lines.get(0)))) {
+                return Set.of();
+            }
+            return new HashSet<>(lines.subList(1, lines.size()));
+        } catch (IOException e) {
+            log.warn("读取全文索引合并清单失败: {}", manifest, e);
+            return Set.of();
+        }
+    }
+
+    /**
+     * 启动时在刷盘线程上处理上次退出时未完成的合并：输出段已落盘则删除输入段，否则丢弃清单和临时文件
+     */
+    private void recoverMerges() {
+        Path basePath = Paths.get(logBasePath);
+        if (!Files.isDirectory(basePath)) {
+            return;
+        }
+        try (Stream<Path> dateDirs = Files.list(basePath)) {
+            for (Path dir : dateDirs.toList()) {
+                Path manifest = dir.resolve(MERGE_MANIFEST);
+                if (!Files.exists(manifest)) {
+                    continue;
+                }
+                for (String input : mergedInputs(dir)) {
+                    Files.deleteIfExists(dir.resolve(input));
+                }
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : files.toList()) {
+                        String name = file.getFileName().toString();
+                        if (name.startsWith(INDEX_PREFIX) && name.endsWith(".tmp")) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+                Files.deleteIfExists(manifest);
+                log.warn("已处理未完成的全文索引合并: {}", dir);
+            }
+        } catch (IOException e) {
+            log.error("处理未完成的全文索引合并失败", e);
+        }
+    }
+
+    /**
+     * 日期目录删除前调用：丢弃当天的索引
+     */
+    public void evict(LocalDate date) {
+        runOnFlushThread(() -> days.remove(date));
+    }
+
+    private void runOnFlushThread(Runnable task) {
+        try {
+            flushExecutor.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("全文索引任务执行失败", e.getCause());
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 在日期范围内搜索，按实例汇总，最近命中的在前.
+     *
+     * <p>从结束日期往前逐天查询，凑满 limit 个实例后不再查询更早的日期；
+     * total 为已查询日期内的命中实例数，提前结束时是下限。</p>
+     *
+     * @param text      查询语句
+     * @param startDate 开始日期（为空时同结束日期）
+     * @param endDate   结束日期（为空时为今天）
+     * @param jobId     任务 ID（可选）
+     * @param limit     返回的实例数上限
+     * @return 命中的实例
+     */
+    public PageResult<LogSearchHitDTO> search(String text, LocalDate startDate, LocalDate endDate,
+                                              Integer jobId, int limit) {
+        LogQuery query = LogQuery.parse(text);
+        if (query.isEmpty()) {
+            return PageResult.empty();
+        }
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("开始日期不能晚于结束日期");
+        }
+        if (start.plusDays(Math.max(maxDays, 1)).isBefore(end.plusDays(1))) {
+            throw new IllegalArgumentException("查询范围不能超过 " + maxDays + " 天");
+        }
+
+        searchCount.increment();
+        long begin = System.currentTimeMillis();
+        int max = Math.max(limit, 1);
+        long total = 0;
+        List<LogSearchHitDTO> hits = new ArrayList<>(Math.min(max, 1024));
+        // 每个命中的时间都落在所属日期内，按日期倒序逐天追加即为整体倒序
+        for (LocalDate date = end; !date.isBefore(start) && hits.size() < max; date = date.minusDays(1)) {
+            DayIndex day = days.get(date);
+            if (day == null) {
+                if (!Files.isDirectory(dayDir(date))) {
+                    continue;
+                }
+                // 已卸载的日期临时加载，不放回缓存
+                day = loadDay(date);
+            }
+            List<LogSearchHitDTO> dayHits = searchDay(day, query, jobId);
+            total += dayHits.size();
+            dayHits.sort(Comparator.comparing(LogSearchHitDTO::getLastTime).reversed());
+            hits.addAll(dayHits.subList(0, Math.min(dayHits.size(), max - hits.size())));
+        }
+        log.debug("全文搜索: query={}, 日期 {} ~ {}, 命中实例 {}, 返回 {}, 耗时 {}ms",
+                text, start, end, total, hits.size(), System.currentTimeMillis() - begin);
+        return new PageResult<>(total, hits);
+    }
+
+    private List<LogSearchHitDTO> searchDay(DayIndex day, LogQuery query, Integer jobId) {
+        List<LogIndexReader> readers;
+        synchronized (day) {
+            readers = new ArrayList<>(day.segments.size() + day.flushing.size() + 1);
+            readers.addAll(day.segments);
+            readers.addAll(day.flushing);
+            readers.add(day.active);
+        }
+
+        Map<Long, long[]> instances = new HashMap<>();
+        Map<Long, Integer> jobIds = new HashMap<>();
+        for (LogIndexReader reader : readers) {
+            try {
+                reader.search(query, (instanceId, hitJobId, timestamp) -> {
+                    if (jobId != null && jobId != hitJobId) {
+                        return;
+                    }
+                    // [行数, 最早时间, 最晚时间]
+                    long[] stats = instances.computeIfAbsent(instanceId,
+                            k -> new long[]{0, Long.MAX_VALUE, Long.MIN_VALUE});
+                    stats[0]++;
+                    stats[1] = Math.min(stats[1], timestamp);
+                    stats[2] = Math.max(stats[2], timestamp);
+                    jobIds.put(instanceId, hitJobId);
+                });
+            } catch (IOException | RuntimeException e) {
+                log.warn("全文索引读取失败: {}", day.date, e);
+            }
+        }
+
+        List<LogSearchHitDTO> hits = new ArrayList<>(instances.size());
+        instances.forEach((instanceId, stats) -> {
+            LogSearchHitDTO hit = new LogSearchHitDTO();
+            hit.setInstanceId(instanceId);
+            hit.setJobId(jobIds.get(instanceId));
+            hit.setDate(day.date);
+            hit.setMatchedLines((int) stats[0]);
+            hit.setFirstTime(toDateTime(stats[1]));
+            hit.setLastTime(toDateTime(stats[2]));
+            hits.add(hit);
+        });
+        return hits;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // ==================== 加载 ====================
+
+    private DayIndex loadDay(LocalDate date) {
+        DayIndex day = new DayIndex(date);
+        Path dir = dayDir(date);
+        if (!Files.isDirectory(dir)) {
+            return day;
+        }
+        // 上次合并在删除输入段前退出时，输入段已包含在输出段中
+        Set<String> merged = mergedInputs(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(INDEX_PREFIX) && name.endsWith(INDEX_SUFFIX) && !merged.contains(name);
+                    })
+                    .sorted()
+                    .toList();
+            for (Path file : segments) {
+                try {
+                    day.segments.add(LogIndexSegment.open(file));
+                } catch (IOException e) {
+                    log.error("加载全文索引段失败: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("加载全文索引失败: {}", dir, e);
+        }
+        return day;
+    }
+
+    private Path dayDir(LocalDate date) {
+        return Paths.get(logBasePath, date.format(DATE_FORMATTER));
+    }
+
+    public long getIndexedLines() {
+        return indexedLines.sum();
+    }
+
+    public long getFlushedSegments() {
+        return flushedSegments.sum();
+    }
+
+    public long getSearchCount() {
+        return searchCount.sum();
+    }
+
+    /**
+     * 一天的索引：磁盘索引段 + 刷盘中的缓冲 + 当前缓冲，三者的切换在对象上同步
+     */
+    private static final class DayIndex {
+
+        final LocalDate date;
+        final List<LogIndexSegment> segments = new ArrayList<>();
+        final List<LogIndexBuffer> flushing = new ArrayList<>();
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        LogIndexBuffer active = new LogIndexBuffer();
+        /** 已从 days 中移除，不再接收写入 */
+        boolean unloaded;
+
+        DayIndex(LocalDate date) {
+            this.date = date;
+        }
+
+        /**
+         * @return 当前缓冲的行数，已卸载时返回 -1
+         */
+        synchronized int add(long instanceId, int jobId, long timestamp, List<String> tokens) {
+            if (unloaded) {
+                return -1;
+            }
+            return active.add(instanceId, jobId, timestamp, tokens);
+        }
+
+        /**
+         * 是否有未刷盘的缓冲
+         */
+        synchronized boolean hasPending() {
+            return active.docCount() > 0 || !flushing.isEmpty();
+        }
+    }
+}
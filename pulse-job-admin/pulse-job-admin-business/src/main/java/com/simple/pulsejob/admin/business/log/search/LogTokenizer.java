@@ -0,0 +1,61 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志分词.
+ *
+ * <p>连续的字母、数字为一个词（转小写，超过 {@value #MAX_TOKEN_LENGTH} 个字符截断），
+ * 中日韩文字每个字单独成词，其余字符作为分隔符。订单号 ORD-2024-0001 分为 ord / 2024 / 0001 三个相邻的词，
+ * 查询时按短语匹配。</p>
+ */
+final class LogTokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private LogTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        int length = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flush(token, tokens);
+                length = 0;
+                tokens.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                if (length++ < MAX_TOKEN_LENGTH) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else {
+                flush(token, tokens);
+                length = 0;
+            }
+        }
+        flush(token, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder token, List<String> tokens) {
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+            token.setLength(0);
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,154 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一个词的倒排列表：包含该词的日志行（升序）及词在行内的位置.
+ *
+ * <h3>编码</h3>
+ * <pre>
+ * docFreq
+ * 每行: docDelta, freq, freq × positionDelta    # 均为 varint，行号与位置按差值编码
+ * </pre>
+ */
+final class Postings {
+
+    static final Postings EMPTY = new Postings(new int[0], new int[0], new int[0]);
+
+    /** 日志行号（升序） */
+    final int[] docs;
+    /** 每行中出现的次数 */
+    final int[] freqs;
+    /** 所有位置，按行依次排列，行内升序 */
+    final int[] positions;
+    /** 每行位置在 positions 中的起点，长度为 docs.length + 1 */
+    private final int[] positionStarts;
+
+    Postings(int[] docs, int[] freqs, int[] positions) {
+        this.docs = docs;
+        this.freqs = freqs;
+        this.positions = positions;
+        this.positionStarts = new int[docs.length + 1];
+        for (int i = 0; i < docs.length; i++) {
+            positionStarts[i + 1] = positionStarts[i] + freqs[i];
+        }
+    }
+
+    int size() {
+        return docs.length;
+    }
+
+    /**
+     * 行号在列表中的下标，不存在时返回负数
+     */
+    int indexOf(int doc) {
+        return Arrays.binarySearch(docs, doc);
+    }
+
+    int positionStart(int index) {
+        return positionStarts[index];
+    }
+
+    int positionEnd(int index) {
+        return positionStarts[index + 1];
+    }
+
+    boolean hasPosition(int index, int position) {
+        return Arrays.binarySearch(positions, positionStarts[index], positionStarts[index + 1], position) >= 0;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(docs.length * 3 + positions.length + 4);
+        writeVarInt(out, docs.length);
+        int lastDoc = 0;
+        int p = 0;
+        for (int i = 0; i < docs.length; i++) {
+            writeVarInt(out, docs[i] - lastDoc);
+            lastDoc = docs[i];
+            writeVarInt(out, freqs[i]);
+            int lastPosition = 0;
+            for (int j = 0; j < freqs[i]; j++, p++) {
+                writeVarInt(out, positions[p] - lastPosition);
+                lastPosition = positions[p];
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 从 buffer 当前位置解码
+     */
+    static Postings decode(ByteBuffer buffer) {
+        int size = readVarInt(buffer);
+        int[] docs = new int[size];
+        int[] freqs = new int[size];
+        int[] positions = new int[Math.max(size, 4)];
+        int p = 0;
+        int doc = 0;
+        for (int i = 0; i < size; i++) {
+            doc += readVarInt(buffer);
+            docs[i] = doc;
+            int freq = readVarInt(buffer);
+            freqs[i] = freq;
+            if (p + freq > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, p + freq));
+            }
+            int position = 0;
+            for (int j = 0; j < freq; j++) {
+                position += readVarInt(buffer);
+                positions[p++] = position;
+            }
+        }
+        return new Postings(docs, freqs, Arrays.copyOf(positions, p));
+    }
+
+    /**
+     * 按顺序拼接多个段的倒排列表，行号加上各段的起始行号
+     */
+    static Postings concat(List<Postings> parts, List<Integer> docBases) {
+        int size = 0;
+        int positionCount = 0;
+        for (Postings part : parts) {
+            size += part.docs.length;
+            positionCount += part.positions.length;
+        }
+        int[] docs = new int[size];
+        int[] freqs = new int[size];
+        int[] positions = new int[positionCount];
+        int d = 0;
+        int p = 0;
+        for (int k = 0; k < parts.size(); k++) {
+            Postings part = parts.get(k);
+            int base = docBases.get(k);
+            for (int i = 0; i < part.docs.length; i++, d++) {
+                docs[d] = part.docs[i] + base;
+                freqs[d] = part.freqs[i];
+            }
+            System.arraycopy(part.positions, 0, positions, p, part.positions.length);
+            p += part.positions.length;
+        }
+        return new Postings(docs, freqs, positions);
+    }
+
+    static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import com.simple.pulsejob.admin.scheduler.log.JobLogListener;
+import com.simple.pulsejob.transport.metadata.LogMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 全文索引监听器.
+ *
+ * <p>日志到达时增量写入 {@link LogSearchIndex}，用于按关键字（如订单号）查找输出过该日志的实例。</p>
+ *
+ * <p>配置项：</p>
+ * <pre>
+ * pulse-job.log.listener.search.enabled=true  # 启用全文索引（默认 true）
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "pulse-job.log.listener.search.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchIndexLogListener implements JobLogListener {
+
+    private final LogSearchIndex searchIndex;
+
+    @Override
+    public void onLog(LogMessage logMessage) {
+        onBatchLog(List.of(logMessage));
+    }
+
+    @Override
+    public void onBatchLog(List<LogMessage> logs) {
+        searchIndex.index(logs);
+    }
+
+    @Override
+    public int getOrder() {
+        return 60;
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+}
@@ -1,7 +1,10 @@
 package com.simple.pulsejob.admin.business.service;
 
+import com.simple.pulsejob.admin.common.model.base.PageResult;
+import com.simple.pulsejob.admin.common.model.dto.LogSearchHitDTO;
 import com.simple.pulsejob.admin.common.model.entity.JobLog;
 import com.simple.pulsejob.admin.common.model.enums.LogLevelEnum;
+import com.simple.pulsejob.admin.common.model.param.LogSearchQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -47,6 +50,14 @@ public interface IJobLogService {
 
 
 
+    /**
+     * 全文搜索文件日志，按实例汇总
+     *
+     * @param query 搜索参数
+     * @return 命中的实例（total 为命中实例总数，list 最多 limit 个）
+     */
+    PageResult<LogSearchHitDTO> searchLogs(LogSearchQuery query);
+
     // ==================== 统计相关 ====================
 
     /**
@@ -8,6 +8,7 @@ import com.simple.pulsejob.admin.common.model.enums.RegisterTypeEnum;
 import com.simple.pulsejob.admin.common.model.param.JobExecutorParam;
 import com.simple.pulsejob.admin.common.model.param.JobExecutorQuery;
 import com.simple.pulsejob.admin.persistence.mapper.JobExecutorMapper;
+import com.simple.pulsejob.admin.scheduler.cache.JobInfoCache;
 import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
 import com.simple.pulsejob.admin.websocket.service.WebSocketBroadcastService;
 import jakarta.persistence.criteria.Predicate;
@@ -40,6 +41,7 @@ public class JobExecutorServiceImpl implements IJobExecutorService {
     private final JobExecutorMapper jobExecutorMapper;
     private final ExecutorChannelGroupManager channelGroupManager;
     private final WebSocketBroadcastService broadcastService;
+    private final JobInfoCache jobInfoCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -197,6 +199,10 @@ public class JobExecutorServiceImpl implements IJobExecutorService {
         // 使用 saveAndFlush 确保立即持久化到数据库
         JobExecutor saved = jobExecutorMapper.save(existing);
         log.info("执行器更新已保存: id={}, name={}", saved.getId(), saved.getExecutorName());
+        if (nameChanged) {
+            // 缓存的任务定义中带有执行器名称
+            jobInfoCache.invalidateExecutor(saved.getId());
+        }
 
         // 清理旧名称下的 Channel 连接并广播下线通知（放在 try-catch 中避免影响主事务）
 //        if (shouldClearAddress) {
@@ -217,6 +223,7 @@ public class JobExecutorServiceImpl implements IJobExecutorService {
     @Override
     public void deleteJobExecutor(Integer id) {
         jobExecutorMapper.deleteById(id);
+        jobInfoCache.invalidateExecutor(id);
     }
 
     @Override
@@ -8,6 +8,8 @@ import com.simple.pulsejob.admin.common.model.entity.JobInfo;
 import com.simple.pulsejob.admin.common.model.param.JobInfoParam;
 import com.simple.pulsejob.admin.common.model.param.JobInfoQuery;
 import com.simple.pulsejob.admin.persistence.mapper.JobInfoMapper;
+import com.simple.pulsejob.admin.scheduler.CronJobScheduler;
+import com.simple.pulsejob.admin.scheduler.cache.JobInfoCache;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,13 +33,15 @@ import java.util.Optional;
 public class JobInfoServiceImpl implements IJobInfoService {
 
     private final JobInfoMapper jobInfoMapper;
+    private final CronJobScheduler cronJobScheduler;
+    private final JobInfoCache jobInfoCache;
 
     @Override
     public void addJobInfo(JobInfoParam jobInfoParam) {
         JobInfo jobInfo = JobInfoMapping.INSTANCE.toJobInfo(jobInfoParam);
         jobInfo.setCreateTime(LocalDateTime.now());
         jobInfo.setUpdateTime(LocalDateTime.now());
-        jobInfoMapper.save(jobInfo);
+        onJobSaved(jobInfoMapper.save(jobInfo));
     }
 
     @Override
@@ -70,12 +74,16 @@ public class JobInfoServiceImpl implements IJobInfoService {
             throw new IllegalArgumentException("更新任务信息时ID不能为空");
         }
         jobInfo.setUpdateTime(LocalDateTime.now());
-        return jobInfoMapper.save(jobInfo);
+        JobInfo saved = jobInfoMapper.save(jobInfo);
+        onJobSaved(saved);
+        return saved;
     }
 
     @Override
     public void deleteJobInfo(Integer id) {
         jobInfoMapper.deleteById(id);
+        jobInfoCache.invalidate(id);
+        cronJobScheduler.onJobRemoved(id);
     }
 
     @Override
@@ -89,7 +97,7 @@ public class JobInfoServiceImpl implements IJobInfoService {
             jobInfo.setCreateTime(LocalDateTime.now());
             jobInfo.setUpdateTime(LocalDateTime.now());
         });
-        jobInfoMapper.saveAll(jobInfos);
+        jobInfoMapper.saveAll(jobInfos).forEach(this::onJobSaved);
     }
 
     @Override
@@ -177,8 +185,16 @@ public class JobInfoServiceImpl implements IJobInfoService {
         jobInfoMapper.findById(id).ifPresent(job -> {
             job.setStatus(enabled ? 1 : 0);
             job.setUpdateTime(LocalDateTime.now());
-            jobInfoMapper.save(job);
+            onJobSaved(jobInfoMapper.save(job));
             log.info("任务状态已更新: id={}, enabled={}", id, enabled);
         });
     }
-}    
\ No newline at end of file
+
+    /**
+     * 任务保存后同步缓存和调度器（先更新缓存，调度器触发时读取的就是最新定义）
+     */
+    private void onJobSaved(JobInfo saved) {
+        jobInfoCache.put(saved);
+        cronJobScheduler.onJobSaved(saved);
+    }
+}
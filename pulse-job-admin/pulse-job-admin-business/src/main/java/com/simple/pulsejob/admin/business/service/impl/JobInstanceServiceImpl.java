@@ -5,6 +5,7 @@ import com.simple.pulsejob.admin.business.service.IJobInstanceService;
 import com.simple.pulsejob.admin.common.model.entity.JobInstance;
 import com.simple.pulsejob.admin.common.model.enums.JobInstanceStatus;
 import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,10 +23,13 @@ public class JobInstanceServiceImpl implements IJobInstanceService {
 
     private final JobInstanceMapper jobInstanceMapper;
 
+    private final SnowflakeIdGenerator instanceIdGenerator;
+
     @Override
     @Transactional
     public Long createInstance(Integer jobId, Integer executorId) {
         JobInstance instance = new JobInstance();
+        instance.setId(instanceIdGenerator.next());
         instance.setJobId(jobId);
         instance.setExecutorId(executorId);
         instance.setTriggerTime(LocalDateTime.now());
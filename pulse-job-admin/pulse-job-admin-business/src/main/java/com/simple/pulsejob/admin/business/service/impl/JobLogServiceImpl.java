@@ -1,8 +1,12 @@
 package com.simple.pulsejob.admin.business.service.impl;
 
+import com.simple.pulsejob.admin.business.log.search.LogSearchIndex;
 import com.simple.pulsejob.admin.business.service.IJobLogService;
+import com.simple.pulsejob.admin.common.model.base.PageResult;
+import com.simple.pulsejob.admin.common.model.dto.LogSearchHitDTO;
 import com.simple.pulsejob.admin.common.model.entity.JobLog;
 import com.simple.pulsejob.admin.common.model.enums.LogLevelEnum;
+import com.simple.pulsejob.admin.common.model.param.LogSearchQuery;
 import com.simple.pulsejob.admin.persistence.mapper.JobLogMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +27,7 @@ import java.util.List;
 public class JobLogServiceImpl implements IJobLogService {
 
     private final JobLogMapper jobLogMapper;
+    private final LogSearchIndex logSearchIndex;
 
     // ==================== 存储相关 ====================
 
@@ -49,6 +54,13 @@ public class JobLogServiceImpl implements IJobLogService {
         return jobLogMapper.findByInstanceId(instanceId, pageable);
     }
 
+    @Override
+    public PageResult<LogSearchHitDTO> searchLogs(LogSearchQuery query) {
+        int limit = query.getLimit() != null ? Math.min(Math.max(query.getLimit(), 1), 1000) : 100;
+        return logSearchIndex.search(
+                query.getQuery(), query.getStartDate(), query.getEndDate(), query.getJobId(), limit);
+    }
+
     // ==================== 统计相关 ====================
 
     @Override
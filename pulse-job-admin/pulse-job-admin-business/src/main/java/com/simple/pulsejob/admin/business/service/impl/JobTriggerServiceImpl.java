@@ -2,10 +2,9 @@ package com.simple.pulsejob.admin.business.service.impl;
 
 import com.simple.pulsejob.admin.business.service.IJobTriggerService;
 import com.simple.pulsejob.admin.common.model.dto.JobInfoWithExecutorDTO;
-import com.simple.pulsejob.admin.common.model.entity.JobInfo;
-import com.simple.pulsejob.admin.persistence.mapper.JobInfoMapper;
 import com.simple.pulsejob.admin.scheduler.JobScheduleEngine;
 import com.simple.pulsejob.admin.scheduler.ScheduleContext;
+import com.simple.pulsejob.admin.scheduler.cache.JobInfoCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,7 +19,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class JobTriggerServiceImpl implements IJobTriggerService {
 
-    private final JobInfoMapper jobInfoMapper;
+    private final JobInfoCache jobInfoCache;
     private final JobScheduleEngine jobScheduleEngine;
 
     @Override
@@ -30,7 +29,7 @@ public class JobTriggerServiceImpl implements IJobTriggerService {
 
     @Override
     public void trigger(Integer jobId, String params) {
-        JobInfoWithExecutorDTO jobDetail = jobInfoMapper.findWithExecutorNameById(jobId)
+        JobInfoWithExecutorDTO jobDetail = jobInfoCache.getDetail(jobId)
                 .orElseThrow(() -> new IllegalStateException("JobInfo not found, jobId=" + jobId));
 
         // 检查任务是否启用
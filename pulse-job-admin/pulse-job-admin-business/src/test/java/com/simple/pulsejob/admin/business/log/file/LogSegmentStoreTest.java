@@ -0,0 +1,195 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import com.simple.pulsejob.transport.metadata.LogMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSegmentStoreTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 9);
+
+    @TempDir
+    Path baseDir;
+
+    private final List<LogSegmentStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(LogSegmentStore::destroy);
+    }
+
+    @Test
+    void appendedChunksRoundTripThroughIndex() throws IOException {
+        LogSegmentStore store = newStore();
+        store.append(List.of(log(1L, 10, "first"), log(2L, 20, "other"), log(1L, 10, "second")));
+        store.append(List.of(log(1L, 10, "third\ncontinued")));
+
+        List<LogChunkRef> chunks = store.chunks(1L, DATE);
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("first", "second"), LogChunkReader.readLines(chunks.get(0), 0, 100));
+        assertEquals(List.of("third", "continued"), LogChunkReader.readLines(chunks.get(1), 0, 100));
+        assertEquals(4, store.lineCount(1L, DATE));
+        assertEquals(List.of(1L), store.instanceIds(10, DATE));
+        assertEquals(List.of("other"), LogChunkReader.readLines(store.chunks(2L, DATE).get(0), 0, 100));
+    }
+
+    @Test
+    void reloadedIndexMatchesWrittenChunks() throws IOException {
+        LogSegmentStore writer = newStore();
+        for (int i = 0; i < 50; i++) {
+            writer.append(List.of(log(i % 5, 1, "line-" + i)));
+        }
+        writer.destroy();
+
+        LogSegmentStore reader = newStore();
+        for (long instanceId = 0; instanceId < 5; instanceId++) {
+            List<String> lines = readAll(reader, instanceId);
+            assertEquals(10, lines.size());
+            for (int k = 0; k < lines.size(); k++) {
+                assertEquals("line-" + (instanceId + 5 * k), lines.get(k));
+            }
+        }
+    }
+
+    @Test
+    void recoversChunksMissingFromIndex() throws IOException {
+        LogSegmentStore writer = newStore();
+        writer.append(List.of(log(7L, 1, "a")));
+        writer.append(List.of(log(7L, 1, "b")));
+        writer.append(List.of(log(7L, 1, "c")));
+        writer.destroy();
+
+        // 模拟写入索引前退出：只保留第一条索引项，并留下半条
+        Path indexFile = onlyFile(LogSegmentStore.INDEX_SUFFIX);
+        truncate(indexFile, LogSegmentStore.INDEX_ENTRY_SIZE + LogSegmentStore.INDEX_ENTRY_SIZE / 2);
+
+        LogSegmentStore reader = newStore();
+        assertEquals(List.of("a", "b", "c"), readAll(reader, 7L));
+        assertEquals(3, reader.lineCount(7L, DATE));
+    }
+
+    @Test
+    void ignoresTornChunkAtEndOfSegment() throws IOException {
+        LogSegmentStore writer = newStore();
+        writer.append(List.of(log(7L, 1, "complete")));
+        writer.append(List.of(log(7L, 1, "torn")));
+        writer.destroy();
+
+        // 最后一个块只落盘了一部分，对应的索引项也没有写入
+        Path dataFile = onlyFile(LogSegmentStore.DATA_SUFFIX);
+        truncate(dataFile, Files.size(dataFile) - 2);
+        truncate(onlyFile(LogSegmentStore.INDEX_SUFFIX), LogSegmentStore.INDEX_ENTRY_SIZE);
+
+        LogSegmentStore reader = newStore();
+        assertEquals(List.of("complete"), readAll(reader, 7L));
+    }
+
+    @Test
+    void rollsSegmentsWhenFull() throws IOException {
+        LogSegmentStore store = newStore();
+        setField(store, "segmentSizeMb", 0L);
+        store.append(List.of(log(3L, 1, "one")));
+        store.append(List.of(log(3L, 1, "two")));
+
+        assertEquals(2, store.closedSegments(DATE).size());
+        assertEquals(List.of("one", "two"), readAll(store, 3L));
+    }
+
+    @Test
+    void indexEntryLayoutMatchesChunkHeader() throws IOException {
+        LogSegmentStore store = newStore();
+        store.append(List.of(log(42L, 9, "payload")));
+        store.destroy();
+
+        ByteBuffer entry = ByteBuffer.wrap(Files.readAllBytes(onlyFile(LogSegmentStore.INDEX_SUFFIX)));
+        assertEquals(LogSegmentStore.INDEX_ENTRY_SIZE, entry.remaining());
+        assertEquals(42L, entry.getLong());
+        assertEquals(9, entry.getInt());
+        long offset = entry.getLong();
+        int length = entry.getInt();
+        assertEquals(1, entry.getInt());
+        assertEquals(LogSegmentStore.CHUNK_HEADER_SIZE, offset);
+        assertEquals("payload\n".length(), length);
+
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(onlyFile(LogSegmentStore.DATA_SUFFIX)));
+        assertEquals(LogSegmentStore.CHUNK_MAGIC, header.getInt());
+        assertEquals(42L, header.getLong());
+        assertEquals(9, header.getInt());
+        assertEquals(length, header.getInt());
+        assertEquals(1, header.getInt());
+    }
+
+    // ==================== 工具 ====================
+
+    private LogSegmentStore newStore() {
+        LogSegmentStore store = new LogSegmentStore();
+        setField(store, "logBasePath", baseDir.toString());
+        setField(store, "segmentSizeMb", 256L);
+        setField(store, "writerLanes", 1);
+        setField(store, "fsyncIntervalMs", 0L);
+        setField(store, "indexCacheDays", 3);
+        store.init();
+        stores.add(store);
+        return store;
+    }
+
+    static LogMessage log(long instanceId, int jobId, String content) {
+        LogMessage message = new LogMessage();
+        message.setInstanceId(instanceId);
+        message.setJobId(jobId);
+        message.setContent(content);
+        message.setTimestamp(LocalDateTime.of(DATE, LocalTime.NOON));
+        return message;
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> readAll(LogSegmentStore store, long instanceId) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (LogChunkRef chunk : store.chunks(instanceId, DATE)) {
+            lines.addAll(LogChunkReader.readLines(chunk, 0, Integer.MAX_VALUE));
+        }
+        return lines;
+    }
+
+    private Path onlyFile(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(baseDir.resolve(DATE.toString()))) {
+            List<Path> matched = files.filter(p -> p.getFileName().toString().endsWith(suffix)).toList();
+            assertEquals(1, matched.size(), "expected one " + suffix + " file: " + matched);
+            return matched.get(0);
+        }
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        assertTrue(size <= Files.size(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
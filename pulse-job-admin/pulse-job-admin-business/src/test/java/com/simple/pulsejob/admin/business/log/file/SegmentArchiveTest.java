@@ -0,0 +1,153 @@
+package com.simple.pulsejob.admin.business.log.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentArchiveTest {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsAnyRangeAcrossBlocks() throws IOException {
+        // 最后一块不满，覆盖块尾部分读取
+        byte[] raw = sample(BLOCK_SIZE * 5 + 123);
+        Path archiveFile = archive(raw);
+
+        try (LogByteSource source = LogByteSource.open(archiveFile)) {
+            assertTrue(source instanceof SegmentArchive);
+            assertEquals(raw.length, source.size());
+            Random random = new Random(7);
+            for (int i = 0; i < 200; i++) {
+                int position = random.nextInt(raw.length);
+                int size = random.nextInt(BLOCK_SIZE * 3);
+                assertRange(raw, source, position, size);
+            }
+            // 恰好落在块边界上
+            assertRange(raw, source, BLOCK_SIZE - 1, 2);
+            assertRange(raw, source, BLOCK_SIZE * 5, 123);
+            assertRange(raw, source, 0, raw.length);
+        }
+    }
+
+    @Test
+    void readPastEndIsTruncated() throws IOException {
+        byte[] raw = sample(BLOCK_SIZE + 10);
+        try (LogByteSource source = LogByteSource.open(archive(raw))) {
+            ByteBuffer tail = source.read(raw.length - 5, 100);
+            assertEquals(5, tail.remaining());
+            assertEquals(0, source.read(raw.length, 10).remaining());
+        }
+    }
+
+    @Test
+    void transferToCopiesRawBytes() throws IOException {
+        byte[] raw = sample(BLOCK_SIZE * 3 + 1);
+        try (LogByteSource source = LogByteSource.open(archive(raw))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long written = source.transferTo(100, BLOCK_SIZE * 2L, Channels.newChannel(out));
+            assertEquals(BLOCK_SIZE * 2L, written);
+            assertArrayEquals(Arrays.copyOfRange(raw, 100, 100 + BLOCK_SIZE * 2), out.toByteArray());
+        }
+    }
+
+    @Test
+    void emptySegmentArchivesToEmptyContent() throws IOException {
+        try (LogByteSource source = LogByteSource.open(archive(new byte[0]))) {
+            assertEquals(0, source.size());
+            assertEquals(0, source.read(0, 10).remaining());
+        }
+    }
+
+    @Test
+    void rejectsCorruptFooter() throws IOException {
+        Path archiveFile = archive(sample(BLOCK_SIZE * 2));
+        try (FileChannel channel = FileChannel.open(archiveFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0).flip(), channel.size() - 4);
+        }
+        assertThrows(IOException.class, () -> LogByteSource.open(archiveFile).close());
+    }
+
+    @Test
+    void deletedSegmentFallsBackToArchive() throws IOException {
+        byte[] raw = sample(BLOCK_SIZE * 2 + 7);
+        Path dataFile = dir.resolve("segment-00-000001" + LogSegmentStore.DATA_SUFFIX);
+        Files.write(dataFile, raw);
+        SegmentArchive.write(dataFile, BLOCK_SIZE);
+        Files.delete(dataFile);
+
+        // 读取方拿到的仍是 .log 的块引用
+        LogChunkRef chunk = new LogChunkRef(dataFile, BLOCK_SIZE - 3, 10, -1);
+        try (LogByteSource source = LogByteSource.open(chunk.file())) {
+            assertTrue(source instanceof SegmentArchive);
+            assertRange(raw, source, (int) chunk.offset(), (int) chunk.length());
+        }
+    }
+
+    @Test
+    void archivedSegmentReadsSameLinesAsOriginal() throws IOException {
+        Path dataFile = dir.resolve("segment-00-000001" + LogSegmentStore.DATA_SUFFIX);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append("line-").append(i).append('\n');
+        }
+        Files.writeString(dataFile, content);
+        Path archiveFile = SegmentArchive.write(dataFile, BLOCK_SIZE);
+        assertTrue(Files.size(archiveFile) < Files.size(dataFile), "archive should be smaller");
+
+        LogChunkRef original = new LogChunkRef(dataFile, 0, Files.size(dataFile), -1);
+        LogChunkRef archived = new LogChunkRef(archiveFile, 0, Files.size(dataFile), -1);
+        assertEquals(LogChunkReader.readLines(original, 500, 1000), LogChunkReader.readLines(archived, 500, 1000));
+        assertEquals(LogChunkReader.tailLines(original, 30), LogChunkReader.tailLines(archived, 30));
+        assertEquals(2000, LogChunkReader.countLines(archived));
+        assertEquals(List.of("line-1999"), LogChunkReader.tailLines(archived, 1));
+    }
+
+    // ==================== 工具 ====================
+
+    private Path archive(byte[] raw) throws IOException {
+        Path dataFile = dir.resolve("segment-00-000001" + LogSegmentStore.DATA_SUFFIX);
+        Files.write(dataFile, raw);
+        return SegmentArchive.write(dataFile, BLOCK_SIZE);
+    }
+
+    /**
+     * 半随机内容：有重复（可压缩）也有随机字节
+     */
+    private static byte[] sample(int size) {
+        byte[] raw = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            raw[i] = i % 3 == 0 ? (byte) random.nextInt() : (byte) ('a' + i % 26);
+        }
+        return raw;
+    }
+
+    private static void assertRange(byte[] raw, LogByteSource source, int position, int size) throws IOException {
+        int end = Math.min(position + size, raw.length);
+        ByteBuffer buffer = source.read(position, size);
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.get(actual);
+        assertArrayEquals(Arrays.copyOfRange(raw, position, end), actual,
+                "range [" + position + ", " + end + ")");
+    }
+}
@@ -0,0 +1,105 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogIndexSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void flushedSegmentAnswersLikeBuffer() throws IOException {
+        LogIndexBuffer buffer = buffer(0, "order ORD-2024-0001 created", "payment timeout for ORD-2024-0002",
+                "订单超时 retry", "order ORD-2024-0001 paid");
+        LogIndexSegment segment = write(buffer, "index-000001.fti");
+
+        assertEquals(buffer.docCount(), segment.docCount());
+        for (String query : List.of("order", "ORD-2024-0001", "\"payment timeout\"", "超时", "timeout retry",
+                "missing", "order paid")) {
+            assertArrayEquals(docs(buffer, query), docs(segment, query), query);
+        }
+        for (int doc = 0; doc < segment.docCount(); doc++) {
+            assertEquals(buffer.instanceId(doc), segment.instanceId(doc));
+            assertEquals(buffer.jobId(doc), segment.jobId(doc));
+            assertEquals(buffer.timestamp(doc), segment.timestamp(doc));
+        }
+    }
+
+    @Test
+    void mergedSegmentEqualsConcatenation() throws IOException {
+        LogIndexSegment first = write(buffer(0, "alpha beta", "beta gamma"), "index-000001.fti");
+        LogIndexSegment second = write(buffer(100, "gamma delta", "alpha"), "index-000002.fti");
+        Path target = dir.resolve("index-000003.fti");
+
+        LogIndexSegment.merge(List.of(first, second), target);
+        LogIndexSegment merged = LogIndexSegment.open(target);
+
+        assertEquals(4, merged.docCount());
+        assertArrayEquals(new int[]{0, 3}, docs(merged, "alpha"));
+        assertArrayEquals(new int[]{1, 2}, docs(merged, "gamma"));
+        assertArrayEquals(new int[]{2}, docs(merged, "\"gamma delta\""));
+        assertEquals(100, merged.instanceId(2));
+        assertEquals(101, merged.instanceId(3));
+    }
+
+    @Test
+    void rejectsCorruptFooter() throws IOException {
+        write(buffer(0, "alpha"), "index-000001.fti");
+        Path file = dir.resolve("index-000001.fti");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0).flip(), channel.size() - 4);
+        }
+        assertThrows(IOException.class, () -> LogIndexSegment.open(file));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        write(buffer(0, "alpha beta"), "index-000001.fti");
+        Path file = dir.resolve("index-000001.fti");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> LogIndexSegment.open(file));
+    }
+
+    // ==================== 工具 ====================
+
+    /**
+     * 每行一个实例，instanceId 从 firstInstanceId 起递增
+     */
+    private static LogIndexBuffer buffer(long firstInstanceId, String... lines) {
+        LogIndexBuffer buffer = new LogIndexBuffer();
+        for (int i = 0; i < lines.length; i++) {
+            buffer.add(firstInstanceId + i, 1, 1_000L + i, LogTokenizer.tokenize(lines[i]));
+        }
+        return buffer;
+    }
+
+    private LogIndexSegment write(LogIndexBuffer buffer, String name) throws IOException {
+        Path file = dir.resolve(name);
+        buffer.writeTo(file);
+        return LogIndexSegment.open(file);
+    }
+
+    private static int[] docs(LogIndexReader reader, String query) throws IOException {
+        List<Integer> docs = new ArrayList<>();
+        LogQuery parsed = LogQuery.parse(query);
+        for (int doc : parsed.match(reader)) {
+            docs.add(doc);
+        }
+        return docs.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
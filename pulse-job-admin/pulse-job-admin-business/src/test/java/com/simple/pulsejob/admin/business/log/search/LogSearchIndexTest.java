@@ -0,0 +1,184 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import com.simple.pulsejob.admin.common.model.base.PageResult;
+import com.simple.pulsejob.admin.common.model.dto.LogSearchHitDTO;
+import com.simple.pulsejob.transport.metadata.LogMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSearchIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 9);
+
+    @TempDir
+    Path baseDir;
+
+    private final List<LogSearchIndex> indexes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        indexes.forEach(LogSearchIndex::destroy);
+    }
+
+    @Test
+    void compactMergesSegmentsAndKeepsHits() throws IOException {
+        LogSearchIndex index = newIndex(1);
+        for (int i = 0; i < 5; i++) {
+            index.index(List.of(log(i, DATE, "payment timeout " + i)));
+        }
+        index.compact(DATE);
+
+        assertEquals(1, segmentFiles(DATE).size());
+        assertTrue(Files.exists(dayDir(DATE).resolve(LogSearchIndex.COMPACTED_MARKER)));
+        PageResult<LogSearchHitDTO> result = index.search("timeout", DATE, DATE, null, 100);
+        assertEquals(5L, result.getTotal());
+
+        // 没有新段时再次合并直接跳过
+        index.compact(DATE);
+        assertEquals(1, segmentFiles(DATE).size());
+    }
+
+    @Test
+    void lateLogsAfterCompactionAreStillIndexed() {
+        LogSearchIndex index = newIndex(100);
+        index.index(List.of(log(1, DATE, "before compaction")));
+        index.compact(DATE);
+        index.index(List.of(log(2, DATE, "after compaction")));
+
+        assertEquals(2L, index.search("compaction", DATE, DATE, null, 100).getTotal());
+    }
+
+    @Test
+    void interruptedMergeWithOutputSkipsCoveredInputs() throws IOException {
+        Path dir = Files.createDirectories(dayDir(DATE));
+        LogIndexSegment first = segment(dir, "index-000001.fti", 1L, "disk full");
+        LogIndexSegment second = segment(dir, "index-000002.fti", 2L, "disk full again");
+        LogIndexSegment.merge(List.of(first, second), dir.resolve("index-000003.fti"));
+        // 合并输出已落盘，删除输入段之前退出
+        Files.write(dir.resolve(LogSearchIndex.MERGE_MANIFEST),
+                List.of("index-000003.fti", "index-000001.fti", "index-000002.fti"));
+
+        LogSearchIndex index = newIndex(100);
+        PageResult<LogSearchHitDTO> result = index.search("disk", DATE, DATE, null, 100);
+        assertEquals(2L, result.getTotal());
+        for (LogSearchHitDTO hit : result.getList()) {
+            assertEquals(1, hit.getMatchedLines());
+        }
+
+        index.destroy();
+        assertEquals(List.of("index-000003.fti"), segmentFiles(DATE));
+        assertFalse(Files.exists(dir.resolve(LogSearchIndex.MERGE_MANIFEST)));
+    }
+
+    @Test
+    void interruptedMergeWithoutOutputKeepsInputs() throws IOException {
+        Path dir = Files.createDirectories(dayDir(DATE));
+        segment(dir, "index-000001.fti", 1L, "disk full");
+        segment(dir, "index-000002.fti", 2L, "disk full again");
+        Files.write(dir.resolve(LogSearchIndex.MERGE_MANIFEST),
+                List.of("index-000003.fti", "index-000001.fti", "index-000002.fti"));
+        Files.write(dir.resolve("index-000003.fti.tmp"), new byte[]{1, 2, 3});
+
+        LogSearchIndex index = newIndex(100);
+        assertEquals(2L, index.search("disk", DATE, DATE, null, 100).getTotal());
+
+        index.destroy();
+        assertEquals(List.of("index-000001.fti", "index-000002.fti"), segmentFiles(DATE));
+        assertFalse(Files.exists(dir.resolve(LogSearchIndex.MERGE_MANIFEST)));
+        assertFalse(Files.exists(dir.resolve("index-000003.fti.tmp")));
+    }
+
+    @Test
+    void searchStopsAtLimitNewestFirst() {
+        LogSearchIndex index = newIndex(100);
+        for (int d = 0; d < 3; d++) {
+            LocalDate date = DATE.plusDays(d);
+            for (int i = 0; i < 3; i++) {
+                index.index(List.of(log(d * 10L + i, date, "error code " + i)));
+            }
+        }
+
+        PageResult<LogSearchHitDTO> result = index.search("error", DATE, DATE.plusDays(2), null, 4);
+
+        assertEquals(4, result.getList().size());
+        // 只查询了最近两天
+        assertEquals(6L, result.getTotal());
+        LocalDateTime previous = LocalDateTime.MAX;
+        for (LogSearchHitDTO hit : result.getList()) {
+            assertFalse(hit.getLastTime().isAfter(previous));
+            previous = hit.getLastTime();
+        }
+        assertEquals(DATE.plusDays(2), result.getList().get(0).getDate());
+        assertEquals(DATE.plusDays(1), result.getList().get(3).getDate());
+    }
+
+    // ==================== 工具 ====================
+
+    private LogSearchIndex newIndex(int flushDocs) {
+        LogSearchIndex index = new LogSearchIndex();
+        setField(index, "logBasePath", baseDir.toString());
+        setField(index, "flushDocs", flushDocs);
+        setField(index, "flushIntervalMs", 0L);
+        setField(index, "maxDays", 31);
+        setField(index, "compactMaxMb", 1024L);
+        index.init();
+        indexes.add(index);
+        return index;
+    }
+
+    private static LogMessage log(long instanceId, LocalDate date, String content) {
+        LogMessage message = new LogMessage();
+        message.setInstanceId(instanceId);
+        message.setJobId(1);
+        message.setContent(content);
+        message.setTimestamp(LocalDateTime.of(date, LocalTime.NOON).plusSeconds(instanceId));
+        return message;
+    }
+
+    private static LogIndexSegment segment(Path dir, String name, long instanceId, String line) throws IOException {
+        LogIndexBuffer buffer = new LogIndexBuffer();
+        buffer.add(instanceId, 1, System.currentTimeMillis(), LogTokenizer.tokenize(line));
+        Path file = dir.resolve(name);
+        buffer.writeTo(file);
+        return LogIndexSegment.open(file);
+    }
+
+    private Path dayDir(LocalDate date) {
+        return baseDir.resolve(date.toString());
+    }
+
+    private List<String> segmentFiles(LocalDate date) throws IOException {
+        try (Stream<Path> files = Files.list(dayDir(date))) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(LogSearchIndex.INDEX_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.simple.pulsejob.admin.business.log.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingsTest {
+
+    @Test
+    void varIntRoundTripsBoundaryValues() {
+        int[] values = {0, 1, 127, 128, 255, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE, -1};
+        int[] expectedLengths = {1, 1, 1, 2, 2, 2, 3, 3, 4, 5, 5};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < values.length; i++) {
+            int before = out.size();
+            Postings.writeVarInt(out, values[i]);
+            assertEquals(expectedLengths[i], out.size() - before, "encoded length of " + values[i]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        for (int value : values) {
+            assertEquals(value, Postings.readVarInt(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        Postings postings = new Postings(
+                new int[]{0, 3, 200, 70_000},
+                new int[]{1, 2, 1, 3},
+                new int[]{5, 0, 9, 130, 1, 2, 100_000});
+
+        Postings decoded = Postings.decode(ByteBuffer.wrap(postings.encode()));
+
+        assertArrayEquals(postings.docs, decoded.docs);
+        assertArrayEquals(postings.freqs, decoded.freqs);
+        assertArrayEquals(postings.positions, decoded.positions);
+        assertEquals(3, decoded.positionStart(2));
+        assertEquals(4, decoded.positionEnd(2));
+        assertTrue(decoded.hasPosition(1, 9));
+        assertFalse(decoded.hasPosition(1, 5));
+        assertEquals(2, decoded.indexOf(200));
+        assertTrue(decoded.indexOf(4) < 0);
+    }
+
+    @Test
+    void deltasKeepSmallGapsInOneByte() {
+        int[] docs = new int[100];
+        int[] freqs = new int[100];
+        int[] positions = new int[100];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = 1_000_000 + i;
+            freqs[i] = 1;
+            positions[i] = 3;
+        }
+        byte[] encoded = new Postings(docs, freqs, positions).encode();
+        // docFreq(1) + 首行差值(3) + 其余每行 3 个单字节
+        assertEquals(1 + 3 + 1 + 1 + 99 * 3, encoded.length);
+    }
+
+    @Test
+    void decodesFromCurrentBufferPosition() {
+        Postings postings = new Postings(new int[]{4, 8}, new int[]{1, 1}, new int[]{0, 2});
+        byte[] encoded = postings.encode();
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3);
+        buffer.put(new byte[]{9, 9, 9}).put(encoded).flip().position(3);
+
+        assertArrayEquals(new int[]{4, 8}, Postings.decode(buffer).docs);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void emptyPostingsRoundTrip() {
+        Postings decoded = Postings.decode(ByteBuffer.wrap(Postings.EMPTY.encode()));
+        assertEquals(0, decoded.size());
+    }
+
+    @Test
+    void concatOffsetsDocsBySegmentBase() {
+        Postings a = new Postings(new int[]{0, 2}, new int[]{1, 1}, new int[]{0, 1});
+        Postings b = new Postings(new int[]{1}, new int[]{2}, new int[]{3, 4});
+
+        Postings merged = Postings.concat(List.of(a, b), List.of(0, 10));
+
+        assertArrayEquals(new int[]{0, 2, 11}, merged.docs);
+        assertArrayEquals(new int[]{1, 1, 2}, merged.freqs);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, merged.positions);
+    }
+}
@@ -0,0 +1,43 @@
+package com.simple.pulsejob.admin.common.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日志全文搜索结果（按实例汇总）
+ */
+@Data
+public class LogSearchHitDTO {
+
+    /**
+     * 实例ID（序列化为字符串，避免前端丢失精度）
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long instanceId;
+
+    private Integer jobId;
+
+    /**
+     * 日志日期
+     */
+    private LocalDate date;
+
+    /**
+     * 命中的日志行数
+     */
+    private Integer matchedLines;
+
+    /**
+     * 第一条命中日志的时间
+     */
+    private LocalDateTime firstTime;
+
+    /**
+     * 最后一条命中日志的时间
+     */
+    private LocalDateTime lastTime;
+}
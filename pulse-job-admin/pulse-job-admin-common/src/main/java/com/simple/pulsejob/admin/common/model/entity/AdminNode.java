@@ -0,0 +1,44 @@
+package com.simple.pulsejob.admin.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 调度中心节点（集群成员表）.
+ *
+ * <p>每个 admin 节点启动时登记，定期刷新心跳；心跳超时的节点视为下线，其负责的任务由其他节点接管。</p>
+ */
+@Data
+@Entity
+@Table(name = "admin_node", indexes = {
+    @Index(name = "idx_heartbeat_time", columnList = "heartbeat_time")
+})
+public class AdminNode implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** 节点标识（host:port + 随机后缀，每次启动不同） */
+    @Id
+    @Column(name = "node_id", length = 128)
+    private String nodeId;
+
+    /** 节点地址 */
+    @Column(name = "address", length = 100)
+    private String address;
+
+    /** 开始参与分片的时间，之前为交接期 */
+    @Column(name = "active_time", nullable = false)
+    private LocalDateTime activeTime;
+
+    /** 最近一次心跳时间 */
+    @Column(name = "heartbeat_time", nullable = false)
+    private LocalDateTime heartbeatTime;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+}
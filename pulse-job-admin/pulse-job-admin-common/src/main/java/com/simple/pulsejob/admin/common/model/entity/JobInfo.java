@@ -3,6 +3,7 @@ package com.simple.pulsejob.admin.common.model.entity;
 import com.simple.pulsejob.admin.common.model.enums.BlockStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.GlueTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.HashKeyTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.MisfireStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.ScheduleTypeEnum;
@@ -79,7 +80,7 @@ public class JobInfo implements Serializable {
 
     /**
      * 分发类型
-     * ROUND-单播轮询, BROADCAST-广播
+     * ROUND-单播轮询, BROADCAST-广播, SHARDING-分片
      */
     @Enumerated(EnumType.STRING)
     @Column(name = "dispatch_type", length = 20)
@@ -93,6 +94,21 @@ public class JobInfo implements Serializable {
     @Column(name = "load_balance_type", length = 20)
     private LoadBalanceTypeEnum loadBalanceType;
 
+    /**
+     * 一致性哈希路由键类型（负载均衡为 CONSISTENT_HASH 时生效）
+     * JOB_ID-任务ID, PARAMS-任务参数, PARAM_FIELD-参数字段, SHARD_INDEX-分片序号
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "hash_key_type", length = 20)
+    private HashKeyTypeEnum hashKeyType = HashKeyTypeEnum.JOB_ID;
+
+    /**
+     * 一致性哈希路由键字段
+     * hashKeyType 为 PARAM_FIELD 时，取 JSON 参数中该字段的值，支持 a.b 多级
+     */
+    @Column(name = "hash_key_field", length = 100)
+    private String hashKeyField;
+
     /**
      * 序列化类型
      * JAVA-Java原生, PROTO_STUFF-Protostuff, HESSIAN-Hessian, KRYO-Kryo, JSON-JSON
@@ -182,7 +198,7 @@ public class JobInfo implements Serializable {
 
     /**
      * 调度过期策略
-     * DO_NOTHING-忽略, FIRE_ONCE_NOW-立即执行一次
+     * DO_NOTHING-忽略, FIRE_ONCE_NOW-立即执行一次, FIRE_ALL_MISSED-补偿全部
      */
     @Enumerated(EnumType.STRING)
     @Column(name = "misfire_strategy", length = 20)
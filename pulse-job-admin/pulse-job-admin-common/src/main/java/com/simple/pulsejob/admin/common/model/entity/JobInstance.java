@@ -1,7 +1,13 @@
 package com.simple.pulsejob.admin.common.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -9,20 +15,27 @@ import java.time.LocalDateTime;
 
 /**
  * 调度实例记录.
+ *
+ * <p>ID 由调度端预先分配，实现 {@link Persistable} 告诉 Spring Data 新建的实例直接 persist，
+ * 不必先按 ID 查询一次再决定 INSERT 还是 UPDATE。</p>
+ *
+ * <p>雪花 ID 超出 JavaScript 的安全整数范围（2^53），序列化为字符串返回给前端。</p>
  */
 @Data
 @Entity
 @Table(name = "job_instance", indexes = {
     @Index(name = "idx_job_id", columnList = "job_id"),
-    @Index(name = "idx_executor_id", columnList = "executor_id")
+    @Index(name = "idx_executor_id", columnList = "executor_id"),
+    @Index(name = "idx_parent_id", columnList = "parent_id")
 })
-public class JobInstance implements Serializable {
+public class JobInstance implements Serializable, Persistable<Long> {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /** 实例ID，由调度端本地生成（Snowflake），不依赖数据库自增 */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
 
     @Column(name = "job_id", nullable = false)
@@ -62,12 +75,40 @@ public class JobInstance implements Serializable {
     @Column(name = "executor_address", length = 100)
     private String executorAddress;
 
+    /** 广播子实例所属的父实例 ID（每个执行器节点一条子实例，父实例记录汇总结果；非广播实例为空） */
+    @Column(name = "parent_id")
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long parentId;
+
+    /** 创建实例时调度节点持有的租约 fencing token（未开启选主时为空） */
+    @Column(name = "fencing_token")
+    private Long fencingToken;
+
     @Column(name = "create_time", nullable = false)
     private LocalDateTime createTime;
 
     @Column(name = "update_time", nullable = false)
     private LocalDateTime updateTime;
 
+    /** 是否尚未入库：新建时为 true，加载或 persist 后为 false */
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newInstance = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newInstance;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void markNotNew() {
+        newInstance = false;
+    }
+
     @PrePersist
     public void prePersist() {
         LocalDateTime now = LocalDateTime.now();
@@ -1,6 +1,8 @@
 package com.simple.pulsejob.admin.common.model.entity;
 
 import com.simple.pulsejob.admin.common.model.enums.LogLevelEnum;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -32,6 +34,7 @@ public class JobLog implements Serializable {
 
     /** 任务实例ID (= job_instance.instanceId) */
     @Column(name = "instance_id", nullable = false)
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long instanceId;
 
     /** 日志级别 */
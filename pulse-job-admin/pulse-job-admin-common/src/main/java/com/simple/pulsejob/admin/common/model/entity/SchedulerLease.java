@@ -0,0 +1,43 @@
+package com.simple.pulsejob.admin.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 调度租约（选主表）.
+ *
+ * <p>持有未过期租约的 admin 节点是唯一的调度节点；每次易主 fencing_token 加一，
+ * 写入 job_instance 时校验 token，旧主即使在停顿后恢复也无法再创建实例。</p>
+ */
+@Data
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** 租约名称 */
+    @Id
+    @Column(name = "lease_name", length = 64)
+    private String leaseName;
+
+    /** 当前持有者（节点标识） */
+    @Column(name = "owner", length = 128)
+    private String owner;
+
+    /** 防护令牌，每次易主递增 */
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken;
+
+    /** 租约到期时间（数据库时钟） */
+    @Column(name = "expire_time", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime expireTime;
+
+    @Column(name = "update_time", nullable = false)
+    private LocalDateTime updateTime;
+}
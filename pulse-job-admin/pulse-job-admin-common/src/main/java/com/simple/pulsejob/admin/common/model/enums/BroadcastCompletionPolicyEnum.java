@@ -0,0 +1,36 @@
+package com.simple.pulsejob.admin.common.model.enums;
+
+/**
+ * 广播完成策略枚举（决定广播父实例何时结束、是否成功）
+ */
+public enum BroadcastCompletionPolicyEnum {
+
+    /**
+     * 全部 - 全部节点成功才算成功，任一节点失败立即判定失败（不等其余节点返回，其余节点继续执行）
+     */
+    ALL,
+
+    /**
+     * 多数 - 超过半数节点成功即成功，成功已不可能时立即失败
+     */
+    QUORUM,
+
+    /**
+     * 首个 - 任一节点成功即成功，全部失败才失败
+     */
+    FIRST;
+
+    /**
+     * 判定成功所需的成功节点数
+     */
+    public int required(int nodes) {
+        switch (this) {
+            case QUORUM:
+                return nodes / 2 + 1;
+            case FIRST:
+                return Math.min(1, nodes);
+            default:
+                return nodes;
+        }
+    }
+}
@@ -16,7 +16,10 @@ public enum DispatchTypeEnum {
     ROUND("round", 1),
 
     /** 广播（所有执行器都执行） */
-    BROADCAST("broadcast", 2);
+    BROADCAST("broadcast", 2),
+
+    /** 分片（每个执行器执行一个分片，失败的分片转移到其他节点） */
+    SHARDING("sharding", 3);
 
     private final String name;
     private final Integer code;
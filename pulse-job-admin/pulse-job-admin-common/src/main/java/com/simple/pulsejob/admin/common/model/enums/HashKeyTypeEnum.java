@@ -0,0 +1,27 @@
+package com.simple.pulsejob.admin.common.model.enums;
+
+/**
+ * 一致性哈希路由键类型枚举（决定同一个键的调度落到同一个执行器节点）
+ */
+public enum HashKeyTypeEnum {
+
+    /**
+     * 任务ID - 同一个任务始终路由到同一个节点
+     */
+    JOB_ID,
+
+    /**
+     * 任务参数 - 以完整参数字符串为键，参数相同的调度路由到同一个节点
+     */
+    PARAMS,
+
+    /**
+     * 参数字段 - 以 JSON 参数中指定字段的值为键（字段名见 hashKeyField，支持 a.b 多级）
+     */
+    PARAM_FIELD,
+
+    /**
+     * 分片序号 - 分片分发时同一个分片路由到同一个节点
+     */
+    SHARD_INDEX
+}
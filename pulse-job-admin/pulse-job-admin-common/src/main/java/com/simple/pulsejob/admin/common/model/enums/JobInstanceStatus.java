@@ -31,7 +31,10 @@ public enum JobInstanceStatus {
     TIMEOUT((byte) 6, "超时"),
 
     /** 取消 - 任务被取消 */
-    CANCELLED((byte) 7, "已取消");
+    CANCELLED((byte) 7, "已取消"),
+
+    /** 丢弃 - 按阻塞处理策略丢弃，未执行 */
+    DISCARDED((byte) 8, "已丢弃");
 
     private final byte value;
     private final String desc;
@@ -46,7 +49,7 @@ public enum JobInstanceStatus {
     }
 
     public boolean isTerminal() {
-        return this == SUCCESS || this == FAILED || this == TIMEOUT || this == CANCELLED;
+        return this == SUCCESS || this == FAILED || this == TIMEOUT || this == CANCELLED || this == DISCARDED;
     }
 }
 
@@ -22,7 +22,13 @@ public enum LoadBalanceTypeEnum {
     CONSISTENT_HASH("consistent_hash", 3),
 
     /** 最少活跃 */
-    LEAST_ACTIVE("least_active", 4);
+    LEAST_ACTIVE("least_active", 4),
+
+    /** 两次随机选择 + 指数加权耗时（P2C EWMA） */
+    P2C_EWMA("p2c_ewma", 5),
+
+    /** 平滑加权轮询（按执行器上报的容量） */
+    WEIGHTED_ROUND("weighted_round", 6);
 
     private final String name;
     private final Integer code;
@@ -14,5 +14,10 @@ public enum MisfireStrategyEnum {
     /**
      * 立即执行一次 - 过期后立即执行一次
      */
-    FIRE_ONCE_NOW
+    FIRE_ONCE_NOW,
+
+    /**
+     * 补偿全部 - 按顺序补偿执行所有错过的调度（数量有上限）
+     */
+    FIRE_ALL_MISSED
 }
@@ -3,6 +3,7 @@ package com.simple.pulsejob.admin.common.model.param;
 import com.simple.pulsejob.admin.common.model.enums.BlockStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.GlueTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.HashKeyTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.MisfireStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.ScheduleTypeEnum;
@@ -66,7 +67,7 @@ public class JobInfoParam {
     private String childJobId;
 
     /**
-     * 分发类型：ROUND-单播轮询, BROADCAST-广播
+     * 分发类型：ROUND-单播轮询, BROADCAST-广播, SHARDING-分片
      */
     private DispatchTypeEnum dispatchType;
 
@@ -75,6 +76,16 @@ public class JobInfoParam {
      */
     private LoadBalanceTypeEnum loadBalanceType;
 
+    /**
+     * 一致性哈希路由键类型
+     */
+    private HashKeyTypeEnum hashKeyType;
+
+    /**
+     * 一致性哈希路由键字段（路由键类型为 PARAM_FIELD 时的 JSON 字段名）
+     */
+    private String hashKeyField;
+
     /**
      * 调度过期策略
      */
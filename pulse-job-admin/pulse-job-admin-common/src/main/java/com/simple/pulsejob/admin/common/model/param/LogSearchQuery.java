@@ -0,0 +1,37 @@
+package com.simple.pulsejob.admin.common.model.param;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 日志全文搜索参数
+ */
+@Data
+public class LogSearchQuery {
+
+    /**
+     * 查询语句：空白分隔的条件同时满足，双引号内为短语
+     */
+    private String query;
+
+    /**
+     * 开始日期（为空时同结束日期）
+     */
+    private LocalDate startDate;
+
+    /**
+     * 结束日期（为空时为今天）
+     */
+    private LocalDate endDate;
+
+    /**
+     * 任务ID（可选）
+     */
+    private Integer jobId;
+
+    /**
+     * 返回的实例数上限
+     */
+    private Integer limit = 100;
+}
@@ -0,0 +1,69 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import com.simple.pulsejob.admin.common.model.entity.AdminNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 调度中心节点.
+ *
+ * <p>心跳、交接期和超时判断都使用数据库时钟（NOW(3)），各节点本地时钟的偏差不会造成误判下线或提前接管。</p>
+ */
+@Repository
+public interface AdminNodeMapper extends JpaRepository<AdminNode, String> {
+
+    /**
+     * 数据库当前时间
+     */
+    @Query(value = "SELECT NOW(3)", nativeQuery = true)
+    Timestamp currentTime();
+
+    /**
+     * 登记节点：交接期从数据库当前时间起算，已存在时覆盖
+     *
+     * @param handoffMillis 交接期（毫秒），0 表示立即参与分片
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO admin_node (node_id, address, active_time, heartbeat_time, create_time) "
+            + "VALUES (:nodeId, :address, DATE_ADD(NOW(3), INTERVAL :handoffMillis * 1000 MICROSECOND), NOW(3), NOW(3)) "
+            + "ON DUPLICATE KEY UPDATE address = VALUES(address), active_time = VALUES(active_time), "
+            + "heartbeat_time = VALUES(heartbeat_time)", nativeQuery = true)
+    int register(@Param("nodeId") String nodeId, @Param("address") String address,
+                 @Param("handoffMillis") long handoffMillis);
+
+    /**
+     * 查询心跳未超时的节点
+     * @param timeoutMillis 节点超时时间（毫秒）
+     * @return 存活节点列表
+     */
+    @Query(value = "SELECT * FROM admin_node WHERE heartbeat_time > DATE_SUB(NOW(3), INTERVAL :timeoutMillis * 1000 MICROSECOND)",
+            nativeQuery = true)
+    List<AdminNode> findAlive(@Param("timeoutMillis") long timeoutMillis);
+
+    /**
+     * 刷新心跳
+     * @return 影响行数，0 表示节点记录已被清理，需要重新登记
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE admin_node SET heartbeat_time = NOW(3) WHERE node_id = :nodeId", nativeQuery = true)
+    int updateHeartbeat(@Param("nodeId") String nodeId);
+
+    /**
+     * 清理长时间没有心跳的节点
+     * @param expireMillis 心跳超过此时间（毫秒）的节点被删除
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM admin_node WHERE heartbeat_time < DATE_SUB(NOW(3), INTERVAL :expireMillis * 1000 MICROSECOND)",
+            nativeQuery = true)
+    int deleteExpired(@Param("expireMillis") long expireMillis);
+}
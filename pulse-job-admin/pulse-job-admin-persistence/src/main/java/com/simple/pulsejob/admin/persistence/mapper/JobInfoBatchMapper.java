@@ -0,0 +1,22 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 任务信息批量写入接口（{@link JobInfoMapper} 的自定义片段）.
+ *
+ * <p>JPA 的 {@code @Modifying} 查询一次只能更新一行，调度扫描产生的大量单行 UPDATE
+ * 在这里合并为一次 JDBC batch，在同一个事务内提交。</p>
+ */
+public interface JobInfoBatchMapper {
+
+    /**
+     * 批量更新任务的下次执行时间
+     *
+     * @param nextExecuteTimes jobId -> 下次执行时间
+     * @param updateTime       更新时间
+     * @return 受影响的行数
+     */
+    int batchUpdateNextExecuteTime(Map<Integer, LocalDateTime> nextExecuteTimes, LocalDateTime updateTime);
+}
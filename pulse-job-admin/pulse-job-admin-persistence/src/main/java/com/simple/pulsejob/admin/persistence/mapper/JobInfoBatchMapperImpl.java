@@ -0,0 +1,44 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link JobInfoBatchMapper} 的 JDBC 实现，由 Spring Data 按命名约定组装进 {@link JobInfoMapper}.
+ */
+@RequiredArgsConstructor
+public class JobInfoBatchMapperImpl implements JobInfoBatchMapper {
+
+    private static final String UPDATE_NEXT_EXECUTE_TIME_SQL =
+            "UPDATE job_info SET next_execute_time = ?, update_time = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int batchUpdateNextExecuteTime(Map<Integer, LocalDateTime> nextExecuteTimes, LocalDateTime updateTime) {
+        if (nextExecuteTimes == null || nextExecuteTimes.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp updateTimestamp = Timestamp.valueOf(updateTime);
+        List<Object[]> batchArgs = new ArrayList<>(nextExecuteTimes.size());
+        nextExecuteTimes.forEach((jobId, nextExecuteTime) ->
+                batchArgs.add(new Object[]{Timestamp.valueOf(nextExecuteTime), updateTimestamp, jobId}));
+
+        int rows = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_NEXT_EXECUTE_TIME_SQL, batchArgs)) {
+            // rewriteBatchedStatements 开启时驱动只返回 SUCCESS_NO_INFO
+            rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return rows;
+    }
+}
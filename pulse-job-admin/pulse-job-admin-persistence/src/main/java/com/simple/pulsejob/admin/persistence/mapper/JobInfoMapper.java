@@ -14,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface JobInfoMapper extends JpaRepository<JobInfo, Integer>, JpaSpecificationExecutor<JobInfo> {
+public interface JobInfoMapper extends JpaRepository<JobInfo, Integer>, JpaSpecificationExecutor<JobInfo>, JobInfoBatchMapper {
     
     /**
      * 根据jobHandler查找任务
@@ -36,6 +36,21 @@ public interface JobInfoMapper extends JpaRepository<JobInfo, Integer>, JpaSpeci
      */
     List<JobInfo> findByStatus(Integer status);
 
+    /**
+     * 查询指定状态的任务ID
+     * @param status 任务状态
+     * @return 任务ID列表
+     */
+    @Query("SELECT j.id FROM JobInfo j WHERE j.status = :status")
+    List<Integer> findIdsByStatus(@Param("status") Integer status);
+
+    /**
+     * 查询更新时间晚于指定时间的任务（包括禁用的任务）
+     * @param updateTime 更新时间
+     * @return 任务列表
+     */
+    List<JobInfo> findByUpdateTimeAfter(LocalDateTime updateTime);
+
     /**
      * 查询即将执行的任务
      * @param startTime 开始时间
@@ -48,6 +63,15 @@ public interface JobInfoMapper extends JpaRepository<JobInfo, Integer>, JpaSpeci
                                    @Param("endTime") LocalDateTime endTime, 
                                    @Param("status") Integer status);
 
+    /**
+     * 查询截止时间前到期的任务（包括过期很久的任务，由调度器按过期策略处理）
+     * @param endTime 截止时间
+     * @param status 任务状态
+     * @return 到期的任务列表
+     */
+    @Query("SELECT j FROM JobInfo j WHERE j.nextExecuteTime <= :endTime AND j.status = :status")
+    List<JobInfo> findDueJobs(@Param("endTime") LocalDateTime endTime, @Param("status") Integer status);
+
     /**
      * 更新任务的下次执行时间
      * @param jobId 任务ID
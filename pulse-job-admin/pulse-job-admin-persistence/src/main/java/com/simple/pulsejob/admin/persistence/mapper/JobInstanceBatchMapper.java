@@ -0,0 +1,28 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+
+import java.util.List;
+
+/**
+ * 任务实例批量写入接口（{@link JobInstanceMapper} 的自定义片段）.
+ *
+ * <p>实例 ID 由调度端本地生成，触发时不再同步 INSERT 等待自增 ID；
+ * 异步写入器按批次调用这里的方法，一个批次一次 JDBC batch。</p>
+ */
+public interface JobInstanceBatchMapper {
+
+    /**
+     * 批量插入实例（ID 已预先生成）
+     *
+     * @return 插入的行数
+     */
+    int batchInsert(List<JobInstance> instances);
+
+    /**
+     * 批量更新实例的状态、结果、错误信息、结束时间、执行器地址和重试次数（除状态外为 null 时保留原值）
+     *
+     * @return 受影响的行数
+     */
+    int batchUpdateState(List<JobInstance> instances);
+}
@@ -0,0 +1,99 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link JobInstanceBatchMapper} 的 JDBC 实现，由 Spring Data 按命名约定组装进 {@link JobInstanceMapper}.
+ */
+@RequiredArgsConstructor
+public class JobInstanceBatchMapperImpl implements JobInstanceBatchMapper {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO job_instance (id, job_id, executor_id, trigger_time, start_time, end_time, status, retry_count, "
+                    + "result, error_message, trigger_type, executor_address, parent_id, fencing_token, create_time, update_time) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATE_SQL =
+            "UPDATE job_instance SET status = ?, result = COALESCE(?, result), error_message = COALESCE(?, error_message), "
+                    + "end_time = COALESCE(?, end_time), executor_address = COALESCE(?, executor_address), "
+                    + "retry_count = COALESCE(?, retry_count), update_time = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int batchInsert(List<JobInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(instances.size());
+        for (JobInstance instance : instances) {
+            instance.prePersist();
+            batchArgs.add(new Object[]{
+                    instance.getId(),
+                    instance.getJobId(),
+                    instance.getExecutorId(),
+                    toTimestamp(instance.getTriggerTime()),
+                    toTimestamp(instance.getStartTime()),
+                    toTimestamp(instance.getEndTime()),
+                    instance.getStatus(),
+                    instance.getRetryCount(),
+                    instance.getResult(),
+                    instance.getErrorMessage(),
+                    instance.getTriggerType(),
+                    instance.getExecutorAddress(),
+                    instance.getParentId(),
+                    instance.getFencingToken(),
+                    toTimestamp(instance.getCreateTime()),
+                    toTimestamp(instance.getUpdateTime())
+            });
+        }
+        return sum(jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int batchUpdateState(List<JobInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(instances.size());
+        for (JobInstance instance : instances) {
+            batchArgs.add(new Object[]{
+                    instance.getStatus(),
+                    instance.getResult(),
+                    instance.getErrorMessage(),
+                    toTimestamp(instance.getEndTime()),
+                    instance.getExecutorAddress(),
+                    instance.getRetryCount(),
+                    toTimestamp(instance.getUpdateTime() != null ? instance.getUpdateTime() : LocalDateTime.now()),
+                    instance.getId()
+            });
+        }
+        return sum(jdbcTemplate.batchUpdate(UPDATE_STATE_SQL, batchArgs));
+    }
+
+    private static int sum(int[] counts) {
+        int rows = 0;
+        for (int count : counts) {
+            // rewriteBatchedStatements 开启时驱动只返回 SUCCESS_NO_INFO
+            rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return rows;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+
+import java.util.List;
+
+/**
+ * 带 fencing token 校验的实例写入（{@link JobInstanceMapper} 的自定义片段）.
+ */
+public interface JobInstanceFencedMapper {
+
+    /**
+     * 仅当租约的 fencing_token 仍等于给定值时插入实例
+     *
+     * @param instance     待插入的实例（ID 已预先生成，fencingToken 会被设置为给定值）
+     * @param leaseName    租约名称
+     * @param fencingToken 调度时持有的 token
+     * @return false 表示 token 已失效（发生过易主），未插入
+     */
+    boolean insertFenced(JobInstance instance, String leaseName, long fencingToken);
+
+    /**
+     * 仅当租约的 fencing_token 仍等于给定值时，在同一事务内插入一组实例（如广播的各节点子实例）
+     *
+     * @param instances    待插入的实例（ID 已预先生成，fencingToken 会被设置为给定值）
+     * @param leaseName    租约名称
+     * @param fencingToken 调度时持有的 token
+     * @return false 表示 token 已失效（发生过易主），一条也未插入
+     */
+    boolean insertAllFenced(List<JobInstance> instances, String leaseName, long fencingToken);
+}
@@ -10,7 +10,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface JobInstanceMapper extends JpaRepository<JobInstance, Long>, JpaSpecificationExecutor<JobInstance> {
+public interface JobInstanceMapper extends JpaRepository<JobInstance, Long>, JpaSpecificationExecutor<JobInstance>,
+        JobInstanceFencedMapper, JobInstanceBatchMapper {
 
     @Transactional
     @Modifying
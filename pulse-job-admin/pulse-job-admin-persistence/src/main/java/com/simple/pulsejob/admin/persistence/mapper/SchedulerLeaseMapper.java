@@ -0,0 +1,67 @@
+package com.simple.pulsejob.admin.persistence.mapper;
+
+import com.simple.pulsejob.admin.common.model.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * 调度租约.
+ *
+ * <p>到期判断和续期都使用数据库时钟（NOW(3)），不受各节点本地时钟偏差影响。</p>
+ */
+@Repository
+public interface SchedulerLeaseMapper extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * 初始化租约记录（已存在时忽略）
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_lease (lease_name, fencing_token, expire_time, update_time) "
+            + "VALUES (:leaseName, 0, '1970-01-02 00:00:00', NOW())", nativeQuery = true)
+    int init(@Param("leaseName") String leaseName);
+
+    /**
+     * 抢占已过期的租约，成功时 fencing_token 加一
+     *
+     * @return 影响行数，1 表示抢占成功
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET owner = :owner, fencing_token = fencing_token + 1, "
+            + "expire_time = DATE_ADD(NOW(3), INTERVAL :leaseMillis * 1000 MICROSECOND), update_time = NOW() "
+            + "WHERE lease_name = :leaseName AND expire_time < NOW(3)", nativeQuery = true)
+    int tryAcquire(@Param("leaseName") String leaseName, @Param("owner") String owner,
+                   @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * 续期（token 未变说明期间没有易主，即使已过期也可以续上）
+     *
+     * @return 影响行数，0 表示租约已被其他节点抢占
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET expire_time = DATE_ADD(NOW(3), INTERVAL :leaseMillis * 1000 MICROSECOND), "
+            + "update_time = NOW() WHERE lease_name = :leaseName AND owner = :owner AND fencing_token = :fencingToken",
+            nativeQuery = true)
+    int renew(@Param("leaseName") String leaseName, @Param("owner") String owner,
+              @Param("fencingToken") long fencingToken, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * 主动释放租约，其他节点下次检查即可抢占
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET expire_time = DATE_SUB(NOW(3), INTERVAL 1 SECOND), update_time = NOW() "
+            + "WHERE lease_name = :leaseName AND owner = :owner AND fencing_token = :fencingToken", nativeQuery = true)
+    int release(@Param("leaseName") String leaseName, @Param("owner") String owner,
+                @Param("fencingToken") long fencingToken);
+
+    Optional<SchedulerLease> findByLeaseNameAndOwner(String leaseName, String owner);
+}
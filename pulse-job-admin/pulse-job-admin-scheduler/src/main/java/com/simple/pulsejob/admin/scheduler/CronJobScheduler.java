@@ -1,24 +1,40 @@
 package com.simple.pulsejob.admin.scheduler;
 
+import com.simple.pulsejob.admin.common.model.dto.JobInfoWithExecutorDTO;
 import com.simple.pulsejob.admin.common.model.entity.JobInfo;
+import com.simple.pulsejob.admin.common.model.enums.MisfireStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.ScheduleTypeEnum;
 import com.simple.pulsejob.admin.persistence.mapper.JobInfoMapper;
+import com.simple.pulsejob.admin.scheduler.cache.JobInfoCache;
+import com.simple.pulsejob.admin.scheduler.index.JobScheduleIndex;
 import com.simple.pulsejob.admin.scheduler.invoker.Invoker;
+import com.simple.pulsejob.admin.scheduler.leader.FencingToken;
+import com.simple.pulsejob.admin.scheduler.leader.FencingTokenExpiredException;
+import com.simple.pulsejob.admin.scheduler.leader.LeaderElector;
+import com.simple.pulsejob.admin.scheduler.leader.LeadershipListener;
+import com.simple.pulsejob.admin.scheduler.shard.JobShardManager;
+import com.simple.pulsejob.admin.scheduler.shard.ShardChangeListener;
 import com.simple.pulsejob.admin.scheduler.strategy.ScheduleStrategy;
 import com.simple.pulsejob.admin.scheduler.strategy.ScheduleStrategyFactory;
 import com.simple.pulsejob.admin.scheduler.timer.Timeout;
 import com.simple.pulsejob.admin.scheduler.timer.Timer;
+import com.simple.pulsejob.admin.scheduler.timer.TimerTask;
 import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -28,30 +44,47 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * <p>整合了 xxl-job 和 PowerJob 的优秀设计：</p>
  * <ul>
- *   <li>【PowerJob】扫描时立即更新下次执行时间，不等任务执行完</li>
- *   <li>【xxl-job】过期任务分类处理：过期太久跳过、刚过期立即执行</li>
- *   <li>【xxl-job】时间轮只存 jobId，触发时重新获取最新 JobInfo</li>
+ *   <li>【PowerJob】触发时立即更新下次执行时间，不等任务执行完；放入时间轮只在内存中领取，宕机后未触发的时间仍在数据库中</li>
+ *   <li>【xxl-job】过期任务分类处理：刚过期立即执行，过期太久按任务的过期策略忽略、补偿一次或逐个补偿</li>
+ *   <li>【优化】过期补偿的触发经令牌桶限流，重启后大量过期任务不会同时涌向执行器</li>
+ *   <li>【xxl-job】时间轮只存 jobId，触发时重新获取最新 JobInfo（从写穿透缓存获取，不访问数据库）</li>
  *   <li>【优化】正在执行的任务不重复调度</li>
  *   <li>【优化】高频任务执行后立即重调度</li>
- *   <li>【优化】长延迟任务不放入时间轮，等待扫描</li>
+ *   <li>【优化】默认所有任务常驻（分层）时间轮，执行完立即放入下一次触发，扫描只用于兜底；可配置阈值让长延迟任务等待扫描</li>
+ *   <li>【优化】memory 模式：启动时全量加载到内存索引，扫描不再查询数据库；定期增量同步其他节点的修改</li>
+ *   <li>【集群】按 jobId 一致性哈希分片，每个节点只调度归属自己的任务</li>
+ *   <li>【集群】或通过数据库租约选出唯一的调度节点，实例创建时校验 fencing token</li>
  * </ul>
  *
  * @author pulse
  */
 @Slf4j
 @Component
-public class CronJobScheduler {
+public class CronJobScheduler implements ShardChangeListener, LeadershipListener {
 
     private final Timer hashedWheelTimer;
     private final Invoker invoker;
     private final ScheduleStrategyFactory strategyFactory;
     private final JobInfoMapper jobInfoMapper;
+    private final NextExecuteTimeWriter nextExecuteTimeWriter;
+    private final JobInfoCache jobInfoCache;
+    private final JobShardManager jobShardManager;
+    private final LeaderElector leaderElector;
+    private final CatchUpRateLimiter catchUpRateLimiter;
 
     // ==================== 配置项 ====================
 
     @Value("${pulse.job.admin.scheduler.enabled:true}")
     private boolean enabled;
 
+    /** 调度模式：scan-每轮查询数据库；memory-启动时全量加载到内存索引，之后只做增量维护 */
+    @Value("${pulse.job.admin.scheduler.mode:scan}")
+    private String mode;
+
+    /** memory 模式下同步其他节点修改的间隔（毫秒），<= 0 表示不同步 */
+    @Value("${pulse.job.admin.scheduler.memory-refresh-interval:30000}")
+    private long memoryRefreshInterval;
+
     /** 扫描间隔（毫秒） */
     @Value("${pulse.job.admin.scheduler.query-interval:5000}")
     private long queryInterval;
@@ -60,14 +93,26 @@ public class CronJobScheduler {
     @Value("${pulse.job.admin.scheduler.query-window:10}")
     private int queryWindow;
 
-    /** 时间轮调度阈值（秒），延迟小于此值才放入时间轮 */
-    @Value("${pulse.job.admin.scheduler.wheel-threshold-seconds:#{${pulse.job.admin.scheduler.query-window:10}}}")
+    /**
+     * 时间轮调度阈值（秒），延迟小于此值才放入时间轮；<= 0 表示不限制（默认）.
+     *
+     * <p>放入时间轮只在内存中领取触发，数据库中的下次执行时间要到触发时才推进，宕机后未触发的时间由重启后的扫描重新领取，
+     * 不限制延迟也不会丢失触发。</p>
+     */
+    @Value("${pulse.job.admin.scheduler.wheel-threshold-seconds:-1}")
     private int wheelThresholdSeconds;
 
-    /** 过期容忍时间（秒），超过此时间的过期任务跳过本次执行 */
+    /** 过期容忍时间（秒），超过此时间的过期任务按过期策略处理 */
     @Value("${pulse.job.admin.scheduler.misfire-threshold-seconds:10}")
     private int misfireThresholdSeconds;
 
+    /** FIRE_ALL_MISSED 时单个任务最多补偿的触发数，更早的触发被跳过 */
+    @Value("${pulse.job.admin.scheduler.misfire.max-catch-up:100}")
+    private int maxCatchUp;
+
+    /** 增量同步时回退的秒数，容忍节点间的时钟偏差 */
+    private static final long REFRESH_CLOCK_SKEW_SECONDS = 60;
+
     // ==================== 内部状态 ====================
 
     /** 运行状态 */
@@ -76,12 +121,29 @@ public class CronJobScheduler {
     /** 已调度到时间轮的任务（jobId -> Timeout） */
     private final ConcurrentHashMap<Integer, Timeout> scheduledJobs = new ConcurrentHashMap<>();
 
+    /**
+     * 已领取的最晚触发时间（jobId -> fireTime）.
+     *
+     * <p>领取只记录在内存中，数据库中的下次执行时间在触发时才推进，且只写缓冲区、到下一轮扫描结束才刷新；
+     * 这期间扫描读到的仍是已领取的时间。不晚于已领取时间的触发一律跳过。</p>
+     */
+    private final ConcurrentHashMap<Integer, LocalDateTime> claimedFireTimes = new ConcurrentHashMap<>();
+
     /** 正在执行中的任务，防止并发执行 */
     private final Set<Integer> runningJobs = ConcurrentHashMap.newKeySet();
 
     /** 已暂停的任务 */
     private final Set<Integer> pausedJobs = ConcurrentHashMap.newKeySet();
 
+    /** 内存调度索引（仅 memory 模式使用） */
+    private final JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+
+    /** 已加载的启用任务的调度定义指纹（jobId -> 指纹，仅 memory 模式使用），用于识别其他节点的修改 */
+    private final Map<Integer, Integer> indexedDefinitions = new ConcurrentHashMap<>();
+
+    /** 上次同步的开始时间（仅由调度线程访问） */
+    private LocalDateTime lastRefreshTime;
+
     /** 调度线程池 */
     private ScheduledExecutorService schedulerExecutor;
 
@@ -91,11 +153,21 @@ public class CronJobScheduler {
     public CronJobScheduler(Timer hashedWheelTimer,
                             Invoker invoker,
                             ScheduleStrategyFactory strategyFactory,
-                            JobInfoMapper jobInfoMapper) {
+                            JobInfoMapper jobInfoMapper,
+                            NextExecuteTimeWriter nextExecuteTimeWriter,
+                            JobInfoCache jobInfoCache,
+                            JobShardManager jobShardManager,
+                            LeaderElector leaderElector,
+                            CatchUpRateLimiter catchUpRateLimiter) {
         this.hashedWheelTimer = hashedWheelTimer;
         this.invoker = invoker;
         this.strategyFactory = strategyFactory;
         this.jobInfoMapper = jobInfoMapper;
+        this.nextExecuteTimeWriter = nextExecuteTimeWriter;
+        this.jobInfoCache = jobInfoCache;
+        this.jobShardManager = jobShardManager;
+        this.leaderElector = leaderElector;
+        this.catchUpRateLimiter = catchUpRateLimiter;
     }
 
     // ==================== 生命周期 ====================
@@ -106,6 +178,9 @@ public class CronJobScheduler {
             log.info("CronJobScheduler 已禁用");
             return;
         }
+        if (jobShardManager.isEnabled() && leaderElector.isEnabled()) {
+            throw new IllegalStateException("集群分片（cluster）与选主（leader）不能同时开启");
+        }
 
         schedulerExecutor = Executors.newSingleThreadScheduledExecutor(
                 new JNamedThreadFactory("cron-scheduler", true));
@@ -117,8 +192,8 @@ public class CronJobScheduler {
                 new JNamedThreadFactory("cron-job-executor", true),
                 new ThreadPoolExecutor.CallerRunsPolicy());
 
-        log.info("CronJobScheduler 初始化完成: queryInterval={}ms, queryWindow={}s, wheelThreshold={}s, misfireThreshold={}s",
-                queryInterval, queryWindow, wheelThresholdSeconds, misfireThresholdSeconds);
+        log.info("CronJobScheduler 初始化完成: mode={}, queryInterval={}ms, queryWindow={}s, wheelThreshold={}s, misfireThreshold={}s",
+                mode, queryInterval, queryWindow, wheelThresholdSeconds, misfireThresholdSeconds);
     }
 
     public void start() {
@@ -129,11 +204,23 @@ public class CronJobScheduler {
 
         if (running.compareAndSet(false, true)) {
             log.info("CronJobScheduler 启动");
+            jobShardManager.start(this);
+            leaderElector.start(this);
+            if (isMemoryMode()) {
+                loadScheduleIndex();
+            }
             schedulerExecutor.scheduleWithFixedDelay(
                     this::scanAndScheduleJobs,
                     0,
                     queryInterval,
                     TimeUnit.MILLISECONDS);
+            if (isMemoryMode() && memoryRefreshInterval > 0) {
+                schedulerExecutor.scheduleWithFixedDelay(
+                        this::refreshScheduleIndex,
+                        memoryRefreshInterval,
+                        memoryRefreshInterval,
+                        TimeUnit.MILLISECONDS);
+            }
         }
     }
 
@@ -142,10 +229,15 @@ public class CronJobScheduler {
         if (running.compareAndSet(true, false)) {
             log.info("CronJobScheduler 停止中...");
 
-            scheduledJobs.forEach((jobId, timeout) -> {
-                timeout.cancel();
-            });
+            // 交还已领取但未触发的执行时间，重启后或由其他节点继续调度
+            scheduledJobs.forEach((jobId, timeout) -> handBack(jobId, timeout));
             scheduledJobs.clear();
+            claimedFireTimes.clear();
+            scheduleIndex.clear();
+            indexedDefinitions.clear();
+            nextExecuteTimeWriter.flush();
+            jobShardManager.stop();
+            leaderElector.stop();
 
             if (schedulerExecutor != null) {
                 schedulerExecutor.shutdown();
@@ -168,11 +260,108 @@ public class CronJobScheduler {
 
     // ==================== 核心调度逻辑 ====================
 
+    /**
+     * 【memory 模式】全量加载启用的任务到内存索引，之后只做增量维护
+     */
+    private void loadScheduleIndex() {
+        lastRefreshTime = LocalDateTime.now();
+        scheduleIndex.clear();
+        indexedDefinitions.clear();
+        List<JobInfo> jobs = jobInfoMapper.findByStatus(1);
+        for (JobInfo job : jobs) {
+            try {
+                indexJob(job);
+            } catch (Exception e) {
+                log.error("加载任务 {} 到内存索引时发生错误", job.getId(), e);
+            }
+        }
+        log.info("内存调度索引加载完成: enabled={}, indexed={}", jobs.size(), scheduleIndex.size());
+    }
+
+    /**
+     * 【memory 模式】补齐下次执行时间后放入内存索引，不需要自动调度的任务从索引移除
+     */
+    private void indexJob(JobInfo jobInfo) {
+        ScheduleStrategy strategy = strategyFactory.getStrategy(jobInfo.getScheduleType());
+        if (!jobInfo.isEnabled()) {
+            indexedDefinitions.remove(jobInfo.getId());
+            scheduleIndex.remove(jobInfo.getId());
+            return;
+        }
+        indexedDefinitions.put(jobInfo.getId(), definitionFingerprint(jobInfo));
+        if (!strategy.needAutoSchedule()) {
+            scheduleIndex.remove(jobInfo.getId());
+            return;
+        }
+        if (jobInfo.getNextExecuteTime() == null) {
+            jobInfo.setNextExecuteTime(strategy.calculateNextExecuteTime(jobInfo));
+        }
+        if (!jobShardManager.isOwner(jobInfo.getId(), jobInfo.getNextExecuteTime())) {
+            // 不归属本节点，集群成员变化时重新加载
+            scheduleIndex.remove(jobInfo.getId());
+            return;
+        }
+        scheduleIndex.offer(jobInfo);
+    }
+
+    /**
+     * 【memory 模式】同步其他节点对任务的修改：其他节点只能更新数据库和自己的内存索引，本节点定期增量拉取。
+     *
+     * <p>更新时间晚于上次同步的任务中，调度定义（指纹）与已加载的不同的按新增/修改处理，禁用的移出索引；
+     * 调度器自己推进下次执行时间也会更新 update_time，指纹相同的行直接跳过，不会取消已领取的触发。
+     * 启用任务ID集合中不再存在的任务视为已被删除。</p>
+     */
+    private void refreshScheduleIndex() {
+        if (!running.get()) {
+            return;
+        }
+        try {
+            LocalDateTime start = LocalDateTime.now();
+            // 回退一段时间，容忍节点间的时钟偏差（重复拉取的行按指纹去重）
+            LocalDateTime since = (lastRefreshTime != null ? lastRefreshTime : start)
+                    .minusSeconds(REFRESH_CLOCK_SKEW_SECONDS);
+            int changed = 0;
+            for (JobInfo job : jobInfoMapper.findByUpdateTimeAfter(since)) {
+                Integer known = indexedDefinitions.get(job.getId());
+                if (job.isEnabled() ? known != null && known == definitionFingerprint(job) : known == null) {
+                    continue;
+                }
+                jobInfoCache.invalidate(job.getId());
+                onJobSaved(job);
+                changed++;
+            }
+
+            int removed = 0;
+            Set<Integer> enabledIds = new HashSet<>(jobInfoMapper.findIdsByStatus(1));
+            for (Integer jobId : indexedDefinitions.keySet()) {
+                if (!enabledIds.contains(jobId)) {
+                    jobInfoCache.invalidate(jobId);
+                    onJobRemoved(jobId);
+                    removed++;
+                }
+            }
+            lastRefreshTime = start;
+            if (changed > 0 || removed > 0) {
+                log.info("同步其他节点的任务修改: changed={}, removed={}, indexed={}", changed, removed, scheduleIndex.size());
+            }
+        } catch (Exception e) {
+            log.error("同步内存调度索引时发生错误", e);
+        }
+    }
+
+    /**
+     * 影响调度的任务定义的指纹（不含下次执行时间等运行时字段）
+     */
+    private static int definitionFingerprint(JobInfo jobInfo) {
+        return Objects.hash(jobInfo.getScheduleType(), jobInfo.getScheduleRate(), jobInfo.getStatus(),
+                jobInfo.getMisfireStrategy());
+    }
+
     /**
      * 扫描并调度任务（参考 xxl-job + PowerJob）
      */
     private void scanAndScheduleJobs() {
-        if (!running.get()) {
+        if (!running.get() || !leaderElector.isLeader()) {
             return;
         }
 
@@ -180,28 +369,40 @@ public class CronJobScheduler {
             LocalDateTime now = LocalDateTime.now();
             LocalDateTime endTime = now.plusSeconds(queryWindow);
 
-            // 查询时间窗口内的启用任务（包括已过期的）
-            // 注意：这里 startTime 用 now 减去 misfireThreshold，以便捕获刚过期的任务
-            LocalDateTime startTime = now.minusSeconds(misfireThresholdSeconds);
-            List<JobInfo> jobs = jobInfoMapper.findJobsToExecute(startTime, endTime, 1);
+            // 查询时间窗口内的启用任务（包括已过期的，过期太久的按过期策略处理）
+            boolean memoryMode = isMemoryMode();
+            List<JobInfo> jobs = memoryMode
+                    ? scheduleIndex.pollDue(endTime)
+                    : jobInfoMapper.findDueJobs(endTime, 1);
 
             if (jobs.isEmpty()) {
-                log.debug("没有需要调度的任务，时间窗口: {} ~ {}", startTime, endTime);
+                log.debug("没有需要调度的任务，截止时间: {}", endTime);
                 return;
             }
 
             log.debug("扫描到 {} 个待调度任务", jobs.size());
 
             for (JobInfo job : jobs) {
+                if (!ownsFire(job.getId(), job.getNextExecuteTime())) {
+                    // 归属其他节点；memory 模式下不放回索引，集群成员变化时重新加载
+                    continue;
+                }
                 try {
                     processJob(job, now);
                 } catch (Exception e) {
                     log.error("处理任务 {} 时发生错误", job.getId(), e);
                 }
+                if (memoryMode) {
+                    // 按刷新后的下次执行时间放回索引（处理期间被修改/删除的任务以最新变更为准）
+                    scheduleIndex.requeue(job);
+                }
             }
 
         } catch (Exception e) {
             log.error("扫描任务时发生错误", e);
+        } finally {
+            // 本轮产生的下次执行时间一次性批量写入
+            nextExecuteTimeWriter.flush();
         }
     }
 
@@ -242,18 +443,27 @@ public class CronJobScheduler {
             }
         }
 
+        // 5. 已领取过的触发（数据库中的执行时间尚未刷新）不再重复调度
+        if (isClaimed(jobId, nextExecuteTime)) {
+            log.debug("任务 {} 的触发 {} 已领取，跳过", jobId, nextExecuteTime);
+            return;
+        }
+
+        // 6. 集群模式下只调度归属本节点的触发
+        if (!ownsFire(jobId, nextExecuteTime)) {
+            return;
+        }
+
         long delayMs = ChronoUnit.MILLIS.between(now, nextExecuteTime);
 
-        // 5. 【xxl-job 策略】过期任务分类处理
+        // 7. 【xxl-job 策略】过期任务分类处理
         if (delayMs < 0) {
             long overdueMs = -delayMs;
             long misfireThresholdMs = misfireThresholdSeconds * 1000L;
 
             if (overdueMs > misfireThresholdMs) {
-                // 过期太久（超过阈值），跳过本次，直接计算下次执行时间
-                log.warn("任务 {} 过期 {}ms > 阈值 {}ms，跳过本次执行，计算下次时间",
-                        jobId, overdueMs, misfireThresholdMs);
-                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                               refreshNextExecuteTime(jobInfo, strategy);
+                // 过期太久（超过阈值），按任务的过期策略处理
+                handleMisfire(jobInfo, strategy, nextExecuteTime, now, overdueMs);
                 return;
             } else {
                 // 刚过期（在阈值内），立即执行
@@ -263,68 +473,198 @@ public class CronJobScheduler {
             }
         }
 
-        // 6. 【PowerJob 策略】扫描时立即更新下次执行时间
-        // 不等任务执行完，这样下次扫描就能看到新的执行时间
-        refreshNextExecuteTime(jobInfo, strategy);
+        // 8. 放入时间轮（长延迟任务在阈值限制下等待下次扫描）
+        if (!fitsInWheel(delayMs)) {
+            log.debug("任务 {} 延迟 {}ms >= 阈值，等待下次扫描", jobId, delayMs);
+            return;
+        }
+        scheduleFire(jobInfo, strategy, nextExecuteTime, delayMs);
+    }
 
-        // 7. 放入时间轮
-        scheduleToWheel(jobId, delayMs);
+    /**
+     * 过期太久的任务按过期策略处理：
+     * <ul>
+     *   <li>DO_NOTHING：跳过错过的触发，从当前时间计算下次执行时间</li>
+     *   <li>FIRE_ONCE_NOW：补偿一次，其余错过的触发跳过</li>
+     *   <li>FIRE_ALL_MISSED：按顺序逐个补偿（每次只放一个触发进时间轮，下次执行时间推进到下一个错过的时间点），
+     *       最多补偿最近的 max-catch-up 个</li>
+     * </ul>
+     * 补偿的触发从令牌桶预约，按返回的等待时间放入时间轮。
+     */
+    private void handleMisfire(JobInfo jobInfo, ScheduleStrategy strategy, LocalDateTime missedTime,
+                               LocalDateTime now, long overdueMs) {
+        Integer jobId = jobInfo.getId();
+        MisfireStrategyEnum misfire = jobInfo.getMisfireStrategy() != null
+                ? jobInfo.getMisfireStrategy() : MisfireStrategyEnum.DO_NOTHING;
+
+        LocalDateTime fireTime;
+        switch (misfire) {
+            case FIRE_ONCE_NOW:
+                fireTime = missedTime;
+                jobInfo.setLastExecuteTime(now);
+                break;
+            case FIRE_ALL_MISSED:
+                fireTime = firstMissedToCatchUp(jobInfo, strategy, missedTime, now);
+                jobInfo.setLastExecuteTime(fireTime);
+                break;
+            default:
+                log.warn("任务 {} 过期 {}ms > 阈值 {}ms，跳过本次执行，计算下次时间",
+                        jobId, overdueMs, misfireThresholdSeconds * 1000L);
+                jobInfo.setLastExecuteTime(now);
+                refreshNextExecuteTime(jobInfo, strategy);
+                return;
+        }
+        // 与正常触发相同，补偿触发执行前数据库中仍保留错过的时间
+        LocalDateTime nextTime = strategy.calculateNextExecuteTime(jobInfo);
+        if (nextTime != null) {
+            jobInfo.setNextExecuteTime(nextTime);
+        }
+
+        long delayMs = catchUpRateLimiter.reserve();
+        log.info("任务 {} 过期 {}ms，按过期策略 {} 补偿触发: fireTime={}, delay={}ms",
+                jobId, overdueMs, misfire, fireTime, delayMs);
+        scheduleToWheel(jobId, fireTime, nextTime, delayMs);
     }
 
     /**
-     * 【PowerJob 优化】扫描时立即计算并更新下次执行时间
+     * 返回最近 max-catch-up 个错过的触发中最早的一个
+     *
+     * <p>不从 missedTime 逐个枚举（秒级任务停机一周就是数十万次）：按前两次触发的间隔估算周期，
+     * 直接从 now − max-catch-up × 周期 开始枚举；窗口内不足 max-catch-up 个（周期不规则）时窗口翻倍重试，
+     * 窗口起点早于 missedTime 时从 missedTime 开始，枚举量与 max-catch-up 同一量级。</p>
      */
-    @Transactional
-    protected void refreshNextExecuteTime(JobInfo jobInfo, ScheduleStrategy strategy) {
+    private LocalDateTime firstMissedToCatchUp(JobInfo jobInfo, ScheduleStrategy strategy,
+                                               LocalDateTime missedTime, LocalDateTime now) {
+        if (maxCatchUp <= 0) {
+            return missedTime;
+        }
+        ScheduleContext context = ScheduleContext.of(jobInfo);
+        LocalDateTime second = strategy.calculateNextExecuteTime(context, missedTime);
+        if (second == null || !second.isAfter(missedTime)) {
+            return missedTime;
+        }
+        long periodMs = Math.max(1, ChronoUnit.MILLIS.between(missedTime, second));
+        long totalMs = ChronoUnit.MILLIS.between(missedTime, now);
+        long windowMs = periodMs > totalMs / maxCatchUp ? totalMs : periodMs * maxCatchUp;
+
+        ArrayDeque<LocalDateTime> recent = new ArrayDeque<>(Math.min(maxCatchUp, 1024));
+        for (;;) {
+            boolean fromMissed = windowMs >= totalMs;
+            LocalDateTime time = fromMissed
+                    ? missedTime
+                    : strategy.calculateNextExecuteTime(context, now.minus(windowMs, ChronoUnit.MILLIS));
+            recent.clear();
+            while (time != null && !time.isAfter(now)) {
+                if (recent.size() == maxCatchUp) {
+                    recent.pollFirst();
+                }
+                recent.offerLast(time);
+                LocalDateTime next = strategy.calculateNextExecuteTime(context, time);
+                time = next != null && next.isAfter(time) ? next : null;
+            }
+            if (fromMissed || recent.size() >= maxCatchUp) {
+                break;
+            }
+            windowMs = windowMs > totalMs / 2 ? totalMs : windowMs * 2;
+        }
+
+        LocalDateTime first = recent.peekFirst();
+        if (first != null && !first.equals(missedTime)) {
+            log.warn("任务 {} 错过的触发超过 {} 个，跳过 {} 之前的触发", jobInfo.getId(), maxCatchUp, first);
+        }
+        return first != null ? first : missedTime;
+    }
+
+    /**
+     * 将一次触发放入时间轮，下次执行时间只在内存中推进，触发时才写入数据库
+     */
+    private void scheduleFire(JobInfo jobInfo, ScheduleStrategy strategy, LocalDateTime fireTime, long delayMs) {
+        // 以本次触发时间为基准推算，避免 cron.next(now) 算回同一个触发点导致重复触发
+        jobInfo.setLastExecuteTime(fireTime);
         LocalDateTime nextTime = strategy.calculateNextExecuteTime(jobInfo);
         if (nextTime != null) {
-            jobInfoMapper.updateNextExecuteTime(jobInfo.getId(), nextTime, LocalDateTime.now());
+            // memory 模式按推进后的时间放回索引；数据库和缓存仍是 fireTime，宕机后由扫描重新领取
             jobInfo.setNextExecuteTime(nextTime);
-            log.debug("任务 {} 下次执行时间更新为: {}", jobInfo.getId(), nextTime);
         }
+        scheduleToWheel(jobInfo.getId(), fireTime, nextTime, delayMs);
     }
 
     /**
-     * 【xxl-job 优化】时间轮只存 jobId，触发时重新获取最新 JobInfo
+     * 【PowerJob 优化】立即计算下次执行时间，写入缓冲区，本轮扫描结束后批量落库
      */
-    private void scheduleToWheel(Integer jobId, long delayMs) {
-        // 如果延迟超过阈值，不放入时间轮
-        if (delayMs >= wheelThresholdSeconds * 1000L) {
-            log.debug("任务 {} 延迟 {}ms >= 阈值，等待下次扫描", jobId, delayMs);
-            return;
+    protected void refreshNextExecuteTime(JobInfo jobInfo, ScheduleStrategy strategy) {
+        LocalDateTime nextTime = strategy.calculateNextExecuteTime(jobInfo);
+        if (nextTime != null) {
+            commitNextExecuteTime(jobInfo.getId(), nextTime);
+            jobInfo.setNextExecuteTime(nextTime);
         }
+    }
 
+    /**
+     * 推进数据库（经缓冲区）和缓存中的下次执行时间
+     */
+    private void commitNextExecuteTime(Integer jobId, LocalDateTime nextTime) {
+        nextExecuteTimeWriter.buffer(jobId, nextTime);
+        jobInfoCache.updateNextExecuteTime(jobId, nextTime);
+        log.debug("任务 {} 下次执行时间更新为: {}", jobId, nextTime);
+    }
+
+    /**
+     * 【xxl-job 优化】时间轮只存 jobId，触发时重新获取最新 JobInfo
+     */
+    private void scheduleToWheel(Integer jobId, LocalDateTime fireTime, LocalDateTime nextTime, long delayMs) {
         log.info("调度任务到时间轮: jobId={}, delay={}ms", jobId, delayMs);
 
-        // 时间轮只存 jobId
+        // 时间轮只存 jobId、触发时间和触发后要推进到的下次执行时间
         Timeout timeout = hashedWheelTimer.newTimeout(
-                task -> triggerJob(jobId),  // 只传 jobId
+                new FireTask(jobId, fireTime, nextTime, leaderElector.getFencingToken()),
                 delayMs,
                 TimeUnit.MILLISECONDS);
 
-        scheduledJobs.put(jobId, timeout);
+        claimedFireTimes.merge(jobId, fireTime, (claimed, fire) -> fire.isAfter(claimed) ? fire : claimed);
+
+        // 同一任务只保留一个时间轮节点
+        Timeout previous = scheduledJobs.put(jobId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
     /**
-     * 时间轮触发任务
+     * 该触发是否已经领取过（不晚于已领取的最晚触发时间）
+     */
+    private boolean isClaimed(Integer jobId, LocalDateTime fireTime) {
+        LocalDateTime claimed = claimedFireTimes.get(jobId);
+        return claimed != null && !fireTime.isAfter(claimed);
+    }
+
+    /**
+     * 延迟是否在时间轮调度阈值内（阈值 <= 0 表示不限制）
      */
-    private void triggerJob(Integer jobId) {
-        scheduledJobs.remove(jobId);
+    private boolean fitsInWheel(long delayMs) {
+        return wheelThresholdSeconds <= 0 || delayMs < wheelThresholdSeconds * 1000L;
+    }
 
+    /**
+     * 时间轮触发任务
+     *
+     * @param fencingToken 领取该触发时持有的租约令牌（未开启选主时为 null）
+     */
+    private void triggerJob(Integer jobId, FencingToken fencingToken) {
         if (!running.get() || pausedJobs.contains(jobId)) {
             return;
         }
 
-        // 【xxl-job 优化】触发时重新从 DB 获取最新的 JobInfo
-        jobInfoMapper.findById(jobId).ifPresentOrElse(
-                jobInfo -> {
+        // 【xxl-job 优化】触发时重新获取最新的 JobInfo（缓存与任务修改保持同步，命中时不访问数据库）
+        jobInfoCache.getDetail(jobId).ifPresentOrElse(
+                jobDetail -> {
                     // 检查是否正在执行
                     if (runningJobs.contains(jobId)) {
                         log.warn("任务 {} 正在执行中，跳过本次触发", jobId);
                         return;
                     }
                     // 提交到线程池执行
-                    jobExecutor.submit(() -> executeJob(jobInfo));
+                    jobExecutor.submit(() -> executeJob(jobDetail, fencingToken));
                 },
                 () -> log.warn("任务 {} 不存在或已删除", jobId)
         );
@@ -333,7 +673,8 @@ public class CronJobScheduler {
     /**
      * 执行任务
      */
-    private void executeJob(JobInfo jobInfo) {
+    private void executeJob(JobInfoWithExecutorDTO jobDetail, FencingToken fencingToken) {
+        JobInfo jobInfo = jobDetail.getJobInfo();
         Integer jobId = jobInfo.getId();
 
         // 标记为正在执行
@@ -345,7 +686,8 @@ public class CronJobScheduler {
         try {
             log.info("开始执行任务: jobId={}, handler={}", jobId, jobInfo.getJobHandler());
 
-            ScheduleContext context = ScheduleContext.of(jobInfo);
+            ScheduleContext context = ScheduleContext.of(jobDetail);
+            context.setFencingToken(fencingToken);
             Object result = invoker.invoke(context);
 
             log.info("任务执行成功: jobId={}, result={}", jobId, result);
@@ -353,7 +695,7 @@ public class CronJobScheduler {
 
         } catch (Throwable e) {
             log.error("任务执行失败: jobId={}", jobId, e);
-            handleExecutionError(jobInfo, e);
+            handleExecutionError(jobInfo, e, fencingToken);
 
         } finally {
             // 移除执行标记
@@ -379,25 +721,44 @@ public class CronJobScheduler {
             return;
         }
 
-        // 获取最新的下次执行时间（扫描时已更新）
+        // 获取最新的下次执行时间（放入时间轮时已更新）
         LocalDateTime nextTime = jobInfo.getNextExecuteTime();
         if (nextTime == null) {
             return;
         }
 
-        long delayMs = ChronoUnit.MILLIS.between(LocalDateTime.now(), nextTime);
+        LocalDateTime now = LocalDateTime.now();
+        long delayMs = ChronoUnit.MILLIS.between(now, nextTime);
 
-        // 如果下次执行时间在阈值内，立即放入时间轮
-        if (delayMs >= 0 && delayMs < wheelThresholdSeconds * 1000L) {
-            if (!scheduledJobs.containsKey(jobId)) {
-                log.debug("高频任务 {} 立即重调度，delay={}ms", jobId, delayMs);
-                scheduleToWheel(jobId, delayMs);
+        // 下次执行时间已过（如 FIRE_ALL_MISSED 补偿中），按过期策略继续处理，不等待扫描
+        if (delayMs < 0) {
+            if (!scheduledJobs.containsKey(jobId) && ownsFire(jobId, nextTime)) {
+                processJob(jobInfo, now);
+                if (isMemoryMode()) {
+                    scheduleIndex.offer(jobInfo);
+                }
+            }
+            return;
+        }
+
+        // 如果下次执行时间在阈值内，立即放入时间轮，同时推进下次执行时间，避免扫描再次触发同一个时间点
+        if (fitsInWheel(delayMs) && !scheduledJobs.containsKey(jobId)
+                && !isClaimed(jobId, nextTime) && ownsFire(jobId, nextTime)) {
+            log.debug("任务 {} 执行完立即重调度，delay={}ms", jobId, delayMs);
+            scheduleFire(jobInfo, strategy, nextTime, delayMs);
+            if (isMemoryMode()) {
+                scheduleIndex.offer(jobInfo);
             }
         }
     }
 
-    private void handleExecutionError(JobInfo jobInfo, Throwable e) {
+    private void handleExecutionError(JobInfo jobInfo, Throwable e, FencingToken fencingToken) {
         Integer jobId = jobInfo.getId();
+        if (isFencingRejected(e)) {
+            // 租约已易主，由新的调度节点负责，不再重试
+            log.warn("任务 {} 的触发已被新调度节点接管，放弃本次执行", jobId);
+            return;
+        }
         int currentRetry = jobInfo.getRetryTimes();
         int maxRetry = jobInfo.getMaxRetryTimes();
 
@@ -406,7 +767,7 @@ public class CronJobScheduler {
             log.warn("任务 {} 执行失败，将进行第 {} 次重试", jobId, jobInfo.getRetryTimes());
 
             hashedWheelTimer.newTimeout(
-                    task -> triggerJob(jobId),
+                    task -> triggerJob(jobId, fencingToken),
                     30,
                     TimeUnit.SECONDS);
         } else {
@@ -415,10 +776,172 @@ public class CronJobScheduler {
         }
     }
 
+    private static boolean isFencingRejected(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof FencingTokenExpiredException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== 集群分片 / 选主 ====================
+
+    /**
+     * 本节点是否负责该触发：开启选主时需持有租约，开启分片时需归属本节点
+     */
+    private boolean ownsFire(Integer jobId, LocalDateTime fireTime) {
+        return leaderElector.isLeader() && jobShardManager.isOwner(jobId, fireTime);
+    }
+
+    /**
+     * 集群成员变化：交还不再归属本节点的触发，memory 模式下重新加载索引
+     */
+    @Override
+    public void onMembershipChanged() {
+        int handedOff = 0;
+        for (Map.Entry<Integer, Timeout> entry : scheduledJobs.entrySet()) {
+            FireTask fire = (FireTask) entry.getValue().task();
+            if (!jobShardManager.isOwner(entry.getKey(), fire.fireTime)
+                    && scheduledJobs.remove(entry.getKey(), entry.getValue())
+                    && handBack(entry.getKey(), entry.getValue())) {
+                handedOff++;
+            }
+        }
+        nextExecuteTimeWriter.flush();
+        log.info("集群成员变化，交还 {} 个已领取的触发", handedOff);
+
+        if (isMemoryMode() && running.get()) {
+            // 等其他节点完成交还（至少一个心跳周期）后再加载，避免读到被领取前的旧时间
+            schedulerExecutor.schedule(this::loadScheduleIndex,
+                    jobShardManager.getHeartbeatInterval() * 2, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 新成员交接期结束：归属按触发时间切换，memory 模式下重新加载索引以接管新归属的任务
+     */
+    @Override
+    public void onMemberActivated() {
+        if (isMemoryMode() && running.get()) {
+            schedulerExecutor.execute(this::loadScheduleIndex);
+        }
+    }
+
+    /**
+     * 获得调度租约：扫描随即恢复；memory 模式下重新加载索引，读取上一任调度节点推进后的执行时间
+     */
+    @Override
+    public void onElected() {
+        log.info("成为调度节点: token={}", leaderElector.getFencingToken().getToken());
+        if (isMemoryMode() && running.get()) {
+            schedulerExecutor.execute(this::loadScheduleIndex);
+        }
+    }
+
+    /**
+     * 失去调度租约：取消时间轮中已领取的触发。
+     *
+     * <p>未触发的时间没有写入数据库，新调度节点按数据库中的时间直接接管，不会丢失；
+     * 即使取消前已经触发，实例创建也会被 fencing token 拒绝。</p>
+     */
+    @Override
+    public void onRevoked() {
+        int cancelled = 0;
+        for (Map.Entry<Integer, Timeout> entry : scheduledJobs.entrySet()) {
+            if (scheduledJobs.remove(entry.getKey(), entry.getValue()) && entry.getValue().cancel()) {
+                cancelled++;
+            }
+        }
+        claimedFireTimes.clear();
+        log.warn("失去调度租约，取消 {} 个已领取的触发", cancelled);
+    }
+
+    /**
+     * 取消时间轮中的触发，交由归属节点（或重启后的本节点）调度；数据库中本就是该触发时间，
+     * 这里再写一次以覆盖缓存和缓冲区中可能更晚的值
+     *
+     * @return false 表示已经触发，无需交还
+     */
+    private boolean handBack(Integer jobId, Timeout timeout) {
+        if (!timeout.cancel()) {
+            return false;
+        }
+        LocalDateTime fireTime = ((FireTask) timeout.task()).fireTime;
+        claimedFireTimes.remove(jobId);
+        nextExecuteTimeWriter.buffer(jobId, fireTime);
+        jobInfoCache.updateNextExecuteTime(jobId, fireTime);
+        return true;
+    }
+
+    /**
+     * 时间轮中的一次触发
+     *
+     * <p>触发时才推进数据库中的下次执行时间（批量写入，最迟在下一轮扫描结束时落库）。
+     * 触发后、落库前宕机时重启会再触发一次同一时间点，由实例的 fencing / 执行器阻塞策略兜底。</p>
+     */
+    private final class FireTask implements TimerTask {
+
+        private final Integer jobId;
+        private final LocalDateTime fireTime;
+        /** 触发后推进到的下次执行时间，没有下一次时为 null */
+        private final LocalDateTime nextTime;
+        private final FencingToken fencingToken;
+
+        FireTask(Integer jobId, LocalDateTime fireTime, LocalDateTime nextTime, FencingToken fencingToken) {
+            this.jobId = jobId;
+            this.fireTime = fireTime;
+            this.nextTime = nextTime;
+            this.fencingToken = fencingToken;
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            // 只移除自己对应的节点，避免误删期间重新放入的触发
+            scheduledJobs.remove(jobId, timeout);
+            if (nextTime != null && running.get() && !pausedJobs.contains(jobId)) {
+                // 先推进缓存再触发，执行完重调度时读到的是下一次的时间
+                commitNextExecuteTime(jobId, nextTime);
+            }
+            triggerJob(jobId, fencingToken);
+        }
+    }
+
     // ==================== 公开方法 ====================
 
+    /**
+     * 任务新增/修改后的增量同步：取消按旧配置放入时间轮的触发，memory 模式下更新内存索引；
+     * 时间轮不限制延迟时直接重新放入时间轮，不等待扫描
+     */
+    public void onJobSaved(JobInfo jobInfo) {
+        if (!jobInfo.isEnabled()) {
+            onJobRemoved(jobInfo.getId());
+            return;
+        }
+        cancel(jobInfo.getId());
+        if (isMemoryMode()) {
+            indexJob(jobInfo);
+        }
+        if (running.get() && wheelThresholdSeconds <= 0) {
+            // 使用副本，避免修改调用方事务中的托管实体
+            JobInfo snapshot = new JobInfo();
+            BeanUtils.copyProperties(jobInfo, snapshot);
+            processJob(snapshot, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 任务删除/禁用后的增量同步：取消时间轮中的调度并移出内存索引
+     */
+    public void onJobRemoved(Integer jobId) {
+        cancel(jobId);
+        indexedDefinitions.remove(jobId);
+        scheduleIndex.remove(jobId);
+    }
+
     public boolean pause(Integer jobId) {
         if (pausedJobs.add(jobId)) {
+            claimedFireTimes.remove(jobId);
             Timeout timeout = scheduledJobs.remove(jobId);
             if (timeout != null) {
                 timeout.cancel();
@@ -438,6 +961,8 @@ public class CronJobScheduler {
     }
 
     public boolean cancel(Integer jobId) {
+        // 任务定义变更后按新的执行时间重新领取
+        claimedFireTimes.remove(jobId);
         Timeout timeout = scheduledJobs.remove(jobId);
         if (timeout != null) {
             timeout.cancel();
@@ -448,9 +973,10 @@ public class CronJobScheduler {
     }
 
     public void triggerNow(Integer jobId) {
-        jobInfoMapper.findById(jobId).ifPresent(jobInfo -> {
+        jobInfoCache.getDetail(jobId).ifPresent(jobDetail -> {
             log.info("立即触发任务: jobId={}", jobId);
-            jobExecutor.submit(() -> executeJob(jobInfo));
+            // 手动触发不受选主限制，任意节点都可以执行
+            jobExecutor.submit(() -> executeJob(jobDetail, null));
         });
     }
 
@@ -462,6 +988,14 @@ public class CronJobScheduler {
         return runningJobs.size();
     }
 
+    public int getIndexedCount() {
+        return scheduleIndex.size();
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
     public boolean isScheduled(Integer jobId) {
         return scheduledJobs.containsKey(jobId);
     }
@@ -469,4 +1003,8 @@ public class CronJobScheduler {
     public boolean isRunning() {
         return running.get();
     }
+
+    private boolean isMemoryMode() {
+        return "memory".equalsIgnoreCase(mode);
+    }
 }
@@ -1,12 +1,20 @@
 package com.simple.pulsejob.admin.scheduler;
 
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
 import com.simple.pulsejob.admin.common.model.enums.JobInstanceStatus;
 import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
 import com.simple.pulsejob.common.util.StackTraceUtil;
+import com.simple.pulsejob.transport.JResponse;
+import com.simple.pulsejob.transport.Status;
+import com.simple.pulsejob.transport.metadata.ResultWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
+
 /**
  * 任务实例状态管理器.
  *
@@ -16,7 +24,11 @@ import org.springframework.stereotype.Component;
  *   <li>TRANSPORT_FAILED - 发送失败</li>
  *   <li>SUCCESS - 执行成功</li>
  *   <li>FAILED - 执行失败</li>
+ *   <li>DISCARDED - 按阻塞处理策略丢弃（管理端或执行器）</li>
  * </ul>
+ *
+ * <p>状态变更交给 {@link JobInstanceWriter} 按实例聚合后批量写入：未落库的实例随插入一起写入，
+ * 已落库的实例在短窗口内的多次变更只写一次；写入器关闭或缓冲已满时直接更新数据库。</p>
  */
 @Slf4j
 @Component
@@ -25,6 +37,10 @@ public class JobInstanceStatusManager {
 
     private final JobInstanceMapper jobInstanceMapper;
 
+    private final JobInstanceWriter instanceWriter;
+
+    private final SnowflakeIdGenerator instanceIdGenerator;
+
     // ==================== 传输阶段 ====================
 
     /**
@@ -41,6 +57,22 @@ public class JobInstanceStatusManager {
         updateStatus(instanceId, JobInstanceStatus.TRANSPORT_FAILED);
     }
 
+    /**
+     * 标记为重新分发（分片失败后转移到其他节点）：回到待发送状态，记录新的执行器地址和重试次数
+     */
+    public void markRedispatched(Long instanceId, String executorAddress, int retryCount) {
+        boolean buffered = instanceWriter.update(instanceId, instance -> {
+            instance.setStatus(JobInstanceStatus.PENDING.getValue());
+            instance.setExecutorAddress(executorAddress);
+            instance.setRetryCount(retryCount);
+            instance.setUpdateTime(LocalDateTime.now());
+        });
+        if (!buffered) {
+            // 只是过程信息，写入器不可用时不回退同步更新，随后的状态变更照常写入
+            log.warn("实例重新分发信息未记录: instanceId={}, executorAddress={}", instanceId, executorAddress);
+        }
+    }
+
     // ==================== 执行阶段 ====================
 
     /**
@@ -61,6 +93,9 @@ public class JobInstanceStatusManager {
             log.warn("跳过状态更新: instanceId is null");
             return;
         }
+        if (bufferTransition(instanceId, JobInstanceStatus.TIMEOUT, null, errorMessage, true)) {
+            return;
+        }
         try {
             int rows = jobInstanceMapper.updateStatusWithError(
                     instanceId,
@@ -84,6 +119,9 @@ public class JobInstanceStatusManager {
             log.warn("跳过状态更新: instanceId is null");
             return;
         }
+        if (bufferTransition(instanceId, JobInstanceStatus.SUCCESS, result, null, true)) {
+            return;
+        }
         try {
             int rows = jobInstanceMapper.updateStatusWithResult(
                     instanceId,
@@ -117,6 +155,9 @@ public class JobInstanceStatusManager {
             log.warn("跳过状态更新: instanceId is null");
             return;
         }
+        if (bufferTransition(instanceId, JobInstanceStatus.FAILED, null, errorMessage, true)) {
+            return;
+        }
         try {
             int rows = jobInstanceMapper.updateStatusWithError(
                     instanceId,
@@ -129,8 +170,120 @@ public class JobInstanceStatusManager {
         }
     }
 
+    /**
+     * 标记为已丢弃（执行器按阻塞处理策略拒绝执行）
+     *
+     * @param instanceId 实例ID
+     * @param reason     丢弃原因
+     */
+    public void markDiscarded(Long instanceId, String reason) {
+        if (instanceId == null) {
+            log.warn("跳过状态更新: instanceId is null");
+            return;
+        }
+        if (bufferTransition(instanceId, JobInstanceStatus.DISCARDED, null, reason, true)) {
+            return;
+        }
+        try {
+            int rows = jobInstanceMapper.updateStatusWithError(
+                    instanceId,
+                    JobInstanceStatus.DISCARDED.getValue(),
+                    reason
+            );
+            logUpdateResult(instanceId, JobInstanceStatus.DISCARDED, rows);
+        } catch (Exception e) {
+            log.error("更新实例状态异常: instanceId={}, status={}", instanceId, JobInstanceStatus.DISCARDED, e);
+        }
+    }
+
+    /**
+     * 记录管理端按阻塞处理策略丢弃的调度：不发送到执行器，直接写入一条 DISCARDED 终态实例，便于在实例列表中追溯
+     *
+     * @param context 被丢弃的调度
+     * @param reason  丢弃原因
+     */
+    public void recordDiscarded(ScheduleContext context, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        JobInstance instance = new JobInstance();
+        instance.setId(instanceIdGenerator.next());
+        instance.setJobId(context.getJobId());
+        instance.setExecutorId(context.getExecutorId());
+        instance.setTriggerTime(now);
+        instance.setEndTime(now);
+        instance.setStatus(JobInstanceStatus.DISCARDED.getValue());
+        instance.setRetryCount(0);
+        instance.setErrorMessage(reason);
+        instance.prePersist();
+        instanceWriter.submit(instance);
+    }
+
+    /**
+     * 按调用结果标记终态：响应 OK 为成功，客户端超时或 Admin 侧超时为超时，其余为失败
+     *
+     * @param response  执行器响应（调用异常时为 null）
+     * @param throwable 网络异常或超时（正常响应时为 null）
+     * @return 失败原因，成功时为 null
+     */
+    public Throwable markCompleted(Long instanceId, JResponse response, Throwable throwable) {
+        if (throwable != null) {
+            if (isTimeoutException(throwable)) {
+                // Admin 侧超时（客户端未在规定时间内返回）
+                markTimeout(instanceId, throwable.getMessage());
+            } else {
+                markFailed(instanceId, throwable);
+            }
+            return throwable;
+        }
+
+        byte status = response.status();
+        ResultWrapper wrapper = response.result();
+        if (status == Status.OK.value()) {
+            markSuccess(instanceId, extractResult(wrapper));
+            return null;
+        }
+
+        Object result = wrapper != null ? wrapper.getResult() : null;
+        Throwable cause = (result instanceof Throwable)
+            ? (Throwable) result
+            : new RuntimeException("任务执行失败, status=" + Status.parse(status) + ", result=" + result);
+        // 客户端返回的超时异常
+        if (status == Status.CLIENT_TIMEOUT.value()) {
+            markTimeout(instanceId, cause.getMessage());
+        } else if (status == Status.DISCARDED.value()) {
+            markDiscarded(instanceId, cause.getMessage());
+        } else {
+            markFailed(instanceId, cause);
+        }
+        return cause;
+    }
+
     // ==================== 内部方法 ====================
 
+    /**
+     * 提取执行结果
+     */
+    private String extractResult(ResultWrapper wrapper) {
+        if (wrapper == null || wrapper.getResult() == null) {
+            return null;
+        }
+        Object result = wrapper.getResult();
+        // 客户端已经转为 JSON 字符串了
+        return result instanceof String ? (String) result : result.toString();
+    }
+
+    /**
+     * 判断是否为超时异常
+     */
+    private boolean isTimeoutException(Throwable throwable) {
+        // 检查异常类型
+        if (throwable instanceof TimeoutException) {
+            return true;
+        }
+        // 检查异常消息（客户端返回的超时信息）
+        String message = throwable.getMessage();
+        return message != null && message.toLowerCase().contains("timeout");
+    }
+
     /**
      * 更新状态（仅状态，不带附加信息）
      */
@@ -139,6 +292,9 @@ public class JobInstanceStatusManager {
             log.warn("跳过状态更新: instanceId is null");
             return;
         }
+        if (bufferTransition(instanceId, status, null, null, false)) {
+            return;
+        }
         try {
             int rows = jobInstanceMapper.updateStatus(instanceId, status.getValue());
             logUpdateResult(instanceId, status, rows);
@@ -147,6 +303,32 @@ public class JobInstanceStatusManager {
         }
     }
 
+    /**
+     * 把状态变更交给写缓冲聚合（与对应的 UPDATE 语句写入相同的字段）
+     *
+     * @return false 表示未能缓冲，需要直接更新数据库
+     */
+    private boolean bufferTransition(Long instanceId, JobInstanceStatus status,
+                                     String result, String errorMessage, boolean finished) {
+        boolean buffered = instanceWriter.update(instanceId, instance -> {
+            LocalDateTime now = LocalDateTime.now();
+            instance.setStatus(status.getValue());
+            instance.setUpdateTime(now);
+            if (finished) {
+                if (status == JobInstanceStatus.SUCCESS) {
+                    instance.setResult(result);
+                } else {
+                    instance.setErrorMessage(errorMessage);
+                }
+                instance.setEndTime(now);
+            }
+        });
+        if (buffered) {
+            log.debug("实例状态变更已缓冲: instanceId={}, status={}", instanceId, status);
+        }
+        return buffered;
+    }
+
     private void logUpdateResult(Long instanceId, JobInstanceStatus status, int rows) {
         if (rows > 0) {
             log.debug("实例状态更新: instanceId={}, status={}", instanceId, status);
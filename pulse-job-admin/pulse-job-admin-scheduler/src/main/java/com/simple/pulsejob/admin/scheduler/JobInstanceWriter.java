@@ -0,0 +1,420 @@
+package com.simple.pulsejob.admin.scheduler;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 任务实例异步批量写入器（write-behind）.
+ *
+ * <p>实例 ID 在调度端本地生成，触发路径只把实例放入缓冲区即可发送 TRIGGER_JOB，
+ * 由后台线程按批次（{@link JobInstanceMapper#batchInsert}）落库，触发不再等待数据库往返。</p>
+ *
+ * <p>状态变更（已发送、执行结果等）统一经 {@link #update} 按 instanceId 聚合：</p>
+ * <ul>
+ *   <li>实例未落库时直接合并到缓冲中的实例，随插入一起写入</li>
+ *   <li>已落库的实例在内存中累积 status-delay 毫秒，期间的多次变更（如 TRANSPORTED → SUCCESS）
+ *       按到达顺序应用到同一份状态上，只产生一条 UPDATE（{@link JobInstanceMapper#batchUpdateState}）</li>
+ *   <li>正在写入的实例被修改时标记为脏，写入完成后再更新一次，同一实例的写入不会乱序或丢失</li>
+ * </ul>
+ *
+ * <p>关闭时写完缓冲区中的全部实例和状态，之后到达的变更由调用方直接写库。</p>
+ *
+ * <p>批次因违反约束失败时逐条重试并丢弃坏数据，避免一条坏数据阻塞整个批次；
+ * 数据库不可用等其他错误整批保留在缓冲区中等待下次刷新，缓冲区已满时退化为同步插入。</p>
+ */
+@Slf4j
+@Component
+public class JobInstanceWriter {
+
+    private final JobInstanceMapper jobInstanceMapper;
+
+    /** 刷新间隔（毫秒） */
+    @Value("${pulse.job.admin.instance-writer.flush-interval:20}")
+    private long flushInterval;
+
+    /** 单批最大条数，缓冲达到该数量时立即刷新 */
+    @Value("${pulse.job.admin.instance-writer.batch-size:500}")
+    private int batchSize;
+
+    /** 缓冲上限（未落库的实例数），超过后同步插入 */
+    @Value("${pulse.job.admin.instance-writer.max-pending:20000}")
+    private int maxPending;
+
+    /** 已落库实例的状态变更聚合窗口（毫秒），窗口内的多次变更合并为一次 UPDATE */
+    @Value("${pulse.job.admin.instance-writer.status-delay:200}")
+    private long statusDelay;
+
+    /** 未落库（或落库后仍有未写入变更）的实例 */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /** 等待下次刷新的实例 */
+    private List<Entry> queue = new ArrayList<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private volatile boolean closed;
+
+    private ScheduledExecutorService flushExecutor;
+
+    // ==================== 统计 ====================
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder insertedRows = new LongAdder();
+    private final LongAdder updatedRows = new LongAdder();
+    /** 缓冲的状态变更次数 */
+    private final LongAdder transitionCount = new LongAdder();
+    /** 合并到尚未写入的状态中的变更次数（每次节省一条 UPDATE） */
+    private final LongAdder mergedCount = new LongAdder();
+    private final LongAdder syncFallbackCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+    public JobInstanceWriter(JobInstanceMapper jobInstanceMapper) {
+        this.jobInstanceMapper = jobInstanceMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                new JNamedThreadFactory("job-instance-writer", true));
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        log.info("JobInstanceWriter 初始化完成: flushInterval={}ms, batchSize={}, maxPending={}, statusDelay={}ms",
+                flushInterval, batchSize, maxPending, statusDelay);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        closed = true;
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写完剩余实例和状态（不等待聚合窗口）
+        while (flush() > 0) {
+            // continue
+        }
+        int remaining = getPendingCount();
+        if (remaining > 0) {
+            log.error("JobInstanceWriter 关闭时仍有 {} 个实例未能写入", remaining);
+        }
+        log.info("JobInstanceWriter 已关闭: {}", this);
+    }
+
+    // ==================== 核心API ====================
+
+    /**
+     * 提交一个新实例（ID 已生成），立即返回
+     */
+    public void submit(JobInstance instance) {
+        submitAll(List.of(instance));
+    }
+
+    /**
+     * 提交一组新实例（如广播的各节点子实例），在同一次加锁内入队，随同一批次插入
+     */
+    public void submitAll(List<JobInstance> instances) {
+        submittedCount.add(instances.size());
+        List<JobInstance> overflow = null;
+        int size;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (JobInstance instance : instances) {
+                if (entries.size() < maxPending && !closed) {
+                    Entry entry = new Entry(instance, now);
+                    entries.put(instance.getId(), entry);
+                    entry.queued = true;
+                    queue.add(entry);
+                } else {
+                    if (overflow == null) {
+                        overflow = new ArrayList<>();
+                    }
+                    overflow.add(instance);
+                }
+            }
+            size = queue.size();
+        }
+
+        if (overflow != null) {
+            log.warn("实例写缓冲已满({})或已关闭，同步插入 {} 个实例", maxPending, overflow.size());
+            syncFallbackCount.add(overflow.size());
+            jobInstanceMapper.batchInsert(overflow);
+            insertedRows.add(overflow.size());
+        }
+        if (size >= batchSize && !closed && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 缓冲一次状态变更，按到达顺序应用到该实例的内存状态上，随下次刷新写入
+     *
+     * <p>已落库的实例只记录被修改的字段（其余为 null，更新时保留数据库中的值）。</p>
+     *
+     * @return false 表示写入器已关闭或缓冲已满，调用方应直接更新数据库
+     */
+    public synchronized boolean update(Long instanceId, Consumer<JobInstance> mutation) {
+        Entry entry = entries.get(instanceId);
+        if (entry == null) {
+            if (closed || entries.size() >= maxPending) {
+                return false;
+            }
+            JobInstance changes = new JobInstance();
+            changes.setId(instanceId);
+            changes.setRetryCount(null);
+            entry = new Entry(changes, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(statusDelay));
+            entry.inserted = true;
+            entries.put(instanceId, entry);
+        } else if (entry.queued || !entry.inserted) {
+            mergedCount.increment();
+        }
+        transitionCount.increment();
+        mutation.accept(entry.instance);
+        if (entry.inFlight) {
+            entry.dirty = true;
+        } else if (!entry.queued) {
+            entry.queued = true;
+            queue.add(entry);
+        }
+        return true;
+    }
+
+    /**
+     * 立即写入一批缓冲的实例和状态（不等待聚合窗口）
+     *
+     * @return 本批次写入成功的实例数
+     */
+    public int flush() {
+        return flush(true);
+    }
+
+    /**
+     * 将缓冲区写入数据库：新实例批量插入，已插入但有新变更的实例批量更新
+     *
+     * @param force 为 false 时跳过仍在聚合窗口内的状态变更
+     * @return 本批次写入成功的实例数
+     */
+    private int flush(boolean force) {
+        List<Entry> batch = new ArrayList<>();
+        List<JobInstance> inserts = new ArrayList<>();
+        List<JobInstance> updates = new ArrayList<>();
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            List<Entry> remaining = new ArrayList<>();
+            for (Entry entry : queue) {
+                if (batch.size() < batchSize && (force || now - entry.readyAtNanos >= 0)) {
+                    batch.add(entry);
+                } else {
+                    remaining.add(entry);
+                }
+            }
+            queue = remaining;
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            // 在锁内取快照，写入期间的修改记为脏数据
+            for (Entry entry : batch) {
+                entry.queued = false;
+                entry.inFlight = true;
+                entry.dirty = false;
+                (entry.inserted ? updates : inserts).add(entry.snapshot());
+            }
+        }
+
+        flushCount.increment();
+        maxBatchSize.accumulate(batch.size());
+        Set<Long> failed = new HashSet<>();
+        Set<Long> rejected = new HashSet<>();
+        write(inserts, true, failed, rejected);
+        write(updates, false, failed, rejected);
+
+        int written = 0;
+        synchronized (this) {
+            for (Entry entry : batch) {
+                entry.inFlight = false;
+                Long id = entry.instance.getId();
+                if (rejected.contains(id)) {
+                    entries.remove(id);
+                    continue;
+                }
+                boolean ok = !failed.contains(id);
+                if (ok) {
+                    entry.inserted = true;
+                    written++;
+                }
+                if (ok && !entry.dirty) {
+                    entries.remove(entry.instance.getId());
+                } else if (!entry.queued) {
+                    // 写入失败重试；写入期间有新变更则再更新一次
+                    entry.queued = true;
+                    entry.readyAtNanos = System.nanoTime();
+                    queue.add(entry);
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 批量写入，失败时逐条重试
+     *
+     * @param failed   写入失败、需要重试的实例 ID
+     * @param rejected 违反约束、直接丢弃的实例 ID
+     */
+    private void write(List<JobInstance> instances, boolean insert, Set<Long> failed, Set<Long> rejected) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        try {
+            doWrite(instances, insert);
+            return;
+        } catch (Exception e) {
+            failureCount.increment();
+            if (instances.size() == 1 || !(e instanceof DataIntegrityViolationException)) {
+                // 数据库不可用等错误整批等待下次刷新，不逐条重试
+                log.error("批量{}实例失败: size={}", insert ? "插入" : "更新", instances.size(), e);
+                instances.forEach(instance -> onWriteFailure(instance, insert, e, failed, rejected));
+                return;
+            }
+            log.warn("批量{}实例违反约束，逐条重试: size={}", insert ? "插入" : "更新", instances.size(), e);
+        }
+        for (JobInstance instance : instances) {
+            try {
+                doWrite(List.of(instance), insert);
+            } catch (Exception e) {
+                onWriteFailure(instance, insert, e, failed, rejected);
+            }
+        }
+    }
+
+    private void doWrite(List<JobInstance> instances, boolean insert) {
+        if (insert) {
+            insertedRows.add(jobInstanceMapper.batchInsert(instances));
+        } else {
+            updatedRows.add(jobInstanceMapper.batchUpdateState(instances));
+        }
+    }
+
+    private void onWriteFailure(JobInstance instance, boolean insert, Exception e, Set<Long> failed, Set<Long> rejected) {
+        if (e instanceof DataIntegrityViolationException) {
+            log.error("实例{}违反约束，丢弃: instanceId={}", insert ? "插入" : "更新", instance.getId(), e);
+            rejected.add(instance.getId());
+        } else {
+            log.debug("实例{}失败，等待下次重试: instanceId={}", insert ? "插入" : "更新", instance.getId());
+            failed.add(instance.getId());
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush(false);
+        } catch (Exception e) {
+            log.error("刷新实例写缓冲时发生错误", e);
+        }
+    }
+
+    // ==================== 查询方法 ====================
+
+    public synchronized int getPendingCount() {
+        return entries.size();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    public long getInsertedRows() {
+        return insertedRows.sum();
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows.sum();
+    }
+
+    public long getTransitionCount() {
+        return transitionCount.sum();
+    }
+
+    public long getMergedCount() {
+        return mergedCount.sum();
+    }
+
+    public long getSyncFallbackCount() {
+        return syncFallbackCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JobInstanceWriter{pending=%d, submitted=%d, inserted=%d, transitions=%d, merged=%d, updated=%d, syncFallback=%d, failures=%d, flushes=%d, maxBatch=%d}",
+                getPendingCount(), getSubmittedCount(), getInsertedRows(), getTransitionCount(), getMergedCount(), getUpdatedRows(),
+                getSyncFallbackCount(), getFailureCount(), getFlushCount(), getMaxBatchSize());
+    }
+
+    private static final class Entry {
+
+        private final JobInstance instance;
+        /** 已插入数据库 */
+        private boolean inserted;
+        /** 在待刷新队列中 */
+        private boolean queued;
+        /** 正在写入 */
+        private boolean inFlight;
+        /** 写入期间被修改 */
+        private boolean dirty;
+        /** 最早可以写入的时间（System.nanoTime），用于聚合状态变更 */
+        private long readyAtNanos;
+
+        Entry(JobInstance instance, long readyAtNanos) {
+            this.instance = instance;
+            this.readyAtNanos = readyAtNanos;
+        }
+
+        JobInstance snapshot() {
+            JobInstance copy = new JobInstance();
+            BeanUtils.copyProperties(instance, copy);
+            return copy;
+        }
+    }
+}
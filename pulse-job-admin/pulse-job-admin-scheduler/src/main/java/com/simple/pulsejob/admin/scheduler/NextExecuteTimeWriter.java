@@ -0,0 +1,148 @@
+package com.simple.pulsejob.admin.scheduler;
+
+import com.simple.pulsejob.admin.persistence.mapper.JobInfoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 下次执行时间写缓冲（write-behind）.
+ *
+ * <p>一轮扫描内产生的 (jobId, nextTime) 先缓存在内存，扫描结束后通过
+ * {@link JobInfoMapper#batchUpdateNextExecuteTime} 一次性批量写入，同一任务只保留最后一次的值。</p>
+ *
+ * <p>写入失败的记录会放回缓冲区（若期间没有更新的值），在下次刷新时重试。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NextExecuteTimeWriter {
+
+    private final JobInfoMapper jobInfoMapper;
+
+    /** 待写入的下次执行时间（jobId -> nextTime） */
+    private Map<Integer, LocalDateTime> pending = new LinkedHashMap<>();
+
+    // ==================== 统计 ====================
+
+    /** 刷新次数（不含空刷新） */
+    private final LongAdder flushCount = new LongAdder();
+
+    /** 刷新失败次数 */
+    private final LongAdder failureCount = new LongAdder();
+
+    /** 累计写入行数 */
+    private final LongAdder flushedRows = new LongAdder();
+
+    /** 累计刷新耗时（纳秒） */
+    private final LongAdder totalFlushNanos = new LongAdder();
+
+    /** 最大批次大小 */
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+    /** 最大刷新耗时（纳秒） */
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    private volatile int lastBatchSize;
+
+    /**
+     * 缓存一条下次执行时间
+     */
+    public synchronized void buffer(Integer jobId, LocalDateTime nextExecuteTime) {
+        pending.put(jobId, nextExecuteTime);
+    }
+
+    /**
+     * 将缓冲区中的记录批量写入数据库
+     *
+     * @return 写入的行数
+     */
+    public int flush() {
+        Map<Integer, LocalDateTime> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        long start = System.nanoTime();
+        try {
+            int rows = jobInfoMapper.batchUpdateNextExecuteTime(batch, LocalDateTime.now());
+            long elapsed = System.nanoTime() - start;
+
+            flushCount.increment();
+            flushedRows.add(rows);
+            totalFlushNanos.add(elapsed);
+            maxBatchSize.accumulate(batch.size());
+            maxFlushNanos.accumulate(elapsed);
+            lastBatchSize = batch.size();
+
+            log.debug("批量更新下次执行时间: batchSize={}, rows={}, cost={}ms",
+                    batch.size(), rows, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return rows;
+        } catch (Exception e) {
+            failureCount.increment();
+            log.error("批量更新下次执行时间失败，等待下次重试: batchSize={}", batch.size(), e);
+            synchronized (this) {
+                batch.forEach(pending::putIfAbsent);
+            }
+            return 0;
+        }
+    }
+
+    // ==================== 查询方法 ====================
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getFlushedRows() {
+        return flushedRows.sum();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = flushCount.sum();
+        return count > 0 ? (double) flushedRows.sum() / count : 0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.sum();
+        return count > 0 ? (double) totalFlushNanos.sum() / count / 1_000_000 : 0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NextExecuteTimeWriter{pending=%d, flushes=%d, failures=%d, rows=%d, avgBatch=%.2f, maxBatch=%d, avgFlush=%.2fms, maxFlush=%.2fms}",
+                getPendingCount(), getFlushCount(), getFailureCount(), getFlushedRows(),
+                getAverageBatchSize(), getMaxBatchSize(), getAverageFlushMillis(), getMaxFlushMillis());
+    }
+}
@@ -2,11 +2,14 @@ package com.simple.pulsejob.admin.scheduler;
 
 import com.simple.pulsejob.admin.common.model.dto.JobInfoWithExecutorDTO;
 import com.simple.pulsejob.admin.common.model.entity.JobInfo;
+import com.simple.pulsejob.admin.common.model.enums.BlockStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.HashKeyTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.InvokeStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.ScheduleTypeEnum;
 import com.simple.pulsejob.admin.common.model.enums.SerializerTypeEnum;
+import com.simple.pulsejob.admin.scheduler.leader.FencingToken;
 import com.simple.pulsejob.common.util.StringUtil;
 import com.simple.pulsejob.transport.metadata.ExecutorKey;
 import lombok.Data;
@@ -49,24 +52,39 @@ public class ScheduleContext {
     /** 调度类型：CRON、FIXED_RATE、FIXED_DELAY、API */
     private ScheduleTypeEnum scheduleType;
 
-    /** 分发类型：ROUND（单播）、BROADCAST（广播） */
+    /** 分发类型：ROUND（单播）、BROADCAST（广播）、SHARDING（分片） */
     private DispatchTypeEnum dispatchType;
 
     /** 负载均衡类型 */
     private LoadBalanceTypeEnum loadBalanceType;
 
+    /** 一致性哈希路由键类型 */
+    private HashKeyTypeEnum hashKeyType;
+
+    /** 一致性哈希路由键字段（PARAM_FIELD 时的 JSON 字段名） */
+    private String hashKeyField;
+
+    /** 分片序号（分片分发时设置） */
+    private Integer shardIndex;
+
     /** 序列化类型 */
     private SerializerTypeEnum serializerType;
 
     /** 集群调用策略：FAIL_FAST、FAIL_OVER、FAIL_SAFE */
     private InvokeStrategyEnum invokeStrategy;
 
+    /** 阻塞处理策略：SERIAL_EXECUTION、DISCARD_LATER、COVER_EARLY，为 null 时不限制并发 */
+    private BlockStrategyEnum blockStrategy;
+
     /** 最大重试次数 */
     private int maxRetries;
 
     /** 超时时间（秒） */
     private int timeoutSeconds;
 
+    /** 调度租约令牌（自动调度且开启选主时设置，创建实例时校验） */
+    private FencingToken fencingToken;
+
     // ==================== 静态工厂方法 ====================
 
     /**
@@ -93,7 +111,11 @@ public class ScheduleContext {
         context.setScheduleExpression(jobInfo.getScheduleRate());
         context.setDispatchType(jobInfo.getDispatchType());
         context.setLoadBalanceType(jobInfo.getLoadBalanceType());
+        context.setHashKeyType(jobInfo.getHashKeyType());
+        context.setHashKeyField(jobInfo.getHashKeyField());
         context.setSerializerType(jobInfo.getSerializerType());
+        context.setBlockStrategy(jobInfo.getBlockStrategy() != null
+                ? jobInfo.getBlockStrategy() : BlockStrategyEnum.SERIAL_EXECUTION);
         context.setMaxRetries(jobInfo.getMaxRetryTimes() != null ? jobInfo.getMaxRetryTimes() : 1);
         context.setTimeoutSeconds(jobInfo.getTimeoutSeconds() != null ? jobInfo.getTimeoutSeconds() : 60);
 
@@ -153,6 +175,7 @@ public class ScheduleContext {
         // 默认值
         this.dispatchType = DispatchTypeEnum.ROUND;
         this.loadBalanceType = LoadBalanceTypeEnum.RANDOM;
+        this.hashKeyType = HashKeyTypeEnum.JOB_ID;
         this.serializerType = SerializerTypeEnum.JAVA;
         this.invokeStrategy = InvokeStrategyEnum.getDefault();
         this.maxRetries = 1;
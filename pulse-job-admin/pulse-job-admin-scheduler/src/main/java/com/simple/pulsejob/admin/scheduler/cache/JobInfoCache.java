@@ -0,0 +1,332 @@
+package com.simple.pulsejob.admin.scheduler.cache;
+
+import com.simple.pulsejob.admin.common.model.dto.JobInfoWithExecutorDTO;
+import com.simple.pulsejob.admin.common.model.entity.JobInfo;
+import com.simple.pulsejob.admin.persistence.mapper.JobInfoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务定义缓存（带版本号的写穿透缓存）.
+ *
+ * <p>时间轮触发、手动触发时从这里获取任务定义和执行器名称，命中时不访问数据库。
+ * 任务的新增/修改/删除由 JobInfoService 同步写入或失效，调度器推进的下次执行时间也会写穿透到缓存，
+ * 因此缓存中的定义始终不旧于数据库。</p>
+ *
+ * <p>每次写入和失效都会分配递增的版本号；未命中时的数据库加载只有在期间没有更新版本的写入/失效时才会回填，
+ * 避免慢查询把旧数据写回缓存。事务中的写入先失效，提交后再写入缓存；回滚时只留下失效，下次访问重新加载。</p>
+ *
+ * <p>失效的条目只在有进行中的加载时以墓碑形式保留（阻止加载回填旧数据），没有更早开始的加载后即被清除，
+ * 已删除任务不会在缓存中常驻。</p>
+ *
+ * <p>其他 admin 节点的修改无法直接通知到本节点，条目超过 TTL 后重新加载，保证最终一致。</p>
+ *
+ * <p>对外返回的都是副本，调用方可以随意修改。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobInfoCache {
+
+    private final JobInfoMapper jobInfoMapper;
+
+    /** 条目有效期（秒），<= 0 表示不过期 */
+    @Value("${pulse.job.admin.scheduler.job-cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    /** jobId -> 缓存条目（detail 为 null 的条目为失效墓碑） */
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    /** 进行中的数据库加载，墓碑需要保留到比它更早开始的加载全部结束 */
+    private final Set<LoadTicket> loadsInFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    // ==================== 统计 ====================
+
+    /** 命中次数 */
+    private final LongAdder hitCount = new LongAdder();
+
+    /** 未命中次数（含过期） */
+    private final LongAdder missCount = new LongAdder();
+
+    /** 过期重新加载次数 */
+    private final LongAdder expiredCount = new LongAdder();
+
+    /** 加载期间被更新版本覆盖、丢弃的加载结果次数 */
+    private final LongAdder staleLoadCount = new LongAdder();
+
+    /** 失效次数 */
+    private final LongAdder invalidateCount = new LongAdder();
+
+    /**
+     * 获取任务定义和执行器名称
+     */
+    public Optional<JobInfoWithExecutorDTO> getDetail(Integer jobId) {
+        Entry entry = entries.get(jobId);
+        if (entry != null && entry.detail != null) {
+            if (!isExpired(entry)) {
+                hitCount.increment();
+                return Optional.of(copyOf(entry.detail));
+            }
+            expiredCount.increment();
+        }
+        missCount.increment();
+        return load(jobId).map(JobInfoCache::copyOf);
+    }
+
+    /**
+     * 获取任务定义
+     */
+    public Optional<JobInfo> get(Integer jobId) {
+        return getDetail(jobId).map(JobInfoWithExecutorDTO::getJobInfo);
+    }
+
+    /**
+     * 任务保存后写穿透：执行器未变时沿用缓存中的执行器名称，否则失效等待重新加载。
+     * 事务中调用时先失效，提交后再写入。
+     */
+    public void put(JobInfo jobInfo) {
+        JobInfo snapshot = copyOf(jobInfo);
+        Entry current = entries.get(snapshot.getId());
+        if (current == null || current.detail == null
+                || !Objects.equals(current.detail.getJobInfo().getExecutorId(), snapshot.getExecutorId())) {
+            invalidate(snapshot.getId());
+            return;
+        }
+        JobInfoWithExecutorDTO detail = new JobInfoWithExecutorDTO(snapshot, current.detail.getExecutorName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 事务未提交，不能写入可能回滚的数据
+            doInvalidate(snapshot.getId());
+            afterCommit(() -> install(detail));
+            return;
+        }
+        install(detail);
+    }
+
+    private void install(JobInfoWithExecutorDTO detail) {
+        entries.put(detail.getJobInfo().getId(), new Entry(detail, versionSequence.incrementAndGet()));
+    }
+
+    /**
+     * 调度器推进下次执行时间后同步到缓存
+     */
+    public void updateNextExecuteTime(Integer jobId, LocalDateTime nextExecuteTime) {
+        entries.computeIfPresent(jobId, (k, current) -> {
+            if (current.detail == null) {
+                return current;
+            }
+            JobInfo jobInfo = copyOf(current.detail.getJobInfo());
+            jobInfo.setNextExecuteTime(nextExecuteTime);
+            return new Entry(new JobInfoWithExecutorDTO(jobInfo, current.detail.getExecutorName()),
+                    versionSequence.incrementAndGet(), current.loadNanos);
+        });
+    }
+
+    /**
+     * 失效单个任务（事务中调用时，提交后会再失效一次）
+     */
+    public void invalidate(Integer jobId) {
+        doInvalidate(jobId);
+        afterCommit(() -> doInvalidate(jobId));
+    }
+
+    /**
+     * 失效某个执行器下的所有任务（执行器改名/删除时调用）
+     */
+    public void invalidateExecutor(Integer executorId) {
+        doInvalidateExecutor(executorId);
+        afterCommit(() -> doInvalidateExecutor(executorId));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private Optional<JobInfoWithExecutorDTO> load(Integer jobId) {
+        // 先取版本号再查库：期间若有写入/失效，版本号必然更大，本次结果作废
+        LoadTicket ticket = new LoadTicket(versionSequence.get());
+        loadsInFlight.add(ticket);
+        try {
+            return doLoad(jobId, ticket.version);
+        } finally {
+            loadsInFlight.remove(ticket);
+            purgeTombstones();
+        }
+    }
+
+    private Optional<JobInfoWithExecutorDTO> doLoad(Integer jobId, long version) {
+        Optional<JobInfoWithExecutorDTO> loaded = jobInfoMapper.findWithExecutorNameById(jobId);
+        if (loaded.isEmpty()) {
+            entries.computeIfPresent(jobId, (k, current) -> current.version > version ? current : null);
+            return loaded;
+        }
+        JobInfoWithExecutorDTO detail = new JobInfoWithExecutorDTO(
+                copyOf(loaded.get().getJobInfo()), loaded.get().getExecutorName());
+        Entry installed = entries.compute(jobId, (k, current) -> {
+            if (current != null && current.version > version) {
+                return current;
+            }
+            return new Entry(detail, version);
+        });
+        if (installed.detail != detail) {
+            staleLoadCount.increment();
+            log.debug("任务 {} 加载期间定义已变更，丢弃本次加载结果", jobId);
+        }
+        return Optional.of(detail);
+    }
+
+    private void doInvalidate(Integer jobId) {
+        invalidateCount.increment();
+        entries.compute(jobId, (k, current) -> tombstoneOrNull(versionSequence.incrementAndGet()));
+    }
+
+    /**
+     * 没有进行中的加载时直接移除条目，否则留下墓碑，阻止这些加载回填失效前读到的数据
+     */
+    private Entry tombstoneOrNull(long version) {
+        return loadsInFlight.isEmpty() ? null : Entry.invalidated(version);
+    }
+
+    /**
+     * 清除不再被任何进行中的加载需要的墓碑（版本号不晚于最早开始的加载）
+     */
+    private void purgeTombstones() {
+        long oldestLoad = Long.MAX_VALUE;
+        for (LoadTicket ticket : loadsInFlight) {
+            oldestLoad = Math.min(oldestLoad, ticket.version);
+        }
+        long horizon = oldestLoad;
+        entries.values().removeIf(entry -> entry.detail == null && entry.version <= horizon);
+    }
+
+    private void doInvalidateExecutor(Integer executorId) {
+        for (Integer jobId : entries.keySet()) {
+            entries.computeIfPresent(jobId, (k, entry) -> {
+                if (entry.detail != null
+                        && Objects.equals(entry.detail.getJobInfo().getExecutorId(), executorId)) {
+                    invalidateCount.increment();
+                    return tombstoneOrNull(versionSequence.incrementAndGet());
+                }
+                return entry;
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlSeconds > 0 && System.nanoTime() - entry.loadNanos > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    private static JobInfoWithExecutorDTO copyOf(JobInfoWithExecutorDTO detail) {
+        return new JobInfoWithExecutorDTO(copyOf(detail.getJobInfo()), detail.getExecutorName());
+    }
+
+    private static JobInfo copyOf(JobInfo jobInfo) {
+        JobInfo copy = new JobInfo();
+        BeanUtils.copyProperties(jobInfo, copy);
+        return copy;
+    }
+
+    // ==================== 查询方法 ====================
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public long getStaleLoadCount() {
+        return staleLoadCount.sum();
+    }
+
+    public long getInvalidateCount() {
+        return invalidateCount.sum();
+    }
+
+    public double getHitRate() {
+        long total = hitCount.sum() + missCount.sum();
+        return total > 0 ? (double) hitCount.sum() / total * 100 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JobInfoCache{size=%d, hits=%d, misses=%d, expired=%d, staleLoads=%d, invalidations=%d, hitRate=%.2f%%}",
+                size(), getHitCount(), getMissCount(), getExpiredCount(), getStaleLoadCount(),
+                getInvalidateCount(), getHitRate());
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        /** 为 null 表示已失效 */
+        private final JobInfoWithExecutorDTO detail;
+        private final long version;
+        /** 从数据库加载（或写入）的时间，用于 TTL 判断 */
+        private final long loadNanos;
+
+        Entry(JobInfoWithExecutorDTO detail, long version) {
+            this(detail, version, System.nanoTime());
+        }
+
+        Entry(JobInfoWithExecutorDTO detail, long version, long loadNanos) {
+            this.detail = detail;
+            this.version = version;
+            this.loadNanos = loadNanos;
+        }
+
+        static Entry invalidated(long version) {
+            return new Entry(null, version);
+        }
+    }
+
+    /**
+     * 一次进行中的数据库加载（按实例区分，同一版本号可能有多个加载）
+     */
+    private static final class LoadTicket {
+
+        /** 加载开始时的版本号 */
+        private final long version;
+
+        LoadTicket(long version) {
+            this.version = version;
+        }
+    }
+}
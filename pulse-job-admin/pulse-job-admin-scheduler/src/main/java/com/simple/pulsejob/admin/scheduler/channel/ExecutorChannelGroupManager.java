@@ -20,6 +20,9 @@ public class ExecutorChannelGroupManager {
     // key: 执行器名称; value: 对应的执行器节点组
     private final ConcurrentMap<String, JChannelGroup> groups = Maps.newConcurrentMap();
 
+    // key: channel; value: 执行器注册时上报的业务地址（重连后不变，channel id 和出站端口会变）
+    private final ConcurrentMap<JChannel, String> addresses = Maps.newConcurrentMap();
+
     public JChannelGroup find(ExecutorKey executorKey) {
         String _executorKey = executorKey.exeuctorKeyString();
         return groups.computeIfAbsent(
@@ -27,13 +30,29 @@ public class ExecutorChannelGroupManager {
     }
 
     public void add(ExecutorKey executorKey, JChannel channel, Runnable preCloseProcessor) {
-        find(executorKey).add(channel, preCloseProcessor);
+        String address = executorKey.getExecutorAddress();
+        addresses.put(channel, address != null ? address : channel.remoteIpPort());
+        find(executorKey).add(channel, () -> {
+            addresses.remove(channel);
+            if (preCloseProcessor != null) {
+                preCloseProcessor.run();
+            }
+        });
     }
 
     public void remove(ExecutorKey executorKey, JChannel channel) {
+        addresses.remove(channel);
         find(executorKey).remove(channel);
     }
 
+    /**
+     * 执行器节点的稳定地址：注册时上报的业务地址，未注册时为 channel 的远端地址
+     */
+    public String address(JChannel channel) {
+        String address = addresses.get(channel);
+        return address != null ? address : channel.remoteIpPort();
+    }
+
     /**
      * 根据 Channel 获取执行器名称
      * @param channel 连接通道
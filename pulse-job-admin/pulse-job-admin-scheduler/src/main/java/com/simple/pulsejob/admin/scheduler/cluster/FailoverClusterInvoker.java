@@ -39,9 +39,11 @@ public class FailoverClusterInvoker implements ClusterInvoker {
 
     @Override
     public InvokeFuture invoke(ScheduleContext context) throws Exception {
-        // ⚠️ Failover 不支持广播模式
-        if (context.getDispatchType() == DispatchTypeEnum.BROADCAST) {
-            throw new UnsupportedOperationException("Failover strategy does not support broadcast dispatch");
+        // ⚠️ Failover 不支持广播模式；分片模式由 ShardingDispatcher 按分片转移，不走整体重试
+        if (context.getDispatchType() == DispatchTypeEnum.BROADCAST
+                || context.getDispatchType() == DispatchTypeEnum.SHARDING) {
+            throw new UnsupportedOperationException(
+                    "Failover strategy does not support " + context.getDispatchType() + " dispatch");
         }
 
         Dispatcher dispatcher = dispatcherFactory.get(context.getDispatchType());
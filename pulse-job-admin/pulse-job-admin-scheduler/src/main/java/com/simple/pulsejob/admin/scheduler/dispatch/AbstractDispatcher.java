@@ -3,10 +3,12 @@ package com.simple.pulsejob.admin.scheduler.dispatch;
 import com.simple.plusejob.serialization.Serializer;
 import com.simple.plusejob.serialization.SerializerType;
 import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+import com.simple.pulsejob.admin.common.model.enums.BlockStrategyEnum;
 import com.simple.pulsejob.admin.common.model.enums.JobInstanceStatus;
 import com.simple.pulsejob.admin.common.model.enums.SerializerTypeEnum;
 import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
 import com.simple.pulsejob.admin.scheduler.JobInstanceStatusManager;
+import com.simple.pulsejob.admin.scheduler.JobInstanceWriter;
 import com.simple.pulsejob.admin.scheduler.ScheduleContext;
 import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
 import com.simple.pulsejob.admin.scheduler.factory.LoadBalancerFactory;
@@ -14,7 +16,11 @@ import com.simple.pulsejob.admin.scheduler.factory.SerializerFactory;
 import com.simple.pulsejob.admin.scheduler.filter.JobFilterChains;
 import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFuture;
 import com.simple.pulsejob.admin.scheduler.interceptor.SchedulerInterceptorChain;
+import com.simple.pulsejob.admin.scheduler.leader.FencingToken;
+import com.simple.pulsejob.admin.scheduler.leader.FencingTokenExpiredException;
+import com.simple.pulsejob.admin.scheduler.load.balance.ChannelLoadStats;
 import com.simple.pulsejob.admin.scheduler.load.balance.LoadBalancer;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
 import com.simple.pulsejob.transport.JProtocolHeader;
 import com.simple.pulsejob.transport.JRequest;
 import com.simple.pulsejob.transport.channel.JChannel;
@@ -28,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -40,12 +47,15 @@ public abstract class AbstractDispatcher implements Dispatcher {
     protected final SerializerFactory serializerFactory;
     protected final JobInstanceMapper jobInstanceMapper;
     protected final JobInstanceStatusManager statusManager;
+    protected final JobInstanceWriter instanceWriter;
+    protected final SnowflakeIdGenerator instanceIdGenerator;
+    protected final ChannelLoadStats loadStats;
 
 
     protected JChannel select(ScheduleContext context) {
         JChannelGroup channelGroup = channelGroupManager.find(context.getExecutorKey());
         LoadBalancer loadBalancer = loadBalancerFactory.get(context.getLoadBalanceType());
-        return loadBalancer.select(channelGroup);
+        return loadBalancer.select(channelGroup, context);
     }
 
     protected JChannelGroup channelGroup(ExecutorKey executorKey) {
@@ -80,16 +90,42 @@ public abstract class AbstractDispatcher implements Dispatcher {
             log.debug("JobInstance created in core flow: instanceId={}, jobId={}", 
                     instanceId, context.getJobId());
         }
+        return writeRequest(channel, context, context.getInstanceId());
+    }
+
+    /**
+     * 以指定的 instanceId 发送请求
+     */
+    protected DefaultInvokeFuture writeRequest(final JChannel channel, ScheduleContext context, final long instanceId) {
+        return writeRequest(channel, context, createRequest(channel, context, instanceId));
+    }
 
-        final JRequest request = createRequest(channel, context);
+    /**
+     * 发送已构造好的请求（广播时各节点的请求共享同一份消息体，只有 instanceId 不同）
+     */
+    protected DefaultInvokeFuture writeRequest(final JChannel channel, ScheduleContext context, final JRequest request) {
+        return writeRequest(channel, context, request, null);
+    }
+
+    /**
+     * 发送已构造好的请求，发送成功后额外执行 onTransported（如广播在首个节点发送成功后标记父实例）
+     */
+    protected DefaultInvokeFuture writeRequest(final JChannel channel, ScheduleContext context, final JRequest request,
+                                               final Runnable onTransported) {
         final long instanceId = request.instanceId();
 
         // 计算 Admin 侧超时时间（比客户端多 5 秒，确保客户端有时间返回超时错误）
         int timeoutSeconds = context.getTimeoutSeconds();
         long timeoutMillis = timeoutSeconds > 0 ? (timeoutSeconds + 5) * 1000L : 0;
 
+        // SERIAL_EXECUTION 的调度可能在执行器上排队，执行超时从执行器回报开始执行时算起
         final DefaultInvokeFuture future = DefaultInvokeFuture
-            .with(instanceId, channel, timeoutMillis, null, type());
+            .with(instanceId, channel, timeoutMillis, null, type(), awaitStart(context));
+
+        // 负载统计：活跃数 + 完成耗时（供 LEAST_ACTIVE / P2C_EWMA 使用）
+        final long startNanos = System.nanoTime();
+        loadStats.onStart(channel);
+        future.whenComplete((response, throwable) -> loadStats.onComplete(channel, System.nanoTime() - startNanos));
 
         // 拦截器扩展点（可选：记录日志等）
         schedulerInterceptorChain.beforeTransport(context, request);
@@ -98,7 +134,11 @@ public abstract class AbstractDispatcher implements Dispatcher {
             @Override
             public void operationSuccess(JChannel ch) {
                 // ✅ 核心流程：更新状态为已发送
+                future.markSent();
                 statusManager.markTransported(instanceId);
+                if (onTransported != null) {
+                    onTransported.run();
+                }
                 
                 // 拦截器扩展点（可选）
                 schedulerInterceptorChain.afterTransport(context, request);
@@ -122,39 +162,90 @@ public abstract class AbstractDispatcher implements Dispatcher {
     /**
      * 核心流程：创建 JobInstance 记录
      * <p>直接使用 persistence 层，避免 scheduler ↔ business 循环依赖</p>
+     * <p>实例 ID 本地生成，记录交给 {@link JobInstanceWriter} 异步批量落库，请求无需等待数据库即可发出</p>
+     * <p>上下文携带 fencing token 时按 token 同步条件插入（校验必须先于发送），租约已易主则拒绝创建</p>
      *
      * @param context 调度上下文
      * @return 创建的 instanceId
+     * @throws FencingTokenExpiredException token 已失效
      */
-    private Long createJobInstance(ScheduleContext context) {
+    protected Long createJobInstance(ScheduleContext context) {
+        JobInstance instance = newJobInstance(context);
+
+        FencingToken fencingToken = context.getFencingToken();
+        if (fencingToken != null) {
+            if (!jobInstanceMapper.insertFenced(instance, fencingToken.getLeaseName(), fencingToken.getToken())) {
+                throw new FencingTokenExpiredException(fencingToken, context.getJobId());
+            }
+            return instance.getId();
+        }
+
+        instanceWriter.submit(instance);
+        return instance.getId();
+    }
+
+    /**
+     * 核心流程：批量创建一组子实例（如广播的各节点子实例）
+     * <p>上下文携带 fencing token 时与父实例一样按 token 同步插入，租约已易主则一条也不创建</p>
+     *
+     * @throws FencingTokenExpiredException token 已失效
+     */
+    protected void createJobInstances(ScheduleContext context, List<JobInstance> instances) {
+        FencingToken fencingToken = context.getFencingToken();
+        if (fencingToken != null) {
+            if (!jobInstanceMapper.insertAllFenced(instances, fencingToken.getLeaseName(), fencingToken.getToken())) {
+                throw new FencingTokenExpiredException(fencingToken, context.getJobId());
+            }
+            return;
+        }
+
+        instanceWriter.submitAll(instances);
+    }
+
+    /**
+     * 构造一个待提交的 PENDING 实例（ID 已生成）
+     */
+    protected JobInstance newJobInstance(ScheduleContext context) {
         JobInstance instance = new JobInstance();
+        instance.setId(instanceIdGenerator.next());
         instance.setJobId(context.getJobId());
         instance.setExecutorId(context.getExecutorId());
         instance.setTriggerTime(LocalDateTime.now());
         instance.setStatus(JobInstanceStatus.PENDING.getValue());
         instance.setRetryCount(0);
-        
-        JobInstance saved = jobInstanceMapper.save(instance);
-        return saved.getId();
+        instance.prePersist();
+        return instance;
     }
 
-    private JRequest createRequest(JChannel channel, ScheduleContext context) {
-        Integer jobId = context.getJobId();
-        String handlerName = context.getJobHandler();
-        String args = context.getJobParams();
-        Long instanceId = context.getInstanceId();
-        int timeoutSeconds = context.getTimeoutSeconds();
+    private JRequest createRequest(JChannel channel, ScheduleContext context, long instanceId) {
+        MessageWrapper message = createMessage(context);
+        JRequestPayload payload = PayloadSerializer.createRequest(
+            instanceId, channel, serializerType(context), message, JProtocolHeader.TRIGGER_JOB);
+
+        return new JRequest(payload, message);
+    }
 
-        MessageWrapper message = new MessageWrapper(jobId, handlerName, args, timeoutSeconds);
-        // 将 SerializerTypeEnum 转换为 SerializerType
+    protected MessageWrapper createMessage(ScheduleContext context) {
+        MessageWrapper message = new MessageWrapper(
+                context.getJobId(), context.getJobHandler(), context.getJobParams(), context.getTimeoutSeconds());
+        if (context.getBlockStrategy() != null) {
+            message.setBlockStrategy(context.getBlockStrategy().name());
+        }
+        message.setAckStart(awaitStart(context));
+        return message;
+    }
+
+    private static boolean awaitStart(ScheduleContext context) {
+        return context.getBlockStrategy() == BlockStrategyEnum.SERIAL_EXECUTION;
+    }
+
+    /**
+     * 将 SerializerTypeEnum 转换为 SerializerType
+     */
+    protected SerializerType serializerType(ScheduleContext context) {
         SerializerTypeEnum serializerTypeEnum = context.getSerializerType();
-        SerializerType serializerType = serializerTypeEnum != null 
+        return serializerTypeEnum != null 
             ? serializerTypeEnum.toSerializerType() 
             : SerializerType.JAVA;
-        
-        JRequestPayload payload = PayloadSerializer.createRequest(
-            instanceId, channel, serializerType, message, JProtocolHeader.TRIGGER_JOB);
-
-        return new JRequest(payload, message);
     }
 }
@@ -1,46 +1,117 @@
 package com.simple.pulsejob.admin.scheduler.dispatch;
 
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+import com.simple.pulsejob.admin.common.model.enums.BroadcastCompletionPolicyEnum;
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
 import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
 import com.simple.pulsejob.admin.scheduler.JobInstanceStatusManager;
+import com.simple.pulsejob.admin.scheduler.JobInstanceWriter;
 import com.simple.pulsejob.admin.scheduler.ScheduleContext;
 import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
 import com.simple.pulsejob.admin.scheduler.factory.LoadBalancerFactory;
 import com.simple.pulsejob.admin.scheduler.factory.SerializerFactory;
 import com.simple.pulsejob.admin.scheduler.filter.JobFilterChains;
 import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFuture;
+import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFutureGroup;
 import com.simple.pulsejob.admin.scheduler.future.InvokeFuture;
 import com.simple.pulsejob.admin.scheduler.interceptor.SchedulerInterceptorChain;
+import com.simple.pulsejob.admin.scheduler.load.balance.ChannelLoadStats;
+import com.simple.plusejob.serialization.SerializerType;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
+import com.simple.pulsejob.transport.JProtocolHeader;
+import com.simple.pulsejob.transport.JRequest;
 import com.simple.pulsejob.transport.channel.JChannel;
 import com.simple.pulsejob.transport.channel.JChannelGroup;
+import com.simple.pulsejob.transport.metadata.MessageWrapper;
+import com.simple.pulsejob.transport.payload.PayloadSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * 广播分发：向执行器组内的所有节点发送同一任务.
+ *
+ * <p>每次广播创建一个父实例（汇总结果）和每个节点一条子实例（parent_id 指向父实例），
+ * 子实例在同一批次中写入；各节点按子实例 ID 独立回报结果并更新子实例状态，
+ * 返回的 {@link DefaultInvokeFutureGroup} 按完成策略汇总为父实例的结果。</p>
+ *
+ * <p>消息体只序列化一次，所有节点的请求共享同一份 bytes，只有表头中的 instanceId 不同。</p>
+ */
+@Slf4j
 @Component
 public class BroadcastDispatcher extends AbstractDispatcher {
 
+    /** 广播完成策略 */
+    @Value("${pulse.job.admin.broadcast.completion-policy:ALL}")
+    private BroadcastCompletionPolicyEnum completionPolicy;
+
     public BroadcastDispatcher(ExecutorChannelGroupManager channelGroupManager,
                                SchedulerInterceptorChain schedulerInterceptorChain,
                                LoadBalancerFactory loadBalancerFactory,
                                JobFilterChains chains, 
                                SerializerFactory serializerFactory,
                                JobInstanceMapper jobInstanceMapper,
-                               JobInstanceStatusManager statusManager) {
+                               JobInstanceStatusManager statusManager,
+                               JobInstanceWriter instanceWriter,
+                               SnowflakeIdGenerator instanceIdGenerator,
+                               ChannelLoadStats loadStats) {
         super(channelGroupManager, schedulerInterceptorChain, loadBalancerFactory, chains, 
-              serializerFactory, jobInstanceMapper, statusManager);
+              serializerFactory, jobInstanceMapper, statusManager, instanceWriter, instanceIdGenerator, loadStats);
     }
 
     @Override
     public InvokeFuture dispatch(ScheduleContext context) {
         JChannelGroup channelGroup = channelGroup(context.getExecutorKey());
-        List<JChannel> channels = channelGroup.channels();
+        List<JChannel> channels = channelGroup != null ? channelGroup.channels() : List.of();
+        if (channels.isEmpty()) {
+            throw new IllegalStateException("No available channel for executor: " + context.getExecutorKey());
+        }
+
+        // 父实例（校验 fencing token），记录汇总结果
+        Long parentId = createJobInstance(context);
+        context.setInstanceId(parentId);
+
+        // 每个节点一条子实例，同一批次写入（与父实例一样校验 fencing token）
+        List<JobInstance> subInstances = new ArrayList<>(channels.size());
+        for (JChannel channel : channels) {
+            JobInstance subInstance = newJobInstance(context);
+            subInstance.setParentId(parentId);
+            subInstance.setExecutorAddress(channel.remoteIpPort());
+            subInstances.add(subInstance);
+        }
+        createJobInstances(context, subInstances);
+
+        // 消息体只序列化一次，各节点共享
+        MessageWrapper message = createMessage(context);
+        SerializerType serializerType = serializerType(context);
+        byte[] body = PayloadSerializer.serializeShared(serializerType, message);
+
+        // 父实例在首个节点发送成功后才标记为已发送；全部发送失败时保持 PENDING，由汇总结果标记失败
+        AtomicBoolean parentTransported = new AtomicBoolean();
+        Runnable onTransported = () -> {
+            if (parentTransported.compareAndSet(false, true)) {
+                statusManager.markTransported(parentId);
+            }
+        };
+
         DefaultInvokeFuture[] futures = new DefaultInvokeFuture[channels.size()];
         for (int i = 0; i < channels.size(); i++) {
-            JChannel channel = channels.get(i);
-            futures[i] = write(channel, context);
+            final Long subInstanceId = subInstances.get(i).getId();
+            JRequest request = new JRequest(
+                    PayloadSerializer.createSharedRequest(subInstanceId, serializerType, body, JProtocolHeader.TRIGGER_JOB),
+                    message);
+            futures[i] = writeRequest(channels.get(i), context, request, onTransported);
+            futures[i].whenComplete((response, throwable) ->
+                    statusManager.markCompleted(subInstanceId, response, throwable));
         }
-        return null;
+
+        log.debug("广播已发送: instanceId={}, jobId={}, nodes={}, policy={}",
+                parentId, context.getJobId(), channels.size(), completionPolicy);
+        return DefaultInvokeFutureGroup.with(parentId, futures, completionPolicy);
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.simple.pulsejob.admin.scheduler.dispatch;
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
 import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
 import com.simple.pulsejob.admin.scheduler.JobInstanceStatusManager;
+import com.simple.pulsejob.admin.scheduler.JobInstanceWriter;
 import com.simple.pulsejob.admin.scheduler.ScheduleContext;
 import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
 import com.simple.pulsejob.admin.scheduler.factory.LoadBalancerFactory;
@@ -10,6 +11,8 @@ import com.simple.pulsejob.admin.scheduler.factory.SerializerFactory;
 import com.simple.pulsejob.admin.scheduler.filter.JobFilterChains;
 import com.simple.pulsejob.admin.scheduler.future.InvokeFuture;
 import com.simple.pulsejob.admin.scheduler.interceptor.SchedulerInterceptorChain;
+import com.simple.pulsejob.admin.scheduler.load.balance.ChannelLoadStats;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
 import com.simple.pulsejob.transport.channel.JChannel;
 import org.springframework.stereotype.Component;
 
@@ -22,9 +25,12 @@ public class RoundRobinDispatcher extends AbstractDispatcher {
                                 JobFilterChains chains,
                                 SerializerFactory serializerFactory,
                                 JobInstanceMapper jobInstanceMapper,
-                                JobInstanceStatusManager statusManager) {
+                                JobInstanceStatusManager statusManager,
+                                JobInstanceWriter instanceWriter,
+                                SnowflakeIdGenerator instanceIdGenerator,
+                                ChannelLoadStats loadStats) {
         super(channelGroupManager, schedulerInterceptorChain, loadBalancerFactory, chains, 
-              serializerFactory, jobInstanceMapper, statusManager);
+              serializerFactory, jobInstanceMapper, statusManager, instanceWriter, instanceIdGenerator, loadStats);
     }
 
     @Override
@@ -0,0 +1,228 @@
+package com.simple.pulsejob.admin.scheduler.dispatch;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInstance;
+import com.simple.pulsejob.admin.common.model.enums.BroadcastCompletionPolicyEnum;
+import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.HashKeyTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.admin.persistence.mapper.JobInstanceMapper;
+import com.simple.pulsejob.admin.scheduler.JobInstanceStatusManager;
+import com.simple.pulsejob.admin.scheduler.JobInstanceWriter;
+import com.simple.pulsejob.admin.scheduler.ScheduleContext;
+import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
+import com.simple.pulsejob.admin.scheduler.factory.LoadBalancerFactory;
+import com.simple.pulsejob.admin.scheduler.factory.SerializerFactory;
+import com.simple.pulsejob.admin.scheduler.filter.JobFilterChains;
+import com.simple.pulsejob.admin.scheduler.future.ChannelDisconnectedException;
+import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFuture;
+import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFutureGroup;
+import com.simple.pulsejob.admin.scheduler.future.InvokeFuture;
+import com.simple.pulsejob.admin.scheduler.future.ShardInvokeFuture;
+import com.simple.pulsejob.admin.scheduler.interceptor.SchedulerInterceptorChain;
+import com.simple.pulsejob.admin.scheduler.load.balance.ChannelLoadStats;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
+import com.simple.pulsejob.transport.JProtocolHeader;
+import com.simple.pulsejob.transport.JRequest;
+import com.simple.pulsejob.transport.JResponse;
+import com.simple.pulsejob.transport.channel.JChannel;
+import com.simple.pulsejob.transport.channel.JChannelGroup;
+import com.simple.pulsejob.transport.metadata.MessageWrapper;
+import com.simple.pulsejob.transport.payload.PayloadSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 分片分发：把一个任务拆成 N 个分片，执行器组内每个节点执行一个.
+ *
+ * <p>分片数为当前在线节点数，节点按地址排序后依次分配分片序号，成员不变时同一分片总是落到同一节点。
+ * 分片序号和总数随 {@link MessageWrapper} 下发，执行器通过 JobContext 读取。</p>
+ *
+ * <p>任务配置一致性哈希且路由键为 {@link HashKeyTypeEnum#SHARD_INDEX} 时，每个分片按序号在哈希环上定位节点：
+ * 节点增减时只有约 1/N 的分片换节点，便于执行器按分片保留本地状态；代价是多个分片可能落到同一节点。</p>
+ *
+ * <p>与广播相同，每次分发创建一个父实例和每个分片一条子实例；分片因请求未能发出或节点断开而失败时，
+ * 在最大重试次数内转移到尚未执行过该分片、当前活跃调用最少的存活节点重新执行（复用子实例 ID）。
+ * 执行失败和超时不转移：原节点可能仍在执行（或已部分执行），转移会导致分片重复执行。
+ * 节点断开时原节点也可能已执行过一部分，开启重试的分片任务应保证分片处理幂等。
+ * 返回的 {@link DefaultInvokeFutureGroup} 在所有分片完成后汇总为父实例的结果，全部成功才算成功。</p>
+ */
+@Slf4j
+@Component
+public class ShardingDispatcher extends AbstractDispatcher {
+
+    public ShardingDispatcher(ExecutorChannelGroupManager channelGroupManager,
+                              SchedulerInterceptorChain schedulerInterceptorChain,
+                              LoadBalancerFactory loadBalancerFactory,
+                              JobFilterChains chains,
+                              SerializerFactory serializerFactory,
+                              JobInstanceMapper jobInstanceMapper,
+                              JobInstanceStatusManager statusManager,
+                              JobInstanceWriter instanceWriter,
+                              SnowflakeIdGenerator instanceIdGenerator,
+                              ChannelLoadStats loadStats) {
+        super(channelGroupManager, schedulerInterceptorChain, loadBalancerFactory, chains,
+              serializerFactory, jobInstanceMapper, statusManager, instanceWriter, instanceIdGenerator, loadStats);
+    }
+
+    @Override
+    public InvokeFuture dispatch(ScheduleContext context) {
+        JChannelGroup channelGroup = channelGroup(context.getExecutorKey());
+        List<JChannel> channels = channelGroup != null ? new ArrayList<>(channelGroup.channels()) : List.of();
+        if (channels.isEmpty()) {
+            throw new IllegalStateException("No available channel for executor: " + context.getExecutorKey());
+        }
+        channels.sort(Comparator.comparing(JChannel::remoteIpPort));
+        int shardTotal = channels.size();
+        List<JChannel> targets = shardAffinity(context) ? locateShards(context, channels) : channels;
+
+        // 父实例（校验 fencing token），记录汇总结果
+        Long parentId = createJobInstance(context);
+        context.setInstanceId(parentId);
+
+        // 每个分片一条子实例，同一批次写入（校验 fencing token，失效时不发送任何分片）
+        List<JobInstance> subInstances = new ArrayList<>(shardTotal);
+        for (JChannel channel : targets) {
+            JobInstance subInstance = newJobInstance(context);
+            subInstance.setParentId(parentId);
+            subInstance.setExecutorAddress(channel.remoteIpPort());
+            subInstances.add(subInstance);
+        }
+        createJobInstances(context, subInstances);
+
+        // 父实例在首个分片发送成功后才标记为已发送；全部发送失败时保持 PENDING，由汇总结果标记失败
+        AtomicBoolean parentTransported = new AtomicBoolean();
+        Runnable onTransported = () -> {
+            if (parentTransported.compareAndSet(false, true)) {
+                statusManager.markTransported(parentId);
+            }
+        };
+
+        ShardInvokeFuture[] shards = new ShardInvokeFuture[shardTotal];
+        for (int i = 0; i < shardTotal; i++) {
+            shards[i] = new ShardInvokeFuture(subInstances.get(i).getId(), i, shardTotal);
+            send(context, shards[i], targets.get(i), onTransported);
+        }
+
+        log.debug("分片已发送: instanceId={}, jobId={}, shards={}", parentId, context.getJobId(), shardTotal);
+        return DefaultInvokeFutureGroup.with(parentId, shards, BroadcastCompletionPolicyEnum.ALL);
+    }
+
+    private static boolean shardAffinity(ScheduleContext context) {
+        return context.getLoadBalanceType() == LoadBalanceTypeEnum.CONSISTENT_HASH
+                && context.getHashKeyType() == HashKeyTypeEnum.SHARD_INDEX;
+    }
+
+    /**
+     * 按分片序号在一致性哈希环上定位每个分片的节点，定位不到时回退到按地址排序的分配
+     */
+    private List<JChannel> locateShards(ScheduleContext context, List<JChannel> sorted) {
+        List<JChannel> targets = new ArrayList<>(sorted.size());
+        try {
+            for (int i = 0; i < sorted.size(); i++) {
+                context.setShardIndex(i);
+                JChannel channel = select(context);
+                targets.add(channel != null ? channel : sorted.get(i));
+            }
+        } finally {
+            context.setShardIndex(null);
+        }
+        return targets;
+    }
+
+    /**
+     * 向指定节点发送分片（每个分片的参数不同，消息体单独序列化）
+     */
+    private void send(ScheduleContext context, ShardInvokeFuture shard, JChannel channel, Runnable onTransported) {
+        MessageWrapper message = createMessage(context);
+        message.setShardIndex(shard.shardIndex());
+        message.setShardTotal(shard.shardTotal());
+        JRequest request = new JRequest(
+                PayloadSerializer.createRequest(
+                        shard.instanceId(), channel, serializerType(context), message, JProtocolHeader.TRIGGER_JOB),
+                message);
+
+        DefaultInvokeFuture future = writeRequest(channel, context, request, onTransported);
+        shard.attempt(channel, future);
+        future.whenComplete((response, throwable) ->
+                onShardComplete(context, shard, future, onTransported, response, throwable));
+    }
+
+    private void onShardComplete(ScheduleContext context, ShardInvokeFuture shard, DefaultInvokeFuture future,
+                                 Runnable onTransported, JResponse response, Throwable throwable) {
+        if (canFailover(future, throwable) && shard.attempts() <= context.getMaxRetries()) {
+            JChannel survivor = selectSurvivor(context, shard);
+            if (survivor != null) {
+                log.warn("分片失败，转移到其他节点: instanceId={}, shard={}/{}, attempts={}, target={}",
+                        shard.instanceId(), shard.shardIndex(), shard.shardTotal(), shard.attempts(),
+                        survivor.remoteIpPort());
+                statusManager.markRedispatched(shard.instanceId(), survivor.remoteIpPort(), shard.attempts());
+                try {
+                    send(context, shard, survivor, onTransported);
+                    return;
+                } catch (Exception e) {
+                    log.error("分片转移失败: instanceId={}, shard={}/{}",
+                            shard.instanceId(), shard.shardIndex(), shard.shardTotal(), e);
+                }
+            }
+        }
+
+        statusManager.markCompleted(shard.instanceId(), response, throwable);
+        if (throwable != null) {
+            shard.completeExceptionally(throwable);
+        } else {
+            shard.complete(response);
+        }
+    }
+
+    /**
+     * 只有请求未能发出（执行器没收到）或节点断开（收不到结果）时才转移；
+     * 超时和执行失败返回的结果说明执行器收到过请求，转移会重复执行
+     */
+    private static boolean canFailover(DefaultInvokeFuture future, Throwable throwable) {
+        if (throwable == null) {
+            return false;
+        }
+        return throwable instanceof ChannelDisconnectedException || !future.isSent();
+    }
+
+    /**
+     * 选择重新执行分片的节点：活跃且未执行过该分片，活跃调用数最少者优先
+     *
+     * @return 没有可用节点时返回 null
+     */
+    private JChannel selectSurvivor(ScheduleContext context, ShardInvokeFuture shard) {
+        JChannelGroup channelGroup = channelGroup(context.getExecutorKey());
+        if (channelGroup == null) {
+            return null;
+        }
+        JChannel selected = null;
+        long leastActive = Long.MAX_VALUE;
+        for (JChannel channel : channelGroup.channels()) {
+            if (!channel.isActive() || shard.tried(channel)) {
+                continue;
+            }
+            long active = loadStats.active(channel);
+            if (active < leastActive) {
+                leastActive = active;
+                selected = channel;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public InvokeFuture dispatchRetry(ScheduleContext context) {
+        // 分片模式按分片转移，不支持整体重试（Failover 策略已在上层阻止）
+        throw new UnsupportedOperationException("Sharding dispatch does not support retry");
+    }
+
+    @Override
+    public DispatchTypeEnum type() {
+        return DispatchTypeEnum.SHARDING;
+    }
+}
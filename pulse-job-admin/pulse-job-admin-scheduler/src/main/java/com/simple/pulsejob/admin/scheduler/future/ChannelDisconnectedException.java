@@ -0,0 +1,16 @@
+package com.simple.pulsejob.admin.scheduler.future;
+
+import java.io.Serial;
+
+/**
+ * 调用所在的 channel 已断开，未能收到执行结果（区别于执行超时和执行失败，可以安全地转移到其他节点）.
+ */
+public class ChannelDisconnectedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ChannelDisconnectedException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,10 @@ package com.simple.pulsejob.admin.scheduler.future;
 
 import com.simple.pulsejob.admin.common.model.enums.DispatchTypeEnum;
 import com.simple.pulsejob.admin.scheduler.interceptor.SchedulerInterceptor;
+import com.simple.pulsejob.admin.scheduler.timer.HashedWheelTimer;
+import com.simple.pulsejob.admin.scheduler.timer.Timeout;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.common.concurrent.collection.NonBlockingHashMapLong;
 import com.simple.pulsejob.common.util.Maps;
 import com.simple.pulsejob.transport.JResponse;
 import com.simple.pulsejob.transport.Status;
@@ -10,41 +14,41 @@ import com.simple.pulsejob.transport.metadata.LogMessage;
 import com.simple.pulsejob.transport.metadata.ResultWrapper;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 /**
  * 默认异步调用 Future
  * 支持流式日志接收
+ *
+ * <p>超时默认从发送时开始计算；awaitStart 的调用（SERIAL_EXECUTION，可能在执行器上排队）发送时只挂兜底超时，
+ * 收到执行器的 JOB_STARTED 后才从开始执行起计算执行超时，排队时间不计入，避免排队中的调度被判超时、
+ * 释放名额后却仍在执行器上执行。</p>
  */
 @Slf4j
 public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements InvokeFuture {
 
-    private static final ConcurrentMap<Long, DefaultInvokeFuture> roundFutures =
-            Maps.newConcurrentMapLong(1024);
-    private static final ConcurrentMap<String, DefaultInvokeFuture> broadcastFutures =
-            Maps.newConcurrentMap(1024);
-
     /**
-     * ✅ 根据 instanceId 获取 Future（用于外部注册回调）
+     * 按 channel 划分的 Future 注册表，channel 内以 instanceId 为 key（轮询和广播共用，同一 channel 上 instanceId 唯一）
+     * <p>响应按 (channel, instanceId) 定位，不拼接字符串；channel 断开时只处理该 channel 上的 Future</p>
      */
-    public static DefaultInvokeFuture getFuture(long instanceId) {
-        return roundFutures.get(instanceId);
-    }
+    private static final ConcurrentMap<JChannel, NonBlockingHashMapLong<DefaultInvokeFuture>> channelFutures =
+            Maps.newConcurrentMap();
 
     /**
-     * ✅ 根据 channel 和 instanceId 获取广播 Future
+     * ✅ 根据 channel 和 instanceId 获取 Future（用于外部注册回调）
      */
-    public static DefaultInvokeFuture getBroadcastFuture(String channelId, long instanceId) {
-        return broadcastFutures.get(subInstanceId(channelId, instanceId));
+    public static DefaultInvokeFuture getFuture(JChannel channel, long instanceId) {
+        NonBlockingHashMapLong<DefaultInvokeFuture> futures = channelFutures.get(channel);
+        return futures != null ? futures.get(instanceId) : null;
     }
 
     /**
@@ -55,118 +59,153 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
      * @return 受影响的 instanceId 列表（用于外部直接更新数据库状态作为双重保障）
      */
     public static List<Long> onChannelInactive(JChannel channel) {
-        String channelId = channel.id();
-        List<Long> affectedInstanceIds = new java.util.ArrayList<>();
-        
-        // 1. 清理 roundFutures 中该 channel 的 Future
-        roundFutures.values().removeIf(future -> {
-            if (future.channel != null && channelId.equals(future.channel.id())) {
-                affectedInstanceIds.add(future.instanceId);
-                future.completeExceptionally(
-                    new RuntimeException("Channel disconnected: " + channel.remoteAddress()));
-                future.cleanup();
-                log.warn("Channel 断开，取消 Future: instanceId={}, channel={}", 
-                    future.instanceId, channel.remoteAddress());
-                return true;
-            }
-            return false;
-        });
-        
-        // 2. 清理 broadcastFutures 中该 channel 的 Future
-        broadcastFutures.entrySet().removeIf(entry -> {
-            if (entry.getKey().startsWith(channelId)) {
-                DefaultInvokeFuture future = entry.getValue();
-                affectedInstanceIds.add(future.instanceId);
-                future.completeExceptionally(
-                    new RuntimeException("Channel disconnected: " + channel.remoteAddress()));
-                future.cleanup();
-                log.warn("Channel 断开，取消广播 Future: instanceId={}, channel={}", 
-                    future.instanceId, channel.remoteAddress());
-                return true;
-            }
-            return false;
-        });
-        
+        NonBlockingHashMapLong<DefaultInvokeFuture> futures = channelFutures.remove(channel);
+        if (futures == null) {
+            return List.of();
+        }
+        List<Long> affectedInstanceIds = new ArrayList<>(futures.size());
+        for (DefaultInvokeFuture future : futures.values()) {
+            affectedInstanceIds.add(future.instanceId);
+            future.completeExceptionally(
+                new ChannelDisconnectedException("Channel disconnected: " + channel.remoteAddress()));
+            future.cleanup();
+            log.warn("Channel 断开，取消 Future: instanceId={}, dispatchType={}, channel={}",
+                future.instanceId, future.dispatchType, channel.remoteAddress());
+        }
         return affectedInstanceIds;
     }
 
-    /** 超时调度器（守护线程，共享） */
-    private static final ScheduledExecutorService TIMEOUT_SCHEDULER =
-            Executors.newSingleThreadScheduledExecutor(r -> {
-                Thread t = new Thread(r, "invoke-future-timeout");
-                t.setDaemon(true);
-                return t;
-            });
+    /**
+     * 超时时间轮（共享，低精度）：插入、取消均为 O(1)，大量并发调用时不会像 ScheduledThreadPoolExecutor 那样在堆上竞争
+     * <p>刻度 100ms，超时最多延后一个刻度触发；超时回调在独立的守护线程中执行，不阻塞时间轮</p>
+     */
+    private static final HashedWheelTimer TIMEOUT_TIMER = new HashedWheelTimer(
+            new JNamedThreadFactory("invoke-future-timer", true), 100, TimeUnit.MILLISECONDS, 512, -1,
+            Executors.newSingleThreadExecutor(new JNamedThreadFactory("invoke-future-timeout", true)));
+
+    /**
+     * 未设置超时（timeoutMillis <= 0）时的兜底超时：任务本身不限时，但 Future 不能永远挂在注册表里
+     */
+    static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * 等待超时的调用数
+     */
+    public static long pendingTimeouts() {
+        return TIMEOUT_TIMER.pendingTimeouts();
+    }
 
     private final long instanceId;
     private final JChannel channel;
     private final Class<?> returnType;
     private final long timeout;
     private final DispatchTypeEnum dispatchType;
+    private final boolean awaitStart;
     private volatile boolean sent = false;
+    private volatile boolean started = false;
 
     private List<SchedulerInterceptor> interceptors;
 
     /** 超时清理任务 */
-    private volatile ScheduledFuture<?> timeoutTask;
+    private volatile Timeout timeoutTask;
     
     // ✅ 日志监听器列表（支持多个监听器）
-    private final CopyOnWriteArrayList<Consumer<LogMessage>> logListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<LogSubscriber> logListeners = new CopyOnWriteArrayList<>();
     
-    // ✅ 日志历史缓存（用于新订阅者获取历史日志）
-    private final CopyOnWriteArrayList<LogMessage> logHistory = new CopyOnWriteArrayList<>();
+    // ✅ 日志历史缓存（有界环形缓冲，用于新订阅者获取最近的日志）
+    private final LogHistoryBuffer logHistory = new LogHistoryBuffer();
 
     public static DefaultInvokeFuture with(
             long instanceId, JChannel channel, long timeoutMillis, Class<?> returnType, DispatchTypeEnum dispatchType) {
-        return new DefaultInvokeFuture(instanceId, channel, timeoutMillis, returnType, dispatchType);
+        return new DefaultInvokeFuture(instanceId, channel, timeoutMillis, returnType, dispatchType, false);
     }
 
-    public DefaultInvokeFuture(
-            long instanceId, JChannel channel, long timeoutMillis, Class<?> returnType, DispatchTypeEnum dispatchType) {
+    /**
+     * @param awaitStart 为 true 时执行超时从收到 JOB_STARTED 起计算，之前只有兜底超时
+     */
+    public static DefaultInvokeFuture with(long instanceId, JChannel channel, long timeoutMillis, Class<?> returnType,
+                                           DispatchTypeEnum dispatchType, boolean awaitStart) {
+        return new DefaultInvokeFuture(instanceId, channel, timeoutMillis, returnType, dispatchType, awaitStart);
+    }
+
+    public DefaultInvokeFuture(long instanceId, JChannel channel, long timeoutMillis, Class<?> returnType,
+                               DispatchTypeEnum dispatchType, boolean awaitStart) {
         this.instanceId = instanceId;
         this.channel = channel;
-        this.timeout = timeoutMillis;
+        this.timeout = timeoutMillis > 0 ? timeoutMillis : DEFAULT_TIMEOUT_MILLIS;
         this.returnType = returnType;
         this.dispatchType = dispatchType;
+        this.awaitStart = awaitStart;
 
         switch (dispatchType) {
             case ROUND:
-                roundFutures.put(instanceId, this);
-                break;
             case BROADCAST:
-                String channelId = channel.id();
-                broadcastFutures.put(subInstanceId(channelId, instanceId), this);
+            case SHARDING:
+                channelFutures.computeIfAbsent(channel, c -> new NonBlockingHashMapLong<>()).put(instanceId, this);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported " + dispatchType);
         }
 
-        // ✅ 注册超时任务（仅当设置了超时时间时）
-        // 防止 client 离线导致 Future 永远无法 complete
-        if (timeoutMillis > 0) {
-            scheduleTimeout();
+        // ✅ 注册超时任务，防止 client 离线导致 Future 永远无法 complete
+        scheduleTimeout(awaitStart ? Math.max(timeout, DEFAULT_TIMEOUT_MILLIS) : timeout);
+
+        // onChannelInactive 可能在 computeIfAbsent 之前已摘走旧注册表，此时注册到的是它之后新建的注册表，
+        // 不会再有人清理；channel 失活先于 channelInactive 回调，注册后复查即可兜住这个窗口
+        if (!channel.isActive()) {
+            completeExceptionally(new ChannelDisconnectedException("Channel disconnected: " + channel.remoteAddress()));
+            cleanup();
         }
     }
 
     /**
      * 注册超时清理任务
      */
-    private void scheduleTimeout() {
-        this.timeoutTask = TIMEOUT_SCHEDULER.schedule(() -> {
+    private void scheduleTimeout(long delayMillis) {
+        this.timeoutTask = TIMEOUT_TIMER.newTimeout(t -> {
             if (!isDone()) {
-                log.warn("Future 超时: instanceId={}, timeout={}ms", instanceId, timeout);
-                completeExceptionally(new TimeoutException("Invoke timeout after " + timeout + "ms"));
+                log.warn("Future 超时: instanceId={}, timeout={}ms, started={}", instanceId, delayMillis, started);
+                completeExceptionally(new TimeoutException("Invoke timeout after " + delayMillis + "ms"));
                 cleanup();
             }
-        }, timeout, TimeUnit.MILLISECONDS);
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ✅ 执行器回报开始执行（排队结束）
+     */
+    public static void started(JChannel channel, long instanceId) {
+        DefaultInvokeFuture future = getFuture(channel, instanceId);
+        if (future != null) {
+            future.onStarted();
+        }
+    }
+
+    /**
+     * 从开始执行起重新计算执行超时
+     */
+    private synchronized void onStarted() {
+        if (started || !awaitStart || isDone()) {
+            return;
+        }
+        started = true;
+        Timeout previous = this.timeoutTask;
+        scheduleTimeout(timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+        // 与 cleanup 并发时新挂的超时可能没被取消，这里补上
+        if (isDone()) {
+            this.timeoutTask.cancel();
+        }
     }
 
     public JChannel channel() {
         return channel;
     }
 
-    private static String subInstanceId(String channelId, long instanceId) {
-        return channelId + instanceId;
+    public long instanceId() {
+        return instanceId;
     }
 
     /**
@@ -175,12 +214,7 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
     public static void received(JChannel channel, JResponse response) {
         long instanceId = response.instanceId();
 
-        DefaultInvokeFuture future = roundFutures.get(instanceId);
-
-        if (future == null) {
-            future = broadcastFutures.get(subInstanceId(channel.id(), instanceId));
-        }
-
+        DefaultInvokeFuture future = getFuture(channel, instanceId);
         if (future != null) {
             future.doReceived(response);
         } else {
@@ -192,12 +226,7 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
      * ✅ 接收流式日志消息（不会完成 Future）
      */
     public static void receivedLog(JChannel channel, long instanceId, LogMessage logMessage) {
-        DefaultInvokeFuture future = roundFutures.get(instanceId);
-        
-        if (future == null) {
-            future = broadcastFutures.get(subInstanceId(channel.id(), instanceId));
-        }
-        
+        DefaultInvokeFuture future = getFuture(channel, instanceId);
         if (future != null) {
             future.receiveLog(logMessage);
         } else {
@@ -235,16 +264,12 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
         log.debug("接收日志: instanceId={}, level={}, content={}", 
             instanceId, logMessage.getLevel(), logMessage.getContent());
         
-        // 1. 缓存日志
-        logHistory.add(logMessage);
+        // 1. 缓存日志（超出条数或字节上限时淘汰最旧的日志）
+        long seq = logHistory.append(logMessage);
         
-        // 2. 通知所有监听器
-        for (Consumer<LogMessage> listener : logListeners) {
-            try {
-                listener.accept(logMessage);
-            } catch (Exception e) {
-                log.error("日志监听器异常", e);
-            }
+        // 2. 通知所有监听器（带上序号，刚订阅的监听器据此跳过已回放的日志）
+        for (LogSubscriber listener : logListeners) {
+            listener.onLive(seq, logMessage);
         }
         
         // 3. 如果是最后一条日志，可以标记为即将结束
@@ -257,17 +282,16 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
      * ✅ 添加日志监听器
      */
     public InvokeFuture addLogListener(Consumer<LogMessage> logListener) {
-        logListeners.add(logListener);
-        
-        // 推送历史日志给新订阅者
-        for (LogMessage log : logHistory) {
-            try {
-                logListener.accept(log);
-            } catch (Exception e) {
-//                log.error("推送历史日志失败", e);
-            }
+        LogSubscriber subscriber = new LogSubscriber(logListener);
+        // 注册和回放都在订阅者锁内完成：期间到达的实时日志等回放结束后再按游标过滤推送，不重复也不乱序
+        subscriber.lock.lock();
+        try {
+            logListeners.add(subscriber);
+            // 推送历史日志给新订阅者（按序号游标回放仍保留的部分）
+            subscriber.cursor = logHistory.replay(subscriber::deliver);
+        } finally {
+            subscriber.lock.unlock();
         }
-        
         return this;
     }
     
@@ -285,23 +309,23 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
      */
     private void cleanup() {
         // ✅ 取消超时任务
-        ScheduledFuture<?> task = this.timeoutTask;
-        if (task != null && !task.isDone()) {
-            task.cancel(false);
+        Timeout task = this.timeoutTask;
+        if (task != null) {
+            task.cancel();
         }
 
-        // 从缓存中移除
-        switch (dispatchType) {
-            case ROUND:
-                roundFutures.remove(instanceId);
-                break;
-            case BROADCAST:
-                broadcastFutures.remove(subInstanceId(channel.id(), instanceId));
-                break;
+        // 从注册表中移除；channel 已断开且没有剩余 Future 时一并移除该 channel 的注册表
+        NonBlockingHashMapLong<DefaultInvokeFuture> futures = channelFutures.get(channel);
+        if (futures != null) {
+            futures.remove(instanceId, this);
+            if (!channel.isActive() && futures.isEmpty()) {
+                channelFutures.remove(channel, futures);
+            }
         }
         
-        // 清理日志监听器
+        // 清理日志监听器，释放日志历史占用的内存预算
         logListeners.clear();
+        logHistory.clear();
     }
 
     @Override
@@ -318,11 +342,56 @@ public class DefaultInvokeFuture extends CompletableFuture<JResponse> implements
         sent = true;
     }
 
+    /**
+     * 请求是否已写出到 channel（为 false 时执行器不可能收到过该请求）
+     */
+    public boolean isSent() {
+        return sent;
+    }
+
 
     /**
      * 获取日志历史
      */
     public List<LogMessage> getLogHistory() {
-        return List.copyOf(logHistory);
+        return logHistory.snapshot();
+    }
+
+    /**
+     * 日志订阅者：回放历史后只接收序号不小于游标的实时日志
+     *
+     * <p>同一调用的日志由所属 channel 的 IO 线程依次到达，序号单调递增，游标之后的日志都由实时推送送达。</p>
+     */
+    private static final class LogSubscriber {
+
+        private final Consumer<LogMessage> listener;
+        private final ReentrantLock lock = new ReentrantLock();
+        /** 回放截止的序号（不含），小于它的实时日志已在回放中推送过 */
+        private long cursor;
+
+        LogSubscriber(Consumer<LogMessage> listener) {
+            this.listener = listener;
+        }
+
+        void onLive(long seq, LogMessage message) {
+            lock.lock();
+            try {
+                // seq < 0 表示已 clear 未缓存，不会出现在回放中，照常推送
+                if (seq >= 0 && seq < cursor) {
+                    return;
+                }
+                deliver(message);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void deliver(LogMessage message) {
+            try {
+                listener.accept(message);
+            } catch (Exception e) {
+                log.error("日志监听器异常", e);
+            }
+        }
     }
 }
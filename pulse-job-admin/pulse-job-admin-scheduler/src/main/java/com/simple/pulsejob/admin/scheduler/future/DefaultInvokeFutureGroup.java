@@ -1,267 +1,181 @@
-///*
-// * Copyright (c) 2015 The Jupiter Project
-// *
-// * Licensed under the Apache License, version 2.0 (the "License");
-// * you may not use this file except in compliance with the License.
-// * You may obtain a copy of the License at:
-// *
-// *   http://www.apache.org/licenses/LICENSE-2.0
-// *
-// * Unless required by applicable law or agreed to in writing, software
-// * distributed under the License is distributed on an "AS IS" BASIS,
-// * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
-// * See the License for the specific language governing permissions and
-// * limitations under the License.
-// */
-//package com.simple.pulsejob.admin.scheduler.future;
-//
-//import java.util.concurrent.CompletableFuture;
-//import java.util.concurrent.CompletionStage;
-//import java.util.concurrent.Executor;
-//import java.util.function.BiConsumer;
-//import java.util.function.BiFunction;
-//import java.util.function.Consumer;
-//import java.util.function.Function;
-//import org.jupiter.common.util.Requires;
-//
-///**
-// * jupiter
-// * org.jupiter.rpc.consumer.future
-// *
-// * @see InvokeFutureGroup
-// *
-// * @author jiachun.fjc
-// */
-//public class DefaultInvokeFutureGroup implements InvokeFutureGroup {
-//
-//    private final DefaultInvokeFuture[] futures;
-//    private volatile CompletableFuture[] cfs;
-//
-//    public static  DefaultInvokeFutureGroup with(DefaultInvokeFuture[] futures) {
-//        return new DefaultInvokeFutureGroup(futures);
-//    }
-//
-//    private DefaultInvokeFutureGroup(DefaultInvokeFuture[] futures) {
-//        this.futures = futures;
-//    }
-//
-//    @Override
-//    public Class returnType() {
-//        return futures[0].returnType();
-//    }
-//
-//    @Override
-//    public V getResult() throws Throwable {
-//        throw new UnsupportedOperationException();
-//    }
-//
-//    @Override
-//    public InvokeFuture[] futures() {
-//        return futures;
-//    }
-//
-//    @SuppressWarnings("unchecked")
-//    @Override
-//    public CompletableFuture[] toCompletableFutures() {
-//        if (this.cfs == null) {
-//            CompletableFuture[] cfs = new CompletableFuture[futures.length];
-//            System.arraycopy(futures, 0, cfs, 0, futures.length);
-//            this.cfs = cfs;
-//        }
-//        return this.cfs;
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenApply(Function<? super V, ? extends U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenApplyAsync(Function<? super V, ? extends U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenApplyAsync(Function<? super V, ? extends U> fn, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenAccept(Consumer<? super V> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenAcceptAsync(Consumer<? super V> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenAcceptAsync(Consumer<? super V> action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenRun(Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenRunAsync(Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> thenRunAsync(Runnable action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U, V1> CompletionStage<V1> thenCombine(CompletionStage<? extends U> other, BiFunction<? super V, ? super U, ? extends V1> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U, V1> CompletionStage<V1> thenCombineAsync(CompletionStage<? extends U> other, BiFunction<? super V, ? super U, ? extends V1> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U, V1> CompletionStage<V1> thenCombineAsync(CompletionStage<? extends U> other, BiFunction<? super V, ? super U, ? extends V1> fn, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<Void> thenAcceptBoth(CompletionStage<? extends U> other, BiConsumer<? super V, ? super U> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<Void> thenAcceptBothAsync(CompletionStage<? extends U> other, BiConsumer<? super V, ? super U> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<Void> thenAcceptBothAsync(CompletionStage<? extends U> other, BiConsumer<? super V, ? super U> action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterBoth(CompletionStage<?> other, Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> applyToEither(CompletionStage<? extends V> other, Function<? super V, U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> applyToEitherAsync(CompletionStage<? extends V> other, Function<? super V, U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> applyToEitherAsync(CompletionStage<? extends V> other, Function<? super V, U> fn, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> acceptEither(CompletionStage<? extends V> other, Consumer<? super V> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> acceptEitherAsync(CompletionStage<? extends V> other, Consumer<? super V> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> acceptEitherAsync(CompletionStage<? extends V> other, Consumer<? super V> action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterEither(CompletionStage<?> other, Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenCompose(Function<? super V, ? extends CompletionStage<U>> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenComposeAsync(Function<? super V, ? extends CompletionStage<U>> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> thenComposeAsync(Function<? super V, ? extends CompletionStage<U>> fn, Executor executor) {
-//        return null;
-//    }
-//
-//    @Override
-//    public CompletionStage exceptionally(Function<Throwable, ? extends V> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage whenComplete(BiConsumer<? super V, ? super Throwable> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage whenCompleteAsync(BiConsumer<? super V, ? super Throwable> action) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletionStage whenCompleteAsync(BiConsumer<? super V, ? super Throwable> action, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> handle(BiFunction<? super V, Throwable, ? extends U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> handleAsync(BiFunction<? super V, Throwable, ? extends U> fn) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public <U> CompletionStage<U> handleAsync(BiFunction<? super V, Throwable, ? extends U> fn, Executor executor) {
-//        throw reject();
-//    }
-//
-//    @Override
-//    public CompletableFuture toCompletableFuture() {
-//        throw reject();
-//    }
-//
-//    private static UnsupportedOperationException reject() {
-//        return new UnsupportedOperationException("not a supported operation");
-//    }
-//}
+package com.simple.pulsejob.admin.scheduler.future;
+
+import com.simple.pulsejob.admin.common.model.enums.BroadcastCompletionPolicyEnum;
+import com.simple.pulsejob.transport.JResponse;
+import com.simple.pulsejob.transport.Status;
+import com.simple.pulsejob.transport.metadata.ResultWrapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 默认广播 Future，按 {@link BroadcastCompletionPolicyEnum} 汇总各节点的子 Future.
+ *
+ * <p>子 Future 为 {@link DefaultInvokeFuture}（广播，每个节点一个）或 {@link ShardInvokeFuture}（分片，每个分片一个，可能已转移到其他节点）。</p>
+ *
+ * <p>策略满足（或已不可能满足）时以父实例 ID 完成：成功为 {@link Status#OK}，失败为 {@link Status#SERVER_ERROR}，
+ * 结果均为各节点的状态、耗时和结果摘要。提前完成后其余节点仍会继续执行，各自的子实例状态照常更新。</p>
+ */
+@Slf4j
+public class DefaultInvokeFutureGroup extends CompletableFuture<JResponse> implements InvokeFutureGroup {
+
+    /** 汇总结果的最大长度（失败时写入 error_message） */
+    private static final int MAX_SUMMARY_LENGTH = 1800;
+    /** 单个节点结果的最大长度 */
+    private static final int MAX_NODE_DETAIL_LENGTH = 200;
+
+    private final long instanceId;
+    private final InvokeFuture[] futures;
+    private final BroadcastCompletionPolicyEnum policy;
+    private final int required;
+    private final long startNanos = System.nanoTime();
+
+    private final NodeResult[] results;
+    private int succeeded;
+    private int failed;
+
+    public static DefaultInvokeFutureGroup with(
+            long instanceId, InvokeFuture[] futures, BroadcastCompletionPolicyEnum policy) {
+        return new DefaultInvokeFutureGroup(instanceId, futures, policy);
+    }
+
+    private DefaultInvokeFutureGroup(long instanceId, InvokeFuture[] futures, BroadcastCompletionPolicyEnum policy) {
+        if (futures.length == 0) {
+            throw new IllegalArgumentException("futures must not be empty");
+        }
+        this.instanceId = instanceId;
+        this.futures = futures;
+        this.policy = policy;
+        this.required = policy.required(futures.length);
+        this.results = new NodeResult[futures.length];
+
+        for (int i = 0; i < futures.length; i++) {
+            final int index = i;
+            futures[i].whenComplete((response, throwable) -> onNodeComplete(index, response, throwable));
+        }
+    }
+
+    @Override
+    public InvokeFuture[] futures() {
+        return futures;
+    }
+
+    @Override
+    public JResponse getResult() throws Throwable {
+        try {
+            return get();
+        } catch (Exception e) {
+            log.error("Broadcast:[{}] getResult error", instanceId, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private synchronized void onNodeComplete(int index, JResponse response, Throwable throwable) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        boolean ok = throwable == null && response != null && response.status() == Status.OK.value();
+        results[index] = new NodeResult(ok, describe(response, throwable), elapsedMillis);
+        if (ok) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+
+        if (isDone()) {
+            return;
+        }
+        if (succeeded >= required) {
+            complete(aggregate(Status.OK));
+        } else if (failed > futures.length - required) {
+            complete(aggregate(Status.SERVER_ERROR));
+        }
+    }
+
+    private JResponse aggregate(Status status) {
+        ResultWrapper wrapper = new ResultWrapper();
+        wrapper.setResult(summary());
+        JResponse response = new JResponse(instanceId);
+        response.status(status);
+        response.result(wrapper);
+        log.debug("广播完成: instanceId={}, policy={}, succeeded={}, failed={}, total={}",
+                instanceId, policy, succeeded, failed, futures.length);
+        return response;
+    }
+
+    /**
+     * 各节点结果摘要，每行一个节点：[分片] 地址 #子实例ID 状态 耗时 结果
+     */
+    private String summary() {
+        StringBuilder buf = new StringBuilder(64 * futures.length);
+        buf.append("policy=").append(policy)
+                .append(", succeeded=").append(succeeded).append('/').append(futures.length)
+                .append(", failed=").append(failed);
+        for (int i = 0; i < futures.length; i++) {
+            if (buf.length() >= MAX_SUMMARY_LENGTH) {
+                buf.append("\n...(").append(futures.length - i).append(" more)");
+                break;
+            }
+            NodeResult result = results[i];
+            buf.append('\n');
+            appendNode(buf, futures[i]);
+            if (result == null) {
+                buf.append("PENDING");
+            } else {
+                buf.append(result.ok ? "OK" : "FAILED").append(' ').append(result.elapsedMillis).append("ms");
+                if (result.detail != null) {
+                    buf.append(' ').append(result.detail);
+                }
+            }
+        }
+        return buf.toString();
+    }
+
+    private static void appendNode(StringBuilder buf, InvokeFuture future) {
+        DefaultInvokeFuture node;
+        if (future instanceof ShardInvokeFuture) {
+            ShardInvokeFuture shard = (ShardInvokeFuture) future;
+            buf.append("shard ").append(shard.shardIndex()).append('/').append(shard.shardTotal());
+            if (shard.attempts() > 1) {
+                buf.append(" (attempts=").append(shard.attempts()).append(')');
+            }
+            buf.append(' ');
+            node = shard.current();
+        } else {
+            node = (DefaultInvokeFuture) future;
+        }
+        if (node != null) {
+            buf.append(node.channel().remoteIpPort()).append(" #").append(node.instanceId()).append(' ');
+        }
+    }
+
+    private static String describe(JResponse response, Throwable throwable) {
+        String detail;
+        if (throwable != null) {
+            detail = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+        } else if (response == null) {
+            detail = null;
+        } else {
+            ResultWrapper wrapper = response.result();
+            Object result = wrapper != null ? wrapper.getResult() : null;
+            detail = response.status() == Status.OK.value()
+                    ? (result != null ? result.toString() : null)
+                    : Status.parse(response.status()) + (result != null ? ": " + result : "");
+        }
+        if (detail != null && detail.length() > MAX_NODE_DETAIL_LENGTH) {
+            detail = detail.substring(0, MAX_NODE_DETAIL_LENGTH) + "...";
+        }
+        return detail;
+    }
+
+    private static final class NodeResult {
+        final boolean ok;
+        final String detail;
+        final long elapsedMillis;
+
+        NodeResult(boolean ok, String detail, long elapsedMillis) {
+            this.ok = ok;
+            this.detail = detail;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+}
@@ -45,6 +45,14 @@ public class FailsafeInvokeFuture extends CompletableFuture<JResponse> implement
 
     private FailsafeInvokeFuture(InvokeFuture future) {
         this.future = future;
+        // 跟随被包装的调用完成，回调方据此更新实例状态、释放阻塞策略名额
+        future.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                completeExceptionally(throwable);
+            } else {
+                complete(response);
+            }
+        });
     }
 
 
@@ -1,37 +1,17 @@
-///*
-// * Copyright (c) 2015 The Jupiter Project
-// *
-// * Licensed under the Apache License, version 2.0 (the "License");
-// * you may not use this file except in compliance with the License.
-// * You may obtain a copy of the License at:
-// *
-// *   http://www.apache.org/licenses/LICENSE-2.0
-// *
-// * Unless required by applicable law or agreed to in writing, software
-// * distributed under the License is distributed on an "AS IS" BASIS,
-// * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
-// * See the License for the specific language governing permissions and
-// * limitations under the License.
-// */
-//package com.simple.pulsejob.admin.scheduler.future;
-//
-//import java.util.concurrent.CompletableFuture;
-//
-///**
-// * For broadcast future.
-// *
-// * 用于支持广播调用的 {@link InvokeFuture}, 不建议也不支持同步获取批量结果.
-// *
-// * jupiter
-// * org.jupiter.rpc.consumer.future
-// *
-// * @see org.jupiter.rpc.consumer.dispatcher.DefaultBroadcastDispatcher
-// *
-// * @author jiachun.fjc
-// */
-//public interface InvokeFutureGroup extends InvokeFuture {
-//
-//    InvokeFuture[] futures();
-//
-//    CompletableFuture[] toCompletableFutures();
-//}
+package com.simple.pulsejob.admin.scheduler.future;
+
+/**
+ * 广播调用的 {@link InvokeFuture}.
+ *
+ * <p>每个执行器节点对应一个子 Future，按完成策略汇总为一个结果：
+ * 完成时的 {@link com.simple.pulsejob.transport.JResponse} 以父实例 ID 为 instanceId，结果为各节点的汇总。</p>
+ *
+ * @see DefaultInvokeFutureGroup
+ */
+public interface InvokeFutureGroup extends InvokeFuture {
+
+    /**
+     * 各节点的子 Future
+     */
+    InvokeFuture[] futures();
+}
@@ -0,0 +1,239 @@
+package com.simple.pulsejob.admin.scheduler.future;
+
+import com.simple.pulsejob.common.util.Pow2;
+import com.simple.pulsejob.common.util.SystemPropertyUtil;
+import com.simple.pulsejob.transport.metadata.LogMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 单次调用的实时日志历史（有界环形缓冲，无锁追加）.
+ *
+ * <p>每条日志分配一个递增序号，写入 {@code seq & mask} 槽位，槽位写满后覆盖最旧的日志；
+ * 除条数上限外还按字节预算淘汰：单次调用超过 {@link #MAX_BYTES} 时从当前缓冲的最旧日志开始丢弃；
+ * 全部调用合计超过 {@link #TOTAL_MAX_BYTES} 时，从最久没有新日志的缓冲开始丢弃（按缓冲 LRU），
+ * 避免正在输出的调用替长时间不活跃的调用承担全局预算。</p>
+ *
+ * <p>新订阅者通过 {@link #replay} 按序号游标回放仍保留的日志，返回的游标之后的日志由实时推送负责；
+ * {@link #append} 返回的序号随实时推送一起交给订阅者，用于跳过已回放过的日志。
+ * 完整日志由 JobLogStorageService 持久化，这里只用于实时订阅补齐最近的内容。</p>
+ */
+public final class LogHistoryBuffer {
+
+    /** 单次调用保留的最大日志条数（向上取 2 的幂） */
+    private static final int CAPACITY =
+            Pow2.roundToPowerOfTwo(SystemPropertyUtil.getInt("pulse.job.admin.log-history.capacity", 1024));
+    /** 单次调用保留的最大字节数（按内容估算） */
+    private static final long MAX_BYTES =
+            SystemPropertyUtil.getLong("pulse.job.admin.log-history.max-bytes", 1024 * 1024);
+    /** 全部调用保留的最大字节数 */
+    private static final long TOTAL_MAX_BYTES =
+            SystemPropertyUtil.getLong("pulse.job.admin.log-history.total-max-bytes", 64 * 1024 * 1024);
+
+    /** 每条日志的固定开销估算（对象头、时间、线程名等引用） */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private static final AtomicLong totalBytes = new AtomicLong();
+
+    /** 尚未 clear 的缓冲，全局超限时从中挑最久未追加的淘汰 */
+    private static final Set<LogHistoryBuffer> liveBuffers = ConcurrentHashMap.newKeySet();
+    /** 全局淘汰只需一个线程执行，其他线程发现有人在淘汰就直接返回 */
+    private static final ReentrantLock globalEvictLock = new ReentrantLock();
+
+    private final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(CAPACITY);
+    private final int mask = CAPACITY - 1;
+
+    /** 下一条日志的序号 */
+    private final AtomicLong tail = new AtomicLong();
+    /** 最旧的未淘汰日志序号 */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    /** 最近一次追加的时间，用于全局淘汰时按 LRU 挑选缓冲 */
+    private volatile long lastAppendNanos = System.nanoTime();
+    /** clear 之后迟到的日志不再保留，否则其字节数永远不会从 totalBytes 扣回 */
+    private volatile boolean closed;
+
+    public LogHistoryBuffer() {
+        liveBuffers.add(this);
+    }
+
+    /**
+     * 全部调用当前保留的日志字节数
+     */
+    public static long totalBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * 追加一条日志，必要时淘汰最旧的日志
+     *
+     * @return 日志序号；已 clear 时不保留，返回 -1
+     */
+    public long append(LogMessage message) {
+        if (closed) {
+            return -1;
+        }
+        long seq = tail.getAndIncrement();
+        int idx = (int) seq & mask;
+        Node node = new Node(seq, message, sizeOf(message));
+        Node replaced = slots.getAndSet(idx, node);
+        long delta = node.bytes - (replaced != null ? replaced.bytes : 0);
+        bytes.addAndGet(delta);
+        totalBytes.addAndGet(delta);
+        lastAppendNanos = System.nanoTime();
+
+        // 与 clear 并发：clear 先置 closed 再清槽位，两边谁先拿到 node 谁扣减，保证只扣一次
+        if (closed) {
+            if (slots.compareAndSet(idx, node, null)) {
+                bytes.addAndGet(-node.bytes);
+                totalBytes.addAndGet(-node.bytes);
+            }
+            return -1;
+        }
+
+        while (bytes.get() > MAX_BYTES && evictOldest(seq)) {
+            // continue
+        }
+        if (totalBytes.get() > TOTAL_MAX_BYTES) {
+            evictGlobally(seq);
+        }
+        return seq;
+    }
+
+    /**
+     * 按序号游标回放当前保留的日志
+     *
+     * <p>游标取最后一条回放日志的下一个序号，而不是读到的 {@code tail}：已分配序号但尚未落槽的日志
+     * 不会被回放，必须留给实时推送。</p>
+     *
+     * @return 回放截止的序号（不含），之后的日志由实时推送送达
+     */
+    public long replay(Consumer<LogMessage> consumer) {
+        long end = tail.get();
+        long replayed = 0;
+        for (long cursor = Math.max(head.get(), end - CAPACITY); cursor < end; cursor++) {
+            Node node = slots.get((int) cursor & mask);
+            // 已被淘汰或覆盖、以及尚未落槽的槽位跳过
+            if (node != null && node.seq == cursor) {
+                consumer.accept(node.message);
+                replayed = cursor + 1;
+            }
+        }
+        return replayed;
+    }
+
+    public List<LogMessage> snapshot() {
+        List<LogMessage> messages = new ArrayList<>();
+        replay(messages::add);
+        return messages;
+    }
+
+    /**
+     * 释放全部日志（调用结束后不再需要历史时）
+     */
+    public void clear() {
+        closed = true;
+        liveBuffers.remove(this);
+        long end = tail.get();
+        for (int i = 0; i < CAPACITY; i++) {
+            Node node = slots.getAndSet(i, null);
+            if (node != null) {
+                bytes.addAndGet(-node.bytes);
+                totalBytes.addAndGet(-node.bytes);
+            }
+        }
+        head.accumulateAndGet(end, Math::max);
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    /**
+     * 全局超限时按 LRU 淘汰：反复挑最久未追加的缓冲，从它最旧的日志开始丢弃，直到回到预算内
+     * <p>只在超限时扫描存活缓冲；当前缓冲刚追加的一条始终保留</p>
+     */
+    private void evictGlobally(long currentSeq) {
+        if (!globalEvictLock.tryLock()) {
+            return;
+        }
+        try {
+            while (totalBytes.get() > TOTAL_MAX_BYTES) {
+                LogHistoryBuffer victim = null;
+                for (LogHistoryBuffer buffer : liveBuffers) {
+                    if (buffer.bytes.get() <= 0 || (buffer == this && buffer.bytes.get() <= slotBytes(currentSeq))) {
+                        continue;
+                    }
+                    if (victim == null || buffer.lastAppendNanos - victim.lastAppendNanos < 0) {
+                        victim = buffer;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                long limit = victim == this ? currentSeq : victim.tail.get();
+                if (!victim.evictOldest(limit)) {
+                    // 挑中的缓冲已无可淘汰的日志（并发追加尚未落槽等），放弃本轮，下次追加再试
+                    return;
+                }
+                while (totalBytes.get() > TOTAL_MAX_BYTES && victim.evictOldest(limit)) {
+                    // continue
+                }
+            }
+        } finally {
+            globalEvictLock.unlock();
+        }
+    }
+
+    private long slotBytes(long seq) {
+        Node node = slots.get((int) seq & mask);
+        return node != null && node.seq == seq ? node.bytes : 0;
+    }
+
+    /**
+     * 淘汰最旧的一条日志，不淘汰序号 >= limit 的日志（刚追加的一条始终保留）
+     */
+    private boolean evictOldest(long limit) {
+        for (;;) {
+            long current = head.get();
+            long h = Math.max(current, tail.get() - CAPACITY);
+            if (h >= limit) {
+                return false;
+            }
+            if (!head.compareAndSet(current, h + 1)) {
+                continue;
+            }
+            int idx = (int) h & mask;
+            Node node = slots.get(idx);
+            if (node != null && node.seq == h && slots.compareAndSet(idx, node, null)) {
+                bytes.addAndGet(-node.bytes);
+                totalBytes.addAndGet(-node.bytes);
+            }
+            return true;
+        }
+    }
+
+    private static int sizeOf(LogMessage message) {
+        String content = message.getContent();
+        return ENTRY_OVERHEAD + (content != null ? content.length() << 1 : 0);
+    }
+
+    private static final class Node {
+        final long seq;
+        final LogMessage message;
+        final int bytes;
+
+        Node(long seq, LogMessage message, int bytes) {
+            this.seq = seq;
+            this.message = message;
+            this.bytes = bytes;
+        }
+    }
+}
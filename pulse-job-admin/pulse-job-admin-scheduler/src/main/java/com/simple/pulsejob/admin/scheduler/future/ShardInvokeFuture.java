@@ -0,0 +1,84 @@
+package com.simple.pulsejob.admin.scheduler.future;
+
+import com.simple.pulsejob.transport.JResponse;
+import com.simple.pulsejob.transport.channel.JChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个分片的 Future.
+ *
+ * <p>分片失败后可能被重新分发到其他节点，每次分发是一个新的 {@link DefaultInvokeFuture}（复用同一个子实例 ID），
+ * 本 Future 以最后一次分发的结果完成，供 {@link DefaultInvokeFutureGroup} 汇总。</p>
+ */
+@Slf4j
+public class ShardInvokeFuture extends CompletableFuture<JResponse> implements InvokeFuture {
+
+    private final long instanceId;
+    private final int shardIndex;
+    private final int shardTotal;
+
+    /** 已分发过的节点（重新分发时排除） */
+    private final Set<JChannel> triedChannels = ConcurrentHashMap.newKeySet();
+
+    private volatile DefaultInvokeFuture current;
+    private volatile int attempts;
+
+    public ShardInvokeFuture(long instanceId, int shardIndex, int shardTotal) {
+        this.instanceId = instanceId;
+        this.shardIndex = shardIndex;
+        this.shardTotal = shardTotal;
+    }
+
+    /**
+     * 记录一次分发（同一分片的分发是串行的：上一次完成后才会重新分发）
+     */
+    public void attempt(JChannel channel, DefaultInvokeFuture future) {
+        triedChannels.add(channel);
+        current = future;
+        attempts++;
+    }
+
+    public boolean tried(JChannel channel) {
+        return triedChannels.contains(channel);
+    }
+
+    /**
+     * 当前（最后一次）分发的 Future
+     */
+    public DefaultInvokeFuture current() {
+        return current;
+    }
+
+    public long instanceId() {
+        return instanceId;
+    }
+
+    public int shardIndex() {
+        return shardIndex;
+    }
+
+    public int shardTotal() {
+        return shardTotal;
+    }
+
+    /**
+     * 已分发次数（含首次）
+     */
+    public int attempts() {
+        return attempts;
+    }
+
+    @Override
+    public JResponse getResult() throws Throwable {
+        try {
+            return get();
+        } catch (Exception e) {
+            log.error("Shard:[{}/{}] instanceId:[{}] getResult error", shardIndex, shardTotal, instanceId);
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.simple.pulsejob.admin.scheduler.index;
+
+import com.simple.pulsejob.admin.common.model.entity.JobInfo;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 内存调度索引（按下次触发时间排序的小顶堆）.
+ *
+ * <p>MEMORY 调度模式下替代数据库轮询：启动时全量加载启用的任务，之后只做增量维护。
+ * 每轮扫描只弹出时间窗口内到期的任务，代价为 O(k·log n)（k 为到期任务数），与任务总数无关。</p>
+ *
+ * <p>更新采用惰性删除：旧节点留在堆中，弹出时通过 jobId -> Entry 映射判断是否仍然有效；
+ * 失效节点过多时整体重建，避免堆无限膨胀。</p>
+ *
+ * <p>被 {@link #pollDue} 弹出的任务处理完后通过 {@link #requeue} 放回；若处理期间任务被业务侧
+ * 更新或删除（{@link #offer} / {@link #remove}），放回会被忽略，保证以最新的变更为准。</p>
+ *
+ * <p>所有方法都是同步的，调用方（扫描线程、业务线程）无需额外加锁。</p>
+ */
+public class JobScheduleIndex {
+
+    /** 失效节点超过有效节点数加上该值时重建堆 */
+    private static final int COMPACT_SLACK = 1024;
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(1024);
+
+    /** jobId -> 当前有效的节点 */
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    /** 已弹出、等待扫描线程放回的 jobId */
+    private final Set<Integer> polled = new HashSet<>();
+
+    private long sequence;
+
+    /**
+     * 放入（或覆盖）任务，触发时间取 {@link JobInfo#getNextExecuteTime()}
+     *
+     * @return false 表示任务没有下次执行时间，未放入索引
+     */
+    public synchronized boolean offer(JobInfo jobInfo) {
+        polled.remove(jobInfo.getId());
+        return doOffer(jobInfo);
+    }
+
+    /**
+     * 放回之前通过 {@link #pollDue} 弹出的任务
+     *
+     * @return false 表示弹出后任务已被更新或删除，本次放回被忽略
+     */
+    public synchronized boolean requeue(JobInfo jobInfo) {
+        if (!polled.remove(jobInfo.getId())) {
+            return false;
+        }
+        return doOffer(jobInfo);
+    }
+
+    /**
+     * 移除任务
+     *
+     * @return 任务之前是否在索引中
+     */
+    public synchronized boolean remove(Integer jobId) {
+        polled.remove(jobId);
+        return entries.remove(jobId) != null;
+    }
+
+    /**
+     * 弹出所有触发时间不晚于 deadline 的任务（按触发时间升序）
+     */
+    public synchronized List<JobInfo> pollDue(LocalDateTime deadline) {
+        long deadlineMillis = toEpochMillis(deadline);
+        List<JobInfo> due = new ArrayList<>();
+        Entry head;
+        while ((head = heap.peek()) != null && head.fireTimeMillis <= deadlineMillis) {
+            heap.poll();
+            if (entries.remove(head.jobInfo.getId(), head)) {
+                polled.add(head.jobInfo.getId());
+                due.add(head.jobInfo);
+            }
+        }
+        return due;
+    }
+
+    public synchronized boolean contains(Integer jobId) {
+        return entries.containsKey(jobId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        heap.clear();
+        entries.clear();
+        polled.clear();
+    }
+
+    private boolean doOffer(JobInfo jobInfo) {
+        LocalDateTime nextExecuteTime = jobInfo.getNextExecuteTime();
+        if (nextExecuteTime == null) {
+            entries.remove(jobInfo.getId());
+            return false;
+        }
+        Entry entry = new Entry(jobInfo, toEpochMillis(nextExecuteTime), sequence++);
+        entries.put(jobInfo.getId(), entry);
+        heap.offer(entry);
+        compactIfNecessary();
+        return true;
+    }
+
+    private void compactIfNecessary() {
+        if (heap.size() > (entries.size() << 1) + COMPACT_SLACK) {
+            heap.clear();
+            heap.addAll(entries.values());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final JobInfo jobInfo;
+        private final long fireTimeMillis;
+        /** 触发时间相同时按放入顺序出堆 */
+        private final long seq;
+
+        Entry(JobInfo jobInfo, long fireTimeMillis, long seq) {
+            this.jobInfo = jobInfo;
+            this.fireTimeMillis = fireTimeMillis;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = Long.compare(fireTimeMillis, o.fireTimeMillis);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
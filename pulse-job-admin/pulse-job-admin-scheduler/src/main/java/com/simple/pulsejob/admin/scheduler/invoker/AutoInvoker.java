@@ -17,8 +17,9 @@ public class AutoInvoker extends AbstractInvoker {
 
     public AutoInvoker(ClusterInvokerFactory clusterInvokerFactory,
                        SchedulerInterceptorChain schedulerInterceptorChain,
-                       JobInstanceStatusManager statusManager) {
-        super(clusterInvokerFactory, schedulerInterceptorChain, statusManager);
+                       JobInstanceStatusManager statusManager,
+                       RunningJobRegistry runningJobRegistry) {
+        super(clusterInvokerFactory, schedulerInterceptorChain, statusManager, runningJobRegistry);
     }
 
     @Override
@@ -0,0 +1,120 @@
+package com.simple.pulsejob.admin.scheduler.invoker;
+
+import com.simple.pulsejob.admin.common.model.enums.BlockStrategyEnum;
+import com.simple.pulsejob.admin.scheduler.ScheduleContext;
+import com.simple.pulsejob.common.util.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按任务统计未完成的调度，在分发前执行阻塞处理策略.
+ *
+ * <ul>
+ *   <li>DISCARD_LATER：任务还有未完成的调度时丢弃本次调度</li>
+ *   <li>SERIAL_EXECUTION：由执行器排队串行执行，这里只限制未完成的调度数不超过 serial-max-pending，超出的丢弃</li>
+ *   <li>COVER_EARLY：总是分发，由执行器中断正在执行的调度</li>
+ * </ul>
+ *
+ * <p>计数为每个任务一个 {@link AtomicInteger}，通过 CAS 占用和释放，不加锁也不访问数据库；
+ * 调用 Future 完成（成功、失败或超时）时释放。计数器创建后不移除，数量与任务数相当。</p>
+ */
+@Slf4j
+@Component
+public class RunningJobRegistry {
+
+    /** SERIAL_EXECUTION 时单个任务最多未完成的调度数（含执行器上排队的），<=0 表示不限制 */
+    @Value("${pulse.job.admin.block.serial-max-pending:10}")
+    private int serialMaxPending;
+
+    // key: jobId; value: 未完成的调度数
+    private final ConcurrentMap<Integer, AtomicInteger> running = Maps.newConcurrentMap();
+
+    private final LongAdder discardedCount = new LongAdder();
+
+    /**
+     * 按阻塞策略占用一个调度名额
+     *
+     * @return false 表示本次调度应被丢弃
+     */
+    public boolean tryAcquire(ScheduleContext context) {
+        BlockStrategyEnum strategy = context.getBlockStrategy();
+        if (strategy == null || context.getJobId() == null) {
+            return true;
+        }
+        AtomicInteger counter = counter(context.getJobId());
+        switch (strategy) {
+            case DISCARD_LATER:
+                if (counter.compareAndSet(0, 1)) {
+                    return true;
+                }
+                break;
+            case SERIAL_EXECUTION:
+                for (;;) {
+                    int current = counter.get();
+                    if (serialMaxPending > 0 && current >= serialMaxPending) {
+                        break;
+                    }
+                    if (counter.compareAndSet(current, current + 1)) {
+                        return true;
+                    }
+                }
+                break;
+            default:
+                counter.incrementAndGet();
+                return true;
+        }
+        discardedCount.increment();
+        return false;
+    }
+
+    /**
+     * 释放 {@link #tryAcquire} 占用的名额
+     */
+    public void release(ScheduleContext context) {
+        if (context.getBlockStrategy() == null || context.getJobId() == null) {
+            return;
+        }
+        AtomicInteger counter = running.get(context.getJobId());
+        if (counter != null) {
+            counter.decrementAndGet();
+        }
+    }
+
+    /**
+     * 任务未完成的调度数
+     */
+    public int running(Integer jobId) {
+        AtomicInteger counter = running.get(jobId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * 有未完成调度的任务数
+     */
+    public int getRunningJobCount() {
+        int count = 0;
+        for (AtomicInteger counter : running.values()) {
+            if (counter.get() > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    private AtomicInteger counter(Integer jobId) {
+        AtomicInteger counter = running.get(jobId);
+        if (counter == null) {
+            counter = running.computeIfAbsent(jobId, k -> new AtomicInteger());
+        }
+        return counter;
+    }
+}
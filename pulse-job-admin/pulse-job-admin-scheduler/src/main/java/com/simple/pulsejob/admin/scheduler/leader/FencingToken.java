@@ -0,0 +1,16 @@
+package com.simple.pulsejob.admin.scheduler.leader;
+
+import lombok.Value;
+
+/**
+ * 调度时持有的租约令牌，随调度上下文传递到实例创建.
+ */
+@Value
+public class FencingToken {
+
+    /** 租约名称 */
+    String leaseName;
+
+    /** 令牌值，每次易主递增 */
+    long token;
+}
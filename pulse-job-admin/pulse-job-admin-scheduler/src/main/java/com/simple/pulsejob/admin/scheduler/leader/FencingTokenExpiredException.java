@@ -0,0 +1,17 @@
+package com.simple.pulsejob.admin.scheduler.leader;
+
+import java.io.Serial;
+
+/**
+ * 调度时持有的 fencing token 已失效（租约已被其他节点抢占），本次触发不再创建实例.
+ */
+public class FencingTokenExpiredException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public FencingTokenExpiredException(FencingToken fencingToken, Integer jobId) {
+        super("Fencing token expired: lease=" + fencingToken.getLeaseName()
+                + ", token=" + fencingToken.getToken() + ", jobId=" + jobId);
+    }
+}
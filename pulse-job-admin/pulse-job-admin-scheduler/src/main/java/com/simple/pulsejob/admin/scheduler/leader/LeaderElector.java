@@ -0,0 +1,204 @@
+package com.simple.pulsejob.admin.scheduler.leader;
+
+import com.simple.pulsejob.admin.persistence.mapper.SchedulerLeaseMapper;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于数据库租约的选主.
+ *
+ * <p>多个 admin 节点竞争 scheduler_lease 表中的同一行，持有未过期租约的节点是唯一的调度节点；
+ * 租约到期判断使用数据库时钟。每次易主 fencing token 加一，调度节点把获得租约时的 token
+ * 随触发传递到实例创建，写入 job_instance 时校验 token，旧主在 GC 停顿等情况下恢复后无法再创建实例。</p>
+ *
+ * <p>续期和抢占在独立线程中执行，数据库变慢不会阻塞扫描线程；本地以续期<b>发起</b>时刻加租约时长作为
+ * 截止时间，超过截止时间仍未续期成功即视为失去租约，早于数据库中的实际到期时间。</p>
+ *
+ * <p>未开启选主（pulse.job.admin.leader.enabled=false）时本节点始终是调度节点。</p>
+ */
+@Slf4j
+@Component
+public class LeaderElector {
+
+    private final SchedulerLeaseMapper schedulerLeaseMapper;
+
+    @Value("${pulse.job.admin.leader.enabled:false}")
+    private boolean enabled;
+
+    /** 租约名称 */
+    @Value("${pulse.job.admin.leader.lease-name:cron-scheduler}")
+    private String leaseName;
+
+    /** 租约时长（毫秒） */
+    @Value("${pulse.job.admin.leader.lease-duration:15000}")
+    private long leaseDuration;
+
+    /** 续期/抢占间隔（毫秒），应明显小于租约时长 */
+    @Value("${pulse.job.admin.leader.renew-interval:5000}")
+    private long renewInterval;
+
+    private final String nodeId;
+
+    /** 当前（或最近一次）持有的令牌，从未获得租约时为 null */
+    private volatile FencingToken fencingToken;
+
+    /** 本地租约截止时间（System.nanoTime） */
+    private volatile long leaseDeadlineNanos;
+
+    private volatile boolean leader;
+
+    private ScheduledExecutorService leaseExecutor;
+
+    private LeadershipListener listener;
+
+    public LeaderElector(SchedulerLeaseMapper schedulerLeaseMapper,
+                         @Value("${pulse.job.admin.host:localhost}") String host,
+                         @Value("${pulse.job.admin.port:10410}") int port) {
+        this.schedulerLeaseMapper = schedulerLeaseMapper;
+        this.nodeId = host + ":" + port + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 开始竞争租约
+     *
+     * @param listener 租约状态变化回调（在租约线程中执行）
+     */
+    public synchronized void start(LeadershipListener listener) {
+        if (!enabled || leaseExecutor != null) {
+            return;
+        }
+        this.listener = listener;
+
+        schedulerLeaseMapper.init(leaseName);
+        leaseExecutor = Executors.newSingleThreadScheduledExecutor(
+                new JNamedThreadFactory("leader-lease", true));
+        leaseExecutor.scheduleWithFixedDelay(this::renewOrAcquire, 0, renewInterval, TimeUnit.MILLISECONDS);
+        log.info("开始竞争调度租约: lease={}, nodeId={}, leaseDuration={}ms, renewInterval={}ms",
+                leaseName, nodeId, leaseDuration, renewInterval);
+    }
+
+    /**
+     * 停止续期并主动释放租约，其他节点无需等待到期即可接管
+     */
+    public synchronized void stop() {
+        if (leaseExecutor == null) {
+            return;
+        }
+        leaseExecutor.shutdownNow();
+        leaseExecutor = null;
+
+        FencingToken token = fencingToken;
+        if (leader && token != null) {
+            leader = false;
+            try {
+                schedulerLeaseMapper.release(leaseName, nodeId, token.getToken());
+                log.info("已释放调度租约: lease={}, token={}", leaseName, token.getToken());
+            } catch (Exception e) {
+                log.warn("释放调度租约失败，等待租约到期", e);
+            }
+        }
+    }
+
+    // ==================== 续期 / 抢占 ====================
+
+    private void renewOrAcquire() {
+        long startNanos = System.nanoTime();
+        try {
+            if (leader) {
+                renew(startNanos);
+            } else {
+                tryAcquire(startNanos);
+            }
+        } catch (Exception e) {
+            log.warn("调度租约续期/抢占失败: lease={}", leaseName, e);
+        }
+        // 续期失败（数据库不可用等）时按本地截止时间放弃
+        if (leader && System.nanoTime() - leaseDeadlineNanos >= 0) {
+            log.warn("调度租约本地已过期，放弃调度: lease={}, token={}", leaseName, fencingToken.getToken());
+            revoke();
+        }
+    }
+
+    private void renew(long startNanos) {
+        if (schedulerLeaseMapper.renew(leaseName, nodeId, fencingToken.getToken(), leaseDuration) > 0) {
+            leaseDeadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(leaseDuration);
+            return;
+        }
+        log.warn("调度租约已被其他节点抢占: lease={}, token={}", leaseName, fencingToken.getToken());
+        revoke();
+    }
+
+    private void tryAcquire(long startNanos) {
+        if (schedulerLeaseMapper.tryAcquire(leaseName, nodeId, leaseDuration) == 0) {
+            return;
+        }
+        // 抢占成功后租约在到期前不会易主，直接读取新的 token
+        Long token = schedulerLeaseMapper.findByLeaseNameAndOwner(leaseName, nodeId)
+                .orElseThrow(() -> new IllegalStateException("调度租约记录不存在: " + leaseName))
+                .getFencingToken();
+        fencingToken = new FencingToken(leaseName, token);
+        leaseDeadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(leaseDuration);
+        leader = true;
+        log.info("获得调度租约: lease={}, nodeId={}, token={}", leaseName, nodeId, token);
+
+        if (listener != null) {
+            try {
+                listener.onElected();
+            } catch (Exception e) {
+                log.error("处理获得调度租约事件时发生错误", e);
+            }
+        }
+    }
+
+    private void revoke() {
+        leader = false;
+        if (listener != null) {
+            try {
+                listener.onRevoked();
+            } catch (Exception e) {
+                log.error("处理失去调度租约事件时发生错误", e);
+            }
+        }
+    }
+
+    // ==================== 查询方法 ====================
+
+    /**
+     * 本节点当前是否为调度节点（未开启选主时始终为 true）
+     */
+    public boolean isLeader() {
+        if (!enabled) {
+            return true;
+        }
+        return leader && System.nanoTime() - leaseDeadlineNanos < 0;
+    }
+
+    /**
+     * 最近一次获得租约时的令牌，放入时间轮的触发携带该令牌；未开启选主时返回 null（不做校验）
+     */
+    public FencingToken getFencingToken() {
+        if (!enabled) {
+            return null;
+        }
+        FencingToken token = fencingToken;
+        // 从未获得租约：使用不会匹配的令牌，保证不会绕过校验
+        return token != null ? token : new FencingToken(leaseName, -1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
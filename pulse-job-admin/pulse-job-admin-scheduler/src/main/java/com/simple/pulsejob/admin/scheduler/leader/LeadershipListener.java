@@ -0,0 +1,17 @@
+package com.simple.pulsejob.admin.scheduler.leader;
+
+/**
+ * 调度租约持有状态变化监听器.
+ */
+public interface LeadershipListener {
+
+    /**
+     * 获得租约，成为调度节点
+     */
+    void onElected();
+
+    /**
+     * 失去租约（被抢占或本地判定已过期），应停止触发已领取的任务
+     */
+    void onRevoked();
+}
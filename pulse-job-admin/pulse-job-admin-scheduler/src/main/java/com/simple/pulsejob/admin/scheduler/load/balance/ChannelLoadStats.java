@@ -0,0 +1,157 @@
+package com.simple.pulsejob.admin.scheduler.load.balance;
+
+import com.simple.pulsejob.common.util.Maps;
+import com.simple.pulsejob.transport.channel.JChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 channel 统计的调用负载，供感知负载的均衡策略使用.
+ *
+ * <ul>
+ *   <li>活跃数：已发送、尚未完成的调用数（{@link LongAdder} 分段计数，发送和完成线程互不竞争）</li>
+ *   <li>EWMA 耗时：调用从发送到完成的耗时按时间衰减的指数加权平均，衰减周期为 decay-time</li>
+ *   <li>容量：执行器上报的工作线程数和排队任务数，换算为加权轮询的权重</li>
+ * </ul>
+ *
+ * <p>由 Dispatcher 在发送请求时 {@link #onStart}、在调用 Future 完成时 {@link #onComplete} 更新，
+ * 收到执行器负载上报时 {@link #onLoadReport}，channel 断开时 {@link #remove}。</p>
+ */
+@Slf4j
+@Component
+public class ChannelLoadStats {
+
+    /** EWMA 衰减周期（毫秒），越小越快反映最近的耗时变化 */
+    @Value("${pulse.job.admin.load-balance.ewma-decay-time:10000}")
+    private long decayTimeMillis;
+
+    private final ConcurrentMap<JChannel, Stat> stats = Maps.newConcurrentMap();
+
+    /**
+     * 开始一次调用
+     */
+    public void onStart(JChannel channel) {
+        stat(channel).active.increment();
+    }
+
+    /**
+     * 完成一次调用（成功、失败或超时）
+     *
+     * @param elapsedNanos 从发送到完成的耗时
+     */
+    public void onComplete(JChannel channel, long elapsedNanos) {
+        Stat stat = stats.get(channel);
+        if (stat == null) {
+            // channel 已断开并移除
+            return;
+        }
+        stat.active.decrement();
+        stat.observe(elapsedNanos, TimeUnit.MILLISECONDS.toNanos(decayTimeMillis));
+    }
+
+    /**
+     * 执行器上报负载
+     */
+    public void onLoadReport(JChannel channel, int workerThreads, int queueDepth) {
+        if (!channel.isActive()) {
+            return;
+        }
+        Stat stat = stat(channel);
+        stat.workerThreads = Math.max(workerThreads, 0);
+        stat.queueDepth = Math.max(queueDepth, 0);
+    }
+
+    /**
+     * channel 断开后移除统计
+     */
+    public void remove(JChannel channel) {
+        stats.remove(channel);
+    }
+
+    public long active(JChannel channel) {
+        Stat stat = stats.get(channel);
+        return stat != null ? Math.max(0, stat.active.sum()) : 0;
+    }
+
+    /**
+     * EWMA 耗时（纳秒），没有样本时为 0
+     */
+    public long ewmaNanos(JChannel channel) {
+        Stat stat = stats.get(channel);
+        return stat != null ? stat.ewmaNanos : 0;
+    }
+
+    /**
+     * 按上报容量计算的权重：workers² / (workers + queueDepth)，排队数与线程数相当时权重减半；未上报时为 0
+     */
+    public int weight(JChannel channel) {
+        Stat stat = stats.get(channel);
+        if (stat == null || stat.workerThreads <= 0) {
+            return 0;
+        }
+        long workers = stat.workerThreads;
+        return (int) Math.max(1, workers * workers / (workers + stat.queueDepth));
+    }
+
+    public int size() {
+        return stats.size();
+    }
+
+    /**
+     * 供平滑加权轮询读写当前权重，channel 已断开时返回 null
+     */
+    Stat weightedStat(JChannel channel) {
+        return channel.isActive() ? stat(channel) : null;
+    }
+
+    private Stat stat(JChannel channel) {
+        Stat stat = stats.get(channel);
+        if (stat == null) {
+            stat = stats.computeIfAbsent(channel, c -> new Stat());
+        }
+        return stat;
+    }
+
+    static final class Stat {
+
+        private static final AtomicLongFieldUpdater<Stat> EWMA_UPDATER =
+                AtomicLongFieldUpdater.newUpdater(Stat.class, "ewmaNanos");
+
+        final LongAdder active = new LongAdder();
+
+        volatile long ewmaNanos;
+        /** 上次更新 EWMA 的时间（System.nanoTime），仅在 CAS 成功后写入，允许轻微的并发误差 */
+        volatile long lastUpdateNanos;
+
+        volatile int workerThreads;
+        volatile int queueDepth;
+
+        /** 平滑加权轮询的当前权重，在执行器组上加锁后读写 */
+        long currentWeight;
+
+        void observe(long sampleNanos, long decayNanos) {
+            long now = System.nanoTime();
+            for (;;) {
+                long current = ewmaNanos;
+                long next;
+                if (current == 0) {
+                    next = Math.max(sampleNanos, 1);
+                } else {
+                    // 距上次更新越久，旧值的权重越低
+                    double w = Math.exp(-(double) Math.max(now - lastUpdateNanos, 0) / decayNanos);
+                    next = Math.max((long) (current * w + sampleNanos * (1 - w)), 1);
+                }
+                if (EWMA_UPDATER.compareAndSet(this, current, next)) {
+                    lastUpdateNanos = now;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.simple.pulsejob.admin.scheduler.load.balance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple.pulsejob.admin.common.model.enums.HashKeyTypeEnum;
+import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.admin.scheduler.ScheduleContext;
+import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
+import com.simple.pulsejob.common.util.Maps;
+import com.simple.pulsejob.common.util.StringUtil;
+import com.simple.pulsejob.consistency.ConsistentHashRing;
+import com.simple.pulsejob.transport.channel.JChannel;
+import com.simple.pulsejob.transport.channel.JChannelGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 一致性哈希负载均衡.
+ *
+ * <p>按任务配置的路由键（{@link HashKeyTypeEnum}：任务ID、参数、参数字段或分片序号）在虚拟节点环上定位 channel，
+ * 同一个键的调度始终落到同一个执行器节点，便于执行器复用本地缓存；节点增减时只有约 1/N 的键迁移。</p>
+ *
+ * <p>每个执行器组缓存一个环，选择时与组内 channel 比对，发现增减后只对变化的节点做
+ * {@link ConsistentHashRing#add}/{@link ConsistentHashRing#remove}，不整体重建。
+ * 取不到路由键时退化为组内轮询。</p>
+ *
+ * <p>环上的节点是执行器注册的业务地址而不是 channel id：执行器断线重连后 channel id 会变，
+ * 按地址入环才能让重连的节点回到原来的位置，键不发生迁移（执行器未配置端口时出站端口同样会变，需配置固定端口）。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsistentHashLoadBalancer implements LoadBalancer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** 每个 channel 的虚拟节点数，越多分布越均匀，环也越大 */
+    @Value("${pulse.job.admin.load-balance.consistent-hash.virtual-nodes:160}")
+    private int virtualNodes;
+
+    private final ExecutorChannelGroupManager channelGroupManager;
+
+    // key: 执行器名称; value: 该执行器组当前的哈希环
+    private final ConcurrentMap<String, RingState> rings = Maps.newConcurrentMap();
+
+    @Override
+    public JChannel select(JChannelGroup channelGroup) {
+        return channelGroup.next();
+    }
+
+    @Override
+    public JChannel select(JChannelGroup channelGroup, ScheduleContext context) {
+        List<JChannel> channels = channelGroup.channels();
+        if (channels.isEmpty()) {
+            return null;
+        }
+        if (channels.size() == 1) {
+            return channels.get(0);
+        }
+
+        String hashKey = hashKey(context);
+        if (hashKey == null || context.getExecutorKey() == null) {
+            return channelGroup.next();
+        }
+
+        RingState state = ring(context.getExecutorKey().exeuctorKeyString(), channelGroup, channels);
+        JChannel channel = state.channels.get(state.ring.locate(hashKey));
+        return channel != null ? channel : channelGroup.next();
+    }
+
+    private RingState ring(String executorKey, JChannelGroup channelGroup, List<JChannel> channels) {
+        RingState state = rings.get(executorKey);
+        if (state != null && state.matches(channelGroup, channels)) {
+            return state;
+        }
+        return rings.compute(executorKey, (k, current) -> {
+            if (current != null && current.matches(channelGroup, channels)) {
+                return current;
+            }
+            if (current == null || current.group != channelGroup) {
+                // 执行器组被替换（如下线后重新注册），整体重建
+                current = new RingState(channelGroup, ConsistentHashRing.of(List.of(), virtualNodes), Map.of(), Set.of());
+            }
+            return current.update(channels, channelGroupManager::address);
+        });
+    }
+
+    /**
+     * 计算路由键，取不到时返回 null
+     */
+    private static String hashKey(ScheduleContext context) {
+        if (context == null) {
+            return null;
+        }
+        HashKeyTypeEnum type = context.getHashKeyType() != null ? context.getHashKeyType() : HashKeyTypeEnum.JOB_ID;
+        String key = null;
+        switch (type) {
+            case PARAMS:
+                key = StringUtil.isNotBlank(context.getJobParams()) ? context.getJobParams() : null;
+                break;
+            case PARAM_FIELD:
+                key = paramField(context.getJobParams(), context.getHashKeyField());
+                break;
+            case SHARD_INDEX:
+                key = context.getShardIndex() != null ? "shard:" + context.getShardIndex() : null;
+                break;
+            default:
+                break;
+        }
+        if (key == null && context.getJobId() != null) {
+            // 参数或分片序号缺失时按任务ID路由
+            key = "job:" + context.getJobId();
+        }
+        return key;
+    }
+
+    /**
+     * 读取 JSON 参数中的字段值，字段名支持 a.b 多级
+     */
+    private static String paramField(String jobParams, String field) {
+        if (StringUtil.isBlank(jobParams) || StringUtil.isBlank(field)) {
+            return null;
+        }
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(jobParams);
+            for (String name : field.split("\\.")) {
+                if (node == null) {
+                    return null;
+                }
+                node = node.get(name);
+            }
+            if (node == null || node.isNull() || node.isMissingNode()) {
+                return null;
+            }
+            return node.isValueNode() ? node.asText() : node.toString();
+        } catch (Exception e) {
+            log.debug("Job params is not JSON, cannot read hash key field: {}", field);
+            return null;
+        }
+    }
+
+    @Override
+    public LoadBalanceTypeEnum type() {
+        return LoadBalanceTypeEnum.CONSISTENT_HASH;
+    }
+
+    /**
+     * 执行器组的哈希环快照（不可变），环上的节点为执行器地址
+     */
+    private static final class RingState {
+
+        final JChannelGroup group;
+        final ConsistentHashRing ring;
+        /** key: 执行器地址; value: 该地址当前使用的 channel */
+        final Map<String, JChannel> channels;
+        /** 构建时组内的全部 channel（含同一地址的重复连接），用于判断组成员是否变化 */
+        final Set<JChannel> members;
+
+        RingState(JChannelGroup group, ConsistentHashRing ring, Map<String, JChannel> channels, Set<JChannel> members) {
+            this.group = group;
+            this.ring = ring;
+            this.channels = channels;
+            this.members = members;
+        }
+
+        boolean matches(JChannelGroup channelGroup, List<JChannel> current) {
+            return group == channelGroup && members.size() == current.size() && members.containsAll(current);
+        }
+
+        /**
+         * 按当前 channel 列表增量更新环；同一地址有多个 channel（旧连接尚未移除）时取活跃的一个
+         */
+        RingState update(List<JChannel> current, Function<JChannel, String> addressOf) {
+            Map<String, JChannel> latest = new HashMap<>(current.size() * 2);
+            for (JChannel channel : current) {
+                String address = addressOf.apply(channel);
+                JChannel existing = latest.get(address);
+                if (existing == null || (!existing.isActive() && channel.isActive())) {
+                    latest.put(address, channel);
+                }
+            }
+
+            ConsistentHashRing updated = ring;
+            for (String address : channels.keySet()) {
+                if (!latest.containsKey(address)) {
+                    updated = updated.remove(address);
+                }
+            }
+            for (String address : latest.keySet()) {
+                if (!channels.containsKey(address)) {
+                    updated = updated.add(address);
+                }
+            }
+            log.info("Consistent hash ring updated: {} -> {} node(s)", channels.size(), latest.size());
+            return new RingState(group, updated, latest, new HashSet<>(current));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.simple.pulsejob.admin.scheduler.load.balance;
+
+import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.transport.channel.JChannel;
+import com.simple.pulsejob.transport.channel.JChannelGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 最少活跃调用数负载均衡.
+ *
+ * <p>选择未完成调用数最少的 channel，慢节点积压的调用多，自然会少分配；活跃数相同时随机选择，避免总是落到同一个节点。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LeastActiveLoadBalancer implements LoadBalancer {
+
+    private final ChannelLoadStats loadStats;
+
+    @Override
+    public JChannel select(JChannelGroup channelGroup) {
+        List<? extends JChannel> channels = channelGroup.channels();
+        int length = channels.size();
+
+        if (length == 0) {
+            return null;
+        }
+
+        if (length == 1) {
+            return channels.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JChannel selected = null;
+        long leastActive = Long.MAX_VALUE;
+        int ties = 0;
+        for (JChannel channel : channels) {
+            long active = loadStats.active(channel);
+            if (active < leastActive) {
+                leastActive = active;
+                selected = channel;
+                ties = 1;
+            } else if (active == leastActive && random.nextInt(++ties) == 0) {
+                // 蓄水池抽样，活跃数相同的 channel 等概率选中
+                selected = channel;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public LoadBalanceTypeEnum type() {
+        return LoadBalanceTypeEnum.LEAST_ACTIVE;
+    }
+}
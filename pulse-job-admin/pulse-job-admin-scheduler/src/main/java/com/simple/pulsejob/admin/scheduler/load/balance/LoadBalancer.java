@@ -1,6 +1,7 @@
 package com.simple.pulsejob.admin.scheduler.load.balance;
 
 import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.admin.scheduler.ScheduleContext;
 import com.simple.pulsejob.transport.channel.JChannel;
 import com.simple.pulsejob.transport.channel.JChannelGroup;
 
@@ -8,5 +9,12 @@ public interface LoadBalancer {
 
     JChannel select(JChannelGroup channelGroup);
 
+    /**
+     * 按调度上下文选择 channel，需要路由键的策略（如一致性哈希）覆盖此方法
+     */
+    default JChannel select(JChannelGroup channelGroup, ScheduleContext context) {
+        return select(channelGroup);
+    }
+
     LoadBalanceTypeEnum type();
 }
@@ -0,0 +1,68 @@
+package com.simple.pulsejob.admin.scheduler.load.balance;
+
+import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.transport.channel.JChannel;
+import com.simple.pulsejob.transport.channel.JChannelGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * P2C + EWMA 负载均衡（power of two choices）.
+ *
+ * <p>随机取两个不同的 channel，选择负载代价较低的一个：代价 = EWMA 耗时 × (活跃数 + 1)。
+ * 只比较两个节点，选择为 O(1)，又能避开慢节点和积压节点。</p>
+ *
+ * <p>没有耗时样本的节点（新上线或刚重连）借用另一个候选的 EWMA，即按活跃数比较：它能拿到调用建立样本，
+ * 但不会因代价为 0 在首批调用完成前被灌满；两个候选都没有样本时同样退化为比较活跃数。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class P2cEwmaLoadBalancer implements LoadBalancer {
+
+    private final ChannelLoadStats loadStats;
+
+    @Override
+    public JChannel select(JChannelGroup channelGroup) {
+        List<? extends JChannel> channels = channelGroup.channels();
+        int length = channels.size();
+
+        if (length == 0) {
+            return null;
+        }
+
+        if (length == 1) {
+            return channels.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(length);
+        int j = random.nextInt(length - 1);
+        if (j >= i) {
+            j++;
+        }
+        JChannel a = channels.get(i);
+        JChannel b = channels.get(j);
+
+        long ewmaA = loadStats.ewmaNanos(a);
+        long ewmaB = loadStats.ewmaNanos(b);
+        if (ewmaA == 0) {
+            ewmaA = ewmaB;
+        } else if (ewmaB == 0) {
+            ewmaB = ewmaA;
+        }
+        return cost(a, ewmaA) <= cost(b, ewmaB) ? a : b;
+    }
+
+    private double cost(JChannel channel, long ewmaNanos) {
+        long load = loadStats.active(channel) + 1;
+        return ewmaNanos > 0 ? (double) ewmaNanos * load : load;
+    }
+
+    @Override
+    public LoadBalanceTypeEnum type() {
+        return LoadBalanceTypeEnum.P2C_EWMA;
+    }
+}
@@ -0,0 +1,79 @@
+package com.simple.pulsejob.admin.scheduler.load.balance;
+
+import com.simple.pulsejob.admin.common.model.enums.LoadBalanceTypeEnum;
+import com.simple.pulsejob.transport.channel.JChannel;
+import com.simple.pulsejob.transport.channel.JChannelGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 平滑加权轮询负载均衡（smooth weighted round-robin）.
+ *
+ * <p>权重来自执行器上报的容量（见 {@link ChannelLoadStats#weight}），64 线程的执行器分到的调度约为 4 线程的 16 倍，无需手工配置。
+ * 每次选择时各节点当前权重加上自身权重，选出最大者后减去总权重，高权重节点的调度均匀穿插而不是连续扎堆。
+ * 尚未上报容量的节点取同组已上报节点的平均权重，都未上报时退化为普通轮询。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    private final ChannelLoadStats loadStats;
+
+    @Override
+    public JChannel select(JChannelGroup channelGroup) {
+        List<? extends JChannel> channels = channelGroup.channels();
+        int length = channels.size();
+
+        if (length == 0) {
+            return null;
+        }
+
+        if (length == 1) {
+            return channels.get(0);
+        }
+
+        int[] weights = new int[length];
+        long reportedSum = 0;
+        int reported = 0;
+        for (int i = 0; i < length; i++) {
+            weights[i] = loadStats.weight(channels.get(i));
+            if (weights[i] > 0) {
+                reportedSum += weights[i];
+                reported++;
+            }
+        }
+        int defaultWeight = reported > 0 ? (int) Math.max(1, reportedSum / reported) : 1;
+
+        synchronized (channelGroup) {
+            JChannel selected = null;
+            ChannelLoadStats.Stat selectedStat = null;
+            long total = 0;
+            for (int i = 0; i < length; i++) {
+                JChannel channel = channels.get(i);
+                ChannelLoadStats.Stat stat = loadStats.weightedStat(channel);
+                if (stat == null) {
+                    continue;
+                }
+                int weight = weights[i] > 0 ? weights[i] : defaultWeight;
+                stat.currentWeight += weight;
+                total += weight;
+                if (selectedStat == null || stat.currentWeight > selectedStat.currentWeight) {
+                    selected = channel;
+                    selectedStat = stat;
+                }
+            }
+            if (selectedStat == null) {
+                return channelGroup.next();
+            }
+            selectedStat.currentWeight -= total;
+            return selected;
+        }
+    }
+
+    @Override
+    public LoadBalanceTypeEnum type() {
+        return LoadBalanceTypeEnum.WEIGHTED_ROUND;
+    }
+}
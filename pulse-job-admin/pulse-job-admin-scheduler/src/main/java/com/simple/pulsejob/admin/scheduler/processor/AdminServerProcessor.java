@@ -9,6 +9,7 @@ import com.simple.pulsejob.admin.scheduler.ExecutorRegistryService;
 import com.simple.pulsejob.admin.scheduler.channel.ExecutorChannelGroupManager;
 import com.simple.pulsejob.admin.scheduler.factory.SerializerFactory;
 import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFuture;
+import com.simple.pulsejob.admin.scheduler.load.balance.ChannelLoadStats;
 import com.simple.pulsejob.admin.scheduler.log.JobLogDispatcher;
 import com.simple.pulsejob.admin.websocket.service.WebSocketBroadcastService;
 import com.simple.pulsejob.common.util.StringUtil;
@@ -16,6 +17,7 @@ import com.simple.pulsejob.transport.JResponse;
 import com.simple.pulsejob.transport.channel.JChannel;
 import com.simple.pulsejob.transport.metadata.BatchLogMessage;
 import com.simple.pulsejob.transport.metadata.ExecutorKey;
+import com.simple.pulsejob.transport.metadata.ExecutorLoad;
 import com.simple.pulsejob.transport.metadata.LogMessage;
 import com.simple.pulsejob.transport.metadata.ResultWrapper;
 import com.simple.pulsejob.transport.payload.JRequestPayload;
@@ -49,6 +51,7 @@ public class AdminServerProcessor implements AcceptorProcessor {
     private final SerializerFactory serializerFactory;
     private final JobLogDispatcher jobLogDispatcher;
     private final WebSocketBroadcastService broadcastService;
+    private final ChannelLoadStats loadStats;
 
     /** 缓存默认序列化器 */
     private volatile Serializer defaultSerializer;
@@ -69,6 +72,9 @@ public class AdminServerProcessor implements AcceptorProcessor {
             case REGISTER_EXECUTOR:
                 handleRegisterExecutor(channel, serializer, inputBuf);
                 break;
+            case EXECUTOR_LOAD:
+                handleExecutorLoad(channel, serializer, inputBuf);
+                break;
 //            case JOB_LOG_MESSAGE:
 //                handleLogMessage(channel, request.instanceId(), serializer, inputBuf);
 //                break;
@@ -102,6 +108,10 @@ public class AdminServerProcessor implements AcceptorProcessor {
             case JOB_LOG_MESSAGE:
                 handleLogMessage(channel, response.instanceId() , serializer, inputBuf);
                 break;
+            case JOB_STARTED:
+                // 排队结束开始执行，执行超时从此刻算起（消息体为空）
+                DefaultInvokeFuture.started(channel, response.instanceId());
+                break;
             case JOB_RESULT:
                 handleJobResult(channel, response, serializer, inputBuf);
                 break;
@@ -123,6 +133,7 @@ public class AdminServerProcessor implements AcceptorProcessor {
         
         // ✅ 清理该 Channel 上所有未完成的 Future（比等超时更快响应）
         List<Long> affectedInstanceIds = DefaultInvokeFuture.onChannelInactive(channel);
+        loadStats.remove(channel);
         
         // 注意：执行器下线广播在 ExecutorRegistryService.deregister() 中处理
         // 因为 preCloseProcessor 回调会在 handleInactive 之前执行
@@ -163,6 +174,19 @@ public class AdminServerProcessor implements AcceptorProcessor {
         broadcastService.pushExecutorOnline(executorKey.getExecutorName(), address);
     }
 
+    /**
+     * 处理执行器负载上报
+     */
+    private void handleExecutorLoad(JChannel channel, Serializer serializer, InputBuf inputBuf) {
+        ExecutorLoad load = serializer.readObject(inputBuf, ExecutorLoad.class);
+        if (load == null) {
+            return;
+        }
+        loadStats.onLoadReport(channel, load.getWorkerThreads(), load.getQueueDepth());
+        log.debug("Executor load reported: {}, workers={}, queueDepth={}",
+                channel.remoteIpPort(), load.getWorkerThreads(), load.getQueueDepth());
+    }
+
     /**
      * 处理单条日志消息
      */
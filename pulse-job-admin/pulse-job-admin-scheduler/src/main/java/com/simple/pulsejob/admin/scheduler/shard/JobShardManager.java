@@ -0,0 +1,222 @@
+package com.simple.pulsejob.admin.scheduler.shard;
+
+import com.simple.pulsejob.admin.common.model.entity.AdminNode;
+import com.simple.pulsejob.admin.persistence.mapper.AdminNodeMapper;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.consistency.ShardMember;
+import com.simple.pulsejob.consistency.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 任务分片管理.
+ *
+ * <p>多个 admin 节点通过 admin_node 表登记成员并定期心跳，按 jobId 一致性哈希划分任务归属，
+ * 每个节点的扫描和时间轮只处理归属自己的任务。</p>
+ *
+ * <p>新节点登记时设置一个交接期（handoff-delay），交接期结束才参与分片；归属按触发时间计算，
+ * 其他节点在交接期内感知到新成员并交还属于新节点的触发，所有节点在同一时间点切换，切换前后不重复也不遗漏。</p>
+ *
+ * <p>心跳、交接期和超时都以数据库时钟（NOW(3)）写入和判断，各节点本地时钟的偏差不会造成误判下线或提前接管。</p>
+ *
+ * <p>未开启集群（pulse.job.admin.cluster.enabled=false）时所有任务都归属本节点。</p>
+ */
+@Slf4j
+@Component
+public class JobShardManager {
+
+    private final AdminNodeMapper adminNodeMapper;
+
+    @Value("${pulse.job.admin.cluster.enabled:false}")
+    private boolean enabled;
+
+    /** 心跳间隔（毫秒） */
+    @Value("${pulse.job.admin.cluster.heartbeat-interval:5000}")
+    private long heartbeatInterval;
+
+    /** 节点超时时间（毫秒），超过此时间没有心跳视为下线 */
+    @Value("${pulse.job.admin.cluster.node-timeout:15000}")
+    private long nodeTimeout;
+
+    /** 新节点交接期（毫秒），应大于 心跳间隔 + 扫描间隔 + 查询窗口 */
+    @Value("${pulse.job.admin.cluster.handoff-delay:30000}")
+    private long handoffDelay;
+
+    @Value("${pulse.job.admin.cluster.virtual-nodes:160}")
+    private int virtualNodes;
+
+    private final String nodeId;
+
+    private final String address;
+
+    private volatile ShardRouter router = ShardRouter.empty();
+
+    private ScheduledExecutorService heartbeatExecutor;
+
+    private ShardChangeListener listener;
+
+    public JobShardManager(AdminNodeMapper adminNodeMapper,
+                           @Value("${pulse.job.admin.host:localhost}") String host,
+                           @Value("${pulse.job.admin.port:10410}") int port) {
+        this.adminNodeMapper = adminNodeMapper;
+        this.address = host + ":" + port;
+        this.nodeId = address + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 登记本节点并开始心跳
+     *
+     * @param listener 归属变化回调（在心跳线程中执行）
+     */
+    public synchronized void start(ShardChangeListener listener) {
+        if (!enabled || heartbeatExecutor != null) {
+            return;
+        }
+        this.listener = listener;
+
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+                new JNamedThreadFactory("shard-heartbeat", true));
+        register();
+        refreshMembers();
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+        log.info("集群分片已启动: nodeId={}, members={}", nodeId, router.members());
+    }
+
+    /**
+     * 注销本节点（调用前应先交还已领取的触发）
+     */
+    public synchronized void stop() {
+        if (heartbeatExecutor == null) {
+            return;
+        }
+        heartbeatExecutor.shutdownNow();
+        heartbeatExecutor = null;
+        try {
+            adminNodeMapper.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("注销节点失败，等待心跳超时后由其他节点清理: nodeId={}", nodeId, e);
+        }
+        router = ShardRouter.empty();
+        log.info("集群分片已停止: nodeId={}", nodeId);
+    }
+
+    private void register() {
+        boolean hasOtherMembers = adminNodeMapper.findAlive(nodeTimeout)
+                .stream()
+                .anyMatch(node -> !node.getNodeId().equals(nodeId));
+
+        // 第一个节点不需要交接，立即生效
+        adminNodeMapper.register(nodeId, address, hasOtherMembers ? handoffDelay : 0);
+        log.info("登记调度节点: nodeId={}, handoffDelay={}ms", nodeId, hasOtherMembers ? handoffDelay : 0);
+    }
+
+    private void heartbeat() {
+        try {
+            if (adminNodeMapper.updateHeartbeat(nodeId) == 0) {
+                // 长时间停顿后记录可能已被其他节点清理，重新登记并重新交接
+                log.warn("节点记录不存在，重新登记: nodeId={}", nodeId);
+                register();
+            }
+            adminNodeMapper.deleteExpired(nodeTimeout * 3);
+            refreshMembers();
+        } catch (Exception e) {
+            log.error("集群心跳失败: nodeId={}", nodeId, e);
+        }
+    }
+
+    private void refreshMembers() {
+        List<AdminNode> nodes = adminNodeMapper.findAlive(nodeTimeout);
+        List<ShardMember> members = nodes.stream()
+                .map(node -> new ShardMember(node.getNodeId(), toEpochMillis(node.getActiveTime())))
+                .collect(Collectors.toList());
+
+        if (new HashSet<>(members).equals(new HashSet<>(router.members()))) {
+            return;
+        }
+        ShardRouter previous = router;
+        router = ShardRouter.of(members, virtualNodes);
+        log.info("集群成员变化: {} -> {}", previous.members(), router.members());
+
+        notifyListener(ShardChangeListener::onMembershipChanged);
+
+        // 交接期结束时再通知一次（交接期按数据库时钟登记，延迟也按数据库时钟计算）
+        long now = -1;
+        for (ShardMember member : members) {
+            if (previous.members().contains(member)) {
+                continue;
+            }
+            if (now < 0) {
+                now = adminNodeMapper.currentTime().getTime();
+            }
+            long delay = member.getActiveFrom() - now;
+            if (delay > 0) {
+                heartbeatExecutor.schedule(() -> notifyListener(ShardChangeListener::onMemberActivated),
+                        delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void notifyListener(Consumer<ShardChangeListener> event) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            event.accept(listener);
+        } catch (Exception e) {
+            log.error("处理集群归属变化时发生错误", e);
+        }
+    }
+
+    // ==================== 归属查询 ====================
+
+    /**
+     * 指定触发时间的任务是否归属本节点
+     */
+    public boolean isOwner(Integer jobId, LocalDateTime fireTime) {
+        if (!enabled) {
+            return true;
+        }
+        ShardRouter current = router;
+        if (current.isEmpty()) {
+            // 尚未拿到成员列表（数据库不可用等），不调度任何任务，避免与其他节点重复
+            return false;
+        }
+        long time = fireTime != null ? toEpochMillis(fireTime) : System.currentTimeMillis();
+        return current.isOwner(nodeId, jobId, time);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public List<String> getMembers() {
+        return router.members().stream().map(ShardMember::getNodeId).collect(Collectors.toList());
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
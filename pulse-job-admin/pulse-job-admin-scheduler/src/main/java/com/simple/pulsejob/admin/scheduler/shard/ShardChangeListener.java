@@ -0,0 +1,17 @@
+package com.simple.pulsejob.admin.scheduler.shard;
+
+/**
+ * 分片归属变化监听器.
+ */
+public interface ShardChangeListener {
+
+    /**
+     * 集群成员发生变化（节点加入、下线），此时应交还不再归属本节点的触发
+     */
+    void onMembershipChanged();
+
+    /**
+     * 交接期结束，新成员开始参与分片（此时其他节点已完成交还）
+     */
+    void onMemberActivated();
+}
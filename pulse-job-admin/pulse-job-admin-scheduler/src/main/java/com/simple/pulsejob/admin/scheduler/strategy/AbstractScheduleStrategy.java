@@ -41,8 +41,8 @@ public abstract class AbstractScheduleStrategy implements ScheduleStrategy {
 
         expression = expression.trim().toLowerCase();
 
-        // 纯数字，默认秒
-        if (expression.matches("\\d+")) {
+        // 纯数字，默认秒（逐字符判断，避免每次编译正则）
+        if (isDigits(expression)) {
             return Long.parseLong(expression);
         }
 
@@ -60,6 +60,15 @@ public abstract class AbstractScheduleStrategy implements ScheduleStrategy {
         throw new IllegalArgumentException("Invalid expression format: " + expression);
     }
 
+    private static boolean isDigits(String expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            if (!Character.isDigit(expression.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 格式化秒数为可读描述
      */
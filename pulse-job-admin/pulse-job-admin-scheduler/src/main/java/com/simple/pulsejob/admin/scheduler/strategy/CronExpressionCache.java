@@ -0,0 +1,142 @@
+package com.simple.pulsejob.admin.scheduler.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CRON 表达式编译缓存（有界，近似 LRU）.
+ *
+ * <p>{@link CronExpression} 解析后内部以位图保存各字段的取值，且不可变、线程安全，
+ * 因此同一个表达式只需解析一次，所有使用该表达式的任务共享同一个实例。</p>
+ *
+ * <p>查找走 {@link ConcurrentHashMap}，命中时不加锁，调度线程之间互不阻塞。超过容量时按二次机会（CLOCK）淘汰：
+ * 命中只设置访问标记，淘汰时跳过并清除带标记的条目，移除最近没有被访问的条目。</p>
+ *
+ * <p>无效的表达式同样会被缓存，避免每轮扫描都重复解析并抛出异常。</p>
+ */
+@Slf4j
+@Component
+public class CronExpressionCache {
+
+    /** 无效表达式的占位符 */
+    private static final Object INVALID = new Object();
+
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>(256);
+
+    private final int maxSize;
+
+    /** 淘汰锁，只在插入后超过容量时获取 */
+    private final Object evictLock = new Object();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public CronExpressionCache(@Value("${pulse.job.admin.scheduler.cron-cache-size:4096}") int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * 获取编译后的 CRON 表达式
+     *
+     * @return 表达式无效时返回 null
+     */
+    public CronExpression get(String expression) {
+        if (expression == null || expression.isEmpty()) {
+            return null;
+        }
+        Entry entry = cache.get(expression);
+        if (entry != null) {
+            hitCount.increment();
+            entry.touch();
+        } else {
+            missCount.increment();
+            entry = new Entry(compile(expression));
+            Entry existing = cache.putIfAbsent(expression, entry);
+            if (existing != null) {
+                entry = existing;
+            } else if (cache.size() > maxSize) {
+                evict();
+            }
+        }
+        return entry.compiled == INVALID ? null : (CronExpression) entry.compiled;
+    }
+
+    /**
+     * 二次机会淘汰：带访问标记的条目清除标记后保留，直到容量回到上限以内
+     */
+    private void evict() {
+        synchronized (evictLock) {
+            while (cache.size() > maxSize) {
+                Iterator<Entry> it = cache.values().iterator();
+                while (it.hasNext() && cache.size() > maxSize) {
+                    Entry entry = it.next();
+                    if (entry.referenced) {
+                        entry.referenced = false;
+                    } else {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object compile(String expression) {
+        try {
+            return CronExpression.parse(expression);
+        } catch (IllegalArgumentException e) {
+            log.warn("无效的 CRON 表达式: {}, {}", expression, e.getMessage());
+            return INVALID;
+        }
+    }
+
+    // ==================== 查询方法 ====================
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CronExpressionCache{size=%d, hits=%d, misses=%d}",
+                size(), getHitCount(), getMissCount());
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        /** 编译后的表达式，或 {@link #INVALID} */
+        private final Object compiled;
+
+        /** 上次淘汰扫描后是否被访问过 */
+        private volatile boolean referenced;
+
+        Entry(Object compiled) {
+            this.compiled = compiled;
+        }
+
+        void touch() {
+            // 已标记时不再写，避免热点表达式在多线程间反复写同一缓存行
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.simple.pulsejob.admin.scheduler.strategy;
 
 import com.simple.pulsejob.admin.common.model.enums.ScheduleTypeEnum;
 import com.simple.pulsejob.admin.scheduler.ScheduleContext;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Component;
@@ -15,8 +16,11 @@ import java.time.LocalDateTime;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class CronScheduleStrategy extends AbstractScheduleStrategy {
 
+    private final CronExpressionCache cronExpressionCache;
+
     @Override
     public ScheduleTypeEnum getType() {
         return ScheduleTypeEnum.CRON;
@@ -31,34 +35,22 @@ public class CronScheduleStrategy extends AbstractScheduleStrategy {
             return null;
         }
 
-        try {
-            CronExpression cron = CronExpression.parse(cronExpression);
-
-            // 基于当前时间或上次执行时间计算下次执行时间
-            LocalDateTime baseTime = lastExecuteTime != null ? lastExecuteTime : LocalDateTime.now();
-            LocalDateTime nextTime = cron.next(baseTime);
-
-            log.debug("CRON[{}] 基于 {} 计算下次执行时间: {}", cronExpression, baseTime, nextTime);
-            return nextTime;
-
-        } catch (Exception e) {
-            log.error("解析 CRON 表达式失败: {}", cronExpression, e);
+        CronExpression cron = cronExpressionCache.get(cronExpression);
+        if (cron == null) {
             return null;
         }
+
+        // 基于当前时间或上次执行时间计算下次执行时间
+        LocalDateTime baseTime = lastExecuteTime != null ? lastExecuteTime : LocalDateTime.now();
+        LocalDateTime nextTime = cron.next(baseTime);
+
+        log.debug("CRON[{}] 基于 {} 计算下次执行时间: {}", cronExpression, baseTime, nextTime);
+        return nextTime;
     }
 
     @Override
     public boolean validateExpression(String expression) {
-        if (expression == null || expression.isEmpty()) {
-            return false;
-        }
-
-        try {
-            CronExpression.parse(expression);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return cronExpressionCache.get(expression) != null;
     }
 
     @Override
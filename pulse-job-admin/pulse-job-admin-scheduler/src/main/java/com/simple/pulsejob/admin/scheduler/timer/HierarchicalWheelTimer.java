@@ -0,0 +1,578 @@
+package com.simple.pulsejob.admin.scheduler.timer;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import com.simple.pulsejob.common.JConstants;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.common.util.internal.Platform;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分层时间轮.
+ *
+ * <p>由多层时间轮组成，第 0 层的刻度为 tickDuration，上一层的刻度等于下一层转一圈的时长。
+ * 默认 4 层、每层 {60, 60, 24, 366} 个刻度，刻度为 1 秒时分别对应秒/分/时/天，单个时间轮可以覆盖一年以内的任意延迟。</p>
+ *
+ * <p>任务按剩余刻度数放入能容纳它的最低一层，插入代价 O(1)；高层的桶在所在区间开始时整体降级（cascade）到低层，
+ * 最终在第 0 层到期执行。超过最高层范围的任务放在最高层，每转一圈重新计算一次，因此延迟没有上限。</p>
+ *
+ * <p>与 {@link HashedWheelTimer} 相比，每个刻度只需要处理当前到期的桶，不需要遍历剩余圈数，
+ * 适合大量长延迟任务常驻内存的场景。</p>
+ */
+@Slf4j
+public class HierarchicalWheelTimer implements Timer {
+
+    /** 默认各层刻度数量：秒/分/时/天 */
+    public static final int[] DEFAULT_TICKS_PER_LEVEL = {60, 60, 24, 366};
+
+    private static final AtomicIntegerFieldUpdater<HierarchicalWheelTimer> workerStateUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(HierarchicalWheelTimer.class, "workerState");
+
+    private final Thread workerThread;
+
+    public static final int WORKER_STATE_INIT = 0;
+    public static final int WORKER_STATE_STARTED = 1;
+    public static final int WORKER_STATE_SHUTDOWN = 2;
+    @SuppressWarnings({"unused", "FieldMayBeFinal"})
+    private volatile int workerState; // 0 - init, 1 - started, 2 - shut down
+
+    private final long tickDuration;
+    private final WheelLevel[] levels;
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+    private final Queue<WheelTimeout> timeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong(0);
+    private final long maxPendingTimeouts;
+
+    private volatile long startTime;
+    private final Executor executor;
+
+    public HierarchicalWheelTimer() {
+        this(new JNamedThreadFactory("hierarchical-wheel-timer-"), 1, TimeUnit.SECONDS);
+    }
+
+    public HierarchicalWheelTimer(ThreadFactory threadFactory, long tickDuration, TimeUnit unit) {
+        this(threadFactory, tickDuration, unit, DEFAULT_TICKS_PER_LEVEL, -1, null);
+    }
+
+    public HierarchicalWheelTimer(
+            ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int[] ticksPerLevel,
+            long maxPendingTimeouts, Executor executor) {
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (ticksPerLevel == null || ticksPerLevel.length == 0) {
+            throw new IllegalArgumentException("ticksPerLevel must not be empty");
+        }
+
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.levels = createLevels(ticksPerLevel, this.tickDuration);
+        this.executor = executor != null ? executor : JConstants.createDefaultExecutor();
+        this.maxPendingTimeouts = maxPendingTimeouts;
+
+        workerThread = threadFactory.newThread(new Worker());
+    }
+
+    private static WheelLevel[] createLevels(int[] ticksPerLevel, long tickDuration) {
+        WheelLevel[] levels = new WheelLevel[ticksPerLevel.length];
+        // span: 本层一个刻度对应的第 0 层刻度数
+        long span = 1;
+        for (int i = 0; i < ticksPerLevel.length; i++) {
+            int ticks = ticksPerLevel[i];
+            if (ticks <= 1) {
+                throw new IllegalArgumentException("ticksPerLevel[" + i + "] must be greater than 1: " + ticks);
+            }
+            if (span > Long.MAX_VALUE / ticks / tickDuration) {
+                throw new IllegalArgumentException("wheel range overflow at level " + i);
+            }
+            levels[i] = new WheelLevel(ticks, span);
+            span *= ticks;
+        }
+        return levels;
+    }
+
+    @Override
+    public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+
+        long pendingTimeoutsCount = pendingTimeouts.incrementAndGet();
+
+        if (maxPendingTimeouts > 0 && pendingTimeoutsCount > maxPendingTimeouts) {
+            pendingTimeouts.decrementAndGet();
+            throw new RejectedExecutionException("Number of pending timeouts ("
+                    + pendingTimeoutsCount + ") is greater than or equal to maximum allowed pending "
+                    + "timeouts (" + maxPendingTimeouts + ")");
+        }
+        start();
+
+        //计算过期时间差额
+        long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+
+        if (delay > 0 && deadline < 0) {
+            deadline = Long.MAX_VALUE;
+        }
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        timeouts.add(timeout);
+        return timeout;
+    }
+
+    public void start() {
+        switch (workerStateUpdater.get(this)) {
+            case WORKER_STATE_INIT:
+                if (workerStateUpdater.compareAndSet(this, WORKER_STATE_INIT, WORKER_STATE_STARTED)) {
+                    workerThread.start();
+                }
+                break;
+            case WORKER_STATE_STARTED:
+                break;
+            case WORKER_STATE_SHUTDOWN:
+                throw new IllegalStateException("cannot be started once stopped");
+            default:
+                throw new Error("Invalid WorkerState");
+        }
+
+        // 工作线程还未启动的话挂起当前任务进行等待
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException ignore) {
+                // Ignore - it will be ready very soon.
+            }
+        }
+    }
+
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * 各层时间轮不需要重新计算即可覆盖的最大延迟
+     */
+    public long maxRange(TimeUnit unit) {
+        WheelLevel top = levels[levels.length - 1];
+        return unit.convert(top.span * top.buckets.length * tickDuration, TimeUnit.NANOSECONDS);
+    }
+
+    private final class Worker implements Runnable {
+
+        private final Set<Timeout> unprocessedTimeouts = new HashSet<>();
+
+        /** 当前处理到的第 0 层刻度 */
+        private long tick;
+
+        @Override
+        public void run() {
+            //初始化时间轮的开始时间
+            startTime = System.nanoTime();
+            if (startTime == 0) {
+                startTime = 1;
+            }
+
+            startTimeInitialized.countDown();
+
+            do {
+                final long deadline = waitForNextTick();
+                if (deadline > 0) {
+                    processCancelledTasks();
+                    //高层进入新区间时，把对应的桶降级到低层
+                    cascade();
+                    //将待添加队列中的任务放入对应层的桶中
+                    transferTimeoutsToBuckets();
+                    //执行第 0 层当前桶中的到期任务
+                    expireTimeouts(deadline);
+                    tick++;
+                }
+            } while (workerStateUpdater.get(HierarchicalWheelTimer.this) == WORKER_STATE_STARTED);
+
+            //时间轮worker停止工作，将未处理的任务添加到unprocessedTimeouts中
+            for (WheelLevel level : levels) {
+                for (WheelBucket bucket : level.buckets) {
+                    bucket.clearTimeouts(unprocessedTimeouts);
+                }
+            }
+            for (;;) {
+                WheelTimeout timeout = timeouts.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (!timeout.isCancelled()) {
+                    unprocessedTimeouts.add(timeout);
+                }
+            }
+            processCancelledTasks();
+        }
+
+        /**
+         * 从最高层开始，把进入新区间的桶中的任务重新放置（必然落到更低的层）
+         */
+        private void cascade() {
+            for (int i = levels.length - 1; i > 0; i--) {
+                WheelLevel level = levels[i];
+                if (tick % level.span != 0) {
+                    continue;
+                }
+                WheelTimeout timeout = level.bucketOf(tick).detachAll();
+                while (timeout != null) {
+                    WheelTimeout next = timeout.next;
+                    timeout.next = null;
+                    timeout.prev = null;
+                    // 已取消的任务直接丢弃，计数在 processCancelledTasks 中扣减
+                    if (!timeout.isCancelled()) {
+                        place(timeout);
+                    }
+                    timeout = next;
+                }
+            }
+        }
+
+        private void transferTimeoutsToBuckets() {
+            for (int i = 0; i < 100000; i++) {
+                WheelTimeout timeout = timeouts.poll();
+                if (timeout == null) {
+                    // all processed
+                    break;
+                }
+                if (timeout.state() == WheelTimeout.ST_CANCELLED) {
+                    // Was cancelled in the meantime.
+                    continue;
+                }
+                // Ensure we don't schedule for past.
+                timeout.expireTick = Math.max(timeout.deadline / tickDuration, tick);
+                place(timeout);
+            }
+        }
+
+        /**
+         * 放入能容纳剩余刻度数的最低一层，超出最高层范围的放在最高层等待下一圈重新放置
+         */
+        private void place(WheelTimeout timeout) {
+            long remaining = timeout.expireTick - tick;
+            for (int i = 0; i < levels.length; i++) {
+                WheelLevel level = levels[i];
+                if (remaining < level.range() || i == levels.length - 1) {
+                    level.bucketOf(timeout.expireTick).addTimeout(timeout);
+                    return;
+                }
+            }
+        }
+
+        private void expireTimeouts(long deadline) {
+            WheelTimeout timeout = levels[0].bucketOf(tick).detachAll();
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                if (timeout.isCancelled()) {
+                    // 计数在 processCancelledTasks 中扣减
+                } else if (timeout.expireTick <= tick && timeout.deadline <= deadline) {
+                    pendingTimeouts.decrementAndGet();
+                    timeout.expire();
+                } else {
+                    // 只可能是超出最高层范围的任务，重新放置
+                    place(timeout);
+                }
+                timeout = next;
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = tickDuration * (tick + 1);
+
+            for (; ; ) {
+                final long currentTime = System.nanoTime() - startTime;
+                long sleepTimeMs = (deadline - currentTime + 999999) / 1000000;
+
+                if (sleepTimeMs <= 0) {
+                    if (currentTime == Long.MIN_VALUE) {
+                        return -Long.MAX_VALUE;
+                    } else {
+                        return currentTime;
+                    }
+                }
+
+                // See https://github.com/netty/netty/issues/356
+                if (Platform.isWindows()) {
+                    sleepTimeMs = sleepTimeMs / 10 * 10;
+                }
+
+                try {
+                    Thread.sleep(sleepTimeMs);
+                } catch (InterruptedException ignored) {
+                    if (workerStateUpdater.get(HierarchicalWheelTimer.this) == WORKER_STATE_SHUTDOWN) {
+                        return Long.MIN_VALUE;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 把取消掉的任务从Bucket桶里移除掉
+         */
+        private void processCancelledTasks() {
+            for (; ; ) {
+                WheelTimeout timeout = cancelledTimeouts.poll();
+                if (timeout == null) {
+                    // all processed
+                    break;
+                }
+                try {
+                    timeout.remove();
+                } catch (Throwable t) {
+                    log.warn("An exception was thrown while processing a cancellation task", t);
+                }
+            }
+        }
+
+        public Set<Timeout> unprocessedTimeouts() {
+            return Collections.unmodifiableSet(unprocessedTimeouts);
+        }
+    }
+
+    /**
+     * 单层时间轮
+     */
+    private static final class WheelLevel {
+
+        private final WheelBucket[] buckets;
+
+        /** 本层一个刻度对应的第 0 层刻度数 */
+        private final long span;
+
+        WheelLevel(int ticksPerWheel, long span) {
+            this.buckets = new WheelBucket[ticksPerWheel];
+            for (int i = 0; i < ticksPerWheel; i++) {
+                buckets[i] = new WheelBucket();
+            }
+            this.span = span;
+        }
+
+        /** 本层转一圈对应的第 0 层刻度数 */
+        long range() {
+            return span * buckets.length;
+        }
+
+        WheelBucket bucketOf(long tick) {
+            return buckets[(int) ((tick / span) % buckets.length)];
+        }
+    }
+
+    /**
+     * 定时任务实际的包装类，里面包含了当前任务的状态
+     */
+    private static final class WheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final HierarchicalWheelTimer timer;
+        private final TimerTask task;
+        private final long deadline;
+
+        @SuppressWarnings({"unused", "FieldMayBeFinal", "RedundantFieldInitialization"})
+        private volatile int state = ST_INIT;
+
+        /** 到期的第 0 层刻度，放入时间轮时计算 */
+        long expireTick;
+
+        WheelTimeout next;
+        WheelTimeout prev;
+
+        WheelBucket bucket;
+
+        WheelTimeout(HierarchicalWheelTimer timer, TimerTask task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Timer timer() {
+            return timer;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean cancel() {
+            // only update the state it will be removed from bucket on next tick.
+            if (!compareAndSetState(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        void remove() {
+            WheelBucket bucket = this.bucket;
+            if (bucket != null) {
+                bucket.remove(this);
+            }
+            // 还在待添加队列中的任务会在转移时被跳过，这里统一扣减
+            timer.pendingTimeouts.decrementAndGet();
+        }
+
+        public boolean compareAndSetState(int expected, int state) {
+            return STATE_UPDATER.compareAndSet(this, expected, state);
+        }
+
+        public int state() {
+            return state;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state() == ST_EXPIRED;
+        }
+
+        public void expire() {
+            if (!compareAndSetState(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.executor.execute(() -> {
+                try {
+                    task.run(this);
+                } catch (Throwable t) {
+                    log.warn("An exception was thrown by {}", TimerTask.class.getSimpleName(), t);
+                }
+            });
+        }
+
+        @Override
+        public String toString() {
+            final long currentTime = System.nanoTime();
+            long remaining = deadline - currentTime + timer.startTime;
+
+            StringBuilder buf = new StringBuilder(192)
+                    .append(this.getClass())
+                    .append('(')
+                    .append("deadline: ");
+            if (remaining > 0) {
+                buf.append(remaining)
+                        .append(" ns later");
+            } else if (remaining < 0) {
+                buf.append(-remaining)
+                        .append(" ns ago");
+            } else {
+                buf.append("now");
+            }
+
+            if (isCancelled()) {
+                buf.append(", cancelled");
+            }
+
+            return buf.append(", task: ")
+                    .append(task())
+                    .append(')')
+                    .toString();
+        }
+    }
+
+    /**
+     * 时间轮的桶结构，里面包含了一个双向链表用来存储定时任务
+     */
+    private static final class WheelBucket {
+        private WheelTimeout head;
+
+        private WheelTimeout tail;
+
+        /**
+         * 添加任务到该桶链表的最后
+         */
+        public void addTimeout(WheelTimeout timeout) {
+            assert timeout.bucket == null;
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 摘下整条链表（用于降级和到期处理），返回原链表头
+         */
+        public WheelTimeout detachAll() {
+            WheelTimeout first = head;
+            head = tail = null;
+            for (WheelTimeout t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            return first;
+        }
+
+        public void remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+
+            if (timeout == head) {
+                if (timeout == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * 将该桶中所有的任务从链表中移除并添加到参数的Set中
+         */
+        public void clearTimeouts(Set<Timeout> set) {
+            WheelTimeout timeout = detachAll();
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                if (!timeout.isExpired() && !timeout.isCancelled()) {
+                    set.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+}
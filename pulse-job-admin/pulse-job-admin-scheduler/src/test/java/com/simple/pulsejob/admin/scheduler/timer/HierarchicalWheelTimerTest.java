@@ -0,0 +1,132 @@
+package com.simple.pulsejob.admin.scheduler.timer;
+
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalWheelTimerTest {
+
+    /** 刻度 10ms，三层各 4 个刻度：第 0/1/2 层分别覆盖 40ms / 160ms / 640ms */
+    private static final long TICK_MILLIS = 10;
+    private static final int[] TICKS = {4, 4, 4};
+
+    /** 调度线程和 CI 机器的抖动余量 */
+    private static final long SLACK_MILLIS = 500;
+
+    private static HierarchicalWheelTimer newTimer(long maxPending) {
+        return new HierarchicalWheelTimer(new JNamedThreadFactory("wheel-timer-test", true),
+                TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS, maxPending, Runnable::run);
+    }
+
+    @Test
+    void maxRangeCoversAllLevels() {
+        assertEquals(640, newTimer(-1).maxRange(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void firesOnEachLevelAndBeyondRange() throws InterruptedException {
+        HierarchicalWheelTimer timer = newTimer(-1);
+        // 依次落在第 0、1、2 层，以及超出最高层范围（需要在最高层多转一圈）
+        long[] delays = {25, 120, 450, 1_000};
+        CountDownLatch fired = new CountDownLatch(delays.length);
+        List<long[]> results = new ArrayList<>();
+        for (long delay : delays) {
+            long[] result = {delay, -1};
+            results.add(result);
+            long start = System.nanoTime();
+            timer.newTimeout(timeout -> {
+                result[1] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS), "not all timeouts fired");
+        for (long[] result : results) {
+            long delay = result[0];
+            long elapsed = result[1];
+            assertTrue(elapsed >= delay - TICK_MILLIS, "fired too early: delay=" + delay + ", elapsed=" + elapsed);
+            assertTrue(elapsed <= delay + SLACK_MILLIS, "fired too late: delay=" + delay + ", elapsed=" + elapsed);
+        }
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void firesInDeadlineOrder() throws InterruptedException {
+        HierarchicalWheelTimer timer = newTimer(-1);
+        long[] delays = {300, 50, 600, 150};
+        CountDownLatch fired = new CountDownLatch(delays.length);
+        List<Long> order = new ArrayList<>();
+        for (long delay : delays) {
+            timer.newTimeout(timeout -> {
+                synchronized (order) {
+                    order.add(delay);
+                }
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(50L, 150L, 300L, 600L), order);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        HierarchicalWheelTimer timer = newTimer(-1);
+        AtomicBoolean cancelledFired = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+        // 取消一个高层的任务，它在降级时应被丢弃
+        Timeout cancelled = timer.newTimeout(timeout -> cancelledFired.set(true), 200, TimeUnit.MILLISECONDS);
+        timer.newTimeout(timeout -> later.countDown(), 400, TimeUnit.MILLISECONDS);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(cancelledFired.get());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void expiredTimeoutCannotBeCancelled() throws InterruptedException {
+        HierarchicalWheelTimer timer = newTimer(-1);
+        CountDownLatch fired = new CountDownLatch(1);
+        Timeout timeout = timer.newTimeout(t -> fired.countDown(), 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void rejectsBeyondMaxPending() {
+        HierarchicalWheelTimer timer = newTimer(2);
+        AtomicLong ran = new AtomicLong();
+        timer.newTimeout(timeout -> ran.incrementAndGet(), 10, TimeUnit.SECONDS);
+        timer.newTimeout(timeout -> ran.incrementAndGet(), 10, TimeUnit.SECONDS);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> timer.newTimeout(timeout -> ran.incrementAndGet(), 10, TimeUnit.SECONDS));
+        assertEquals(2, timer.pendingTimeouts());
+    }
+
+    @Test
+    void rejectsInvalidLevels() {
+        JNamedThreadFactory factory = new JNamedThreadFactory("wheel-timer-test", true);
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalWheelTimer(
+                factory, TICK_MILLIS, TimeUnit.MILLISECONDS, new int[0], -1, Runnable::run));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalWheelTimer(
+                factory, TICK_MILLIS, TimeUnit.MILLISECONDS, new int[]{4, 1}, -1, Runnable::run));
+    }
+}
@@ -1,13 +1,16 @@
 package com.simple.pulsejob.admin.autoconfigure;
 
 import com.simple.pulsejob.admin.scheduler.timer.HashedWheelTimer;
+import com.simple.pulsejob.admin.scheduler.timer.HierarchicalWheelTimer;
 import com.simple.pulsejob.admin.scheduler.timer.Timer;
 import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
+import com.simple.pulsejob.common.util.SnowflakeIdGenerator;
 import com.simple.pulsejob.serialization.hessian.HessianSerializer;
 import com.simple.pulsejob.serialization.java.JavaSerializer;
 import com.simple.pulsejob.transport.JAcceptor;
 import com.simple.pulsejob.transport.netty.JNettyTcpAcceptor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +21,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 @EnableConfigurationProperties(PulseJobAdminProperties.class)
@@ -43,6 +47,20 @@ public class PulseJobAdminConfiguration {
         return new HessianSerializer();
     }
 
+    /**
+     * 任务实例 ID 生成器
+     * 实例 ID 在本地生成，触发时无需等待数据库自增 ID
+     */
+    @Bean
+    public SnowflakeIdGenerator instanceIdGenerator() {
+        Integer workerId = properties.getWorkerId();
+        if (workerId == null || workerId < 0) {
+            workerId = SnowflakeIdGenerator.deriveWorkerId(properties.getHost() + ":" + properties.getPort());
+            log.info("未配置 pulse.job.admin.worker-id，按节点地址推导: workerId={}", workerId);
+        }
+        return new SnowflakeIdGenerator(workerId);
+    }
+
     /**
      * 任务调度线程池
      * 用于执行定时任务的调度逻辑
@@ -92,8 +110,8 @@ public class PulseJobAdminConfiguration {
     }
 
     /**
-     * 哈希时间轮定时器
-     * 用于高效处理大量定时任务
+     * 时间轮定时器
+     * 用于高效处理大量定时任务，type=hierarchical 时使用分层时间轮
      */
     @Bean
     public Timer hashedWheelTimer() {
@@ -106,6 +124,19 @@ public class PulseJobAdminConfiguration {
         // 创建线程工厂
         JNamedThreadFactory threadFactory = new JNamedThreadFactory(config.getThreadNamePrefix());
 
+        if ("hierarchical".equalsIgnoreCase(config.getType())) {
+            HierarchicalWheelTimer timer = new HierarchicalWheelTimer(
+                threadFactory,
+                config.getTickDuration(),
+                timeUnit,
+                config.getTicksPerLevel(),
+                config.getMaxPendingTimeouts(),
+                jobSchedulerExecutor()
+            );
+            timer.start();
+            return timer;
+        }
+
         // 创建时间轮定时器
         HashedWheelTimer timer = new HashedWheelTimer(
             threadFactory,
@@ -14,6 +14,11 @@ public class PulseJobAdminProperties {
 
     private Integer port = 10410;
 
+    /**
+     * 实例 ID 生成器的 workerId（0~1023），多节点部署时每个节点必须不同；-1 表示按 host:port 和进程号推导
+     */
+    private Integer workerId = -1;
+
     /**
      * 线程池配置
      */
@@ -120,6 +125,11 @@ public class PulseJobAdminProperties {
     @Data
     public static class HashedWheelTimer {
         
+        /**
+         * 时间轮类型：hashed-单层哈希时间轮，hierarchical-分层时间轮（任意延迟都可常驻内存）
+         */
+        private String type = "hashed";
+        
         /**
          * 时间轮刻度间隔（毫秒）
          */
@@ -135,6 +145,11 @@ public class PulseJobAdminProperties {
          */
         private int ticksPerWheel = 512;
         
+        /**
+         * 分层时间轮各层刻度数量（由低到高），刻度为 1 秒时依次为秒/分/时/天
+         */
+        private int[] ticksPerLevel = {60, 60, 24, 366};
+        
         /**
          * 最大等待任务数，-1表示无限制
          */
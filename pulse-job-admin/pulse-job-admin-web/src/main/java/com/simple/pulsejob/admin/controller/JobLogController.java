@@ -1,9 +1,13 @@
 package com.simple.pulsejob.admin.controller;
 
+import com.simple.pulsejob.admin.business.log.file.FileLogReader;
 import com.simple.pulsejob.admin.business.service.IJobLogService;
+import com.simple.pulsejob.admin.common.model.base.PageResult;
 import com.simple.pulsejob.admin.common.model.base.ResponseResult;
+import com.simple.pulsejob.admin.common.model.dto.LogSearchHitDTO;
 import com.simple.pulsejob.admin.common.model.entity.JobLog;
 import com.simple.pulsejob.admin.common.model.enums.LogLevelEnum;
+import com.simple.pulsejob.admin.common.model.param.LogSearchQuery;
 import com.simple.pulsejob.admin.scheduler.log.JobLogStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,15 +15,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 任务日志接口.
  * 
- * <p>提供日志查询、统计、清理等功能</p>
+ * <p>提供日志查询、搜索、统计、清理、下载等功能</p>
  */
 @Slf4j
 @RestController
@@ -29,6 +44,104 @@ public class JobLogController {
 
     private final IJobLogService jobLogService;
     private final JobLogStorageService jobLogStorageService;
+    private final FileLogReader fileLogReader;
 
+    /**
+     * 全文搜索文件日志，返回输出过匹配日志的实例.
+     *
+     * <p>空白分隔的条件同时满足，双引号内为短语，如 {@code ORD-2024-0001 "payment failed"}。</p>
+     */
+    @GetMapping("/search")
+    public ResponseResult<PageResult<LogSearchHitDTO>> searchLogs(
+            @RequestParam("q") String q,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "jobId", required = false) Integer jobId,
+            @RequestParam(value = "limit", defaultValue = "100") Integer limit) {
+        LogSearchQuery query = new LogSearchQuery();
+        query.setQuery(q);
+        query.setStartDate(startDate);
+        query.setEndDate(endDate);
+        query.setJobId(jobId);
+        query.setLimit(limit);
+        try {
+            return ResponseResult.ok(jobLogService.searchLogs(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseResult.badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * 下载实例的文件日志（流式输出，堆内存占用与日志大小无关）.
+     *
+     * <p>支持单个区间的 Range 请求（断点续传）；gzip=true 时整体压缩输出，不支持 Range。</p>
+     */
+    @GetMapping("/file/download")
+    public ResponseEntity<StreamingResponseBody> downloadFileLog(
+            @RequestParam("jobId") Integer jobId,
+            @RequestParam("instanceId") Long instanceId,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        if (!fileLogReader.exists(jobId, instanceId, day)) {
+            return ResponseEntity.notFound().build();
+        }
+        long size = fileLogReader.getFileSize(jobId, instanceId, day);
+        String fileName = "job-" + jobId + "-" + instanceId + "-" + day + ".log";
+
+        if (gzip) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, attachment(fileName + ".gz"))
+                    .contentType(MediaType.parseMediaType("application/gzip"))
+                    .body(out -> {
+                        GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                        fileLogReader.transferTo(jobId, instanceId, day, 0, size, Channels.newChannel(gzipOut));
+                        gzipOut.finish();
+                    });
+        }
+
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        if (range != null) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // 无法解析的 Range 忽略，返回完整内容
+                ranges = List.of();
+            }
+            // 多个区间不支持，返回完整内容
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    partial = true;
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                            .build();
+                }
+            }
+        }
+
+        long position = start;
+        long count = end - start + 1;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(fileName))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(count);
+        if (partial) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        return builder.body(out -> fileLogReader.transferTo(jobId, instanceId, day, position, count,
+                Channels.newChannel(out)));
+    }
+
+    private static String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
 }
 
@@ -2,8 +2,18 @@ package com.simple.pulsejob.admin.controller;
 
 import com.simple.pulsejob.admin.business.service.IJobTriggerService;
 import com.simple.pulsejob.admin.common.model.base.ResponseResult;
+import com.simple.pulsejob.admin.scheduler.CatchUpRateLimiter;
 import com.simple.pulsejob.admin.scheduler.CronJobScheduler;
+import com.simple.pulsejob.admin.scheduler.JobInstanceWriter;
 import com.simple.pulsejob.admin.scheduler.JobScheduler;
+import com.simple.pulsejob.admin.scheduler.NextExecuteTimeWriter;
+import com.simple.pulsejob.admin.scheduler.cache.JobInfoCache;
+import com.simple.pulsejob.admin.scheduler.future.DefaultInvokeFuture;
+import com.simple.pulsejob.admin.scheduler.future.LogHistoryBuffer;
+import com.simple.pulsejob.admin.scheduler.invoker.RunningJobRegistry;
+import com.simple.pulsejob.admin.scheduler.leader.LeaderElector;
+import com.simple.pulsejob.admin.scheduler.shard.JobShardManager;
+import com.simple.pulsejob.admin.scheduler.strategy.CronExpressionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +32,23 @@ public class JobSchedulerController {
     private final IJobTriggerService jobTriggerService;
 
     private final CronJobScheduler cronJobScheduler;
+
+    private final NextExecuteTimeWriter nextExecuteTimeWriter;
+
+    private final JobInstanceWriter jobInstanceWriter;
+
+    private final JobInfoCache jobInfoCache;
+
+    private final CronExpressionCache cronExpressionCache;
+
+    private final JobShardManager jobShardManager;
+
+    private final LeaderElector leaderElector;
+
+    private final RunningJobRegistry runningJobRegistry;
+
+    private final CatchUpRateLimiter catchUpRateLimiter;
+
     /**
      * 启动调度引擎
      */
@@ -186,6 +213,47 @@ public class JobSchedulerController {
         try {
             Map<String, Object> status = new HashMap<>();
             status.put("running", cronJobScheduler.isRunning());
+            status.put("mode", cronJobScheduler.getMode());
+            status.put("indexedCount", cronJobScheduler.getIndexedCount());
+            status.put("nextTimeFlushCount", nextExecuteTimeWriter.getFlushCount());
+            status.put("nextTimeFlushFailures", nextExecuteTimeWriter.getFailureCount());
+            status.put("nextTimeLastBatchSize", nextExecuteTimeWriter.getLastBatchSize());
+            status.put("nextTimeMaxBatchSize", nextExecuteTimeWriter.getMaxBatchSize());
+            status.put("nextTimeAvgBatchSize", nextExecuteTimeWriter.getAverageBatchSize());
+            status.put("nextTimeAvgFlushMillis", nextExecuteTimeWriter.getAverageFlushMillis());
+            status.put("nextTimeMaxFlushMillis", nextExecuteTimeWriter.getMaxFlushMillis());
+            status.put("instanceWriterPending", jobInstanceWriter.getPendingCount());
+            status.put("instanceWriterInserted", jobInstanceWriter.getInsertedRows());
+            status.put("instanceWriterTransitions", jobInstanceWriter.getTransitionCount());
+            status.put("instanceWriterMerged", jobInstanceWriter.getMergedCount());
+            status.put("instanceWriterUpdated", jobInstanceWriter.getUpdatedRows());
+            status.put("instanceWriterFailures", jobInstanceWriter.getFailureCount());
+            status.put("instanceWriterSyncFallbacks", jobInstanceWriter.getSyncFallbackCount());
+            status.put("instanceWriterMaxBatchSize", jobInstanceWriter.getMaxBatchSize());
+            status.put("invokeTimeoutPending", DefaultInvokeFuture.pendingTimeouts());
+            status.put("logHistoryBytes", LogHistoryBuffer.totalBytes());
+            status.put("blockRunningJobs", runningJobRegistry.getRunningJobCount());
+            status.put("blockDiscarded", runningJobRegistry.getDiscardedCount());
+            status.put("misfireCatchUps", catchUpRateLimiter.getReservedCount());
+            status.put("misfireCatchUpsDelayed", catchUpRateLimiter.getDelayedCount());
+            status.put("misfireCatchUpBacklogMillis", catchUpRateLimiter.getBacklogMillis());
+            status.put("jobCacheSize", jobInfoCache.size());
+            status.put("jobCacheHits", jobInfoCache.getHitCount());
+            status.put("jobCacheMisses", jobInfoCache.getMissCount());
+            status.put("jobCacheExpired", jobInfoCache.getExpiredCount());
+            status.put("jobCacheStaleLoads", jobInfoCache.getStaleLoadCount());
+            status.put("jobCacheInvalidations", jobInfoCache.getInvalidateCount());
+            status.put("jobCacheHitRate", jobInfoCache.getHitRate());
+            status.put("cronCacheSize", cronExpressionCache.size());
+            status.put("cronCacheHits", cronExpressionCache.getHitCount());
+            status.put("cronCacheMisses", cronExpressionCache.getMissCount());
+            status.put("clusterEnabled", jobShardManager.isEnabled());
+            status.put("clusterNodeId", jobShardManager.getNodeId());
+            status.put("clusterMembers", jobShardManager.getMembers());
+            status.put("leaderEnabled", leaderElector.isEnabled());
+            status.put("leader", leaderElector.isLeader());
+            status.put("leaderNodeId", leaderElector.getNodeId());
+            status.put("fencingToken", leaderElector.isEnabled() ? leaderElector.getFencingToken().getToken() : null);
             status.put("scheduledCount", cronJobScheduler.getScheduledCount());
             status.put("runningCount", cronJobScheduler.getRunningCount());
             return ResponseResult.ok(status);
@@ -1,6 +1,8 @@
 package com.simple.pulsejob.admin.websocket.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.simple.pulsejob.admin.websocket.message.WebSocketMessage;
 import com.simple.pulsejob.admin.websocket.session.WebSocketSessionManager;
 import lombok.RequiredArgsConstructor;
@@ -153,10 +155,10 @@ public class WebSocketBroadcastService {
         try {
             String topic = "job.log." + instanceId;
             
-            WebSocketMessage<Long> message = WebSocketMessage.<Long>builder()
+            WebSocketMessage<String> message = WebSocketMessage.<String>builder()
                     .type(WebSocketMessage.MessageType.LOG_STREAM)
                     .topic(topic)
-                    .data(instanceId)
+                    .data(String.valueOf(instanceId))
                     .build();
 
             String json = objectMapper.writeValueAsString(message);
@@ -175,7 +177,7 @@ public class WebSocketBroadcastService {
             String topic = "job.log." + instanceId;
             
             Map<String, Object> data = Map.of(
-                    "instanceId", instanceId,
+                    "instanceId", String.valueOf(instanceId),
                     "success", success,
                     "endTime", System.currentTimeMillis()
             );
@@ -234,7 +236,7 @@ public class WebSocketBroadcastService {
         try {
             Map<String, Object> data = Map.of(
                     "jobId", jobId,
-                    "instanceId", instanceId,
+                    "instanceId", String.valueOf(instanceId),
                     "triggerTime", System.currentTimeMillis()
             );
 
@@ -261,7 +263,7 @@ public class WebSocketBroadcastService {
         try {
             Map<String, Object> data = Map.of(
                     "jobId", jobId,
-                    "instanceId", instanceId,
+                    "instanceId", String.valueOf(instanceId),
                     "success", success,
                     "result", result != null ? result : "",
                     "completeTime", System.currentTimeMillis()
@@ -387,6 +389,8 @@ public class WebSocketBroadcastService {
     @lombok.AllArgsConstructor
     public static class JobLogDTO {
         private Long jobId;
+        /** 实例ID（雪花ID，序列化为字符串，避免前端丢失精度） */
+        @JsonSerialize(using = ToStringSerializer.class)
         private Long instanceId;
         private String content;
         private String level;
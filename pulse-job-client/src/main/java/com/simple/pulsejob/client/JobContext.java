@@ -92,6 +92,30 @@ public class JobContext {
         return message != null ? message.getTimeoutSeconds() : 0;
     }
 
+    /**
+     * 获取分片序号（从 0 开始），非分片调用时为 0
+     */
+    public int getShardIndex() {
+        MessageWrapper message = request.getMessage();
+        return message != null ? message.getShardIndex() : 0;
+    }
+
+    /**
+     * 获取分片总数，非分片调用时为 1
+     */
+    public int getShardTotal() {
+        MessageWrapper message = request.getMessage();
+        return message != null && message.getShardTotal() > 0 ? message.getShardTotal() : 1;
+    }
+
+    /**
+     * 是否分片调用
+     */
+    public boolean isSharding() {
+        MessageWrapper message = request.getMessage();
+        return message != null && message.getShardTotal() > 0;
+    }
+
     /**
      * 是否执行成功
      */
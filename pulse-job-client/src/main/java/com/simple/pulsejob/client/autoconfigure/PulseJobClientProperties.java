@@ -23,6 +23,11 @@ public class PulseJobClientProperties {
 
     private String serializerType;
 
+    /**
+     * 负载上报间隔（秒），执行器按此间隔向管理端上报工作线程数和排队任务数
+     */
+    private int loadReportInterval = 10;
+
     /**
      * 执行器配置
      */
@@ -66,6 +66,26 @@ public final class JobContextHolder {
         return ctx != null ? ctx.getJobId() : null;
     }
 
+    /**
+     * 获取当前分片序号.
+     *
+     * @return 分片序号（从 0 开始），无上下文或非分片调用时返回 0
+     */
+    public static int getShardIndex() {
+        JobContext ctx = CONTEXT.get();
+        return ctx != null ? ctx.getShardIndex() : 0;
+    }
+
+    /**
+     * 获取当前分片总数.
+     *
+     * @return 分片总数，无上下文或非分片调用时返回 1
+     */
+    public static int getShardTotal() {
+        JobContext ctx = CONTEXT.get();
+        return ctx != null ? ctx.getShardTotal() : 1;
+    }
+
     /**
      * 判断当前是否在任务上下文中.
      *
@@ -0,0 +1,215 @@
+package com.simple.pulsejob.client.processor;
+
+import com.simple.pulsejob.client.JobContext;
+import com.simple.pulsejob.client.processor.task.MessageTask;
+import com.simple.pulsejob.common.concurrent.executor.reject.RejectedRunnable;
+import com.simple.pulsejob.common.util.Maps;
+import com.simple.pulsejob.common.util.internal.logging.InternalLogger;
+import com.simple.pulsejob.common.util.internal.logging.InternalLoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 按任务执行阻塞处理策略（策略由管理端随请求下发）.
+ *
+ * <ul>
+ *   <li>SERIAL_EXECUTION：同一任务的调度串行执行，执行中到达的调度进入该任务的队列</li>
+ *   <li>DISCARD_LATER：同一任务有调度在执行或排队时，直接拒绝本次调度</li>
+ *   <li>COVER_EARLY：拒绝排队中的调度并中断正在执行的调度，本次排在最前</li>
+ * </ul>
+ *
+ * <p>每个任务一个槽位：队列 + 是否有线程负责执行（active）。入队时槽位空闲的线程负责执行，
+ * 执行完一个调度后队列里还有调度时，把下一个调度重新提交到线程池，工作线程不会因为排队而阻塞等待。
+ * 入队、覆盖和取出在槽位锁内完成（只保护几次队列操作，调度本身在锁外执行），
+ * 覆盖与入队并发时不会出现计数与队列不一致，也不会有两个线程同时执行同一槽位。</p>
+ *
+ * <p>槽位按任务ID区分（没有任务ID时按处理器名称），分片调用再按分片序号区分：管理端把故障节点的分片转移过来时，
+ * 它是另一个分片，不应排在本节点自己的分片后面或被当作重复调度拒绝。槽位创建后不移除。</p>
+ */
+final class BlockStrategyExecutor {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(BlockStrategyExecutor.class);
+
+    static final String SERIAL_EXECUTION = "SERIAL_EXECUTION";
+    static final String DISCARD_LATER = "DISCARD_LATER";
+    static final String COVER_EARLY = "COVER_EARLY";
+
+    private final ConcurrentMap<Object, Slot> slots = Maps.newConcurrentMap();
+
+    /** 提交排队中的下一个调度 */
+    private final Executor executor;
+
+    BlockStrategyExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 按阻塞策略执行或排队，未知策略直接执行
+     */
+    void execute(MessageTask task, JobContext context, String strategy) {
+        if (strategy == null) {
+            task.process(context);
+            return;
+        }
+        Slot slot = slot(context);
+        Entry entry = new Entry(task, context);
+        boolean start;
+        switch (strategy) {
+            case SERIAL_EXECUTION:
+                synchronized (slot) {
+                    slot.queue.offer(entry);
+                    start = slot.acquire();
+                }
+                break;
+            case DISCARD_LATER:
+                synchronized (slot) {
+                    start = slot.acquire();
+                    if (start) {
+                        slot.queue.offer(entry);
+                    }
+                }
+                if (!start) {
+                    task.discard("Job is still running, discarded by block strategy DISCARD_LATER");
+                    return;
+                }
+                break;
+            case COVER_EARLY:
+                List<Entry> covered = new ArrayList<>();
+                synchronized (slot) {
+                    Entry queued;
+                    while ((queued = slot.queue.poll()) != null) {
+                        covered.add(queued);
+                    }
+                    // 在锁内中断：runner 只在锁内清空，中断不会落到线程池里的下一个任务上
+                    Thread runner = slot.runner;
+                    if (runner != null) {
+                        logger.warn("Interrupting running job by block strategy COVER_EARLY: {}", context.getHandlerName());
+                        runner.interrupt();
+                    }
+                    slot.queue.offer(entry);
+                    start = slot.acquire();
+                }
+                for (Entry e : covered) {
+                    e.task.discard("Covered by a later trigger, discarded by block strategy COVER_EARLY");
+                }
+                break;
+            default:
+                task.process(context);
+                return;
+        }
+        if (start) {
+            drain(slot);
+        }
+    }
+
+    /**
+     * 执行队首的调度，之后还有排队的调度时交给线程池继续（调用方已通过 {@link Slot#acquire} 获得执行权）
+     */
+    private void drain(Slot slot) {
+        Entry entry;
+        synchronized (slot) {
+            entry = slot.queue.poll();
+            if (entry == null) {
+                slot.active = false;
+                return;
+            }
+            slot.runner = Thread.currentThread();
+        }
+        try {
+            entry.task.process(entry.context);
+        } finally {
+            synchronized (slot) {
+                slot.runner = null;
+            }
+            // 清除执行结束后才到达的中断，避免影响线程池里的下一个任务
+            Thread.interrupted();
+        }
+
+        boolean more;
+        synchronized (slot) {
+            more = !slot.queue.isEmpty();
+            if (!more) {
+                slot.active = false;
+            }
+        }
+        if (more) {
+            resubmit(slot);
+        }
+    }
+
+    private void resubmit(Slot slot) {
+        DrainTask next = new DrainTask(slot);
+        try {
+            executor.execute(next);
+        } catch (RejectedExecutionException e) {
+            // 线程池已满，排队的调度不能丢，在当前线程继续执行
+            next.run();
+        }
+    }
+
+    private Slot slot(JobContext context) {
+        Object key = context.getJobId() != null ? context.getJobId() : context.getHandlerName();
+        if (context.isSharding()) {
+            key = new ShardKey(key, context.getShardIndex());
+        }
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(key, k -> new Slot());
+        }
+        return slot;
+    }
+
+    private final class DrainTask implements RejectedRunnable {
+
+        private final Slot slot;
+
+        DrainTask(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void run() {
+            drain(slot);
+        }
+
+        @Override
+        public void rejected() {
+            run();
+        }
+    }
+
+    private static final class Slot {
+
+        /** 排队的调度（只在槽位锁内访问） */
+        final Queue<Entry> queue = new ArrayDeque<>();
+
+        /** 是否已有线程负责执行该槽位（执行中，或已重新提交到线程池） */
+        boolean active;
+
+        /** 正在执行的线程，COVER_EARLY 时中断 */
+        Thread runner;
+
+        /**
+         * 槽位空闲时获得执行权，需持有槽位锁
+         */
+        boolean acquire() {
+            if (active) {
+                return false;
+            }
+            active = true;
+            return true;
+        }
+    }
+
+    private record Entry(MessageTask task, JobContext context) {
+    }
+
+    private record ShardKey(Object job, int shardIndex) {
+    }
+}
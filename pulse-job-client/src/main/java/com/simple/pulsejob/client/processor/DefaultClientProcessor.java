@@ -11,6 +11,7 @@ import com.simple.pulsejob.client.registry.JobBeanDefinition;
 import com.simple.pulsejob.client.registry.JobBeanDefinitionLookupService;
 import com.simple.pulsejob.client.registry.JobBeanDefinitionRegistry;
 import com.simple.pulsejob.client.serialization.SerializerHolder;
+import com.simple.pulsejob.common.concurrent.JNamedThreadFactory;
 import com.simple.pulsejob.common.concurrent.executor.CloseableExecutor;
 import com.simple.pulsejob.common.util.StackTraceUtil;
 import com.simple.pulsejob.common.util.ThrowUtil;
@@ -22,6 +23,7 @@ import com.simple.pulsejob.transport.Status;
 import com.simple.pulsejob.transport.channel.JChannel;
 import com.simple.pulsejob.transport.channel.JFutureListener;
 import com.simple.pulsejob.transport.metadata.ExecutorKey;
+import com.simple.pulsejob.transport.metadata.ExecutorLoad;
 import com.simple.pulsejob.transport.metadata.ResultWrapper;
 import com.simple.pulsejob.transport.payload.JRequestPayload;
 import com.simple.pulsejob.transport.payload.JResponsePayload;
@@ -29,13 +31,17 @@ import com.simple.pulsejob.transport.payload.PayloadSerializer;
 import com.simple.pulsejob.transport.processor.ConnectorProcessor;
 import lombok.RequiredArgsConstructor;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 客户端消息处理器.
  *
  * <p>负责处理与 Admin 服务端的通信：</p>
  * <ul>
- *   <li>连接建立时自动注册执行器</li>
- *   <li>接收并处理任务执行请求</li>
+ *   <li>连接建立时自动注册执行器，并定期上报负载（工作线程数、排队任务数）</li>
+ *   <li>接收并处理任务执行请求，按任务的阻塞处理策略串行、丢弃或覆盖</li>
  *   <li>发送任务执行结果/异常</li>
  * </ul>
  */
@@ -51,9 +57,15 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
     private final PulseJobClientProperties clientProperties;
     private final JobLogSender jobLogSender;
 
+    /** 阻塞处理策略（排队的调度由线程池继续执行） */
+    private final BlockStrategyExecutor blockStrategyExecutor = new BlockStrategyExecutor(this::executeQueued);
+
     /** 当前活跃的 Channel */
     private volatile JChannel activeChannel;
 
+    /** 负载上报定时器（首次连接时启动） */
+    private volatile ScheduledExecutorService loadReporter;
+
     // ==================== ConnectorProcessor 实现 ====================
 
     @Override
@@ -67,6 +79,9 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
         this.activeChannel = channel;
         // 注册执行器
         sendRegisterExecutorRequest(channel);
+        // 注册后立即上报一次负载，之后定期上报
+        sendExecutorLoad(channel);
+        startLoadReporter();
         // 绑定日志发送通道
         jobLogSender.bindChannel(channel);
     }
@@ -101,6 +116,9 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
     @Override
     public void shutdown() {
         logger.info("DefaultClientProcessor shutting down...");
+        if (loadReporter != null) {
+            loadReporter.shutdownNow();
+        }
         if (executor != null) {
             executor.shutdown();
         }
@@ -122,6 +140,15 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
         return invoker.invoke(jobContext);
     }
 
+    /**
+     * 按阻塞处理策略执行任务（由 MessageTask 反序列化后调用）
+     *
+     * @param blockStrategy 管理端下发的阻塞处理策略，为 null 时直接执行
+     */
+    public void execute(MessageTask task, JobContext jobContext, String blockStrategy) {
+        blockStrategyExecutor.execute(task, jobContext, blockStrategy);
+    }
+
     /**
      * 处理请求异常（由 MessageTask 调用）
      */
@@ -131,6 +158,23 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
         doHandleException(channel, request.instanceId(), request.serializerCode(), status, cause, false);
     }
 
+    /**
+     * 回报调度开始执行（排队结束），管理端从此时开始计算执行超时
+     */
+    public void sendJobStarted(JChannel channel, JRequest request) {
+        SerializerType type = SerializerType.parse(request.serializerCode());
+        JResponsePayload response = PayloadSerializer.response()
+                .instanceId(request.instanceId())
+                .channel(channel)
+                .type(type != null ? type : SerializerType.JAVA)
+                .message(new ResultWrapper())
+                .messageCode(JProtocolHeader.JOB_STARTED)
+                .build();
+        response.status(Status.OK.value());
+
+        channel.write(response);
+    }
+
     /**
      * 检查是否已连接
      */
@@ -141,6 +185,14 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
 
     // ==================== 私有方法 ====================
 
+    private void executeQueued(Runnable task) {
+        if (executor != null) {
+            executor.execute(task);
+        } else {
+            task.run();
+        }
+    }
+
     /**
      * 发送注册执行器请求
      */
@@ -161,6 +213,43 @@ public class DefaultClientProcessor implements ConnectorProcessor, JobBeanDefini
                 executorKey.getExecutorName(), executorKey.getExecutorAddress());
     }
 
+    /**
+     * 上报执行器负载
+     */
+    private void sendExecutorLoad(JChannel channel) {
+        ExecutorLoad load = executor != null
+                ? new ExecutorLoad(executor.workers(), executor.queueDepth())
+                : new ExecutorLoad(1, 0);
+
+        JRequestPayload payload = PayloadSerializer.request()
+                .channel(channel)
+                .type(SerializerType.JAVA)
+                .message(load)
+                .messageCode(JProtocolHeader.EXECUTOR_LOAD)
+                .build();
+
+        channel.write(payload);
+    }
+
+    private synchronized void startLoadReporter() {
+        int interval = clientProperties.getLoadReportInterval();
+        if (loadReporter != null || interval <= 0) {
+            return;
+        }
+        loadReporter = Executors.newSingleThreadScheduledExecutor(
+                new JNamedThreadFactory("pulse-job-load-reporter", true));
+        loadReporter.scheduleWithFixedDelay(() -> {
+            JChannel channel = activeChannel;
+            if (channel != null && channel.isActive()) {
+                try {
+                    sendExecutorLoad(channel);
+                } catch (Throwable t) {
+                    logger.warn("Failed to report executor load: {}", t.getMessage());
+                }
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
     /**
      * 解析执行器业务地址
      * IP 和 Port 都可以单独配置，不配置则自动获取
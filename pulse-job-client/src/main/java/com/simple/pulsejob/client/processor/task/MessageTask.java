@@ -34,6 +34,7 @@ import java.util.concurrent.TimeoutException;
  * <p>负责：</p>
  * <ul>
  *   <li>反序列化请求消息</li>
+ *   <li>按阻塞处理策略执行、排队或拒绝</li>
  *   <li>调用对应的 Job 处理器</li>
  *   <li>序列化并发送响应</li>
  * </ul>
@@ -95,7 +96,7 @@ public class MessageTask implements RejectedRunnable {
             return;
         }
 
-        process(JobContext.of(channel, request, messageWrapper));
+        processor.execute(this, JobContext.of(channel, request, messageWrapper), messageWrapper.getBlockStrategy());
     }
 
     @Override
@@ -105,10 +106,23 @@ public class MessageTask implements RejectedRunnable {
                 new RuntimeException("Server busy, task rejected"));
     }
 
+    /**
+     * 按阻塞处理策略拒绝本次调度，回报管理端
+     */
+    public void discard(String reason) {
+        log.warn("Task discarded, instanceId: {}, reason: {}", request.instanceId(), reason);
+        processor.handleRequestException(channel, request, Status.DISCARDED, new IllegalStateException(reason));
+    }
+
     /**
      * 处理任务（带超时控制）
      */
-    private void process(JobContext jobContext) {
+    public void process(JobContext jobContext) {
+        MessageWrapper message = request.getMessage();
+        if (message != null && message.isAckStart()) {
+            processor.sendJobStarted(channel, request);
+        }
+
         int timeoutSeconds = jobContext.getTimeoutSeconds();
         
         if (timeoutSeconds > 0) {
@@ -168,7 +182,8 @@ public class MessageTask implements RejectedRunnable {
             }
             handleFail(cause);
         } catch (InterruptedException e) {
-            // 线程被中断
+            // 线程被中断（如被 COVER_EARLY 覆盖）
+            future.cancel(true);
             Thread.currentThread().interrupt();
             handleFail(e);
         }
@@ -6,4 +6,18 @@ public interface CloseableExecutor {
 
     void shutdown();
 
+    /**
+     * 工作线程数，未知时返回 0
+     */
+    default int workers() {
+        return 0;
+    }
+
+    /**
+     * 已提交、尚未执行完的任务数
+     */
+    default int queueDepth() {
+        return 0;
+    }
+
 }
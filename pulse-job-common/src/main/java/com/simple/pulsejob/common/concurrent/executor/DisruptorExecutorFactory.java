@@ -32,6 +32,16 @@ public class DisruptorExecutorFactory extends AbstractExecutorFactory {
                 logger.warn("DisruptorExecutorFactory#{} shutdown.", executor);
                 executor.shutdown();
             }
+
+            @Override
+            public int workers() {
+                return executor.workers();
+            }
+
+            @Override
+            public int queueDepth() {
+                return (int) Math.min(executor.pendingTasks(), Integer.MAX_VALUE);
+            }
         };
     }
 
@@ -38,6 +38,16 @@ public class ThreadPoolExecutorFactory extends AbstractExecutorFactory {
                 logger.warn("ThreadPoolExecutorFactory#{} shutdown.", executor);
                 executor.shutdownNow();
             }
+
+            @Override
+            public int workers() {
+                return Math.max(executor.getCorePoolSize(), executor.getPoolSize());
+            }
+
+            @Override
+            public int queueDepth() {
+                return executor.getQueue().size();
+            }
         };
     }
 
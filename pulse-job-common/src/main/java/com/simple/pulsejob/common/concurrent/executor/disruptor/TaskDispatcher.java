@@ -34,6 +34,7 @@ public class TaskDispatcher implements Dispatcher<Runnable>, Executor {
 
     private final Disruptor<MessageEvent<Runnable>> disruptor;
     private final ExecutorService reserveExecutor;
+    private final int numWorkers;
 
     public TaskDispatcher(int numWorkers, ThreadFactory threadFactory) {
         this(numWorkers, threadFactory, BUFFER_SIZE, 0, WaitStrategyType.BLOCKING_WAIT, null);
@@ -120,6 +121,7 @@ public class TaskDispatcher implements Dispatcher<Runnable>, Executor {
         }
         dr.start();
         disruptor = dr;
+        this.numWorkers = numWorkers;
     }
 
     @Override
@@ -139,6 +141,21 @@ public class TaskDispatcher implements Dispatcher<Runnable>, Executor {
         }
     }
 
+    /**
+     * 工作线程数
+     */
+    public int workers() {
+        return numWorkers;
+    }
+
+    /**
+     * RingBuffer 中尚未处理完的任务数
+     */
+    public long pendingTasks() {
+        RingBuffer<MessageEvent<Runnable>> ringBuffer = disruptor.getRingBuffer();
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
     @Override
     public void shutdown() {
         disruptor.shutdown();
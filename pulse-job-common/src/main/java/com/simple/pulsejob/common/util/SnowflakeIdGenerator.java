@@ -0,0 +1,78 @@
+package com.simple.pulsejob.common.util;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Snowflake 风格的全局唯一 ID 生成器, 无锁, 不访问数据库.
+ * <pre>
+ * | 1 bit 符号位(0) | 41 bit 毫秒时间戳(相对 EPOCH) | 10 bit workerId | 12 bit 毫秒内序号 |
+ * </pre>
+ *
+ * 与 {@link LongSequence} 一样利用对象继承的内存布局规则 padding 状态字段避免 false sharing,
+ * 状态为 (时间戳 << 12 | 序号), 每次 CAS 取 max(上一个值 + 1, 当前时间戳 << 12):
+ * <ul>
+ *     <li>同一毫秒内序号用尽时借用下一毫秒, 不自旋等待</li>
+ *     <li>时钟回拨时沿用上一个值继续递增, 进程内严格单调</li>
+ * </ul>
+ *
+ * 不同进程必须使用不同的 workerId; 进程重启时若时钟回拨超过重启耗时, 仍可能与重启前的 ID 重复.
+ */
+public class SnowflakeIdGenerator extends LongRhsPadding {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    private static final AtomicLongFieldUpdater<LongValue> updater = AtomicLongFieldUpdater.newUpdater(LongValue.class, "value");
+
+    private final int workerId;
+    private final long workerBits;
+
+    public SnowflakeIdGenerator(int workerId) {
+        Requires.requireTrue(workerId >= 0 && workerId <= MAX_WORKER_ID,
+                "workerId must be in [0, " + MAX_WORKER_ID + "]: " + workerId);
+        this.workerId = workerId;
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+    }
+
+    public long next() {
+        for (;;) {
+            long current = value;
+            long floor = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            long next = Math.max(current + 1, floor);
+            if (updater.compareAndSet(this, current, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | workerBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int workerId() {
+        return workerId;
+    }
+
+    /**
+     * ID 中记录的生成时间(毫秒)
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    public static int workerIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_WORKER_ID);
+    }
+
+    /**
+     * 由节点标识(如 host:port)和进程号推导 workerId, 仅用于未显式配置的场景, 多节点部署应显式配置以避免冲突
+     */
+    public static int deriveWorkerId(String nodeIdentity) {
+        int hash = (nodeIdentity + "@" + ProcessHandle.current().pid()).hashCode();
+        hash ^= hash >>> 16;
+        return hash & MAX_WORKER_ID;
+    }
+}
@@ -0,0 +1,90 @@
+package com.simple.pulsejob.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsAreStrictlyIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        long previous = generator.next();
+        // 超过单毫秒的 4096 个序号，覆盖借用下一毫秒的路径
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.next();
+            assertTrue(id > previous, "id must increase: " + previous + " -> " + id);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idCarriesWorkerIdAndTimestamp() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID);
+        long before = System.currentTimeMillis();
+        long id = generator.next();
+
+        assertTrue(id > 0);
+        assertEquals(SnowflakeIdGenerator.MAX_WORKER_ID, SnowflakeIdGenerator.workerIdOf(id));
+        long timestamp = SnowflakeIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1,
+                "timestamp out of range: " + timestamp);
+    }
+
+    @Test
+    void differentWorkersNeverCollide() {
+        SnowflakeIdGenerator a = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator b = new SnowflakeIdGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(a.next()));
+            assertTrue(ids.add(b.next()));
+        }
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIds() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int perThread = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.next());
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void rejectsWorkerIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+
+    @Test
+    void derivedWorkerIdIsInRange() {
+        int workerId = SnowflakeIdGenerator.deriveWorkerId("127.0.0.1:8080");
+        assertTrue(workerId >= 0 && workerId <= SnowflakeIdGenerator.MAX_WORKER_ID);
+    }
+}
@@ -0,0 +1,225 @@
+package com.simple.pulsejob.consistency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 一致性哈希环（不可变）.
+ *
+ * <p>每个节点在环上放置 virtualNodes 个虚拟节点，key 顺时针归属到第一个虚拟节点。
+ * 节点增减时只有相邻区间的 key 发生迁移，迁移量约为 1/N。</p>
+ *
+ * <p>虚拟节点位置按哈希值排序后存放在数组中，查找为一次二分，不产生任何对象。
+ * 单个节点的增减用 {@link #add}/{@link #remove} 在原数组上归并出新环，只计算变化节点的虚拟节点哈希，无需整体重排。</p>
+ */
+public final class ConsistentHashRing {
+
+    /** 默认每个节点的虚拟节点数 */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private static final ConsistentHashRing EMPTY =
+            new ConsistentHashRing(new long[0], new String[0], List.of(), DEFAULT_VIRTUAL_NODES);
+
+    /** 虚拟节点哈希值（升序） */
+    private final long[] hashes;
+
+    /** 与 hashes 一一对应的真实节点 */
+    private final String[] owners;
+
+    private final List<String> nodes;
+
+    private final int virtualNodes;
+
+    private ConsistentHashRing(long[] hashes, String[] owners, List<String> nodes, int virtualNodes) {
+        this.hashes = hashes;
+        this.owners = owners;
+        this.nodes = nodes;
+        this.virtualNodes = virtualNodes;
+    }
+
+    public static ConsistentHashRing empty() {
+        return EMPTY;
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodes) {
+        return of(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be greater than 0: " + virtualNodes);
+        }
+        // 排序去重，保证所有节点用同样的成员列表构建出同样的环
+        List<String> sorted = new ArrayList<>(new TreeSet<>(nodes));
+        if (sorted.isEmpty()) {
+            return virtualNodes == DEFAULT_VIRTUAL_NODES ? EMPTY
+                    : new ConsistentHashRing(new long[0], new String[0], List.of(), virtualNodes);
+        }
+
+        int size = sorted.size() * virtualNodes;
+        long[] points = new long[size];
+        int i = 0;
+        for (int n = 0; n < sorted.size(); n++) {
+            String node = sorted.get(n);
+            for (int v = 0; v < virtualNodes; v++) {
+                points[i++] = hash(node + "#" + v);
+            }
+        }
+
+        // 按哈希排序，同时保持 owner 对应关系
+        Integer[] order = new Integer[size];
+        for (int k = 0; k < size; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(points[a], points[b]));
+
+        long[] hashes = new long[size];
+        String[] owners = new String[size];
+        for (int k = 0; k < size; k++) {
+            hashes[k] = points[order[k]];
+            owners[k] = sorted.get(order[k] / virtualNodes);
+        }
+        return new ConsistentHashRing(hashes, owners, Collections.unmodifiableList(sorted), virtualNodes);
+    }
+
+    /**
+     * 加入一个节点，返回新环（节点已存在时返回自身）
+     *
+     * <p>只计算新节点的 virtualNodes 个哈希并排序，再与现有数组归并，复杂度 O(总虚拟节点数)。</p>
+     */
+    public ConsistentHashRing add(String node) {
+        int pos = Collections.binarySearch(nodes, node);
+        if (pos >= 0) {
+            return this;
+        }
+
+        long[] points = new long[virtualNodes];
+        for (int v = 0; v < virtualNodes; v++) {
+            points[v] = hash(node + "#" + v);
+        }
+        Arrays.sort(points);
+
+        int size = hashes.length + virtualNodes;
+        long[] mergedHashes = new long[size];
+        String[] mergedOwners = new String[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            if (j == virtualNodes || (i < hashes.length && hashes[i] <= points[j])) {
+                mergedHashes[k] = hashes[i];
+                mergedOwners[k] = owners[i++];
+            } else {
+                mergedHashes[k] = points[j++];
+                mergedOwners[k] = node;
+            }
+        }
+
+        List<String> newNodes = new ArrayList<>(nodes.size() + 1);
+        newNodes.addAll(nodes);
+        newNodes.add(-pos - 1, node);
+        return new ConsistentHashRing(mergedHashes, mergedOwners, Collections.unmodifiableList(newNodes), virtualNodes);
+    }
+
+    /**
+     * 移除一个节点，返回新环（节点不存在时返回自身）
+     */
+    public ConsistentHashRing remove(String node) {
+        int pos = Collections.binarySearch(nodes, node);
+        if (pos < 0) {
+            return this;
+        }
+
+        int size = hashes.length - virtualNodes;
+        long[] keptHashes = new long[size];
+        String[] keptOwners = new String[size];
+        int k = 0;
+        for (int i = 0; i < hashes.length && k < size; i++) {
+            if (!owners[i].equals(node)) {
+                keptHashes[k] = hashes[i];
+                keptOwners[k++] = owners[i];
+            }
+        }
+
+        List<String> newNodes = new ArrayList<>(nodes);
+        newNodes.remove(pos);
+        return new ConsistentHashRing(keptHashes, keptOwners, Collections.unmodifiableList(newNodes), virtualNodes);
+    }
+
+    /**
+     * 定位 key 所属的节点
+     *
+     * @return 环为空时返回 null
+     */
+    public String locate(long key) {
+        return lookup(mix(key));
+    }
+
+    /**
+     * 定位字符串 key 所属的节点
+     *
+     * @return 环为空时返回 null
+     */
+    public String locate(String key) {
+        return lookup(hash(key));
+    }
+
+    private String lookup(long hash) {
+        if (hashes.length == 0) {
+            return null;
+        }
+        int idx = Arrays.binarySearch(hashes, hash);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        if (idx == hashes.length) {
+            idx = 0;
+        }
+        return owners[idx];
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * 字符串哈希：FNV-1a 64 位后再做一次 mix，保证分布均匀
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 fmix64
+     */
+    static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashRing{nodes=" + nodes + ", virtualNodes=" + hashes.length + "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.simple.pulsejob.consistency;
+
+import java.util.Objects;
+
+/**
+ * 分片成员.
+ *
+ * <p>activeFrom 之前成员只是登记在册，不参与分片，其他成员在这段时间内完成任务交接；
+ * 所有节点按同一个时间点切换归属，避免切换时重复触发或漏触发。</p>
+ */
+public final class ShardMember {
+
+    private final String nodeId;
+
+    /** 开始参与分片的时间（epoch 毫秒） */
+    private final long activeFrom;
+
+    public ShardMember(String nodeId, long activeFrom) {
+        if (nodeId == null || nodeId.isEmpty()) {
+            throw new IllegalArgumentException("nodeId must not be empty");
+        }
+        this.nodeId = nodeId;
+        this.activeFrom = activeFrom;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getActiveFrom() {
+        return activeFrom;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShardMember that)) {
+            return false;
+        }
+        return activeFrom == that.activeFrom && nodeId.equals(that.nodeId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, activeFrom);
+    }
+
+    @Override
+    public String toString() {
+        return nodeId + "@" + activeFrom;
+    }
+}
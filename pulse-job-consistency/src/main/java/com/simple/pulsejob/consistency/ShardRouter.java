@@ -0,0 +1,126 @@
+package com.simple.pulsejob.consistency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 按时间生效的分片路由（不可变）.
+ *
+ * <p>根据成员的 activeFrom 预先构建若干个一致性哈希环：每个环对应一段时间内生效的成员集合。
+ * 查询归属时带上触发时间，同一次触发在所有节点上都会得到相同的归属，与各节点感知成员变化的先后无关。</p>
+ *
+ * <p>某个时间点没有任何生效成员时（例如所有老成员都已下线、新成员还在交接期），退化为全部成员参与分片。</p>
+ */
+public final class ShardRouter {
+
+    private static final ShardRouter EMPTY = new ShardRouter(List.of(), new long[0], new ConsistentHashRing[0],
+            ConsistentHashRing.empty());
+
+    private final List<ShardMember> members;
+
+    /** 各个环开始生效的时间（升序） */
+    private final long[] boundaries;
+
+    private final ConsistentHashRing[] rings;
+
+    /** 没有生效成员时使用的环 */
+    private final ConsistentHashRing fallback;
+
+    private ShardRouter(List<ShardMember> members, long[] boundaries, ConsistentHashRing[] rings,
+                        ConsistentHashRing fallback) {
+        this.members = members;
+        this.boundaries = boundaries;
+        this.rings = rings;
+        this.fallback = fallback;
+    }
+
+    public static ShardRouter empty() {
+        return EMPTY;
+    }
+
+    public static ShardRouter of(Collection<ShardMember> members) {
+        return of(members, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static ShardRouter of(Collection<ShardMember> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            return EMPTY;
+        }
+        List<ShardMember> sorted = new ArrayList<>(members);
+        sorted.sort(Comparator.comparingLong(ShardMember::getActiveFrom).thenComparing(ShardMember::getNodeId));
+
+        List<Long> boundaryList = new ArrayList<>();
+        List<ConsistentHashRing> ringList = new ArrayList<>();
+        Set<String> active = new TreeSet<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            ShardMember member = sorted.get(i);
+            active.add(member.getNodeId());
+            // 同一时间生效的成员合并为一个环
+            boolean lastOfBoundary = i == sorted.size() - 1
+                    || sorted.get(i + 1).getActiveFrom() != member.getActiveFrom();
+            if (lastOfBoundary) {
+                boundaryList.add(member.getActiveFrom());
+                ringList.add(ConsistentHashRing.of(active, virtualNodes));
+            }
+        }
+
+        long[] boundaries = new long[boundaryList.size()];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = boundaryList.get(i);
+        }
+        ConsistentHashRing[] rings = ringList.toArray(new ConsistentHashRing[0]);
+        return new ShardRouter(List.copyOf(sorted), boundaries, rings, rings[rings.length - 1]);
+    }
+
+    /**
+     * 查询 key 在指定时间的归属节点
+     *
+     * @param key        分片键（例如 jobId）
+     * @param timeMillis 触发时间（epoch 毫秒）
+     * @return 没有成员时返回 null
+     */
+    public String ownerOf(long key, long timeMillis) {
+        return ringAt(timeMillis).locate(key);
+    }
+
+    public boolean isOwner(String nodeId, long key, long timeMillis) {
+        return nodeId.equals(ownerOf(key, timeMillis));
+    }
+
+    /**
+     * 指定时间生效的哈希环
+     */
+    public ConsistentHashRing ringAt(long timeMillis) {
+        // 找到最后一个 <= timeMillis 的生效时间
+        int lo = 0;
+        int hi = boundaries.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (boundaries[mid] <= timeMillis) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 ? rings[found] : fallback;
+    }
+
+    public List<ShardMember> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ShardRouter{members=" + members + "}";
+    }
+}
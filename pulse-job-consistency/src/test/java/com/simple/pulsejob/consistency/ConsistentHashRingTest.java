@@ -0,0 +1,120 @@
+package com.simple.pulsejob.consistency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void emptyRingLocatesNothing() {
+        ConsistentHashRing ring = ConsistentHashRing.empty();
+        assertTrue(ring.isEmpty());
+        assertNull(ring.locate(1L));
+        assertNull(ring.locate("job-1"));
+        assertSame(ConsistentHashRing.empty(), ConsistentHashRing.of(List.of()));
+    }
+
+    @Test
+    void sameMembersBuildSameRingRegardlessOfOrder() {
+        ConsistentHashRing a = ConsistentHashRing.of(List.of("10.0.0.1:8080", "10.0.0.2:8080", "10.0.0.3:8080"));
+        ConsistentHashRing b = ConsistentHashRing.of(
+                List.of("10.0.0.3:8080", "10.0.0.1:8080", "10.0.0.2:8080", "10.0.0.1:8080"));
+
+        assertEquals(a.nodes(), b.nodes());
+        for (long key = 0; key < KEYS; key++) {
+            assertEquals(a.locate(key), b.locate(key));
+        }
+    }
+
+    @Test
+    void incrementalAddAndRemoveMatchFullRebuild() {
+        List<String> nodes = List.of("a:1", "b:1", "c:1", "d:1");
+        ConsistentHashRing incremental = ConsistentHashRing.empty();
+        for (String node : nodes) {
+            incremental = incremental.add(node);
+        }
+        ConsistentHashRing rebuilt = ConsistentHashRing.of(nodes);
+        assertEquals(rebuilt.nodes(), incremental.nodes());
+        for (long key = 0; key < KEYS; key++) {
+            assertEquals(rebuilt.locate(key), incremental.locate(key));
+        }
+
+        ConsistentHashRing removed = incremental.remove("b:1");
+        ConsistentHashRing rebuiltWithout = ConsistentHashRing.of(List.of("a:1", "c:1", "d:1"));
+        for (long key = 0; key < KEYS; key++) {
+            assertEquals(rebuiltWithout.locate(key), removed.locate(key));
+        }
+
+        assertSame(incremental, incremental.add("a:1"));
+        assertSame(incremental, incremental.remove("x:1"));
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("a:1", "b:1", "c:1", "d:1"));
+        ConsistentHashRing after = before.add("e:1");
+
+        int moved = 0;
+        for (long key = 0; key < KEYS; key++) {
+            String from = before.locate(key);
+            String to = after.locate(key);
+            if (!from.equals(to)) {
+                assertEquals("e:1", to, "key " + key + " moved between existing nodes");
+                moved++;
+            }
+        }
+        // 期望迁移约 1/5
+        double ratio = moved / (double) KEYS;
+        assertTrue(ratio > 0.12 && ratio < 0.28, "unexpected migration ratio: " + ratio);
+    }
+
+    @Test
+    void removingNodeOnlyMovesItsKeys() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("a:1", "b:1", "c:1", "d:1"));
+        ConsistentHashRing after = before.remove("c:1");
+
+        for (long key = 0; key < KEYS; key++) {
+            String from = before.locate(key);
+            if (!from.equals("c:1")) {
+                assertEquals(from, after.locate(key));
+            }
+        }
+    }
+
+    @Test
+    void keysAreSpreadEvenly() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            nodes.add("10.0.0." + i + ":8080");
+        }
+        ConsistentHashRing ring = ConsistentHashRing.of(nodes);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long key = 0; key < KEYS; key++) {
+            counts.merge(ring.locate(key), 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), counts.size());
+        double expected = KEYS / (double) nodes.size();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            double deviation = Math.abs(entry.getValue() - expected) / expected;
+            assertTrue(deviation < 0.3, entry.getKey() + " deviates by " + deviation);
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveVirtualNodes() {
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashRing.of(List.of("a:1"), 0));
+    }
+}
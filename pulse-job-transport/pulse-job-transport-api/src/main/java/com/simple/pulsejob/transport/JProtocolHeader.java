@@ -43,6 +43,8 @@ public class JProtocolHeader {
     public static final byte JOB_RESULT                 = 0x07;     // 任务执行结果
     public static final byte HEARTBEAT                  = 0x08;     // Heartbeat
     public static final byte JOB_BATCH_LOG_MESSAGE      = 0x09;     // 批量任务日志（高效批量传输）
+    public static final byte EXECUTOR_LOAD              = 0x0a;     // 执行器负载上报
+    public static final byte JOB_STARTED                = 0x0b;     // 任务开始执行（排队结束）
 
     private byte messageCode; // sign 低地址4位
 
@@ -37,6 +37,7 @@ public enum Status {
     SERVICE_UNEXPECTED_ERROR    ((byte) 0x53, "SERVICE_UNEXPECTED_ERROR"),  // 服务错误 - 服务执行意外出错
     APP_FLOW_CONTROL            ((byte) 0x54, "APP_FLOW_CONTROL"),          // 服务错误 - App级别服务限流
     PROVIDER_FLOW_CONTROL       ((byte) 0x55, "PROVIDER_FLOW_CONTROL"),     // 服务错误 - Provider级别服务限流
+    DISCARDED                   ((byte) 0x56, "DISCARDED"),                 // 服务错误 - 按阻塞处理策略丢弃, 未执行
     DESERIALIZATION_FAIL        ((byte) 0x60, "DESERIALIZATION_FAIL");      // 客户端反序列化错误
 
     Status(byte value, String description) {
@@ -0,0 +1,31 @@
+package com.simple.pulsejob.transport.metadata;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 执行器负载，注册后立即上报一次，之后按固定间隔上报.
+ *
+ * <p>管理端据此计算节点权重：工作线程越多权重越高，排队任务越多权重越低。</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorLoad implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3416528012446120127L;
+
+    /**
+     * 工作线程数（任务执行线程池的容量）
+     */
+    private int workerThreads;
+
+    /**
+     * 排队等待执行的任务数
+     */
+    private int queueDepth;
+}
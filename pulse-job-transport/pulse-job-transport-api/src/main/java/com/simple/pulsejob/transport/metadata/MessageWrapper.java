@@ -48,6 +48,18 @@ public class MessageWrapper implements Serializable {
     /** 执行超时时间（秒），0 表示不超时 */
     private int timeoutSeconds;
 
+    /** 分片序号（从 0 开始），仅分片分发时有效 */
+    private int shardIndex;
+
+    /** 分片总数，0 表示非分片调用 */
+    private int shardTotal;
+
+    /** 阻塞处理策略名称（SERIAL_EXECUTION、DISCARD_LATER、COVER_EARLY），为 null 时不限制并发 */
+    private String blockStrategy;
+
+    /** 开始执行时是否回报 JOB_STARTED（排队执行的调度由管理端从开始执行起计算超时） */
+    private boolean ackStart;
+
     public MessageWrapper(String handlerName) {
         this.handlerName = handlerName;
     }
@@ -167,6 +167,29 @@ public final class PayloadSerializer {
         return payload;
     }
 
+    /**
+     * 只序列化一次消息体，供多个请求共享（广播向多个节点发送同一消息）
+     *
+     * @see #createSharedRequest
+     */
+    public static <T> byte[] serializeShared(SerializerType type, T message) {
+        return get(type).writeObject(message);
+    }
+
+    /**
+     * 以共享的消息体创建 Request Payload，每个目标只有表头（instanceId 等）不同
+     *
+     * <p>消息体数组在所有请求间共享，发送后不得再修改。</p>
+     */
+    public static JRequestPayload createSharedRequest(long instanceId,
+                                                      SerializerType type,
+                                                      byte[] body,
+                                                      byte messageCode) {
+        JRequestPayload payload = new JRequestPayload(instanceId);
+        payload.bytes(get(type).code().value(), messageCode, body);
+        return payload;
+    }
+
     /**
      * 创建 Request Payload（使用默认序列化器）
      */
@@ -88,6 +88,7 @@ public class LowCopyProtocolDecoder extends ReplayingDecoder<LowCopyProtocolDeco
                         break;
                     // 请求类消息 -> JRequestPayload
                     case JProtocolHeader.REGISTER_EXECUTOR:
+                    case JProtocolHeader.EXECUTOR_LOAD:
                     case JProtocolHeader.TRIGGER_JOB:
                     case JProtocolHeader.JOB_LOG_MESSAGE:
                     case JProtocolHeader.REQUEST: {
@@ -105,6 +106,7 @@ public class LowCopyProtocolDecoder extends ReplayingDecoder<LowCopyProtocolDeco
                     }
                     // 响应类消息 -> JResponsePayload
                     case JProtocolHeader.JOB_BATCH_LOG_MESSAGE:
+                    case JProtocolHeader.JOB_STARTED:
                     case JProtocolHeader.JOB_RESULT:
                     case JProtocolHeader.RESPONSE: {
                         int length = checkBodySize(header.bodySize());
@@ -7,6 +7,9 @@ import com.simple.pulsejob.transport.payload.JRequestPayload;
 import com.simple.pulsejob.transport.payload.JResponsePayload;
 import com.simple.pulsejob.transport.payload.PayloadHolder;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
@@ -48,7 +51,7 @@ public class LowCopyProtocolEncoder extends ChannelOutboundHandlerAdapter {
         try {
             if (msg instanceof PayloadHolder cast) {
 
-                buf = encode(cast);
+                buf = encode(ctx.alloc(), cast);
 
                 ctx.write(buf, promise);
 
@@ -65,9 +68,10 @@ public class LowCopyProtocolEncoder extends ChannelOutboundHandlerAdapter {
         }
     }
 
-    protected ByteBuf encode(PayloadHolder msg) throws Exception {
+    protected ByteBuf encode(ByteBufAllocator alloc, PayloadHolder msg) throws Exception {
         if (msg instanceof JRequestPayload) {
-            return doEncodeRequest((JRequestPayload) msg);
+            JRequestPayload request = (JRequestPayload) msg;
+            return request.outputBuf() != null ? doEncodeRequest(request) : doEncodeSharedRequest(alloc, request);
         } else if (msg instanceof JResponsePayload) {
             return doEncodeResponse((JResponsePayload) msg);
         } else {
@@ -100,6 +104,25 @@ public class LowCopyProtocolEncoder extends ChannelOutboundHandlerAdapter {
         return byteBuf;
     }
 
+    /**
+     * 消息体为多个请求共享的 bytes（广播时只序列化一次）：单独分配表头，消息体直接包装共享数组，不拷贝
+     */
+    private ByteBuf doEncodeSharedRequest(ByteBufAllocator alloc, JRequestPayload request) {
+        byte sign = JProtocolHeader.toSign(request.serializerCode(), request.messageCode());
+        byte[] bytes = request.bytes();
+
+        ByteBuf header = alloc.buffer(JProtocolHeader.HEADER_SIZE)
+            .writeShort(JProtocolHeader.MAGIC)
+            .writeByte(sign)
+            .writeByte(0x00)
+            .writeLong(request.instanceId())
+            .writeInt(bytes.length);
+
+        CompositeByteBuf composite = alloc.compositeBuffer(2);
+        composite.addComponents(true, header, Unpooled.wrappedBuffer(bytes));
+        return composite;
+    }
+
     private ByteBuf doEncodeResponse(JResponsePayload response) {
         byte sign = JProtocolHeader.toSign(response.serializerCode(), response.messageCode());
         byte status = response.status();
@@ -80,6 +80,7 @@ public class ProtocolDecoder extends ReplayingDecoder<ProtocolDecoder.State> {
                     // 请求类消息 -> JRequestPayload
                     case JProtocolHeader.JOB_LOG_MESSAGE:
                     case JProtocolHeader.REGISTER_EXECUTOR:
+                    case JProtocolHeader.EXECUTOR_LOAD:
                     case JProtocolHeader.TRIGGER_JOB:
                     case JProtocolHeader.REQUEST: {
                         int length = checkBodySize(header.bodySize());
@@ -95,6 +96,7 @@ public class ProtocolDecoder extends ReplayingDecoder<ProtocolDecoder.State> {
                     }
                     // 响应类消息 -> JResponsePayload
                     case JProtocolHeader.JOB_BATCH_LOG_MESSAGE:
+                    case JProtocolHeader.JOB_STARTED:
                     case JProtocolHeader.JOB_RESULT:
                     case JProtocolHeader.RESPONSE: {
                         int length = checkBodySize(header.bodySize());
@@ -197,6 +197,8 @@ export function useExecutorStatus() {
 
 /**
  * 任务日志订阅
+ *
+ * @param {string} instanceId 实例ID（字符串形式的雪花ID，转成 Number 会丢失精度）
  */
 export function useJobLog(instanceId) {
   const logs = ref([])
@@ -208,7 +210,7 @@ export function useJobLog(instanceId) {
   onMounted(() => {
     if (!instanceId) return
     
-    const topic = `job.log.${instanceId}`
+    const topic = `job.log.${String(instanceId)}`
     
     // 订阅日志主题
     subscribe(topic, (message) => {